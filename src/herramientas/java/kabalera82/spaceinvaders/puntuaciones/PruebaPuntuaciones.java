@@ -0,0 +1,111 @@
+package kabalera82.spaceinvaders.puntuaciones;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import kabalera82.spaceinvaders.diagnostico.HistogramaLatencias;
+
+/**
+ * Prueba de carga sin interfaz gráfica de la {@link TablaPuntuaciones}.
+ *
+ * <p>Añade muchas partidas de jugadores al azar lo más rápido que admite la
+ * cola, midiendo lo que tarda cada {@link TablaPuntuaciones#registrar}; espera
+ * a que estén en disco e imprime partidas por segundo, {@code fsync} y
+ * compactaciones. Después mide la latencia de {@link TablaPuntuaciones#mejores}
+ * y {@link TablaPuntuaciones#mejorDe}, y cuánto tarda en volver a abrirse.</p>
+ *
+ * <h2>Uso</h2>
+ * <pre>{@code
+ * java -cp target/classes:... kabalera82.spaceinvaders.puntuaciones.PruebaPuntuaciones base partidas [jugadores]
+ * }</pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class PruebaPuntuaciones {
+
+    private static final int CONSULTAS = 1_000_000;
+    private static final int CALENTAMIENTO = 200_000;
+
+    /** Constructor privado: clase de utilidades, no instanciable. */
+    private PruebaPuntuaciones() {}
+
+    /**
+     * Ejecuta la prueba.
+     *
+     * @param args ruta base de la tabla, partidas a añadir y número de jugadores distintos.
+     * @throws IOException si falla el disco.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: PruebaPuntuaciones base partidas [jugadores]");
+            return;
+        }
+        int partidas = Integer.parseInt(args[1]);
+        int jugadores = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+        SplittableRandom rnd = new SplittableRandom(82);
+
+        long t0 = System.nanoTime();
+        TablaPuntuaciones tabla = new TablaPuntuaciones(Paths.get(args[0]));
+        System.out.printf(Locale.ROOT, "Abierta en %.1f ms con %d partidas%n",
+                (System.nanoTime() - t0) / 1e6, tabla.getPartidas());
+
+        HistogramaLatencias registrar = new HistogramaLatencias();
+        long esperas = 0;
+        t0 = System.nanoTime();
+        for (int i = 0; i < partidas; i++) {
+            String nombre = "jugador" + rnd.nextInt(jugadores);
+            int puntos = rnd.nextInt(100_000);
+            while (true) {
+                long t = System.nanoTime();
+                boolean ok = tabla.registrar(nombre, puntos, 1 + puntos / 5000);
+                if (ok) {
+                    registrar.registrar(System.nanoTime() - t);
+                    break;
+                }
+                esperas++; // cola llena: se espera al escritor
+                LockSupport.parkNanos(100_000);
+            }
+        }
+        tabla.sincronizar();
+        double s = (System.nanoTime() - t0) / 1e9;
+        System.out.printf(Locale.ROOT,
+                "%d partidas en %.2f s (%.0f/s) | %d fsync (%.0f partidas por fsync) | %d compactaciones"
+                        + " | registrar p50 %.2f p99 %.2f us | %d esperas por cola llena%n",
+                partidas, s, partidas / s, tabla.getSincronizaciones(),
+                (double) partidas / Math.max(1, tabla.getSincronizaciones()), tabla.getCompactaciones(),
+                registrar.percentil(50) / 1e3, registrar.percentil(99) / 1e3, esperas);
+
+        HistogramaLatencias mejores = new HistogramaLatencias();
+        HistogramaLatencias mejorDe = new HistogramaLatencias();
+        long control = 0;
+        for (int i = 0; i < CALENTAMIENTO + CONSULTAS; i++) {
+            long t = System.nanoTime();
+            List<Puntuacion> top = tabla.mejores(10);
+            long t1 = System.nanoTime();
+            Puntuacion p = tabla.mejorDe("jugador" + rnd.nextInt(jugadores));
+            long t2 = System.nanoTime();
+            control += top.size() + (p == null ? 0 : p.puntos);
+            if (i >= CALENTAMIENTO) {
+                mejores.registrar(t1 - t);
+                mejorDe.registrar(t2 - t1);
+            }
+        }
+        System.out.printf(Locale.ROOT,
+                "mejores(10) p50 %.2f p99 %.2f us | mejorDe p50 %.2f p99 %.2f us | %d partidas (control %d)%n",
+                mejores.percentil(50) / 1e3, mejores.percentil(99) / 1e3,
+                mejorDe.percentil(50) / 1e3, mejorDe.percentil(99) / 1e3, tabla.getPartidas(), control);
+        for (Puntuacion p : tabla.mejores(3)) System.out.println("  " + p);
+        tabla.close();
+
+        t0 = System.nanoTime();
+        try (TablaPuntuaciones otra = new TablaPuntuaciones(Paths.get(args[0]))) {
+            System.out.printf(Locale.ROOT, "Reabierta en %.1f ms con %d partidas%n",
+                    (System.nanoTime() - t0) / 1e6, otra.getPartidas());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package kabalera82.spaceinvaders.red;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Locale;
+
+import kabalera82.spaceinvaders.diagnostico.HistogramaLatencias;
+
+/**
+ * Generador de carga local para {@link ServidorEspectadores}.
+ *
+ * <p>Abre muchas conexiones desde un único hilo con un {@link Selector}, lee
+ * los frames de todas y mide la latencia de cada uno (marca del servidor
+ * frente a {@link System#nanoTime()}, válido en la misma máquina). Una parte
+ * de los espectadores puede ser lenta: sólo lee unos pocos KB por segundo,
+ * para comprobar que el servidor les descarta frames sin afectar al resto.
+ * El primer espectador decodifica los estados con {@link EstadoRed} para
+ * validar el formato.</p>
+ *
+ * <h2>Uso</h2>
+ * <pre>{@code
+ * java -cp target/classes:... kabalera82.spaceinvaders.red.CargaEspectadores 127.0.0.1 7778 500 [segundos] [lentos]
+ * }</pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class CargaEspectadores {
+
+    /** Bytes que lee un espectador lento cada segundo. */
+    private static final int LECTURA_LENTA = 4 * 1024;
+
+    /** Conexión simulada. */
+    private static final class Conexion {
+        final SocketChannel canal;
+        final boolean lenta;
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        long frames;
+
+        Conexion(SocketChannel canal, boolean lenta) {
+            this.canal = canal;
+            this.lenta = lenta;
+        }
+    }
+
+    /** Constructor privado: clase de utilidades, no instanciable. */
+    private CargaEspectadores() {}
+
+    /**
+     * Conecta los espectadores y publica las mediciones cada segundo.
+     *
+     * @param args {@code host puerto espectadores [segundos] [lentos]}.
+     * @throws IOException si falla la red.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Uso: CargaEspectadores <host> <puerto> <espectadores> [segundos] [lentos]");
+            System.exit(2);
+        }
+        InetSocketAddress servidor = new InetSocketAddress(args[0], Integer.parseInt(args[1]));
+        int total = Integer.parseInt(args[2]);
+        int segundos = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        int lentos = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+        Selector selector = Selector.open();
+        Conexion[] conexiones = new Conexion[total];
+        for (int i = 0; i < total; i++) {
+            SocketChannel c = SocketChannel.open(servidor);
+            c.configureBlocking(false);
+            c.setOption(StandardSocketOptions.SO_RCVBUF, 16 * 1024);
+            conexiones[i] = new Conexion(c, i >= total - lentos);
+            c.register(selector, conexiones[i].lenta ? 0 : SelectionKey.OP_READ, conexiones[i]);
+        }
+        System.out.println(total + " espectadores conectados (" + lentos + " lentos)");
+
+        HistogramaLatencias latencias = new HistogramaLatencias();
+        HistogramaLatencias latenciasLentos = new HistogramaLatencias();
+        EstadoRed validacion = new EstadoRed();
+        long inicio = System.nanoTime(), siguiente = inicio + 1_000_000_000L;
+        long fin = inicio + segundos * 1_000_000_000L;
+        long frames = 0, bytes = 0, framesAnteriores = 0, bytesAnteriores = 0;
+        int segundo = 0;
+        while (System.nanoTime() < fin) {
+            selector.select(50);
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey k = it.next();
+                it.remove();
+                Conexion c = (Conexion) k.attachment();
+                int leidos = leer(c, Integer.MAX_VALUE);
+                if (leidos < 0) {
+                    k.cancel();
+                    continue;
+                }
+                bytes += leidos;
+                frames += frames(c, latencias, c == conexiones[0] ? validacion : null);
+            }
+            long ahora = System.nanoTime();
+            if (ahora >= siguiente) {
+                for (Conexion c : conexiones) {
+                    if (!c.lenta || !c.canal.isOpen()) continue;
+                    int leidos = leer(c, LECTURA_LENTA);
+                    if (leidos > 0) bytes += leidos;
+                    frames += frames(c, latenciasLentos, null);
+                }
+                segundo++;
+                int abiertas = 0;
+                long framesRapidos = 0, framesLentos = 0;
+                for (Conexion c : conexiones) {
+                    if (c.canal.isOpen() && c.canal.isConnected()) abiertas++;
+                    if (c.lenta) framesLentos += c.frames; else framesRapidos += c.frames;
+                }
+                System.out.println(String.format(Locale.ROOT,
+                        "%3ds %5d abiertas | %7d frames/s (%.1f por espectador rápido, %.2f por lento en total)"
+                        + " | %6.2f MB/s | latencia p50 %.3f p99 %.3f max %.3f ms (lentos p50 %.0f ms) | tick %d",
+                        segundo, abiertas, frames - framesAnteriores,
+                        (double) framesRapidos / Math.max(1, total - lentos) / segundo,
+                        (double) framesLentos / Math.max(1, lentos),
+                        (bytes - bytesAnteriores) / 1e6,
+                        latencias.percentil(50) / 1e6, latencias.percentil(99) / 1e6,
+                        latencias.getMaximo() / 1e6, latenciasLentos.percentil(50) / 1e6,
+                        validacion.getTick()));
+                framesAnteriores = frames;
+                bytesAnteriores = bytes;
+                latencias.reiniciar();
+                latenciasLentos.reiniciar();
+                siguiente += 1_000_000_000L;
+            }
+        }
+        for (Conexion c : conexiones) c.canal.close();
+        selector.close();
+    }
+
+    private static int leer(Conexion c, int maximo) throws IOException {
+        ByteBuffer b = c.buffer;
+        if (!b.hasRemaining()) {
+            c.buffer = ByteBuffer.allocate(b.capacity() * 2);
+            b.flip();
+            c.buffer.put(b);
+            b = c.buffer;
+        }
+        int limite = b.limit();
+        if (b.remaining() > maximo) b.limit(b.position() + maximo);
+        try {
+            return c.canal.read(b);
+        } catch (IOException e) {
+            c.canal.close();
+            return -1;
+        } finally {
+            b.limit(limite);
+        }
+    }
+
+    /** Consume los frames completos del buffer de la conexión. */
+    private static int frames(Conexion c, HistogramaLatencias latencias, EstadoRed validacion) {
+        ByteBuffer b = c.buffer;
+        b.flip();
+        int n = 0;
+        long ahora = System.nanoTime();
+        while (b.remaining() >= 4 && b.remaining() >= 4 + b.getInt(b.position())) {
+            int len = b.getInt();
+            int inicio = b.position();
+            b.getLong(); // tick
+            latencias.registrar(ahora - b.getLong());
+            if (validacion != null) validacion.leer(b.slice().limit(len - 16));
+            b.position(inicio + len);
+            n++;
+        }
+        b.compact();
+        c.frames += n;
+        return n;
+    }
+}
@@ -0,0 +1,212 @@
+package kabalera82.spaceinvaders.red;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import kabalera82.spaceinvaders.diagnostico.HistogramaLatencias;
+import kabalera82.spaceinvaders.model.FormacionAliens;
+import kabalera82.spaceinvaders.model.Nave;
+import kabalera82.spaceinvaders.motor.Comando;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+import kabalera82.spaceinvaders.simulacion.BotJugador;
+
+/**
+ * Prueba sin interfaz gráfica de la partida a dos jugadores, en dos procesos.
+ *
+ * <p>El servidor ejecuta el motor a 60 ticks por segundo con un
+ * {@link BotJugador} en la primera nave; el cliente juega la segunda con un
+ * bot sencillo que apunta a un alien al azar. Cada segundo ambos imprimen el
+ * ancho de banda por cliente y el cliente, además, el tiempo de ida y vuelta
+ * y las correcciones de la predicción.</p>
+ *
+ * <p>El modo {@code espectadores} ejecuta la misma partida con un
+ * {@link ServidorEspectadores} e imprime cada segundo los frames enviados y
+ * descartados y la CPU del hilo del selector; la carga la genera
+ * {@link CargaEspectadores} desde otro proceso.</p>
+ *
+ * <h2>Uso</h2>
+ * <pre>{@code
+ * java -cp target/classes:... kabalera82.spaceinvaders.red.PruebaRed servidor 7777 [segundos]
+ * java -cp target/classes:... kabalera82.spaceinvaders.red.PruebaRed cliente 127.0.0.1 7777 [segundos]
+ * java -cp target/classes:... kabalera82.spaceinvaders.red.PruebaRed espectadores 7778 [segundos]
+ * }</pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class PruebaRed {
+
+    private static final double TICKS_POR_SEGUNDO = 60;
+
+    /** Espera entre lecturas del canal mientras llega el siguiente tick. */
+    private static final long SONDEO_NS = 100_000;
+
+    /** Constructor privado: clase de utilidades, no instanciable. */
+    private PruebaRed() {}
+
+    /**
+     * Arranca el servidor o el cliente de la prueba.
+     *
+     * @param args {@code servidor <puerto> [segundos]} o {@code cliente <host> <puerto> [segundos]}.
+     * @throws IOException si falla la red.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("servidor")) {
+            servidor(Integer.parseInt(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : 30);
+        } else if (args.length >= 2 && args[0].equals("espectadores")) {
+            espectadores(Integer.parseInt(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : 30);
+        } else if (args.length >= 3 && args[0].equals("cliente")) {
+            cliente(new InetSocketAddress(args[1], Integer.parseInt(args[2])),
+                    args.length > 3 ? Integer.parseInt(args[3]) : 30);
+        } else {
+            System.err.println("Uso: PruebaRed servidor <puerto> [segundos] | cliente <host> <puerto> [segundos]"
+                    + " | espectadores <puerto> [segundos]");
+            System.exit(2);
+        }
+    }
+
+    private static void servidor(int puerto, int segundos) throws IOException {
+        MotorJuego motor = new MotorJuego(TICKS_POR_SEGUNDO);
+        BotJugador bot = new BotJugador(1);
+        long pasoNs = Math.round(1e9 / TICKS_POR_SEGUNDO);
+        try (ServidorRed red = ServidorRed.conectar(motor, puerto)) {
+            System.out.println("Servidor en el puerto " + puerto + ", esperando al cliente...");
+            while (!red.hayCliente()) {
+                red.recibir();
+                LockSupport.parkNanos(1_000_000);
+            }
+            long inicio = System.nanoTime();
+            long enviados = 0, recibidos = 0, completos = 0, datagramas = 0;
+            for (long t = 1; t <= segundos * TICKS_POR_SEGUNDO && red.hayCliente(); t++) {
+                esperar(inicio + t * pasoNs, red::recibir);
+                if (motor.isGameOver()) motor.reiniciar();
+                bot.jugar(motor);
+                motor.tick();
+                if (t % (long) TICKS_POR_SEGUNDO == 0) {
+                    System.out.println(String.format(Locale.ROOT,
+                            "%3ds nivel %2d | al cliente %6.2f kB/s en %3d datagramas (media %4d B, %4.1f%% del estado completo)"
+                            + " | del cliente %5.2f kB/s | entradas pendientes %d",
+                            t / (long) TICKS_POR_SEGUNDO, motor.getNivel(),
+                            (red.getBytesEnviados() - enviados) / 1000.0,
+                            red.getDatagramasEnviados() - datagramas,
+                            (red.getBytesEnviados() - enviados) / Math.max(1, red.getDatagramasEnviados() - datagramas),
+                            100.0 * (red.getBytesEnviados() - enviados) / Math.max(1, red.getBytesEstadoCompleto() - completos),
+                            (red.getBytesRecibidos() - recibidos) / 1000.0,
+                            red.getEntradasPendientes()));
+                    enviados = red.getBytesEnviados();
+                    recibidos = red.getBytesRecibidos();
+                    completos = red.getBytesEstadoCompleto();
+                    datagramas = red.getDatagramasEnviados();
+                }
+            }
+            double s = (System.nanoTime() - inicio) / 1e9;
+            System.out.println(String.format(Locale.ROOT,
+                    "Total: al cliente %.2f kB/s, del cliente %.2f kB/s; compresión %.1f%% del estado completo",
+                    red.getBytesEnviados() / s / 1000, red.getBytesRecibidos() / s / 1000,
+                    100.0 * red.getBytesEnviados() / Math.max(1, red.getBytesEstadoCompleto())));
+        }
+    }
+
+    private static void cliente(InetSocketAddress servidor, int segundos) throws IOException {
+        SplittableRandom rnd = new SplittableRandom(2);
+        long pasoNs = Math.round(1e9 / TICKS_POR_SEGUNDO);
+        try (ClienteRed red = new ClienteRed(servidor, 2)) {
+            long inicio = System.nanoTime();
+            long enviados = 0, recibidos = 0, estados = 0;
+            int objetivo = -1;
+            for (long t = 1; t <= segundos * TICKS_POR_SEGUNDO && !red.isCerradoPorServidor(); t++) {
+                esperar(inicio + t * pasoNs, red::recibir);
+                EstadoRed e = red.getEstado();
+                Nave propia = e.getCompanero();
+                FormacionAliens aliens = e.getAliens();
+                if (propia != null && aliens.getVivos() > 0) {
+                    if (objetivo < 0 || !aliens.estaVivo(objetivo) || rnd.nextInt(120) == 0) {
+                        objetivo = aliens.getIdVivo(rnd.nextInt(aliens.getVivos()));
+                    }
+                    double diferencia = aliens.getX(objetivo) + aliens.getAncho() / 2.0
+                            - (propia.getMinX() + propia.getMaxX()) / 2.0;
+                    if (diferencia < -MotorJuego.CASILLA / 2.0)     red.pulsar(Comando.IZQUIERDA);
+                    else if (diferencia > MotorJuego.CASILLA / 2.0) red.pulsar(Comando.DERECHA);
+                    red.pulsar(Comando.DISPARAR);
+                }
+                red.tick();
+                if (t % (long) TICKS_POR_SEGUNDO == 0) {
+                    HistogramaLatencias rtt = red.getRtt();
+                    System.out.println(String.format(Locale.ROOT,
+                            "%3ds tick servidor %6d | RTT p50 %6.3f p99 %6.3f max %6.3f ms"
+                            + " | bajada %6.2f kB/s subida %5.2f kB/s | %3d estados/s, %d descartados | correcciones %d",
+                            t / (long) TICKS_POR_SEGUNDO, e.getTick(),
+                            rtt.percentil(50) / 1e6, rtt.percentil(99) / 1e6, rtt.getMaximo() / 1e6,
+                            (red.getBytesRecibidos() - recibidos) / 1000.0,
+                            (red.getBytesEnviados() - enviados) / 1000.0,
+                            red.getEstadosRecibidos() - estados, red.getEstadosDescartados(),
+                            red.getCorrecciones()));
+                    enviados = red.getBytesEnviados();
+                    recibidos = red.getBytesRecibidos();
+                    estados = red.getEstadosRecibidos();
+                }
+            }
+            HistogramaLatencias rtt = red.getRtt();
+            double s = (System.nanoTime() - inicio) / 1e9;
+            System.out.println(String.format(Locale.ROOT,
+                    "Total: %d muestras de RTT, p50 %.3f p99 %.3f max %.3f ms; bajada %.2f kB/s, subida %.2f kB/s",
+                    rtt.getMuestras(), rtt.percentil(50) / 1e6, rtt.percentil(99) / 1e6,
+                    rtt.getMaximo() / 1e6, red.getBytesRecibidos() / s / 1000, red.getBytesEnviados() / s / 1000));
+        }
+    }
+
+    private static void espectadores(int puerto, int segundos) throws IOException {
+        MotorJuego motor = new MotorJuego(TICKS_POR_SEGUNDO);
+        BotJugador bot = new BotJugador(1);
+        long pasoNs = Math.round(1e9 / TICKS_POR_SEGUNDO);
+        try (ServidorEspectadores red = ServidorEspectadores.conectar(motor, puerto)) {
+            System.out.println("Retransmitiendo en el puerto " + puerto);
+            long inicio = System.nanoTime();
+            long enviados = 0, descartados = 0, bytes = 0, cpu = 0;
+            for (long t = 1; t <= segundos * TICKS_POR_SEGUNDO; t++) {
+                long espera = inicio + t * pasoNs - System.nanoTime();
+                if (espera > 0) LockSupport.parkNanos(espera);
+                if (motor.isGameOver()) motor.reiniciar();
+                bot.jugar(motor);
+                motor.tick();
+                if (t % (long) TICKS_POR_SEGUNDO == 0) {
+                    // Capacidad = frames entregados por segundo de CPU del selector,
+                    // a 60 frames por espectador: no depende de que el generador de
+                    // carga, en la misma máquina, consiga leerlo todo.
+                    double nucleo = (red.getCpuSelectorNs() - cpu) / 1e9;
+                    long frames = red.getFramesEnviados() - enviados;
+                    System.out.println(String.format(Locale.ROOT,
+                            "%3ds %5d espectadores | %7d frames/s enviados, %6d descartados | %6.2f MB/s"
+                            + " | selector %5.1f%% de un núcleo (~%d espectadores a %d fps por núcleo)"
+                            + " | %d desconectados por lentos",
+                            t / (long) TICKS_POR_SEGUNDO, red.getEspectadores(),
+                            frames, red.getFramesDescartados() - descartados,
+                            (red.getBytesEnviados() - bytes) / 1e6, nucleo * 100,
+                            nucleo > 0 ? Math.round(frames / nucleo / TICKS_POR_SEGUNDO) : 0,
+                            (long) TICKS_POR_SEGUNDO, red.getDesconectadosPorLentos()));
+                    enviados = red.getFramesEnviados();
+                    descartados = red.getFramesDescartados();
+                    bytes = red.getBytesEnviados();
+                    cpu = red.getCpuSelectorNs();
+                }
+            }
+        }
+    }
+
+    /** Lectura del canal que se repite mientras se espera al siguiente tick. */
+    private interface Sondeo {
+        void recibir() throws IOException;
+    }
+
+    private static void esperar(long hastaNs, Sondeo sondeo) throws IOException {
+        while (true) {
+            sondeo.recibir();
+            long falta = hastaNs - System.nanoTime();
+            if (falta <= 0) return;
+            LockSupport.parkNanos(Math.min(falta, SONDEO_NS));
+        }
+    }
+}
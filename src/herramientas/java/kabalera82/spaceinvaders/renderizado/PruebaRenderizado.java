@@ -0,0 +1,99 @@
+package kabalera82.spaceinvaders.renderizado;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+import kabalera82.spaceinvaders.diagnostico.HistogramaLatencias;
+import kabalera82.spaceinvaders.motor.InstantaneaRender;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+import kabalera82.spaceinvaders.simulacion.BotJugador;
+
+/**
+ * Graba y mide una partida jugada por un bot con el {@link RenderizadorSoftware},
+ * sin interfaz gráfica.
+ *
+ * <p>Juega los ticks indicados desde el nivel pedido (volviendo a empezar si
+ * pierde), dibuja cada tick y mide lo que tarda cada frame. Si se da un
+ * directorio, guarda en él uno de cada {@code cada} frames como
+ * {@code frame_000000.png}. Imprime frames por segundo y percentiles.</p>
+ *
+ * <h2>Uso</h2>
+ * <pre>{@code
+ * java -Djava.awt.headless=true -cp target/classes:... \
+ *     kabalera82.spaceinvaders.renderizado.PruebaRenderizado ticks [nivel] [directorio cada]
+ * }</pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class PruebaRenderizado {
+
+    private static final int CALENTAMIENTO = 2000;
+
+    /** Constructor privado: clase de utilidades, no instanciable. */
+    private PruebaRenderizado() {}
+
+    /**
+     * Ejecuta la prueba.
+     *
+     * @param args ticks a jugar, nivel inicial, y directorio y frecuencia de los PNG.
+     * @throws IOException si no se pueden escribir los PNG.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: PruebaRenderizado ticks [nivel] [directorio cada]");
+            return;
+        }
+        int ticks = Integer.parseInt(args[0]);
+        int nivel = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        Path directorio = args.length > 2 ? Paths.get(args[2]) : null;
+        int cada = args.length > 3 ? Integer.parseInt(args[3]) : 60;
+        if (directorio != null) Files.createDirectories(directorio);
+
+        long t0 = System.nanoTime();
+        RenderizadorSoftware renderizador = new RenderizadorSoftware();
+        System.out.printf(Locale.ROOT, "Preparado en %.1f ms%n", (System.nanoTime() - t0) / 1e6);
+
+        MotorJuego motor = new MotorJuego(60);
+        BotJugador bot = new BotJugador(82);
+        InstantaneaRender instantanea = new InstantaneaRender();
+        HistogramaLatencias frames = new HistogramaLatencias();
+        motor.irANivel(nivel);
+
+        long control = 0, pngs = 0, nanosPng = 0, nanosRender = 0;
+        for (int i = 0; i < CALENTAMIENTO + ticks; i++) {
+            if (motor.isGameOver()) {
+                motor.reiniciar();
+                motor.irANivel(nivel);
+            }
+            bot.jugar(motor);
+            motor.tick();
+            instantanea.copiar(motor);
+
+            long t = System.nanoTime();
+            renderizador.render(instantanea, 1.0);
+            long dt = System.nanoTime() - t;
+            control += renderizador.getPixeles()[(i * 7919) % renderizador.getPixeles().length];
+            if (i < CALENTAMIENTO) continue;
+            frames.registrar(dt);
+            nanosRender += dt;
+
+            if (directorio != null && (i - CALENTAMIENTO) % cada == 0) {
+                t = System.nanoTime();
+                renderizador.exportarPng(directorio.resolve(String.format(Locale.ROOT, "frame_%06d.png", i - CALENTAMIENTO)));
+                nanosPng += System.nanoTime() - t;
+                pngs++;
+            }
+        }
+        System.out.printf(Locale.ROOT,
+                "%d frames desde el nivel %d: %.0f fps | frame p50 %.3f p99 %.3f max %.3f ms (control %d)%n",
+                ticks, nivel, ticks / (nanosRender / 1e9), frames.percentil(50) / 1e6,
+                frames.percentil(99) / 1e6, frames.getMaximo() / 1e6, control);
+        if (pngs > 0) {
+            System.out.printf(Locale.ROOT, "%d PNG en %s, %.1f ms cada uno%n", pngs, directorio, nanosPng / 1e6 / pngs);
+        }
+    }
+}
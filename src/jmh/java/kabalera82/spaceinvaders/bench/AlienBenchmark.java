@@ -0,0 +1,80 @@
+package kabalera82.spaceinvaders.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kabalera82.spaceinvaders.assets.AlienSkin;
+import kabalera82.spaceinvaders.model.FormacionAliens;
+import kabalera82.spaceinvaders.motor.ConfiguracionJuego;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Banco de pruebas de la actualización de una oleada completa.
+ *
+ * <p>Mide {@link FormacionAliens#actualizar(double)} con la oleada del nivel
+ * indicado entera y con la mitad de los aliens destruidos al azar: el
+ * recorrido es sólo por la lista densa de vivos, así que el segundo caso
+ * debería costar en torno a la mitad.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlienBenchmark {
+
+    private static final double DT = 1.0 / 60;
+
+    @Param({"1", "10", "30"})
+    public int nivel;
+
+    private FormacionAliens completa;
+    private FormacionAliens mitad;
+
+    @Setup
+    public void preparar() {
+        ConfiguracionJuego cfg = ConfiguracionJuego.porDefecto();
+        completa = oleada(cfg);
+        mitad = oleada(cfg);
+        SplittableRandom rnd = new SplittableRandom(7);
+        while (mitad.getVivos() > mitad.getTotal() / 2) mitad.destruir(rnd.nextInt(mitad.getTotal()));
+        mitad.compactar();
+    }
+
+    private FormacionAliens oleada(ConfiguracionJuego cfg) {
+        double c = MotorJuego.CASILLA;
+        FormacionAliens f = new FormacionAliens(c, c, MotorJuego.ANCHO, MotorJuego.ALTO);
+        f.crearOleada(cfg.filas(nivel), cfg.columnas(nivel), c, c * 2, c * 2, c * 1.5, AlienSkin.values());
+        f.setVelocidad(cfg.getVelocidadAlien());
+        f.setDescenso(cfg.getDescensoAlien());
+        return f;
+    }
+
+    @Benchmark
+    public FormacionAliens oleadaCompleta() {
+        completa.actualizar(DT);
+        return completa;
+    }
+
+    @Benchmark
+    public FormacionAliens mitadDestruida() {
+        mitad.actualizar(DT);
+        return mitad;
+    }
+}
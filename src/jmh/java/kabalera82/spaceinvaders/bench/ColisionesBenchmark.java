@@ -0,0 +1,75 @@
+package kabalera82.spaceinvaders.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kabalera82.spaceinvaders.motor.InstantaneaJuego;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Banco de pruebas de la fase bala vs alien del {@link MotorJuego}.
+ *
+ * <p>Mide un tick real del motor con la rejilla de fase amplia activada o
+ * desactivada ({@link MotorJuego#setColisionesConRejilla(boolean)}), de modo
+ * que se ejecuta la misma pasada que en el juego y no una copia. El resto del
+ * tick es igual en ambos casos: la diferencia entre {@code rejilla=true} y
+ * {@code rejilla=false} es la de la pasada de colisiones. Antes de cada
+ * invocación se restaura el escenario desde una {@link InstantaneaJuego},
+ * porque los impactos destruyen aliens y balas.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColisionesBenchmark {
+
+    @Param({"1", "8", "14"})
+    public int nivel;
+
+    @Param({"8", "32", "128"})
+    public int balas;
+
+    @Param({"true", "false"})
+    public boolean rejilla;
+
+    private MotorJuego motor;
+    private final InstantaneaJuego escenario = new InstantaneaJuego();
+
+    @Setup(Level.Trial)
+    public void crear() {
+        motor = new MotorJuego(60);
+        motor.setColisionesConRejilla(rejilla);
+        motor.irANivel(nivel);
+        Escenarios.repartirBalas(motor, balas);
+        Escenarios.exigirJugable(motor, 1);
+        escenario.capturar(motor);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepararEscenario() {
+        escenario.restaurar(motor);
+    }
+
+    @Benchmark
+    public int tickConColisiones() {
+        motor.tick();
+        return motor.getPuntos();
+    }
+}
@@ -0,0 +1,66 @@
+package kabalera82.spaceinvaders.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.geometry.Rectangle2D;
+import kabalera82.spaceinvaders.model.Entidad;
+import kabalera82.spaceinvaders.model.Nave;
+
+/**
+ * Banco de pruebas de la caja de colisión de {@link Entidad}.
+ *
+ * <p>Compara construir un {@link Rectangle2D} por entidad y comprobación,
+ * como hacía el modelo cuando dependía de JavaFX, con
+ * {@link Entidad#intersects(Entidad)}, que no reserva memoria. Con
+ * {@code -prof gc} la diferencia se ve en {@code gc.alloc.rate.norm}.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntidadBenchmark {
+
+    private Entidad nave;
+    private Entidad disparo;
+
+    @Setup
+    public void preparar() {
+        nave = new Nave(480, 960, 64, 32, 1024, 1024);
+        disparo = new Nave(500, 950, 6.4, 25.6, 1024, 1024);
+    }
+
+    private static Rectangle2D rectangulo(Entidad e) {
+        return new Rectangle2D(e.getMinX(), e.getMinY(), e.getAncho(), e.getAlto());
+    }
+
+    @Benchmark
+    public Rectangle2D rectangulo() {
+        return rectangulo(nave);
+    }
+
+    @Benchmark
+    public boolean intersectsConRectangulos() {
+        return rectangulo(disparo).intersects(rectangulo(nave));
+    }
+
+    @Benchmark
+    public boolean intersectsSinReservas() {
+        return disparo.intersects(nave);
+    }
+}
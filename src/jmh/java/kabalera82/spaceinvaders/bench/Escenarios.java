@@ -0,0 +1,57 @@
+package kabalera82.spaceinvaders.bench;
+
+import kabalera82.spaceinvaders.model.FormacionAliens;
+import kabalera82.spaceinvaders.motor.InstantaneaJuego;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Utilidades para preparar escenarios reproducibles en los bancos de pruebas.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+final class Escenarios {
+
+    /** Constructor privado: clase de utilidades, no instanciable. */
+    private Escenarios() {}
+
+    /**
+     * Reparte {@code n} balas en una rejilla regular que cubre desde la
+     * formación hasta la nave, de modo que unas impacten y otras no.
+     *
+     * @param motor motor en el que insertar las balas.
+     * @param n número de balas.
+     */
+    static void repartirBalas(MotorJuego motor, int n) {
+        FormacionAliens aliens = motor.getAliens();
+        double yMin = aliens.getY(0);
+        double yMax = motor.getNave().getMinY() - MotorJuego.CASILLA;
+        for (int i = 0; i < n; i++) {
+            double x = (i * 97.0) % (MotorJuego.ANCHO - MotorJuego.CASILLA);
+            double y = yMin + ((i * 53.0) % Math.max(1, yMax - yMin));
+            motor.insertarDisparo(x, y);
+        }
+    }
+
+    /**
+     * Comprueba que el escenario se puede jugar: simula los ticks indicados y
+     * vuelve a dejar el motor como estaba. Desde el nivel 15 la oleada nace a
+     * la altura de la nave y la partida acaba en 3 ticks, así que medir ahí
+     * sólo mediría ticks que no hacen nada.
+     *
+     * @param motor motor ya preparado.
+     * @param ticks ticks que debe aguantar sin terminar la partida.
+     * @throws IllegalStateException si la partida termina antes.
+     */
+    static void exigirJugable(MotorJuego motor, int ticks) {
+        InstantaneaJuego antes = new InstantaneaJuego();
+        antes.capturar(motor);
+        for (int i = 0; i < ticks && !motor.isGameOver(); i++) motor.tick();
+        boolean terminada = motor.isGameOver();
+        antes.restaurar(motor);
+        if (terminada) {
+            throw new IllegalStateException("El nivel " + motor.getNivel()
+                    + " termina la partida en menos de " + ticks + " ticks: el banco no mediría nada");
+        }
+    }
+}
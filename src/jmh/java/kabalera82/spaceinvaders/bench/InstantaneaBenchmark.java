@@ -0,0 +1,61 @@
+package kabalera82.spaceinvaders.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kabalera82.spaceinvaders.motor.InstantaneaJuego;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Banco de pruebas de la captura y la restauración del estado completo con
+ * {@link InstantaneaJuego}, con la oleada del nivel indicado y 128 balas en vuelo.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstantaneaBenchmark {
+
+    @Param({"1", "10", "30"})
+    public int nivel;
+
+    private MotorJuego motor;
+    private final InstantaneaJuego instantanea = new InstantaneaJuego();
+
+    @Setup
+    public void preparar() {
+        motor = new MotorJuego(60);
+        motor.irANivel(nivel);
+        Escenarios.repartirBalas(motor, 128);
+        motor.tick();
+        instantanea.capturar(motor);
+    }
+
+    @Benchmark
+    public int capturar() {
+        instantanea.capturar(motor);
+        return instantanea.getBytes();
+    }
+
+    @Benchmark
+    public long restaurar() {
+        instantanea.restaurar(motor);
+        return motor.getTick();
+    }
+}
@@ -0,0 +1,74 @@
+package kabalera82.spaceinvaders.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kabalera82.spaceinvaders.motor.InstantaneaJuego;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Banco de pruebas del tick completo del {@link MotorJuego}
+ * (equivalente al antiguo {@code GameController.update}).
+ *
+ * <p>Cada invocación simula un segundo de juego (60 ticks) partiendo de una
+ * oleada recién creada del nivel indicado con {@code balas} proyectiles
+ * repartidos bajo la formación, para que el estado no se degrade entre
+ * mediciones. El escenario se prepara una vez y se restaura desde una
+ * {@link InstantaneaJuego} antes de cada invocación. Los niveles son los
+ * jugables más altos: desde el 15 la partida acaba en el primer segundo.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MotorBenchmark {
+
+    /** Ticks simulados por invocación. */
+    private static final int TICKS = 60;
+
+    @Param({"1", "8", "14"})
+    public int nivel;
+
+    @Param({"0", "32", "128"})
+    public int balas;
+
+    private MotorJuego motor;
+    private final InstantaneaJuego escenario = new InstantaneaJuego();
+
+    @Setup(Level.Trial)
+    public void crear() {
+        motor = new MotorJuego(60);
+        motor.irANivel(nivel);
+        Escenarios.repartirBalas(motor, balas);
+        Escenarios.exigirJugable(motor, TICKS);
+        escenario.capturar(motor);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepararEscenario() {
+        escenario.restaurar(motor);
+    }
+
+    @Benchmark
+    public int segundoDeJuego() {
+        for (int i = 0; i < TICKS; i++) motor.tick();
+        return motor.getPuntos();
+    }
+}
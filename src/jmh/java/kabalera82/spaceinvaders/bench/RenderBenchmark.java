@@ -0,0 +1,74 @@
+package kabalera82.spaceinvaders.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.application.Platform;
+import kabalera82.spaceinvaders.gui.PanelJuego;
+import kabalera82.spaceinvaders.motor.InstantaneaRender;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Banco de pruebas de {@link PanelJuego#render(InstantaneaRender, double)}
+ * sobre un lienzo fuera de pantalla.
+ *
+ * <p>Dibuja una {@link InstantaneaRender} capturada al preparar, igual que el
+ * bucle del juego, que recibe las instantáneas ya copiadas por el hilo de la
+ * simulación: la copia no forma parte de lo medido.</p>
+ *
+ * <p>El lienzo no se añade a ninguna escena: se mide el coste de generar los
+ * comandos de dibujo del frame, que es lo que paga el hilo de JavaFX en cada
+ * pulso. Cargar las imágenes exige arrancar el toolkit, por lo que este banco
+ * necesita una pantalla (o Monocle en modo headless).</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({"1", "10", "30"})
+    public int nivel;
+
+    @Param({"0", "32", "128"})
+    public int balas;
+
+    private PanelJuego panel;
+    private final InstantaneaRender instantanea = new InstantaneaRender();
+
+    @Setup
+    public void preparar() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException yaIniciado) {
+            // El toolkit ya estaba arrancado en este proceso
+        }
+        panel = new PanelJuego();
+        MotorJuego motor = new MotorJuego(60);
+        motor.irANivel(nivel);
+        Escenarios.repartirBalas(motor, balas);
+        instantanea.copiar(motor);
+    }
+
+    @Benchmark
+    public PanelJuego render() {
+        panel.render(instantanea, 0.5);
+        return panel;
+    }
+}
@@ -18,6 +18,8 @@ import javafx.scene.image.Image;
  *   <li>Uso de un {@link Map} interno como caché.</li>
  *   <li>Método {@link #get(String)} para cargar una única imagen.</li>
  *   <li>Método {@link #getFrames(String[])} para cargar secuencias de frames.</li>
+ *   <li>Método {@link #atlas()} con todos los sprites del juego, ya escalados,
+ *       en una sola textura.</li>
  *   <li>Lanza {@link IllegalArgumentException} si el recurso no existe.</li>
  * </ul>
  *
@@ -32,6 +34,9 @@ public final class Assets {
     /** Caché interna de imágenes ya cargadas. */
     private static final Map<String, Image> CACHE = new HashMap<>();
 
+    /** Atlas de sprites, construido la primera vez que se pide. */
+    private static AtlasSprites atlas;
+
     /** Constructor privado para evitar instanciación. */
     private Assets() {}
 
@@ -51,6 +56,21 @@ public final class Assets {
         });
     }
 
+    /**
+     * Devuelve el atlas con los sprites de aliens y nave, construyéndolo la
+     * primera vez.
+     *
+     * <p>Conviene pedirlo al crear la vista para que el primer frame no pague
+     * la carga.</p>
+     *
+     * @return el {@link AtlasSprites} compartido.
+     * @throws IllegalArgumentException si falta algún recurso.
+     */
+    public static AtlasSprites atlas() {
+        if (atlas == null) atlas = new AtlasSprites();
+        return atlas;
+    }
+
     /**
      * Carga una secuencia de imágenes desde un array de rutas.
      *
@@ -0,0 +1,148 @@
+package kabalera82.spaceinvaders.assets;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Textura única con todos los sprites del juego, ya escalados a su tamaño
+ * de dibujo.
+ *
+ * <p>Al construirse carga cada PNG directamente al tamaño con el que se
+ * dibuja (suavizado una sola vez, al cargar) y lo copia en una fila de una
+ * {@link WritableImage} compartida, dejando un borde transparente entre
+ * sprites para que el filtrado no mezcle vecinos. Dibujar un sprite es un
+ * {@code drawImage} con rectángulo de origen sobre esa imagen: todas las
+ * entidades usan la misma textura y, a su tamaño nativo, no se reescalan.</p>
+ *
+ * <p>Cada sprite se identifica por un índice de región que las entidades
+ * buscan una vez con {@link #region(String)} y guardan. Un recurso que no
+ * está en el atlas se dibuja como antes, con {@link Assets#get(String)}.</p>
+ *
+ * <h2>Contenido</h2>
+ * <ul>
+ *   <li>Todos los frames de cada {@link AlienSkin}, a {@value #CASILLA}×{@value #CASILLA}.</li>
+ *   <li>La nave ({@value #RUTA_NAVE}), a {@value #CASILLA}×2 de ancho por {@value #CASILLA} de alto.</li>
+ * </ul>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ * @see Assets#atlas()
+ */
+public final class AtlasSprites {
+
+    /** Lado de la casilla del tablero: tamaño de los aliens y alto de la nave. */
+    public static final int CASILLA = 32;
+
+    /** Recurso de la nave del jugador. */
+    public static final String RUTA_NAVE = "/imagenes/nave.png";
+
+    /** Píxeles transparentes alrededor de cada sprite. */
+    private static final int BORDE = 2;
+
+    /** Anchura máxima de una fila del atlas. */
+    private static final int ANCHO_FILA = 512;
+
+    private final WritableImage imagen;
+    private final Map<String, Integer> regiones = new HashMap<>();
+    private final double[] sx, sy, sw, sh;
+
+    /** Construye el atlas con todos los sprites del juego. */
+    AtlasSprites() {
+        AlienSkin[] skins = AlienSkin.values();
+        int total = 1;
+        for (AlienSkin s : skins) total += s.framePaths.length;
+        String[] rutas = new String[total];
+        int[] anchos = new int[total], altos = new int[total];
+        int n = 0;
+        for (AlienSkin s : skins) {
+            for (String ruta : s.framePaths) {
+                rutas[n] = ruta;
+                anchos[n] = CASILLA;
+                altos[n++] = CASILLA;
+            }
+        }
+        rutas[n] = RUTA_NAVE;
+        anchos[n] = CASILLA * 2;
+        altos[n] = CASILLA;
+
+        // Colocación por filas (todos los sprites miden lo mismo de alto)
+        sx = new double[total];
+        sy = new double[total];
+        sw = new double[total];
+        sh = new double[total];
+        int x = BORDE, y = BORDE, altoFila = 0, anchoAtlas = 0;
+        for (int i = 0; i < total; i++) {
+            if (x + anchos[i] + BORDE > ANCHO_FILA && x > BORDE) {
+                x = BORDE;
+                y += altoFila + 2 * BORDE;
+                altoFila = 0;
+            }
+            sx[i] = x;
+            sy[i] = y;
+            sw[i] = anchos[i];
+            sh[i] = altos[i];
+            x += anchos[i] + 2 * BORDE;
+            altoFila = Math.max(altoFila, altos[i]);
+            anchoAtlas = Math.max(anchoAtlas, x - BORDE);
+        }
+        this.imagen = new WritableImage(anchoAtlas, y + altoFila + BORDE);
+
+        for (int i = 0; i < total; i++) {
+            Image escalada = cargar(rutas[i], anchos[i], altos[i]);
+            imagen.getPixelWriter().setPixels((int) sx[i], (int) sy[i], anchos[i], altos[i],
+                    escalada.getPixelReader(), 0, 0);
+            regiones.put(rutas[i], i);
+        }
+    }
+
+    /** Carga un PNG ya escalado al tamaño pedido. */
+    private static Image cargar(String ruta, int ancho, int alto) {
+        try (InputStream is = Assets.class.getResourceAsStream(ruta)) {
+            if (is == null) throw new IllegalArgumentException("Recurso no encontrado: " + ruta);
+            Image img = new Image(is, ancho, alto, false, true);
+            if (img.isError()) throw new IllegalArgumentException("No se pudo cargar " + ruta, img.getException());
+            return img;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudo leer " + ruta, e);
+        }
+    }
+
+    /**
+     * Devuelve la región de un sprite.
+     *
+     * @param ruta ruta del recurso original (p. ej. {@link #RUTA_NAVE}).
+     * @return índice de región para {@link #dibujar}, o {@code -1} si el
+     *         sprite no está en el atlas.
+     */
+    public int region(String ruta) {
+        return regiones.getOrDefault(ruta, -1);
+    }
+
+    /**
+     * Dibuja un sprite del atlas. Si el tamaño coincide con el de la región,
+     * se copia sin reescalar.
+     *
+     * @param g contexto gráfico de destino.
+     * @param region índice devuelto por {@link #region(String)}.
+     * @param x posición X de destino.
+     * @param y posición Y de destino.
+     * @param ancho anchura de destino.
+     * @param alto altura de destino.
+     */
+    public void dibujar(GraphicsContext g, int region, double x, double y, double ancho, double alto) {
+        g.drawImage(imagen, sx[region], sy[region], sw[region], sh[region], x, y, ancho, alto);
+    }
+
+    /**
+     * Devuelve la textura completa del atlas.
+     *
+     * @return imagen con todos los sprites.
+     */
+    public Image getImagen() { return imagen; }
+}
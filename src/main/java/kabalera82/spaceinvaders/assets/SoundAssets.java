@@ -6,6 +6,7 @@ import java.util.Map;
 
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
+import kabalera82.spaceinvaders.diagnostico.EventoSonido;
 
 /**
  * Gestor centralizado de sonidos para el juego <b>Space Invaders</b>.
@@ -85,10 +86,17 @@ public final class SoundAssets {
      * @param volume volumen entre {@code 0.0} (silencio) y {@code 1.0} (máximo).
      */
     public static void playEffect(Sound sound, double volume) {
+        EventoSonido evento = new EventoSonido();
+        evento.begin();
         MediaPlayer effect = new MediaPlayer(getMedia(sound.path));
         effect.setVolume(volume);
         effect.setOnEndOfMedia(effect::dispose); // liberar recursos al terminar
         effect.play();
+        if (evento.shouldCommit()) {
+            evento.sonido = sound.name();
+            evento.volumen = volume;
+            evento.commit();
+        }
     }
 
     // === Métodos helper ====================================================
@@ -0,0 +1,54 @@
+package kabalera82.spaceinvaders.controlador;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import kabalera82.spaceinvaders.motor.Comando;
+
+/**
+ * Cola sin bloqueos de comandos de teclado, de un productor a un consumidor.
+ *
+ * <p>El hilo de JavaFX la llena al pulsar teclas y el hilo de la simulación
+ * la vacía al comienzo de cada tick. Es un anillo de bytes con un contador de
+ * escritos y otro de leídos; cada hilo sólo escribe el suyo, así que basta con
+ * publicarlos de forma ordenada ({@code lazySet}) y nadie espera ni reserva
+ * memoria. Si la cola está llena, la pulsación se descarta.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+final class ColaEntradas {
+
+    /** Capacidad, potencia de dos: muchos más comandos de los que caben en un tick. */
+    private static final int CAPACIDAD = 64;
+
+    private final byte[] anillo = new byte[CAPACIDAD];
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong leidos = new AtomicLong();
+
+    /**
+     * Añade un comando. Sólo desde el hilo productor.
+     *
+     * @param c comando pulsado.
+     * @return {@code false} si la cola estaba llena y se ha descartado.
+     */
+    boolean ofrecer(Comando c) {
+        long e = escritos.get();
+        if (e - leidos.get() >= CAPACIDAD) return false;
+        anillo[(int) e & (CAPACIDAD - 1)] = (byte) c.ordinal();
+        escritos.lazySet(e + 1);
+        return true;
+    }
+
+    /**
+     * Saca el comando más antiguo. Sólo desde el hilo consumidor.
+     *
+     * @return el comando, o {@code null} si la cola está vacía.
+     */
+    Comando sacar() {
+        long l = leidos.get();
+        if (l == escritos.get()) return null;
+        Comando c = Comando.desdeCodigo(anillo[(int) l & (CAPACIDAD - 1)]);
+        leidos.lazySet(l + 1);
+        return c;
+    }
+}
@@ -1,86 +1,151 @@
 package kabalera82.spaceinvaders.controlador;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
 
 import javafx.animation.AnimationTimer;
-import javafx.geometry.Rectangle2D;
 import javafx.scene.Node;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
-import javafx.scene.paint.Color;
-import kabalera82.spaceinvaders.assets.AlienSkin;
 import kabalera82.spaceinvaders.assets.SoundAssets;
+import kabalera82.spaceinvaders.diagnostico.FaseFrame;
+import kabalera82.spaceinvaders.diagnostico.InstantaneaFases;
+import kabalera82.spaceinvaders.diagnostico.MedidorFases;
 import kabalera82.spaceinvaders.gui.PanelJuego;
-import kabalera82.spaceinvaders.model.Alien;
-import kabalera82.spaceinvaders.model.Disparo;
-import kabalera82.spaceinvaders.model.Nave;
+import kabalera82.spaceinvaders.interfaces.IEventosJuego;
+import kabalera82.spaceinvaders.motor.BufferTriple;
+import kabalera82.spaceinvaders.motor.Comando;
+import kabalera82.spaceinvaders.motor.InstantaneaRender;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+import kabalera82.spaceinvaders.puntuaciones.TablaPuntuaciones;
+import kabalera82.spaceinvaders.red.ClienteRed;
+import kabalera82.spaceinvaders.red.EstadoRed;
+import kabalera82.spaceinvaders.red.ServidorRed;
+import kabalera82.spaceinvaders.repeticion.BufferRebobinado;
+import kabalera82.spaceinvaders.repeticion.EscritorTraza;
+import kabalera82.spaceinvaders.repeticion.GrabadorRepeticion;
 
 /**
  * Controlador principal del juego Space Invaders.
  *
- * <p>Se encarga de gestionar toda la lógica del juego, siguiendo el patrón MVC:</p>
+ * <p>Conecta JavaFX con el {@link MotorJuego}, siguiendo el patrón MVC:</p>
  * <ul>
- *   <li><b>Modelo:</b> gestiona el estado de {@link Nave}, {@link Alien} y {@link Disparo}.</li>
+ *   <li><b>Modelo:</b> el {@link MotorJuego} guarda el estado y aplica las reglas.</li>
  *   <li><b>Vista:</b> se comunica con {@link PanelJuego} para renderizar.</li>
- *   <li><b>Controlador:</b> procesa la entrada de teclado y aplica las reglas del juego.</li>
+ *   <li><b>Controlador:</b> traduce el teclado a {@link Comando}s y marca el ritmo.</li>
  * </ul>
  *
+ * <h2>Hilos</h2>
+ * <p>La simulación avanza en pasos fijos en un hilo propio
+ * ({@code simulacion}); el hilo de JavaFX sólo dibuja. Tras cada tick, la
+ * simulación copia lo que hay que dibujar en una {@link InstantaneaRender}
+ * preasignada y la publica por un {@link BufferTriple}; cada frame de
+ * {@link AnimationTimer} dibuja la última publicada, interpolando según el
+ * tiempo transcurrido desde entonces. Las teclas llegan a la simulación por
+ * una {@link ColaEntradas}, y los cambios de configuración con la partida en
+ * marcha (ritmo, rejilla, rebobinado) como tareas que la simulación ejecuta
+ * entre ticks. Ningún hilo espera nunca a un cerrojo del otro. Si la
+ * simulación falla, se registra el error y se muestra el fin de partida.</p>
+ *
+ * <p>Las opciones ({@link #grabarRepeticion}, {@link #trazar},
+ * {@link #guardarPuntuaciones}, la red...) deben configurarse antes de
+ * {@link #start()}.</p>
+ *
  * <h2>Responsabilidades</h2>
  * <ul>
- *   <li>Gestionar el bucle principal mediante {@link AnimationTimer}.</li>
- *   <li>Recoger y procesar las entradas de teclado (mover nave, disparar).</li>
- *   <li>Crear oleadas de enemigos.</li>
- *   <li>Actualizar posiciones de entidades y detectar colisiones.</li>
- *   <li>Aplicar reglas de vidas, puntuación, niveles y condiciones de fin de juego.</li>
+ *   <li>Gestionar el bucle de simulación de paso fijo y el de dibujado
+ *       mediante {@link AnimationTimer}, con renderizado interpolado.</li>
+ *   <li>Recoger las entradas de teclado y enviarlas al motor como comandos.</li>
+ *   <li>Reproducir los efectos de sonido de los sucesos del motor.</li>
  *   <li>Delegar el dibujado a {@link PanelJuego}.</li>
+ *   <li>Medir el coste de cada fase del frame en un {@link MedidorFases}
+ *       y mostrarlo en un overlay que se activa con <b>F3</b>.</li>
+ *   <li>Grabar la partida como repetición si se indica la propiedad
+ *       {@code spaceinvaders.grabar} con la ruta del fichero, y escribir una
+ *       traza por tick si se indica {@code spaceinvaders.traza}.</li>
+ *   <li>Guardar los últimos minutos de partida en un {@link BufferRebobinado}
+ *       (presupuesto en MB con {@code spaceinvaders.rebobinado.mb}) y volver
+ *       atrás con <b>Retroceso</b>.</li>
+ *   <li>Jugar a dos por red si se indica {@code spaceinvaders.red}:
+ *       {@code servidor:puerto} ejecuta la partida y juega con la primera
+ *       nave; {@code cliente:host:puerto} controla la segunda y dibuja el
+ *       estado que recibe.</li>
+ *   <li>Guardar la puntuación de cada partida en una {@link TablaPuntuaciones}
+ *       ({@code spaceinvaders.puntuaciones} con la ruta base, {@code no} para
+ *       desactivarla; el nombre se toma de {@code spaceinvaders.jugador}).</li>
  * </ul>
  *
  * @author  Kabalera82
  * @version 1.0
  */
-public class GameController {
-
-    // ====== Configuración del mundo ======
-    private static final int CASILLA  = 32;
-    private static final int FILAS    = 32;
-    private static final int COLUMNAS = 32;
-    private static final int ANCHO    = CASILLA * COLUMNAS;
-    private static final int ALTO     = CASILLA * FILAS;
+public class GameController implements IEventosJuego {
 
     // ====== Timer ======
     private final AnimationTimer loop;
-    private long lastNs = 0;
+
+    // ====== Hilo de simulación ======
+    private static final long MAX_RETRASO_NS = 250_000_000L; // evita la espiral de la muerte tras un parón
+    private static final System.Logger LOG = System.getLogger(GameController.class.getName());
+    private volatile Thread simulacion;
+    private volatile boolean activo = false;
+    private volatile double pasoFijo;
+
+    /** Órdenes para el hilo de la simulación, que las ejecuta entre ticks. */
+    private final ConcurrentLinkedQueue<Runnable> tareas = new ConcurrentLinkedQueue<>();
+    private final ColaEntradas entradas = new ColaEntradas();
+
+    /** Pide al hilo de la simulación que vuelva a tomar la hora como referencia. */
+    private boolean reiniciarReloj = false;
+
+    // ====== Instantáneas de dibujado ======
+    private final BufferTriple<InstantaneaRender> instantaneas = new BufferTriple<>(InstantaneaRender::new);
+
+    /** Sucesos acumulados, contados en el hilo de la simulación. */
+    private long disparos, explosiones, vidasPerdidas;
+
+    /** Sucesos ya sonados, vistos desde el hilo de JavaFX. */
+    private long disparosSonados, explosionesSonadas, vidasSonadas;
+
+    // ====== Diagnóstico ======
+    private static final int FRAMES_POR_INSTANTANEA = 30; // refresco del overlay
+    private final MedidorFases medidor = new MedidorFases();   // hilo de la simulación
+    private final MedidorFases medidorFx = new MedidorFases(); // hilo de JavaFX
+    private volatile boolean overlayVisible = false;
+    private volatile InstantaneaFases instantaneaSimulacion;
+    private int iteracionesDesdeInstantanea = 0;
+    private InstantaneaFases instantanea;
+    private int framesDesdeInstantanea = 0;
+
+    // ====== Repetición ======
+    private GrabadorRepeticion grabador;
+    private Path ficheroRepeticion;
+    private boolean repeticionGuardada = false;
+    private EscritorTraza traza;
+
+    // ====== Rebobinado ======
+    private static final int SEGUNDOS_ENTRE_CLAVES = 5;
+    private static final double SEGUNDOS_POR_PULSACION = 2.0;
+    private BufferRebobinado rebobinado;
+
+    // ====== Red ======
+    private ServidorRed servidorRed;
+    private ClienteRed clienteRed;
+
+    // ====== Récords ======
+    private TablaPuntuaciones puntuaciones;
+    private String jugador;
+    private boolean puntuacionRegistrada = false;
 
     // ====== Vista ======
     private final PanelJuego view;
 
-    // ====== Modelo / Estado ======
-    private Nave nave;
-    private final double naveW = CASILLA * 2;
-    private final double naveH = CASILLA;
-
-    private final List<Alien> aliens = new ArrayList<>();
-    private final double alienW = CASILLA, alienH = CASILLA;
-
-    private final int ALIENS_FILAS = 5, ALIENS_COLS = 10;
-    private final double ALIENS_MARGEN_X = CASILLA;
-    private final double ALIENS_MARGEN_SUP = CASILLA * 2;
-    private final double ALIENS_SEP_X = CASILLA * 2;
-    private final double ALIENS_SEP_Y = CASILLA * 1.5;
-
-    private final List<Disparo> disparos = new ArrayList<>();
-    private final double disparoW = CASILLA * 0.2;
-    private final double disparoH = CASILLA * 0.8;
-    private final double disparoVel = -200; // px/s hacia arriba
-    private long lastShotNs = 0;
-    private final long shotCooldownNs = 200_000_000; // 200 ms
-
-    private int vidas = 3;
-    private int puntos = 0;
-    private int nivel = 1;
-    private boolean gameOver = false;
+    // ====== Modelo ======
+    private final MotorJuego motor;
 
     /**
      * Construye un controlador asociado a la vista especificada.
@@ -89,191 +154,610 @@ public class GameController {
      */
     public GameController(PanelJuego view) {
         this.view = view;
-        initEstado();
+        this.motor = new MotorJuego(
+                Double.parseDouble(System.getProperty("spaceinvaders.tickrate", "60")));
+        this.motor.setEventos(this);
+        this.motor.setMedidor(medidor);
+        String grabar = System.getProperty("spaceinvaders.grabar");
+        if (grabar != null && !grabar.isBlank()) {
+            grabarRepeticion(Paths.get(grabar),
+                    Integer.parseInt(System.getProperty("spaceinvaders.grabar.intervalo", "60")));
+        }
+        String trazar = System.getProperty("spaceinvaders.traza");
+        if (trazar != null && !trazar.isBlank()) trazar(Paths.get(trazar));
+        String red = System.getProperty("spaceinvaders.red");
+        if (red != null && !red.isBlank()) conectarRed(red.trim());
+        String rutaPuntuaciones = System.getProperty("spaceinvaders.puntuaciones", "");
+        if (!rutaPuntuaciones.equals("no")) {
+            guardarPuntuaciones(rutaPuntuaciones.isBlank()
+                            ? Paths.get(System.getProperty("user.home"), ".spaceinvaders", "puntuaciones")
+                            : Paths.get(rutaPuntuaciones),
+                    System.getProperty("spaceinvaders.jugador", ""));
+        }
+        this.pasoFijo = motor.getPasoFijo();
+        // Rebobinar reescribe la historia y resimula ticks que los demás
+        // grabadores verían dos veces: no se activa si se graba una repetición,
+        // se escribe una traza o se sirve la partida por red
+        int presupuestoMb = Integer.getInteger("spaceinvaders.rebobinado.mb", 4);
+        if (grabador == null && traza == null && servidorRed == null && presupuestoMb > 0) {
+            this.rebobinado = new BufferRebobinado(motor,
+                    (int) Math.round(SEGUNDOS_ENTRE_CLAVES / pasoFijo), presupuestoMb << 20);
+        }
 
-        // Bucle de animación principal
+        // Bucle de dibujado: sólo lee la última instantánea publicada
         this.loop = new AnimationTimer() {
             @Override public void handle(long ahora) {
-                if (gameOver) {
-                    view.render(nave, aliens, disparos, vidas, puntos, true);
-                    return;
+                long t0 = System.nanoTime();
+                InstantaneaRender estado = instantaneas.leer();
+                sonar(estado);
+                long t1 = System.nanoTime();
+                medidorFx.sumar(FaseFrame.SONIDO, t1 - t0);
+
+                // Los estados de red llegan cada varios ticks: se dibujan tal cual
+                double alpha = 1.0;
+                if (clienteRed == null && !estado.isGameOver()) {
+                    alpha = (t1 - estado.getPublicadaNs()) / (pasoFijo * 1e9);
+                    alpha = Math.max(0.0, Math.min(1.0, alpha));
                 }
-                if (lastNs == 0) { lastNs = ahora; return; }
-                double dt = (ahora - lastNs) / 1_000_000_000.0;
-                lastNs = ahora;
-
-                update(dt);
-                view.render(nave, aliens, disparos, vidas, puntos, false);
+                view.render(estado, alpha);
+                if (overlayVisible) dibujarDiagnostico();
+                long t2 = System.nanoTime();
+                medidorFx.sumar(FaseFrame.RENDER, t2 - t1);
+                medidorFx.sumar(FaseFrame.FRAME, t2 - t0);
+                medidorFx.cerrarFrame();
             }
         };
     }
 
+    /** Suena cada tipo de suceso una vez por frame, si ha ocurrido desde el anterior. */
+    private void sonar(InstantaneaRender estado) {
+        if (estado.getDisparos() > disparosSonados) SoundAssets.playDisparo();
+        if (estado.getExplosiones() > explosionesSonadas) SoundAssets.playAlienExplosion();
+        if (estado.getVidasPerdidas() > vidasSonadas) SoundAssets.playNaveHit();
+        disparosSonados = estado.getDisparos();
+        explosionesSonadas = estado.getExplosiones();
+        vidasSonadas = estado.getVidasPerdidas();
+    }
+
+    private void dibujarDiagnostico() {
+        if (instantanea == null || ++framesDesdeInstantanea >= FRAMES_POR_INSTANTANEA) {
+            InstantaneaFases fx = medidorFx.instantanea();
+            InstantaneaFases sim = instantaneaSimulacion;
+            instantanea = sim == null ? fx
+                    : fx.combinar(sim, FaseFrame.UPDATE, FaseFrame.COLISIONES, FaseFrame.PUBLICAR);
+            framesDesdeInstantanea = 0;
+        }
+        view.dibujarDiagnostico(instantanea);
+    }
+
+    // ====== Simulación ======
+
+    /**
+     * Cuerpo del hilo de la simulación. Si un tick falla (un error de red del
+     * cliente, un fallo del motor...), el error se registra, se publica una
+     * última instantánea de fin de partida para que la pantalla no se quede
+     * congelada sin aviso y el hilo termina; {@link #stop()} sigue cerrando
+     * todo como siempre.
+     */
+    private void simular() {
+        try {
+            bucleSimulacion();
+        } catch (RuntimeException e) {
+            LOG.log(System.Logger.Level.ERROR, "La simulación se ha detenido por un error", e);
+            publicarFin();
+        }
+    }
+
+    /** Ticks de paso fijo al ritmo del reloj, mientras el controlador esté activo. */
+    private void bucleSimulacion() {
+        long siguiente = System.nanoTime();
+        while (activo) {
+            boolean cambios = ejecutarTareas();
+            if (reiniciarReloj) {
+                siguiente = System.nanoTime();
+                reiniciarReloj = false;
+            }
+            if (!motorActivo()) {
+                // Fin de partida: se espera a un rebobinado o al cierre
+                while (entradas.sacar() != null) { /* se descartan */ }
+                if (cambios) publicar();
+                LockSupport.parkNanos(pasoNs());
+                siguiente = System.nanoTime();
+                continue;
+            }
+
+            long ahora = System.nanoTime();
+            if (ahora < siguiente) {
+                if (cambios) publicar();
+                LockSupport.parkNanos(siguiente - ahora);
+                continue;
+            }
+            // Tras un parón sólo se recuperan MAX_RETRASO_NS de simulación
+            if (ahora - siguiente > MAX_RETRASO_NS) siguiente = ahora - MAX_RETRASO_NS;
+
+            long t0 = System.nanoTime(), nanosPublicar = 0;
+            while (siguiente <= ahora && motorActivo()) {
+                for (Comando c = entradas.sacar(); c != null; c = entradas.sacar()) {
+                    if (clienteRed != null) clienteRed.pulsar(c);
+                    else motor.encolar(c);
+                }
+                if (clienteRed != null) tickCliente();
+                else motor.tick();
+                siguiente += pasoNs();
+                long tp = System.nanoTime();
+                publicar();
+                nanosPublicar += System.nanoTime() - tp;
+            }
+            // Las colisiones y la copia de la instantánea ocurren dentro del
+            // bucle: se descuentan para que cada fase cuente sólo su propio tiempo.
+            medidor.sumar(FaseFrame.PUBLICAR, nanosPublicar);
+            medidor.sumar(FaseFrame.UPDATE, (System.nanoTime() - t0)
+                    - medidor.getAcumulado(FaseFrame.COLISIONES) - nanosPublicar);
+            medidor.cerrarFrame();
+            if (overlayVisible && ++iteracionesDesdeInstantanea >= FRAMES_POR_INSTANTANEA) {
+                instantaneaSimulacion = medidor.instantanea();
+                iteracionesDesdeInstantanea = 0;
+            }
+            if (clienteRed == null && motor.isGameOver()) alTerminar();
+        }
+    }
+
+    private boolean motorActivo() {
+        return clienteRed != null || !motor.isGameOver();
+    }
+
+    private long pasoNs() {
+        return Math.round(pasoFijo * 1e9);
+    }
+
+    /** Ejecuta las tareas pendientes; devuelve si había alguna. */
+    private boolean ejecutarTareas() {
+        boolean alguna = false;
+        for (Runnable r = tareas.poll(); r != null; r = tareas.poll()) {
+            r.run();
+            alguna = true;
+        }
+        return alguna;
+    }
+
+    /** Copia el estado en la instantánea de escritura y la publica. */
+    private void publicar() {
+        InstantaneaRender r = instantaneas.escritura();
+        copiarEstado(r);
+        r.setPublicadaNs(System.nanoTime());
+        instantaneas.publicar();
+    }
+
+    /**
+     * Publica la última instantánea tras un error, marcada como fin de partida.
+     * Si ni siquiera se puede copiar el estado, se marca la que hubiera.
+     */
+    private void publicarFin() {
+        InstantaneaRender r = instantaneas.escritura();
+        try {
+            copiarEstado(r);
+        } catch (RuntimeException e) {
+            LOG.log(System.Logger.Level.DEBUG, "No se pudo copiar el estado tras el error", e);
+        }
+        r.setGameOver(true);
+        r.setPublicadaNs(System.nanoTime());
+        instantaneas.publicar();
+    }
+
+    private void copiarEstado(InstantaneaRender r) {
+        if (clienteRed != null) {
+            EstadoRed e = clienteRed.getEstado();
+            r.copiar(e.getNave(), e.getCompanero(), e.getAliens(), e.getDisparos(),
+                    e.getVidas(), e.getPuntos(), e.getNivel(), e.isGameOver(), e.getTick());
+        } else {
+            r.copiar(motor);
+        }
+        r.setSucesos(disparos, explosiones, vidasPerdidas);
+    }
+
+    /** Guarda la repetición y la puntuación la primera vez que termina la partida. */
+    private void alTerminar() {
+        if (grabador != null && !repeticionGuardada) guardarRepeticion();
+        TablaPuntuaciones tabla = puntuaciones;
+        if (tabla != null && !puntuacionRegistrada) {
+            // Sólo encola: la escritura la hace el hilo de la tabla
+            tabla.registrar(jugador, motor.getPuntos(), motor.getNivel());
+            puntuacionRegistrada = true;
+        }
+    }
+
+    /**
+     * Ejecuta una orden en el hilo de la simulación, entre dos ticks; si aún
+     * no se ha arrancado, la ejecuta ya.
+     */
+    private void enSimulacion(Runnable orden) {
+        if (activo) tareas.add(orden);
+        else orden.run();
+    }
+
     // ====== Ciclo de vida ======
 
-    /** Inicia el bucle de animación del juego. */
-    public void start() { loop.start(); }
+    /** Arranca el hilo de la simulación y el bucle de dibujado. */
+    public void start() {
+        if (activo) return;
+        publicar(); // el primer frame ya tiene algo que dibujar
+        activo = true;
+        simulacion = new Thread(this::simular, "simulacion");
+        simulacion.setDaemon(true);
+        simulacion.start();
+        loop.start();
+    }
 
-    /** Detiene el bucle de animación del juego. */
-    public void stop()  { loop.stop();  }
+    /**
+     * Detiene la simulación y el dibujado, y guarda la repetición si se está grabando.
+     * Espera a que el hilo de la simulación termine su tick en curso.
+     */
+    public void stop() {
+        loop.stop();
+        detenerSimulacion();
+        if (grabador != null) guardarRepeticion();
+        if (traza != null) cerrarTraza();
+        if (puntuaciones != null) cerrarPuntuaciones();
+        try {
+            if (servidorRed != null) servidorRed.close();
+            if (clienteRed != null) clienteRed.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cerrar la conexión", e);
+        }
+    }
 
-    // ====== Input ======
+    /**
+     * Para el hilo de la simulación y espera a que termine su tick en curso.
+     * Después nadie más toca el motor ni los grabadores, así que ya se pueden
+     * guardar y cerrar. También lo usan los ganchos de cierre de la JVM, que
+     * corren mientras el hilo (de tipo daemon) sigue vivo.
+     */
+    private void detenerSimulacion() {
+        activo = false;
+        Thread t = simulacion;
+        if (t == null || t == Thread.currentThread()) return;
+        LockSupport.unpark(t);
+        try {
+            t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
     /**
-     * Enlaza los eventos de teclado al nodo indicado.
+     * Define la frecuencia fija de simulación.
      *
-     * @param node nodo sobre el que escuchar eventos (Canvas, Scene, etc.).
+     * <p>La simulación avanza siempre en pasos de {@code 1 / ticksPorSegundo}
+     * segundos, independientemente de la frecuencia de refresco de la
+     * pantalla. Por defecto se toma de la propiedad {@code spaceinvaders.tickrate}
+     * (60 ticks por segundo).</p>
+     *
+     * @param ticksPorSegundo número de ticks de simulación por segundo (mayor que cero).
+     * @throws IllegalArgumentException si el valor no es positivo.
      */
-    public void bindInput(Node node) {
-        node.setOnKeyPressed(this::onKeyPressed);
-        node.setOnKeyReleased(this::onKeyReleased);
-        node.setFocusTraversable(true);
-        node.requestFocus();
+    public void setTickRate(double ticksPorSegundo) {
+        if (!(ticksPorSegundo > 0)) throw new IllegalArgumentException("ticksPorSegundo debe ser > 0");
+        enSimulacion(() -> {
+            motor.setTickRate(ticksPorSegundo);
+            this.pasoFijo = motor.getPasoFijo();
+            this.reiniciarReloj = true;
+        });
     }
 
-    private void onKeyPressed(KeyEvent e) {
-        KeyCode c = e.getCode();
-        if (c == KeyCode.LEFT || c == KeyCode.A)  nave.moverPaso(-1);
-        if (c == KeyCode.RIGHT || c == KeyCode.D) nave.moverPaso(+1);
-        if (c == KeyCode.SPACE) disparar();
+    /**
+     * Activa o desactiva la rejilla de fase amplia en la detección bala vs alien.
+     *
+     * @param activa {@code true} para usar la rejilla; {@code false} para fuerza bruta.
+     * @see MotorJuego#setColisionesConRejilla(boolean)
+     */
+    public void setColisionesConRejilla(boolean activa) {
+        enSimulacion(() -> motor.setColisionesConRejilla(activa));
     }
 
-    private void onKeyReleased(KeyEvent e) {
-        // Punto de extensión: podría usarse para gestionar inputs continuos
+    /**
+     * Devuelve el motor de simulación que dirige este controlador.
+     *
+     * <p>Tras {@link #start()} el motor pertenece al hilo de la simulación:
+     * no es seguro consultarlo ni modificarlo desde otro hilo mientras la
+     * partida está en marcha.</p>
+     *
+     * @return el {@link MotorJuego} de la partida.
+     */
+    public MotorJuego getMotor() {
+        return motor;
     }
 
-    // ====== Estado inicial ======
-
-    /** Inicializa o reinicia el estado del juego. */
-    private void initEstado() {
-        nave = new Nave(
-                ANCHO / 2.0 - naveW / 2.0,
-                ALTO - naveH - CASILLA,
-                naveW, naveH, ANCHO, ALTO,
-                "/imagenes/nave.png"
-        );
-        nave.setPasoPx(CASILLA / 2.0);
-        crearOleadaAliens();
-        disparos.clear();
-        vidas = 3;
-        puntos = 0;
-        gameOver = false;
-        lastNs = 0;
-        lastShotNs = 0;
-    }
-
-    /** Genera una nueva oleada de aliens en función del nivel actual. */
-    private void crearOleadaAliens() {
-        aliens.clear();
-        AlienSkin[] skins = AlienSkin.values();
-
-        double startX = ALIENS_MARGEN_X;
-        double startY = ALIENS_MARGEN_SUP;
-
-        int filas = ALIENS_FILAS + (nivel - 1);
-        int cols  = ALIENS_COLS  + (nivel - 1);
-
-        for (int fila = 0; fila < filas; fila++) {
-            AlienSkin skinFila = skins[fila % skins.length];
-            for (int col = 0; col < cols; col++) {
-                double x = startX + col * ALIENS_SEP_X;
-                double y = startY + fila * ALIENS_SEP_Y;
-                Alien alien = new Alien(x, y, alienW, alienH, ANCHO, ALTO, skinFila);
-
-                double frameDuration = Math.max(0.05, 0.15 - (nivel - 1) * 0.01);
-                alien.setFrameDuration(frameDuration);
-
-                aliens.add(alien);
-            }
-        }
+    /**
+     * Empieza a grabar la partida como repetición.
+     *
+     * <p>Debe llamarse antes del primer tick. La repetición se escribe al
+     * terminar la partida, al llamar a {@link #stop()} y al cerrar la JVM.</p>
+     *
+     * @param fichero ruta del fichero {@code .sirp} de destino.
+     * @param intervaloResumen cada cuántos ticks se guarda un resumen del estado.
+     * @see kabalera82.spaceinvaders.repeticion.ReproductorRepeticion
+     */
+    public void grabarRepeticion(Path fichero, int intervaloResumen) {
+        quitarRebobinado();
+        this.grabador = new GrabadorRepeticion(motor, 0, intervaloResumen);
+        this.ficheroRepeticion = fichero;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            detenerSimulacion(); // guardar a mitad de un tick dejaría el final incoherente
+            guardarRepeticion();
+        }, "guardar-repeticion"));
     }
 
-    /** Dispara un proyectil desde la nave si el cooldown lo permite. */
-    private void disparar() {
-        long ahora = System.nanoTime();
-        if (ahora - lastShotNs < shotCooldownNs) return;
-        lastShotNs = ahora;
+    /**
+     * Empieza a escribir una traza por tick de la partida.
+     *
+     * <p>La escritura la hace un hilo propio sobre ficheros proyectados en
+     * memoria; el bucle del juego sólo copia unos bytes por tick y nunca
+     * espera. La traza se cierra en {@link #stop()} o al cerrar la JVM.</p>
+     *
+     * @param base ruta sin extensión de los ficheros {@code .traza} e {@code .idx}.
+     * @see kabalera82.spaceinvaders.repeticion.LectorTraza
+     */
+    public void trazar(Path base) {
+        quitarRebobinado();
+        this.traza = EscritorTraza.conectar(motor, base);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            detenerSimulacion(); // el hilo de la simulación recorre los grabadores en cada tick
+            cerrarTraza();
+        }, "cerrar-traza"));
+    }
 
-        Rectangle2D nb = nave.getBounds();
-        double x = nb.getMinX() + nb.getWidth() / 2.0 - (disparoW / 2.0);
-        double y = nb.getMinY() - disparoH;
-        disparos.add(new Disparo(x, y, disparoW, disparoH, ANCHO, ALTO, disparoVel, Color.YELLOW));
+    /**
+     * Guarda en una tabla de récords la puntuación de la partida al terminar.
+     *
+     * <p>Al acabar la partida sólo se encola el resultado: lo escribe el hilo
+     * de la tabla, así que el bucle del juego nunca espera al disco. Si se
+     * rebobina tras el fin de partida, cuenta sólo la primera vez. La tabla
+     * se cierra en {@link #stop()} o al cerrar la JVM.</p>
+     *
+     * @param base ruta sin extensión de los ficheros de la tabla.
+     * @param jugador nombre con el que se guardan las partidas; si está
+     *                vacío, el usuario del sistema.
+     * @see TablaPuntuaciones#mejores(int)
+     */
+    public void guardarPuntuaciones(Path base, String jugador) {
+        try {
+            this.puntuaciones = new TablaPuntuaciones(base);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir la tabla de puntuaciones " + base, e);
+        }
+        this.jugador = jugador == null || jugador.isBlank() ? System.getProperty("user.name") : jugador;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            detenerSimulacion(); // que la última partida quede encolada antes de cerrar
+            cerrarPuntuaciones();
+        }, "cerrar-puntuaciones"));
+    }
 
-        SoundAssets.playDisparo();
+    /**
+     * Devuelve la tabla de récords de la partida.
+     *
+     * @return la tabla, o {@code null} si está desactivada.
+     */
+    public TablaPuntuaciones getPuntuaciones() {
+        return puntuaciones;
     }
 
-    // ====== Update / Colisiones / Reglas ======
+    /**
+     * Abre la partida a un segundo jugador por red.
+     *
+     * <p>Este proceso sigue ejecutando la simulación y jugando con la
+     * primera nave; la segunda la controla el cliente que se conecte.</p>
+     *
+     * @param puerto puerto UDP en el que escuchar.
+     * @see kabalera82.spaceinvaders.red.ServidorRed
+     */
+    public void servirPartida(int puerto) {
+        try {
+            quitarRebobinado();
+            this.servidorRed = ServidorRed.conectar(motor, puerto);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el puerto " + puerto, e);
+        }
+    }
 
     /**
-     * Actualiza el estado del juego.
+     * Se une como segundo jugador a una partida servida por otro proceso.
      *
-     * @param dt tiempo en segundos desde la última actualización.
+     * <p>A partir de aquí el motor local no se usa: el teclado controla la
+     * segunda nave y se dibuja el estado recibido.</p>
+     *
+     * @param host máquina del servidor.
+     * @param puerto puerto UDP del servidor.
+     * @see kabalera82.spaceinvaders.red.ClienteRed
      */
-    private void update(double dt) {
-        // Aliens
-        for (Alien a : aliens) {
-            a.actualizar(dt);
-            if (colision(a.getBounds(), nave.getBounds())
-                    || a.getBounds().getMaxY() >= nave.getBounds().getMinY()) {
-                perderVidaYReiniciar();
-                SoundAssets.playNaveHit();
-                return;
-            }
+    public void unirseAPartida(String host, int puerto) {
+        try {
+            this.clienteRed = new ClienteRed(new InetSocketAddress(host, puerto), 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo conectar con " + host + ":" + puerto, e);
         }
+    }
 
-        // Disparos
-        Iterator<Disparo> it = disparos.iterator();
-        while (it.hasNext()) {
-            Disparo d = it.next();
-            d.actualizar(dt);
-            if (d.fueraDePantalla()) it.remove();
+    private void conectarRed(String red) {
+        String[] partes = red.split(":");
+        if (partes.length == 2 && partes[0].equals("servidor")) {
+            servirPartida(Integer.parseInt(partes[1]));
+        } else if (partes.length == 3 && partes[0].equals("cliente")) {
+            unirseAPartida(partes[1], Integer.parseInt(partes[2]));
+        } else {
+            throw new IllegalArgumentException(
+                    "spaceinvaders.red debe ser servidor:puerto o cliente:host:puerto, no " + red);
         }
+    }
 
-        // Bala vs Alien
-        List<Alien> killAliens = new ArrayList<>();
-        List<Disparo> killShots = new ArrayList<>();
-
-        for (Disparo d : disparos) {
-            Rectangle2D bd = d.getBounds();
-            for (Alien a : aliens) {
-                if (colision(bd, a.getBounds())) {
-                    SoundAssets.playAlienExplosion();
-                    killAliens.add(a);
-                    killShots.add(d);
-                    puntos += 10;
-                    break;
-                }
-            }
+    private void tickCliente() {
+        try {
+            clienteRed.tick();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error de red", e);
         }
-        if (!killAliens.isEmpty()) aliens.removeAll(killAliens);
-        if (!killShots.isEmpty())  disparos.removeAll(killShots);
-
-        // Nueva oleada
-        if (aliens.isEmpty()) {
-            nivel++;
-            crearOleadaAliens();
-            // Punto de extensión: aumentar dificultad progresiva
+    }
+
+    /** Quita y cierra la traza; sólo con el hilo de la simulación parado. */
+    private synchronized void cerrarTraza() {
+        if (traza == null) return;
+        motor.quitarGrabador(traza);
+        try {
+            traza.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cerrar la traza", e);
+        } finally {
+            traza = null;
         }
     }
 
-    private boolean colision(Rectangle2D a, Rectangle2D b) {
-        return a.intersects(b);
+    /** Cierra la tabla de récords; sólo con el hilo de la simulación parado. */
+    private synchronized void cerrarPuntuaciones() {
+        if (puntuaciones == null) return;
+        try {
+            puntuaciones.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cerrar la tabla de puntuaciones", e);
+        } finally {
+            puntuaciones = null;
+        }
     }
 
-    /** Resta una vida y reinicia el estado si aún quedan intentos. */
-    private void perderVidaYReiniciar() {
-        vidas--;
-        if (vidas <= 0) {
-            gameOver = true;
-            return;
+    private synchronized void guardarRepeticion() {
+        try {
+            grabador.guardar(ficheroRepeticion);
+            repeticionGuardada = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar la repetición " + ficheroRepeticion, e);
         }
-        nave = new Nave(
-                ANCHO / 2.0 - naveW / 2.0,
-                ALTO - naveH - CASILLA,
-                naveW, naveH, ANCHO, ALTO, "/imagenes/nave.png"
-        );
-        nave.setPasoPx(CASILLA / 2.0);
-        crearOleadaAliens();
-        disparos.clear();
-        lastShotNs = 0;
+    }
+
+    /**
+     * Desactiva el rebobinado: los ticks resimulados llegarían también a la
+     * repetición, a la traza (con ticks que retroceden) o al servidor de red
+     * (que metería comandos del cliente en ellos).
+     */
+    private void quitarRebobinado() {
+        if (rebobinado == null) return;
+        motor.quitarGrabador(rebobinado);
+        rebobinado = null;
+    }
+
+    /**
+     * Vuelve atrás en la partida, incluso desde la pantalla de fin de partida.
+     *
+     * <p>Si no se conserva tanta historia, vuelve al momento más antiguo
+     * disponible. La partida continúa desde ese punto. Con la partida en
+     * marcha, el rebobinado lo hace el hilo de la simulación antes de su
+     * siguiente tick; si no hay historia anterior, no ocurre nada.</p>
+     *
+     * @param segundos tiempo de juego a deshacer.
+     * @return {@code true} si se ha pedido el rebobinado; {@code false} si está
+     *         desactivado (también mientras se graba una repetición, se escribe
+     *         una traza o se sirve la partida por red) o se juega como cliente de red.
+     */
+    public boolean rebobinar(double segundos) {
+        if (rebobinado == null || clienteRed != null) return false;
+        enSimulacion(() -> {
+            long objetivo = motor.getTick() - Math.max(1, Math.round(segundos / pasoFijo));
+            if (rebobinado.rebobinar(objetivo) >= 0) reiniciarReloj = true;
+        });
+        return true;
+    }
+
+    /**
+     * Devuelve el medidor de las fases de la simulación ({@link FaseFrame#UPDATE},
+     * {@link FaseFrame#COLISIONES} y {@link FaseFrame#PUBLICAR}). Lo escribe el
+     * hilo de la simulación: consultarlo con la partida en marcha da valores
+     * aproximados.
+     *
+     * @return el {@link MedidorFases} del hilo de la simulación.
+     */
+    public MedidorFases getMedidor() {
+        return medidor;
+    }
+
+    /**
+     * Devuelve el medidor de las fases del hilo de JavaFX ({@link FaseFrame#SONIDO},
+     * {@link FaseFrame#RENDER} y {@link FaseFrame#FRAME}).
+     *
+     * @return el {@link MedidorFases} del bucle de dibujado.
+     */
+    public MedidorFases getMedidorRender() {
+        return medidorFx;
+    }
+
+    /**
+     * Toma una foto de los percentiles p50/p99/max de cada fase del frame,
+     * combinando las de ambos hilos. Debe llamarse desde el hilo de JavaFX.
+     *
+     * @return instantánea inmutable de las latencias.
+     */
+    public InstantaneaFases getInstantaneaFases() {
+        InstantaneaFases sim = instantaneaSimulacion;
+        return medidorFx.instantanea().combinar(sim != null ? sim : medidor.instantanea(),
+                FaseFrame.UPDATE, FaseFrame.COLISIONES, FaseFrame.PUBLICAR);
+    }
+
+    /**
+     * Muestra u oculta el overlay de tiempos por fase.
+     *
+     * @param visible {@code true} para dibujarlo sobre el juego.
+     */
+    public void setOverlayDiagnostico(boolean visible) {
+        this.overlayVisible = visible;
+        this.instantanea = null;
+    }
+
+    // ====== Input ======
+
+    /**
+     * Enlaza los eventos de teclado al nodo indicado.
+     *
+     * @param node nodo sobre el que escuchar eventos (Canvas, Scene, etc.).
+     */
+    public void bindInput(Node node) {
+        node.setOnKeyPressed(this::onKeyPressed);
+        node.setOnKeyReleased(this::onKeyReleased);
+        node.setFocusTraversable(true);
+        node.requestFocus();
+    }
+
+    // Los comandos pasan al hilo de la simulación, que los entrega al motor;
+    // éste los aplica (y los graba, si hay grabador) al comienzo del siguiente
+    // tick, con ese número de tick.
+    private void onKeyPressed(KeyEvent e) {
+        KeyCode c = e.getCode();
+        if (c == KeyCode.LEFT || c == KeyCode.A)  entrada(Comando.IZQUIERDA);
+        if (c == KeyCode.RIGHT || c == KeyCode.D) entrada(Comando.DERECHA);
+        if (c == KeyCode.SPACE) entrada(Comando.DISPARAR);
+        if (c == KeyCode.F3) setOverlayDiagnostico(!overlayVisible);
+        if (c == KeyCode.BACK_SPACE) rebobinar(SEGUNDOS_POR_PULSACION);
+    }
+
+    private void entrada(Comando c) {
+        entradas.ofrecer(c);
+    }
+
+    private void onKeyReleased(KeyEvent e) {
+        // Punto de extensión: podría usarse para gestionar inputs continuos
+    }
+
+    // ====== Sucesos del motor ======
+    // Llegan en el hilo de la simulación, dentro del tick: sólo se cuentan y
+    // el hilo de JavaFX los hace sonar al ver la instantánea.
+
+    @Override
+    public void alDisparar() {
+        disparos++;
+    }
+
+    @Override
+    public void alDestruirAlien() {
+        explosiones++;
+    }
+
+    @Override
+    public void alPerderVida() {
+        vidasPerdidas++;
     }
 }
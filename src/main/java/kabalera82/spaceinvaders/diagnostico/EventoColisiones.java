@@ -0,0 +1,47 @@
+package kabalera82.spaceinvaders.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de una pasada de colisiones bala vs alien.
+ *
+ * <p>Se emite una vez por tick con la duración de la pasada completa.
+ * Desactivado por defecto.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+@Name("kabalera82.spaceinvaders.Colisiones")
+@Label("Colisiones")
+@Category({"Space Invaders", "Simulación"})
+@Description("Pasada de colisiones bala vs alien de un tick")
+@Enabled(false)
+@StackTrace(false)
+public final class EventoColisiones extends Event {
+
+    /** Tick del motor. */
+    @Label("Tick")
+    public long tick;
+
+    /** Balas comprobadas. */
+    @Label("Disparos")
+    public int disparos;
+
+    /** Aliens vivos al empezar la pasada. */
+    @Label("Aliens")
+    public int aliens;
+
+    /** Aliens alcanzados. */
+    @Label("Impactos")
+    public int impactos;
+
+    /** {@code true} si se usó la rejilla de fase amplia. */
+    @Label("Con rejilla")
+    public boolean rejilla;
+}
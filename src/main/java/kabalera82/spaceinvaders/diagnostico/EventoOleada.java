@@ -0,0 +1,39 @@
+package kabalera82.spaceinvaders.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de la creación de una oleada de aliens.
+ *
+ * <p>La duración del evento es el tiempo de construir la oleada. Desactivado
+ * por defecto.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+@Name("kabalera82.spaceinvaders.Oleada")
+@Label("Nueva oleada")
+@Category({"Space Invaders", "Simulación"})
+@Description("Creación de una oleada de aliens")
+@Enabled(false)
+@StackTrace(false)
+public final class EventoOleada extends Event {
+
+    /** Tick del motor en el que se crea la oleada. */
+    @Label("Tick")
+    public long tick;
+
+    /** Nivel de la oleada. */
+    @Label("Nivel")
+    public int nivel;
+
+    /** Número de aliens creados. */
+    @Label("Aliens")
+    public int aliens;
+}
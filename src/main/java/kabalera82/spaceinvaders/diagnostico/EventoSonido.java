@@ -0,0 +1,35 @@
+package kabalera82.spaceinvaders.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de la reproducción de un efecto de sonido.
+ *
+ * <p>La duración es el tiempo que tarda en lanzarse el efecto (crear el
+ * reproductor y arrancarlo), no lo que dura el audio. Desactivado por defecto.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+@Name("kabalera82.spaceinvaders.Sonido")
+@Label("Efecto de sonido")
+@Category({"Space Invaders", "Sonido"})
+@Description("Lanzamiento de un efecto de sonido")
+@Enabled(false)
+@StackTrace(false)
+public final class EventoSonido extends Event {
+
+    /** Nombre del sonido en el enum {@code Sound}. */
+    @Label("Sonido")
+    public String sonido;
+
+    /** Volumen solicitado. */
+    @Label("Volumen")
+    public double volumen;
+}
@@ -0,0 +1,44 @@
+package kabalera82.spaceinvaders.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de un tick de simulación de {@code MotorJuego}.
+ *
+ * <p>Desactivado por defecto. Mientras está desactivado, crear y confirmar
+ * el evento no tiene coste apreciable: el JIT elimina el objeto y las
+ * comprobaciones.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+@Name("kabalera82.spaceinvaders.Tick")
+@Label("Tick")
+@Category({"Space Invaders", "Simulación"})
+@Description("Un tick de simulación de paso fijo")
+@Enabled(false)
+@StackTrace(false)
+public final class EventoTick extends Event {
+
+    /** Número de tick del motor. */
+    @Label("Tick")
+    public long tick;
+
+    /** Nivel en curso. */
+    @Label("Nivel")
+    public int nivel;
+
+    /** Aliens vivos al terminar el tick. */
+    @Label("Aliens vivos")
+    public int aliens;
+
+    /** Proyectiles en vuelo al terminar el tick. */
+    @Label("Disparos")
+    public int disparos;
+}
@@ -0,0 +1,42 @@
+package kabalera82.spaceinvaders.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR instantáneo emitido cuando el jugador pierde una vida.
+ *
+ * <p>Desactivado por defecto.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+@Name("kabalera82.spaceinvaders.VidaPerdida")
+@Label("Vida perdida")
+@Category({"Space Invaders", "Partida"})
+@Description("El jugador pierde una vida")
+@Enabled(false)
+@StackTrace(false)
+public final class EventoVidaPerdida extends Event {
+
+    /** Tick del motor. */
+    @Label("Tick")
+    public long tick;
+
+    /** Nivel en curso. */
+    @Label("Nivel")
+    public int nivel;
+
+    /** Vidas que quedan tras perder esta. */
+    @Label("Vidas restantes")
+    public int vidas;
+
+    /** Puntuación en ese momento. */
+    @Label("Puntos")
+    public int puntos;
+}
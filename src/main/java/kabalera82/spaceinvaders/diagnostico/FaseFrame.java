@@ -0,0 +1,53 @@
+package kabalera82.spaceinvaders.diagnostico;
+
+/**
+ * Fases de un frame del bucle principal cuyo tiempo se mide por separado.
+ *
+ * <p>Las fases son exclusivas: {@link #UPDATE} no incluye el tiempo de
+ * {@link #COLISIONES} ni el de {@link #PUBLICAR}, aunque ocurran dentro del
+ * bucle de ticks de la simulación.</p>
+ *
+ * <p>En el juego, {@link #UPDATE}, {@link #COLISIONES} y {@link #PUBLICAR} se
+ * miden en el hilo de la simulación, por cada vez que despierta; {@link #SONIDO},
+ * {@link #RENDER} y {@link #FRAME} en el hilo de JavaFX, y {@link #FRAME} es
+ * el total de {@code AnimationTimer.handle}.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ * @see kabalera82.spaceinvaders.diagnostico.MedidorFases
+ */
+public enum FaseFrame {
+
+    /** Ticks de simulación del frame, sin colisiones. */
+    UPDATE("update"),
+
+    /** Pasada bala vs alien de todos los ticks del frame. */
+    COLISIONES("colisiones"),
+
+    /** Copia del estado en la instantánea de dibujado tras cada tick del frame. */
+    PUBLICAR("publicar"),
+
+    /** Reproducción de los efectos de sonido de los sucesos vistos en el frame. */
+    SONIDO("sonido"),
+
+    /** Dibujado del frame en {@code PanelJuego}. */
+    RENDER("render"),
+
+    /** Frame completo. */
+    FRAME("frame");
+
+    private final String etiqueta;
+
+    FaseFrame(String etiqueta) {
+        this.etiqueta = etiqueta;
+    }
+
+    /**
+     * Devuelve el nombre corto de la fase para informes y overlay.
+     *
+     * @return etiqueta en minúsculas.
+     */
+    public String getEtiqueta() {
+        return etiqueta;
+    }
+}
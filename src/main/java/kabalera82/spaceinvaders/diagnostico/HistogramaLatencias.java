@@ -0,0 +1,114 @@
+package kabalera82.spaceinvaders.diagnostico;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas log-lineales.
+ *
+ * <p>Cada potencia de dos se divide en {@value #SUBCUBETAS} cubetas lineales,
+ * así que cualquier valor se guarda con un error relativo menor del 7 % en
+ * un array fijo de contadores. Registrar un valor es O(1) y no reserva
+ * memoria; calcular un percentil recorre las cubetas (O(cubetas)).</p>
+ *
+ * <p>El máximo y el número de muestras se guardan de forma exacta. Los
+ * percentiles devuelven el límite superior de la cubeta correspondiente.</p>
+ *
+ * <p>No es seguro para hilos: se registra y se consulta desde el mismo hilo.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class HistogramaLatencias {
+
+    /** Bits de resolución dentro de cada potencia de dos. */
+    private static final int BITS_SUB = 4;
+
+    /** Cubetas lineales por potencia de dos. */
+    public static final int SUBCUBETAS = 1 << BITS_SUB;
+
+    /** Número total de cubetas (cubre todo el rango positivo de {@code long}). */
+    private static final int CUBETAS = (64 - BITS_SUB) * SUBCUBETAS;
+
+    private final long[] cuentas = new long[CUBETAS];
+    private long muestras = 0;
+    private long maximo = 0;
+    private long suma = 0;
+
+    /**
+     * Registra una muestra.
+     *
+     * @param nanos duración en nanosegundos; los valores negativos cuentan como cero.
+     */
+    public void registrar(long nanos) {
+        long v = Math.max(0, nanos);
+        cuentas[indice(v)]++;
+        muestras++;
+        suma += v;
+        if (v > maximo) maximo = v;
+    }
+
+    /**
+     * Calcula el percentil indicado.
+     *
+     * @param percentil valor entre {@code 0} y {@code 100}.
+     * @return latencia en nanosegundos por debajo de la cual quedan ese porcentaje
+     *         de muestras, o {@code 0} si no hay ninguna.
+     */
+    public long percentil(double percentil) {
+        if (muestras == 0) return 0;
+        long objetivo = Math.max(1, (long) Math.ceil(percentil / 100.0 * muestras));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += cuentas[i];
+            if (acumulado >= objetivo) return Math.min(limiteSuperior(i), maximo);
+        }
+        return maximo;
+    }
+
+    /** Vacía el histograma. */
+    public void reiniciar() {
+        Arrays.fill(cuentas, 0);
+        muestras = 0;
+        maximo = 0;
+        suma = 0;
+    }
+
+    /**
+     * Devuelve el número de muestras registradas.
+     *
+     * @return muestras desde el último reinicio.
+     */
+    public long getMuestras() { return muestras; }
+
+    /**
+     * Devuelve la mayor muestra registrada.
+     *
+     * @return máximo exacto en nanosegundos.
+     */
+    public long getMaximo() { return maximo; }
+
+    /**
+     * Devuelve la media de las muestras.
+     *
+     * @return media en nanosegundos, o {@code 0} si no hay muestras.
+     */
+    public double getMedia() { return muestras == 0 ? 0 : (double) suma / muestras; }
+
+    // === Cubetas ===========================================================
+
+    private static int indice(long v) {
+        if (v < SUBCUBETAS) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exp - BITS_SUB)) & (SUBCUBETAS - 1);
+        return (exp - BITS_SUB + 1) * SUBCUBETAS + sub;
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) return indice;
+        int exp = indice / SUBCUBETAS + BITS_SUB - 1;
+        int sub = indice % SUBCUBETAS;
+        int desplazamiento = exp - BITS_SUB;
+        long inferior = ((long) (SUBCUBETAS + sub)) << desplazamiento;
+        return inferior + (1L << desplazamiento) - 1;
+    }
+}
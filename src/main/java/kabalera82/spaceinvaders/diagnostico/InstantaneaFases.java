@@ -0,0 +1,89 @@
+package kabalera82.spaceinvaders.diagnostico;
+
+import java.util.Locale;
+
+/**
+ * Foto inmutable de las latencias por fase tomada con {@link MedidorFases#instantanea()}.
+ *
+ * <p>Todos los tiempos están en nanosegundos.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class InstantaneaFases {
+
+    private final long[] p50;
+    private final long[] p99;
+    private final long[] max;
+    private final long[] muestras;
+
+    InstantaneaFases(long[] p50, long[] p99, long[] max, long[] muestras) {
+        this.p50 = p50;
+        this.p99 = p99;
+        this.max = max;
+        this.muestras = muestras;
+    }
+
+    /**
+     * @param fase fase consultada.
+     * @return mediana del coste por frame.
+     */
+    public long getP50(FaseFrame fase) { return p50[fase.ordinal()]; }
+
+    /**
+     * @param fase fase consultada.
+     * @return percentil 99 del coste por frame.
+     */
+    public long getP99(FaseFrame fase) { return p99[fase.ordinal()]; }
+
+    /**
+     * @param fase fase consultada.
+     * @return peor frame registrado.
+     */
+    public long getMax(FaseFrame fase) { return max[fase.ordinal()]; }
+
+    /**
+     * @param fase fase consultada.
+     * @return frames registrados.
+     */
+    public long getMuestras(FaseFrame fase) { return muestras[fase.ordinal()]; }
+
+    /**
+     * Combina dos instantáneas tomadas en hilos distintos: copia ésta y
+     * sustituye las fases indicadas por las de la otra.
+     *
+     * @param otra instantánea de la que tomar las fases.
+     * @param fases fases que mide el otro hilo.
+     * @return instantánea nueva con las fases combinadas.
+     */
+    public InstantaneaFases combinar(InstantaneaFases otra, FaseFrame... fases) {
+        long[] p50 = this.p50.clone(), p99 = this.p99.clone();
+        long[] max = this.max.clone(), muestras = this.muestras.clone();
+        for (FaseFrame f : fases) {
+            int i = f.ordinal();
+            p50[i] = otra.p50[i];
+            p99[i] = otra.p99[i];
+            max[i] = otra.max[i];
+            muestras[i] = otra.muestras[i];
+        }
+        return new InstantaneaFases(p50, p99, max, muestras);
+    }
+
+    /**
+     * Formatea una fase en una línea legible, con los tiempos en milisegundos.
+     *
+     * @param fase fase a formatear.
+     * @return texto del tipo {@code "render      p50 0.41  p99 1.20  max 3.05 ms"}.
+     */
+    public String linea(FaseFrame fase) {
+        return String.format(Locale.ROOT, "%-10s p50 %5.2f  p99 %5.2f  max %6.2f ms",
+                fase.getEtiqueta(), getP50(fase) / 1e6, getP99(fase) / 1e6, getMax(fase) / 1e6);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (FaseFrame f : FaseFrame.values()) sb.append(linea(f)).append('\n');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package kabalera82.spaceinvaders.diagnostico;
+
+/**
+ * Mide cuánto tarda cada {@link FaseFrame} del bucle principal.
+ *
+ * <p>Durante un frame, cada fase suma sus tiempos con {@link #sumar(FaseFrame, long)}
+ * (una fase puede ejecutarse varias veces, por ejemplo una vez por tick). Al
+ * terminar el frame, {@link #cerrarFrame()} registra el total de cada fase en
+ * su {@link HistogramaLatencias} y pone los acumuladores a cero. Así cada
+ * histograma describe el coste por frame de su fase.</p>
+ *
+ * <p>Medir no reserva memoria: sólo se escriben arrays de {@code long}
+ * creados en el constructor. {@link #instantanea()} sí crea un objeto nuevo,
+ * pensado para consultarse de vez en cuando (overlay, registros).</p>
+ *
+ * <h2>Uso típico</h2>
+ * <pre>{@code
+ * long t0 = System.nanoTime();
+ * motor.tick();
+ * medidor.sumar(FaseFrame.UPDATE, System.nanoTime() - t0);
+ * ...
+ * medidor.cerrarFrame();
+ * }</pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class MedidorFases {
+
+    private static final FaseFrame[] FASES = FaseFrame.values();
+
+    private final HistogramaLatencias[] histogramas = new HistogramaLatencias[FASES.length];
+    private final long[] acumulado = new long[FASES.length];
+
+    /** Crea un medidor con todos los histogramas vacíos. */
+    public MedidorFases() {
+        for (int i = 0; i < histogramas.length; i++) histogramas[i] = new HistogramaLatencias();
+    }
+
+    /**
+     * Suma una duración a la fase indicada dentro del frame en curso.
+     *
+     * @param fase fase medida.
+     * @param nanos duración en nanosegundos.
+     */
+    public void sumar(FaseFrame fase, long nanos) {
+        acumulado[fase.ordinal()] += nanos;
+    }
+
+    /**
+     * Devuelve lo acumulado por una fase en el frame en curso.
+     *
+     * @param fase fase consultada.
+     * @return nanosegundos sumados desde el último {@link #cerrarFrame()}.
+     */
+    public long getAcumulado(FaseFrame fase) {
+        return acumulado[fase.ordinal()];
+    }
+
+    /** Registra el total de cada fase en su histograma y empieza un frame nuevo. */
+    public void cerrarFrame() {
+        for (int i = 0; i < acumulado.length; i++) {
+            histogramas[i].registrar(acumulado[i]);
+            acumulado[i] = 0;
+        }
+    }
+
+    /** Vacía todos los histogramas y el frame en curso. */
+    public void reiniciar() {
+        for (int i = 0; i < histogramas.length; i++) {
+            histogramas[i].reiniciar();
+            acumulado[i] = 0;
+        }
+    }
+
+    /**
+     * Devuelve el histograma de una fase.
+     *
+     * @param fase fase consultada.
+     * @return el histograma vivo (no una copia).
+     */
+    public HistogramaLatencias getHistograma(FaseFrame fase) {
+        return histogramas[fase.ordinal()];
+    }
+
+    /**
+     * Toma una foto de los percentiles actuales de todas las fases.
+     *
+     * @return instantánea inmutable.
+     */
+    public InstantaneaFases instantanea() {
+        int n = FASES.length;
+        long[] p50 = new long[n], p99 = new long[n], max = new long[n], muestras = new long[n];
+        for (int i = 0; i < n; i++) {
+            HistogramaLatencias h = histogramas[i];
+            p50[i] = h.percentil(50);
+            p99[i] = h.percentil(99);
+            max[i] = h.getMaximo();
+            muestras[i] = h.getMuestras();
+        }
+        return new InstantaneaFases(p50, p99, max, muestras);
+    }
+}
@@ -0,0 +1,207 @@
+package kabalera82.spaceinvaders.gui;
+
+import java.util.Arrays;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+import kabalera82.spaceinvaders.assets.AtlasSprites;
+
+/**
+ * Cola de órdenes de dibujo de un frame, agrupadas por estado antes de enviarlas.
+ *
+ * <p>Durante el frame sólo se anotan las órdenes, en arrays preasignados:
+ * sprites (de una región del atlas o de una imagen suelta) y rectángulos
+ * rellenos. Las que caen fuera del lienzo se descartan al anotarlas. Al
+ * {@linkplain #enviar(GraphicsContext) enviar}, se ordenan por tipo y estado
+ * —primero los sprites por textura, después los rectángulos por relleno— y
+ * se pasan al {@link GraphicsContext} en lotes: cada lote cambia de estado
+ * una vez ({@code setFill}) y emite sus órdenes seguidas.</p>
+ *
+ * <p>Dentro de un mismo estado se conserva el orden de llegada, así que lo
+ * que se solapa sigue pintándose en el mismo orden. Anotar y enviar no
+ * reserva memoria salvo cuando la cola crece.</p>
+ *
+ * <h2>Uso típico</h2>
+ * <pre>{@code
+ * cola.sprite(atlas, region, x, y, w, h);
+ * cola.rectangulo(Color.YELLOW, x, y, w, h);
+ * cola.enviar(g);
+ * }</pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+final class ColaDibujado {
+
+    /** Texturas o rellenos distintos en un mismo frame. */
+    private static final int MAX_ESTADOS = 64;
+
+    /** Tipo de orden, en los bits altos de la clave: los sprites van primero. */
+    private static final long SPRITE = 0L, RECTANGULO = 1L;
+
+    private final double anchoVista, altoVista;
+
+    /** Texturas ({@link AtlasSprites} o {@link Image}) y rellenos, por índice de estado. */
+    private final Object[] estados = new Object[MAX_ESTADOS];
+    private int numEstados = 0;
+
+    // === Órdenes, en orden de llegada ===
+    private long[] claves = new long[256];
+    private int[] regiones = new int[256];
+    private double[] x = new double[256], y = new double[256];
+    private double[] ancho = new double[256], alto = new double[256];
+    private int n = 0;
+
+    // === Estadísticas del último envío ===
+    private int enviadas, lotes, descartadas;
+    private int descartadasFrame = 0;
+
+    /**
+     * Crea una cola para un lienzo del tamaño indicado.
+     *
+     * @param anchoVista anchura visible; lo que queda fuera se descarta.
+     * @param altoVista altura visible.
+     */
+    ColaDibujado(double anchoVista, double altoVista) {
+        this.anchoVista = anchoVista;
+        this.altoVista = altoVista;
+    }
+
+    /**
+     * Anota un sprite del atlas.
+     *
+     * @param atlas atlas con la región.
+     * @param region índice de región ({@link AtlasSprites#region(String)}).
+     * @param px posición X de destino.
+     * @param py posición Y de destino.
+     * @param w anchura de destino.
+     * @param h altura de destino.
+     */
+    void sprite(AtlasSprites atlas, int region, double px, double py, double w, double h) {
+        anotar(SPRITE, atlas, region, px, py, w, h);
+    }
+
+    /**
+     * Anota una imagen suelta, para sprites que no están en el atlas.
+     *
+     * @param imagen imagen completa a dibujar.
+     * @param px posición X de destino.
+     * @param py posición Y de destino.
+     * @param w anchura de destino.
+     * @param h altura de destino.
+     */
+    void sprite(Image imagen, double px, double py, double w, double h) {
+        anotar(SPRITE, imagen, -1, px, py, w, h);
+    }
+
+    /**
+     * Anota un rectángulo relleno.
+     *
+     * @param relleno color o degradado; conviene reutilizar la misma instancia
+     *                para que caiga en el mismo lote.
+     * @param px posición X.
+     * @param py posición Y.
+     * @param w anchura.
+     * @param h altura.
+     */
+    void rectangulo(Paint relleno, double px, double py, double w, double h) {
+        anotar(RECTANGULO, relleno, -1, px, py, w, h);
+    }
+
+    private void anotar(long tipo, Object estado, int region, double px, double py, double w, double h) {
+        if (px + w <= 0 || py + h <= 0 || px >= anchoVista || py >= altoVista) {
+            descartadasFrame++;
+            return;
+        }
+        if (n == claves.length) crecer();
+        claves[n] = tipo << 62 | (long) indiceEstado(estado) << 32 | n;
+        regiones[n] = region;
+        x[n] = px;
+        y[n] = py;
+        ancho[n] = w;
+        alto[n] = h;
+        n++;
+    }
+
+    /** Índice del estado, comparando por identidad: hay muy pocos por frame. */
+    private int indiceEstado(Object estado) {
+        for (int i = 0; i < numEstados; i++) {
+            if (estados[i] == estado) return i;
+        }
+        if (numEstados == MAX_ESTADOS) {
+            throw new IllegalStateException("Demasiados estados de dibujo en un frame: " + MAX_ESTADOS);
+        }
+        estados[numEstados] = estado;
+        return numEstados++;
+    }
+
+    private void crecer() {
+        int c = claves.length * 2;
+        claves = Arrays.copyOf(claves, c);
+        regiones = Arrays.copyOf(regiones, c);
+        x = Arrays.copyOf(x, c);
+        y = Arrays.copyOf(y, c);
+        ancho = Arrays.copyOf(ancho, c);
+        alto = Arrays.copyOf(alto, c);
+    }
+
+    /**
+     * Ordena las órdenes anotadas, las dibuja por lotes y vacía la cola.
+     *
+     * @param g contexto gráfico de destino.
+     */
+    void enviar(GraphicsContext g) {
+        Arrays.sort(claves, 0, n);
+        int lotesFrame = 0;
+        long estadoActual = -1;
+        for (int k = 0; k < n; k++) {
+            long clave = claves[k];
+            int i = (int) clave;
+            long estado = clave >>> 32;
+            Object e = estados[(int) (estado & 0xFFFF)];
+            if (estado != estadoActual) {
+                estadoActual = estado;
+                lotesFrame++;
+                if (clave >>> 62 == RECTANGULO) g.setFill((Paint) e);
+            }
+            if (clave >>> 62 == RECTANGULO) {
+                g.fillRect(x[i], y[i], ancho[i], alto[i]);
+            } else if (regiones[i] >= 0) {
+                ((AtlasSprites) e).dibujar(g, regiones[i], x[i], y[i], ancho[i], alto[i]);
+            } else {
+                g.drawImage((Image) e, x[i], y[i], ancho[i], alto[i]);
+            }
+        }
+        enviadas = n;
+        lotes = lotesFrame;
+        descartadas = descartadasFrame;
+        n = 0;
+        descartadasFrame = 0;
+        Arrays.fill(estados, 0, numEstados, null);
+        numEstados = 0;
+    }
+
+    /**
+     * Devuelve cuántas órdenes se dibujaron en el último envío. Lo muestra el
+     * overlay de diagnóstico de {@link PanelJuego}, como los dos siguientes.
+     *
+     * @return órdenes dibujadas en el último envío.
+     */
+    int getEnviadas() { return enviadas; }
+
+    /**
+     * Devuelve cuántas veces cambió de estado (textura o relleno) el último envío.
+     *
+     * @return cambios de estado (lotes) del último envío.
+     */
+    int getLotes() { return lotes; }
+
+    /**
+     * Devuelve cuántas órdenes se descartaron al anotarlas, por quedar fuera
+     * del lienzo, en el frame del último envío.
+     *
+     * @return órdenes descartadas por quedar fuera del lienzo en el último envío.
+     */
+    int getDescartadas() { return descartadas; }
+}
@@ -4,7 +4,6 @@ package kabalera82.spaceinvaders.gui;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
-import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
@@ -60,11 +59,11 @@ public class MenuInicio {
 
         // Acción asociada al botón Start
         botonStart.setOnAction(e -> {
-            // Crear la vista principal del juego (Canvas incluido)
+            // Crear la vista principal del juego (capas de Canvas incluidas)
             PanelJuego view = new PanelJuego();
 
-            // Escena del juego, usando un StackPane como contenedor del Canvas
-            Scene escenaJuego = new Scene(new StackPane(view.getCanvas()));
+            // Escena del juego, con las capas superpuestas del panel
+            Scene escenaJuego = new Scene(view.getNodo());
 
             // Crear el controlador encargado de la lógica del juego
             GameController controller = new GameController(view);
@@ -76,6 +75,9 @@ public class MenuInicio {
             Stage stage = (Stage) botonStart.getScene().getWindow();
             stage.setScene(escenaJuego);
 
+            // Al cerrar la ventana, parar la simulación antes de guardar y cerrar ficheros
+            stage.setOnCloseRequest(cierre -> controller.stop());
+
             // Iniciar el bucle principal del juego
             controller.start();
         });
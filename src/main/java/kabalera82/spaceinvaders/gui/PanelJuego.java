@@ -1,15 +1,21 @@
 package kabalera82.spaceinvaders.gui;
 
-import java.util.List;
+import java.util.Locale;
 
+import javafx.scene.Parent;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.TextAlignment;
-import kabalera82.spaceinvaders.model.Alien;
-import kabalera82.spaceinvaders.model.Disparo;
-import kabalera82.spaceinvaders.model.Nave;
+import kabalera82.spaceinvaders.assets.AlienSkin;
+import kabalera82.spaceinvaders.assets.Assets;
+import kabalera82.spaceinvaders.assets.AtlasSprites;
+import kabalera82.spaceinvaders.diagnostico.FaseFrame;
+import kabalera82.spaceinvaders.diagnostico.InstantaneaFases;
+import kabalera82.spaceinvaders.interfaces.IRenderizador;
+import kabalera82.spaceinvaders.motor.InstantaneaRender;
 
 /**
  * Vista principal del juego encargada exclusivamente del renderizado.
@@ -18,19 +24,34 @@ import kabalera82.spaceinvaders.model.Nave;
  * estado actual de las entidades y la interfaz, sin contener lógica de
  * control ni de modelo.</p>
  *
+ * <p>Dibuja en tres lienzos superpuestos, para que cada frame sólo repinte lo
+ * que ha cambiado:</p>
+ * <ol>
+ *   <li><b>Fondo:</b> el tablero y el encabezado; se pinta una vez.</li>
+ *   <li><b>Entidades:</b> naves, aliens, proyectiles y el overlay de
+ *       diagnóstico; se borra y se pinta en cada frame. Las entidades pasan
+ *       por una {@link ColaDibujado}, que descarta lo que queda fuera y las
+ *       envía agrupadas por textura y relleno.</li>
+ *   <li><b>HUD:</b> vidas, puntos, aliens restantes y <b>GAME OVER</b>; cada
+ *       etiqueta es un {@link TextoHud} que sólo repinta sus cifras cuando
+ *       cambia su valor.</li>
+ * </ol>
+ *
  * <h2>Responsabilidades</h2>
  * <ul>
- *   <li>Gestionar un {@link Canvas} y su {@link GraphicsContext}.</li>
+ *   <li>Gestionar los {@link Canvas} de cada capa y sus {@link GraphicsContext}.</li>
  *   <li>Dibujar el fondo, encabezado y HUD.</li>
- *   <li>Renderizar las entidades del juego ({@link Nave}, {@link Alien},
- *       {@link Disparo}).</li>
+ *   <li>Renderizar las entidades del juego (naves, aliens y proyectiles) a
+ *       partir de una {@link InstantaneaRender} publicada por el hilo de la
+ *       simulación, sin tocar los objetos vivos del motor.</li>
  *   <li>Mostrar mensajes especiales como <b>GAME OVER</b>.</li>
+ *   <li>Dibujar, si se pide, el overlay de tiempos por fase y de lotes de dibujo.</li>
  * </ul>
  *
  * @author  Kabalera82
  * @version 1.0
  */
-public class PanelJuego {
+public class PanelJuego implements IRenderizador {
 
     // === Constantes de configuración del tablero ===
     private static final int CASILLA  = 32;
@@ -39,74 +60,209 @@ public class PanelJuego {
     private static final int ANCHO    = CASILLA * COLUMNAS;
     private static final int ALTO     = CASILLA * FILAS;
 
-    /** Lienzo de dibujo del juego. */
+    // === Capas ===
+
+    /** Capa de fondo y encabezado, pintada una sola vez. */
+    private final Canvas fondo;
+
+    /** Capa de entidades, repintada en cada frame. */
     private final Canvas lienzo;
 
-    /** Contexto gráfico asociado al lienzo. */
+    /** Capa del HUD, repintada sólo cuando cambian sus valores. */
+    private final Canvas hud;
+
+    /** Contenedor con las capas superpuestas. */
+    private final StackPane capas;
+
+    /** Contexto gráfico de la capa de entidades. */
     private final GraphicsContext g;
 
+    /** Contexto gráfico de la capa del HUD. */
+    private final GraphicsContext gHud;
+
+    // === Sprites de las instantáneas ===
+    private final AtlasSprites atlas;
+    private final ColaDibujado cola = new ColaDibujado(ANCHO, ALTO);
+
+    /** Región del atlas de cada frame de cada {@link AlienSkin}, por ordinal. */
+    private final int[][] regionesAliens;
+    private final int regionNave;
+
+    /** Color de los proyectiles de la última instantánea, convertido una vez y reutilizado como lote. */
+    private int argbBalas;
+    private Color colorBalas;
+
+    // === Fuentes, resueltas una sola vez ===
+    private static final Font FUENTE_TITULO = Font.font("Consolas", 28);
+    private static final Font FUENTE_HUD = Font.font("Consolas", 18);
+    private static final Font FUENTE_GAME_OVER = Font.font("Consolas", 48);
+
+    // === HUD: cada etiqueta repinta sólo sus cifras al cambiar ===
+    private final TextoHud textoVidas = new TextoHud("Vidas: ", FUENTE_HUD, Color.WHITE, 12, 24);
+    private final TextoHud textoPuntos = new TextoHud("Puntos: ", FUENTE_HUD, Color.WHITE, 12, 44);
+    private final TextoHud textoAliens = new TextoHud("Aliens: ", FUENTE_HUD, Color.WHITE, 12, 64);
+    private boolean hudGameOver = false;
+
+    // === Overlay de diagnóstico ===
+    private static final FaseFrame[] FASES = FaseFrame.values();
+    private static final Font FUENTE_DIAGNOSTICO = Font.font("Consolas", 13);
+    private static final Color FONDO_DIAGNOSTICO = Color.rgb(0, 0, 0, 0.7);
+
+    /**
+     * Instantánea cuyas líneas están en {@link #lineasDiagnostico}: una por
+     * fase y, al final, los lotes de la {@link ColaDibujado} en ese momento.
+     */
+    private InstantaneaFases instantaneaFormateada;
+    private final String[] lineasDiagnostico = new String[FASES.length + 1];
+
     /**
-     * Crea un nuevo panel de juego inicializando el lienzo y su
-     * contexto gráfico.
+     * Crea un nuevo panel de juego con sus tres capas y pinta el fondo.
      */
     public PanelJuego() {
+        this.fondo = new Canvas(ANCHO, ALTO);
         this.lienzo = new Canvas(ANCHO, ALTO);
+        this.hud = new Canvas(ANCHO, ALTO);
         this.g = lienzo.getGraphicsContext2D();
+        this.gHud = hud.getGraphicsContext2D();
+        this.capas = new StackPane(fondo, lienzo, hud);
+        pintarFondo(fondo.getGraphicsContext2D());
+        // Carga y escala los sprites ahora, no en el primer frame
+        this.atlas = Assets.atlas();
+        AlienSkin[] skins = AlienSkin.values();
+        this.regionesAliens = new int[skins.length][];
+        for (int s = 0; s < skins.length; s++) {
+            regionesAliens[s] = new int[skins[s].framePaths.length];
+            for (int f = 0; f < regionesAliens[s].length; f++) {
+                regionesAliens[s][f] = atlas.region(skins[s].framePaths[f]);
+            }
+        }
+        this.regionNave = atlas.region(AtlasSprites.RUTA_NAVE);
     }
 
     /**
-     * Devuelve el lienzo gráfico sobre el que se dibuja el juego.
+     * Devuelve el lienzo de las entidades, que es el que recibe el foco y el
+     * teclado.
      *
-     * @return el objeto {@link Canvas}.
+     * @return el objeto {@link Canvas} de la capa de entidades.
      */
     public Canvas getCanvas() {
         return lienzo;
     }
 
     /**
-     * Renderiza el estado completo del juego en el lienzo.
-     *
-     * <p>Este método es invocado en cada frame por el controlador, recibiendo
-     * las entidades y valores de estado que deben mostrarse.</p>
+     * Devuelve el nodo con todas las capas, que es el que debe añadirse a la escena.
      *
-     * @param nave     la {@link Nave} del jugador (puede ser {@code null}).
-     * @param aliens   lista de {@link Alien} activos en pantalla.
-     * @param disparos lista de {@link Disparo} disparados actualmente.
-     * @param vidas    número de vidas restantes del jugador.
-     * @param puntos   puntuación acumulada.
-     * @param gameOver indica si el juego ha terminado.
+     * @return contenedor con el fondo, las entidades y el HUD superpuestos.
      */
-    public void render(Nave nave, List<Alien> aliens, List<Disparo> disparos,
-                       int vidas, int puntos, boolean gameOver) {
+    public Parent getNodo() {
+        return capas;
+    }
+
+    private static void pintarFondo(GraphicsContext f) {
         // Fondo del tablero
-        g.setFill(Color.BLACK);
-        g.fillRect(0, 0, ANCHO, ALTO);
+        f.setFill(Color.BLACK);
+        f.fillRect(0, 0, ANCHO, ALTO);
 
         // Encabezado
-        g.setFill(Color.LIMEGREEN);
-        g.setFont(Font.font("Consolas", 28));
-        g.setTextAlign(TextAlignment.CENTER);
-        g.fillText("Tablero de juego", ANCHO / 2.0, 36);
+        f.setFill(Color.LIMEGREEN);
+        f.setFont(FUENTE_TITULO);
+        f.setTextAlign(TextAlignment.CENTER);
+        f.fillText("Tablero de juego", ANCHO / 2.0, 36);
+    }
 
-        // HUD con información básica
-        g.setFill(Color.WHITE);
-        g.setFont(Font.font("Consolas", 18));
-        g.setTextAlign(TextAlignment.LEFT);
-        g.fillText("Vidas: " + vidas, 12, 24);
-        g.fillText("Puntos: " + puntos, 12, 44);
-        g.fillText("Aliens: " + aliens.size(), 12, 64);
+    /**
+     * Renderiza una instantánea publicada por el hilo de la simulación.
+     *
+     * <p>Sólo lee los arrays de la instantánea: puede llamarse desde el hilo
+     * de JavaFX mientras la simulación sigue avanzando en el suyo.</p>
+     *
+     * @param estado instantánea a dibujar; no debe modificarse mientras se dibuja.
+     * @param alpha  fracción del tick de simulación transcurrida desde que se
+     *               publicó; las entidades se dibujan interpoladas.
+     */
+    @Override
+    public void render(InstantaneaRender estado, double alpha) {
+        // Entidades: la única capa que cambia en todos los frames
+        g.clearRect(0, 0, ANCHO, ALTO);
+        double w = estado.getNaveAncho(), h = estado.getNaveAlto();
+        for (int i = 0; i < estado.getNaves(); i++) {
+            double x = estado.getNaveX(i, alpha), y = estado.getNaveY(i, alpha);
+            if (regionNave >= 0) cola.sprite(atlas, regionNave, x, y, w, h);
+            else cola.sprite(Assets.get(AtlasSprites.RUTA_NAVE), x, y, w, h);
+        }
+
+        w = estado.getAlienAncho();
+        h = estado.getAlienAlto();
+        for (int k = 0; k < estado.getAliens(); k++) {
+            int region = regionesAliens[estado.getAlienSkin(k)][estado.getAlienFrame(k)];
+            cola.sprite(atlas, region, estado.getAlienX(k, alpha), estado.getAlienY(k, alpha), w, h);
+        }
+
+        w = estado.getBalaAncho();
+        h = estado.getBalaAlto();
+        if (colorBalas == null || estado.getColorBalas() != argbBalas) {
+            argbBalas = estado.getColorBalas();
+            colorBalas = Color.rgb(argbBalas >>> 16 & 0xFF, argbBalas >>> 8 & 0xFF, argbBalas & 0xFF,
+                    (argbBalas >>> 24) / 255.0);
+        }
+        for (int i = 0; i < estado.getBalas(); i++) {
+            cola.rectangulo(colorBalas, estado.getBalaX(i), estado.getBalaY(i, alpha), w, h);
+        }
+        cola.enviar(g);
+        pintarHud(estado.getVidas(), estado.getPuntos(), estado.getAliens(), estado.isGameOver());
+    }
 
-        // Dibujar entidades
-        if (nave != null) nave.draw(g);
-        for (Alien a : aliens) a.draw(g);
-        for (Disparo d : disparos) d.draw(g);
+    /** HUD: sin cambios no se dibuja nada; con cambios, sólo las cifras afectadas. */
+    private void pintarHud(int vidas, int puntos, int aliens, boolean gameOver) {
+        if (gameOver != hudGameOver) pintarGameOver(gameOver);
+        textoVidas.pintar(gHud, vidas);
+        textoPuntos.pintar(gHud, puntos);
+        textoAliens.pintar(gHud, aliens);
+    }
 
-        // Mensaje de fin de juego
+    /** Pone o quita el mensaje de fin de juego (al rebobinar); repinta el HUD entero. */
+    private void pintarGameOver(boolean gameOver) {
+        gHud.clearRect(0, 0, ANCHO, ALTO);
+        textoVidas.invalidar();
+        textoPuntos.invalidar();
+        textoAliens.invalidar();
         if (gameOver) {
-            g.setFill(Color.RED);
-            g.setFont(Font.font("Consolas", 48));
-            g.setTextAlign(TextAlignment.CENTER);
-            g.fillText("GAME OVER", ANCHO / 2.0, ALTO / 2.0);
+            gHud.setFill(Color.RED);
+            gHud.setFont(FUENTE_GAME_OVER);
+            gHud.setTextAlign(TextAlignment.CENTER);
+            gHud.fillText("GAME OVER", ANCHO / 2.0, ALTO / 2.0);
+        }
+        hudGameOver = gameOver;
+    }
+
+    /**
+     * Dibuja el overlay con los percentiles de tiempo de cada fase del frame
+     * y, debajo, cuántas órdenes de dibujo se enviaron, en cuántos lotes y
+     * cuántas se descartaron por quedar fuera del lienzo.
+     *
+     * <p>Se dibuja en la capa de entidades, así que debe llamarse después de
+     * cada {@code render}. Las líneas de texto sólo se vuelven a formatear
+     * cuando cambia la instantánea, no en cada frame; la de los lotes muestra
+     * el último envío de ese momento.</p>
+     *
+     * @param fases instantánea a mostrar.
+     */
+    public void dibujarDiagnostico(InstantaneaFases fases) {
+        if (fases != instantaneaFormateada) {
+            for (int i = 0; i < FASES.length; i++) lineasDiagnostico[i] = fases.linea(FASES[i]);
+            lineasDiagnostico[FASES.length] = String.format(Locale.ROOT, "%-10s %5d órdenes  %3d lotes  %4d fuera",
+                    "dibujo", cola.getEnviadas(), cola.getLotes(), cola.getDescartadas());
+            instantaneaFormateada = fases;
+        }
+        double ancho = 330, alto = 12 + lineasDiagnostico.length * 16;
+        double x = ANCHO - ancho - 8, y = 8;
+        g.setFill(FONDO_DIAGNOSTICO);
+        g.fillRect(x, y, ancho, alto);
+        g.setFill(Color.LIMEGREEN);
+        g.setFont(FUENTE_DIAGNOSTICO);
+        g.setTextAlign(TextAlignment.LEFT);
+        for (int i = 0; i < lineasDiagnostico.length; i++) {
+            g.fillText(lineasDiagnostico[i], x + 8, y + 20 + i * 16);
         }
     }
 }
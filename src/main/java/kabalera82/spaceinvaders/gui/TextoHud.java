@@ -0,0 +1,121 @@
+package kabalera82.spaceinvaders.gui;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Etiqueta numérica del HUD ("Puntos: 1234") que sólo repinta lo que cambia.
+ *
+ * <p>La fuente y las medidas se resuelven una vez al crearla. El prefijo se
+ * pinta sólo la primera vez; al cambiar el valor se borran y repintan
+ * únicamente las celdas de las cifras, todas del ancho de la cifra más ancha,
+ * usando cadenas de un carácter ya creadas. Actualizar la etiqueta no crea
+ * objetos y cuesta lo mismo sea cual sea el valor.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+final class TextoHud {
+
+    /** Cada cifra como cadena, para no construir texto al pintar. */
+    private static final String[] CIFRAS = {"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"};
+    private static final String MENOS = "-";
+
+    /** Cifras de un {@code int} con signo. */
+    private static final int MAX_CIFRAS = 11;
+
+    private final String prefijo;
+    private final Font fuente;
+    private final Color color;
+    private final double x, y;
+
+    // === Medidas, resueltas al crear la etiqueta ===
+    private final double anchoPrefijo;
+    private final double anchoCifra;
+    private final double ascenso;
+    private final double alto;
+
+    // === Lo último pintado ===
+    private final byte[] cifras = new byte[MAX_CIFRAS];
+    private boolean pintada = false;
+    private int valor;
+    private int cifrasPintadas = 0;
+
+    /**
+     * Crea una etiqueta.
+     *
+     * @param prefijo texto fijo que precede al valor (p. ej. {@code "Vidas: "}).
+     * @param fuente fuente del texto.
+     * @param color color del texto.
+     * @param x posición X del inicio del prefijo.
+     * @param y posición Y de la línea base.
+     */
+    TextoHud(String prefijo, Font fuente, Color color, double x, double y) {
+        this.prefijo = prefijo;
+        this.fuente = fuente;
+        this.color = color;
+        this.x = x;
+        this.y = y;
+        this.anchoPrefijo = medir(prefijo, fuente).getWidth();
+        double ancho = medir(MENOS, fuente).getWidth();
+        for (String c : CIFRAS) ancho = Math.max(ancho, medir(c, fuente).getWidth());
+        this.anchoCifra = Math.ceil(ancho);
+        Bounds b = medir(prefijo + "0123456789", fuente);
+        this.ascenso = Math.ceil(-b.getMinY()) + 1;
+        this.alto = Math.ceil(b.getHeight()) + 2;
+    }
+
+    private static Bounds medir(String texto, Font fuente) {
+        Text t = new Text(texto);
+        t.setFont(fuente);
+        return t.getLayoutBounds();
+    }
+
+    /**
+     * Pinta el valor si es distinto del último pintado.
+     *
+     * @param g contexto gráfico de la capa del HUD.
+     * @param nuevo valor a mostrar.
+     */
+    void pintar(GraphicsContext g, int nuevo) {
+        if (pintada && nuevo == valor) return;
+        g.setFont(fuente);
+        g.setFill(color);
+        g.setTextAlign(TextAlignment.LEFT);
+        g.setTextBaseline(VPos.BASELINE);
+        if (!pintada) g.fillText(prefijo, x, y);
+
+        // Cifras de derecha a izquierda sin pasar por String
+        int n = 0;
+        long v = Math.abs((long) nuevo);
+        do {
+            cifras[n++] = (byte) (v % 10);
+            v /= 10;
+        } while (v != 0);
+
+        double x0 = x + anchoPrefijo;
+        int total = nuevo < 0 ? n + 1 : n;
+        g.clearRect(x0, y - ascenso, anchoCifra * Math.max(total, cifrasPintadas), alto);
+        double cx = x0;
+        if (nuevo < 0) {
+            g.fillText(MENOS, cx, y);
+            cx += anchoCifra;
+        }
+        for (int i = n - 1; i >= 0; i--, cx += anchoCifra) g.fillText(CIFRAS[cifras[i]], cx, y);
+
+        valor = nuevo;
+        cifrasPintadas = total;
+        pintada = true;
+    }
+
+    /** Obliga a repintar la etiqueta completa, p. ej. tras borrar toda la capa. */
+    void invalidar() {
+        pintada = false;
+        cifrasPintadas = 0;
+    }
+}
@@ -0,0 +1,34 @@
+package kabalera82.spaceinvaders.interfaces;
+
+/**
+ * Interfaz de notificación de los sucesos del juego.
+ *
+ * <p>El motor de simulación no reproduce sonidos ni conoce la interfaz
+ * gráfica: cuando ocurre algo relevante avisa a un observador que
+ * implementa esta interfaz. El controlador JavaFX la usa para lanzar los
+ * efectos de sonido; un bot o un banco de pruebas pueden ignorarla.</p>
+ *
+ * <p>Todos los métodos tienen una implementación vacía por defecto, de modo
+ * que cada observador sólo sobrescribe los que le interesan.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public interface IEventosJuego {
+
+    /** Se ha disparado un proyectil desde la nave. */
+    default void alDisparar() {}
+
+    /** Un proyectil ha destruido un alien. */
+    default void alDestruirAlien() {}
+
+    /** Los aliens han alcanzado a la nave y se ha perdido una vida. */
+    default void alPerderVida() {}
+
+    /**
+     * Se ha generado una nueva oleada de aliens.
+     *
+     * @param nivel nivel de la nueva oleada.
+     */
+    default void alNuevaOleada(int nivel) {}
+}
@@ -0,0 +1,34 @@
+package kabalera82.spaceinvaders.interfaces;
+
+import kabalera82.spaceinvaders.motor.Comando;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Observador de la simulación tick a tick, para grabar partidas.
+ *
+ * <p>El {@link MotorJuego} lo avisa de cada {@link Comando} en el momento de
+ * aplicarlo y al terminar cada tick. Lo implementan las repeticiones y las
+ * trazas; ambas se ejecutan en el hilo de la simulación, así que no deben
+ * bloquear ni hacer trabajo costoso.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public interface IGrabadorTicks {
+
+    /**
+     * Se aplica un comando de entrada.
+     *
+     * @param tick tick en el que se aplica.
+     * @param c comando aplicado.
+     */
+    void comando(long tick, Comando c);
+
+    /**
+     * Ha terminado un tick.
+     *
+     * @param motor motor que acaba de avanzar; {@link MotorJuego#getTick()} ya
+     *              cuenta el tick terminado.
+     */
+    void tickTerminado(MotorJuego motor);
+}
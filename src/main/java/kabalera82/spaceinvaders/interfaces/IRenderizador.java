@@ -0,0 +1,29 @@
+package kabalera82.spaceinvaders.interfaces;
+
+import kabalera82.spaceinvaders.motor.InstantaneaRender;
+
+/**
+ * Destino de dibujado de las instantáneas del juego.
+ *
+ * <p>La simulación publica lo que hay que dibujar como una
+ * {@link InstantaneaRender}; quien la dibuja implementa esta interfaz. La
+ * vista JavaFX la dibuja en pantalla y un renderizador por software en un
+ * array de píxeles, sin toolkit gráfico, para pruebas y grabaciones en
+ * máquinas sin pantalla.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ * @see kabalera82.spaceinvaders.gui.PanelJuego
+ * @see kabalera82.spaceinvaders.renderizado.RenderizadorSoftware
+ */
+public interface IRenderizador {
+
+    /**
+     * Dibuja un frame completo: entidades, HUD y, si procede, fin de partida.
+     *
+     * @param estado instantánea a dibujar; no debe modificarse mientras se dibuja.
+     * @param alpha  fracción del tick transcurrida, entre {@code 0.0} y
+     *               {@code 1.0}; las entidades se dibujan interpoladas.
+     */
+    void render(InstantaneaRender estado, double alpha);
+}
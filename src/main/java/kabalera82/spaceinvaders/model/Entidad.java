@@ -1,14 +1,12 @@
 package kabalera82.spaceinvaders.model;
 
-import javafx.geometry.Rectangle2D;
-import javafx.scene.canvas.GraphicsContext;
+import java.nio.ByteBuffer;
 
 /**
  * Clase abstracta que representa una entidad genérica dentro del mundo del juego.
  *
  * <p>Define los atributos y comportamientos comunes de cualquier objeto con
- * posición y tamaño en el espacio del juego. Ejemplos de entidades son
- * {@code Nave}, {@code Alien} o {@code Proyectil}.</p>
+ * posición y tamaño en el espacio del juego, como la {@link Nave}.</p>
  *
  * <h2>Características principales</h2>
  * <ul>
@@ -16,11 +14,10 @@ import javafx.scene.canvas.GraphicsContext;
  *   <li>Tamaño definido por ancho y alto.</li>
  *   <li>Límites máximos del mundo (ancho y alto del área de juego).</li>
  *   <li>Métodos para ajustar la posición y obtener colisiones.</li>
- *   <li>Capacidad de dibujarse en un {@link GraphicsContext}.</li>
  * </ul>
  *
- * <p>Al ser abstracta, debe ser extendida por clases concretas que implementen
- * el método {@link #draw(GraphicsContext)}.</p>
+ * <p>No sabe dibujarse ni depende de JavaFX: las vistas dibujan a partir de
+ * la {@code InstantaneaRender} que copia su posición al final de cada tick.</p>
  *
  * @author  Kabalera82
  * @version 1.0
@@ -33,6 +30,12 @@ public abstract class Entidad {
     /** Posición vertical (eje Y) en píxeles dentro del mundo. */
     protected double posicionVertical;
 
+    /** Posición horizontal al inicio del último tick de simulación. */
+    protected double previaHorizontal;
+
+    /** Posición vertical al inicio del último tick de simulación. */
+    protected double previaVertical;
+
     /** Anchura de la entidad en píxeles. */
     protected final double ancho;
 
@@ -59,6 +62,8 @@ public abstract class Entidad {
                       double mundoAncho, double mundoAlto) {
         this.posicionHorizontal = x;
         this.posicionVertical = y;
+        this.previaHorizontal = x;
+        this.previaVertical = y;
         this.ancho = ancho;
         this.alto = alto;
         this.mundoAncho = mundoAncho;
@@ -89,26 +94,143 @@ public abstract class Entidad {
         }
     }
 
+    // === Caja de colisión sin reservas de memoria ===
+
+    /**
+     * Devuelve el borde izquierdo de la entidad.
+     *
+     * @return coordenada X mínima.
+     */
+    public double getMinX() { return posicionHorizontal; }
+
+    /**
+     * Devuelve el borde superior de la entidad.
+     *
+     * @return coordenada Y mínima.
+     */
+    public double getMinY() { return posicionVertical; }
+
+    /**
+     * Devuelve el borde derecho de la entidad.
+     *
+     * @return coordenada X máxima.
+     */
+    public double getMaxX() { return posicionHorizontal + ancho; }
+
+    /**
+     * Devuelve el borde inferior de la entidad.
+     *
+     * @return coordenada Y máxima.
+     */
+    public double getMaxY() { return posicionVertical + alto; }
+
+    /**
+     * Devuelve la anchura de la entidad.
+     *
+     * @return anchura en píxeles.
+     */
+    public double getAncho() { return ancho; }
+
+    /**
+     * Devuelve la altura de la entidad.
+     *
+     * @return altura en píxeles.
+     */
+    public double getAlto() { return alto; }
+
+    /**
+     * Indica si esta entidad se solapa con otra.
+     *
+     * <p>Compara los accesores {@code getMin*}/{@code getMax*} de ambas, sin
+     * crear objetos temporales, por lo que es la opción a usar en el bucle
+     * de juego.</p>
+     *
+     * @param otra entidad con la que comprobar la colisión.
+     * @return {@code true} si las cajas de colisión se solapan.
+     */
+    public boolean intersects(Entidad otra) {
+        return intersects(otra.getMinX(), otra.getMinY(), otra.getMaxX(), otra.getMaxY());
+    }
+
     /**
-     * Devuelve el rectángulo de colisión de la entidad.
+     * Indica si esta entidad se solapa con el rectángulo dado.
      *
-     * <p>El rectángulo se utiliza para comprobar intersecciones con
-     * otras entidades, como proyectiles o enemigos.</p>
+     * <p>Usa el mismo criterio que {@code Rectangle2D.intersects} de JavaFX:
+     * los rectángulos que sólo se tocan en un borde no intersectan.</p>
      *
-     * @return un {@link Rectangle2D} con los límites de la entidad.
+     * @param minX borde izquierdo del rectángulo.
+     * @param minY borde superior del rectángulo.
+     * @param maxX borde derecho del rectángulo.
+     * @param maxY borde inferior del rectángulo.
+     * @return {@code true} si se solapan.
      */
-    public Rectangle2D getBounds() {
-        return new Rectangle2D(posicionHorizontal, posicionVertical, ancho, alto);
+    public boolean intersects(double minX, double minY, double maxX, double maxY) {
+        return posicionHorizontal < maxX && posicionHorizontal + ancho > minX
+            && posicionVertical < maxY && posicionVertical + alto > minY;
     }
 
+    // === Interpolación para el renderizado ===
+
     /**
-     * Dibuja la entidad en el contexto gráfico indicado.
+     * Guarda la posición actual como posición previa.
      *
-     * <p>Cada subclase concreta debe proporcionar su propia implementación
-     * de este método para representar la entidad en pantalla.</p>
+     * <p>El controlador lo invoca al comienzo de cada tick de simulación
+     * para poder dibujar la entidad entre los dos últimos ticks.</p>
+     */
+    public void guardarPosicionPrevia() {
+        previaHorizontal = posicionHorizontal;
+        previaVertical = posicionVertical;
+    }
+
+    /**
+     * Mueve la entidad a la posición indicada, conservando la actual como previa.
+     *
+     * <p>Lo usan los clientes de red, que reciben las posiciones ya calculadas
+     * por el servidor en lugar de simularlas.</p>
+     *
+     * @param x nueva posición X.
+     * @param y nueva posición Y.
+     */
+    public void colocar(double x, double y) {
+        guardarPosicionPrevia();
+        posicionHorizontal = x;
+        posicionVertical = y;
+        clamp();
+    }
+
+    /**
+     * Escribe la posición actual y la previa en el buffer (32 bytes).
+     *
+     * @param buf buffer de destino.
+     */
+    public void escribirEstado(ByteBuffer buf) {
+        buf.putDouble(posicionHorizontal).putDouble(posicionVertical)
+           .putDouble(previaHorizontal).putDouble(previaVertical);
+    }
+
+    /**
+     * Restaura la posición escrita con {@link #escribirEstado(ByteBuffer)}.
+     *
+     * @param buf buffer de origen.
+     */
+    public void leerEstado(ByteBuffer buf) {
+        posicionHorizontal = buf.getDouble();
+        posicionVertical = buf.getDouble();
+        previaHorizontal = buf.getDouble();
+        previaVertical = buf.getDouble();
+    }
+
+    /**
+     * Devuelve la posición horizontal al inicio del último tick.
+     *
+     * @return coordenada X previa.
+     */
+    public double getPreviaX() { return previaHorizontal; }
+
+    /**
+     * Devuelve la posición vertical al inicio del último tick.
      *
-     * @param g el {@link GraphicsContext} del {@link javafx.scene.canvas.Canvas}
-     *          donde se pintará la entidad.
+     * @return coordenada Y previa.
      */
-    public abstract void draw(GraphicsContext g);
+    public double getPreviaY() { return previaVertical; }
 }
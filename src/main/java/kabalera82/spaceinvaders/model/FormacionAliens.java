@@ -0,0 +1,682 @@
+package kabalera82.spaceinvaders.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import kabalera82.spaceinvaders.assets.AlienSkin;
+
+/**
+ * Almacén de la oleada de aliens en formato de estructura de arrays.
+ *
+ * <p>En lugar de un objeto por enemigo, la formación guarda el
+ * estado de todos los aliens en arrays primitivos paralelos indexados por
+ * {@code id} (posición, casilla, si sigue vivo, variante de aspecto y fase
+ * de animación). La operación en bloque {@link #actualizar(double)} recorre
+ * esos arrays en un bucle compacto y sin reservar memoria.</p>
+ *
+ * <h2>Características</h2>
+ * <ul>
+ *   <li>Movimiento en bloque: la dirección y el descenso son de la formación,
+ *       no de cada alien, por lo que la oleada nunca se deforma.</li>
+ *   <li>Límites de los aliens vivos mantenidos de forma incremental al
+ *       destruir aliens: rebotes y llegada a la nave se comprueban en O(1).</li>
+ *   <li>Los ids son estables durante toda la oleada. Destruir un alien sólo
+ *       marca su hueco y lo apunta como pendiente; {@link #compactar()} lo
+ *       saca de la lista densa de vivos una vez por tick. Ambas operaciones
+ *       cuestan O(1) por baja y no reservan memoria.</li>
+ *   <li>Cada hueco tiene una generación que avanza al destruirlo o al crear
+ *       otra oleada, de modo que quien guarde un id puede comprobar con
+ *       {@link #esVigente(int, int)} si sigue refiriéndose al mismo alien.</li>
+ *   <li>Sólo se guardan la variante y el frame de cada alien; los dibujan
+ *       las vistas a partir de la {@code InstantaneaRender}, por lo que la
+ *       simulación no depende de las imágenes ni de JavaFX.</li>
+ * </ul>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ * @see kabalera82.spaceinvaders.assets.AlienSkin
+ */
+public class FormacionAliens {
+
+    /** Velocidad horizontal en píxeles por segundo. */
+    private double vel = 100;
+
+    /** Cantidad de píxeles que desciende la formación tras cada rebote. */
+    private double descenso = 16;
+
+    /** Anchura de cada alien en píxeles. */
+    private final double ancho;
+
+    /** Altura de cada alien en píxeles. */
+    private final double alto;
+
+    /** Anchura total del mundo (límite horizontal). */
+    private final double mundoAncho;
+
+    /** Altura total del mundo (límite vertical). */
+    private final double mundoAlto;
+
+    /** Duración de cada frame de animación en segundos. */
+    private double frameDuration = 0.22;
+
+    /** Número de frames de cada variante, en orden de {@link AlienSkin}. */
+    private static final byte[] NUM_FRAMES = numFrames();
+
+    // === Estado de la formación ===
+
+    /** Dirección común del movimiento: {@code 1} derecha, {@code -1} izquierda. */
+    private int dir = 1;
+
+    /** Posición de la casilla (fila 0, columna 0) de la formación. */
+    private double origenX, origenY;
+
+    /** Separación entre columnas y entre filas de la formación. */
+    private double sepX, sepY;
+
+    /** Columnas y filas de la oleada actual. */
+    private int columnas, filas;
+
+    /** Aliens vivos en cada columna y en cada fila. */
+    private int[] vivosPorColumna = new int[0];
+    private int[] vivosPorFila = new int[0];
+
+    /** Primera y última columna, y primera y última fila, con algún alien vivo. */
+    private int colMin, colMax, filaMin, filaMax;
+
+    // === Estado por alien (arrays paralelos) ===
+
+    /** Número de ids ocupados en la oleada actual. */
+    private int total = 0;
+
+    /** Número de aliens vivos. */
+    private int vivos = 0;
+
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] previaX = new double[0];
+    private double[] previaY = new double[0];
+    private boolean[] vivo = new boolean[0];
+    private short[]  columna = new short[0];
+    private short[]  fila = new short[0];
+    private byte[]   skin = new byte[0];
+    private byte[]   frameIndex = new byte[0];
+    private double[] frameTimer = new double[0];
+    private int[]    generacion = new int[0];
+
+    // === Lista densa de vivos ===
+
+    /** Ids de los aliens vivos en {@code [0, numDensos)}, sin orden concreto. */
+    private int[] densos = new int[0];
+
+    /** Posición de cada id dentro de {@link #densos}. */
+    private int[] posDenso = new int[0];
+
+    /** Longitud de la lista densa (incluye bajas aún no compactadas). */
+    private int numDensos = 0;
+
+    /** Ids destruidos desde la última compactación. */
+    private int[] pendientes = new int[0];
+    private int numPendientes = 0;
+
+    /**
+     * Construye una formación vacía.
+     *
+     * @param ancho anchura de cada alien en píxeles.
+     * @param alto altura de cada alien en píxeles.
+     * @param mundoAncho anchura total del mundo.
+     * @param mundoAlto altura total del mundo.
+     */
+    public FormacionAliens(double ancho, double alto, double mundoAncho, double mundoAlto) {
+        this.ancho = ancho;
+        this.alto = alto;
+        this.mundoAncho = mundoAncho;
+        this.mundoAlto = mundoAlto;
+    }
+
+    /**
+     * Sustituye la oleada actual por una formación rectangular completa.
+     *
+     * <p>Los ids se asignan por filas: el alien de la fila {@code f} y la
+     * columna {@code c} recibe el id {@code f * columnas + c}. Cada fila usa la
+     * variante {@code skins[f % skins.length]}.</p>
+     *
+     * @param filas número de filas.
+     * @param columnas número de columnas.
+     * @param origenX posición X del alien de la fila 0, columna 0.
+     * @param origenY posición Y del alien de la fila 0, columna 0.
+     * @param sepX distancia horizontal entre columnas.
+     * @param sepY distancia vertical entre filas.
+     * @param skins variantes de aspecto, asignadas por fila.
+     */
+    public void crearOleada(int filas, int columnas, double origenX, double origenY,
+                            double sepX, double sepY, AlienSkin[] skins) {
+        int capacidad = filas * columnas;
+        asegurarCapacidad(filas, columnas);
+        Arrays.fill(vivosPorColumna, 0, columnas, filas);
+        Arrays.fill(vivosPorFila, 0, filas, columnas);
+
+        this.filas = filas;
+        this.columnas = columnas;
+        this.origenX = origenX;
+        this.origenY = origenY;
+        this.sepX = sepX;
+        this.sepY = sepY;
+        this.dir = 1;
+        this.colMin = 0;
+        this.colMax = columnas - 1;
+        this.filaMin = 0;
+        this.filaMax = filas - 1;
+
+        int id = 0;
+        for (int f = 0; f < filas; f++) {
+            byte s = (byte) skins[f % skins.length].ordinal();
+            for (int c = 0; c < columnas; c++, id++) {
+                x[id] = previaX[id] = origenX + c * sepX;
+                y[id] = previaY[id] = origenY + f * sepY;
+                vivo[id] = true;
+                columna[id] = (short) c;
+                fila[id] = (short) f;
+                skin[id] = s;
+                frameIndex[id] = 0;
+                frameTimer[id] = 0;
+                generacion[id]++;
+                densos[id] = id;
+                posDenso[id] = id;
+            }
+        }
+        total = vivos = numDensos = capacidad;
+        numPendientes = 0;
+    }
+
+    private void asegurarCapacidad(int filas, int columnas) {
+        int capacidad = filas * columnas;
+        if (x.length < capacidad) {
+            x = new double[capacidad];
+            y = new double[capacidad];
+            previaX = new double[capacidad];
+            previaY = new double[capacidad];
+            vivo = new boolean[capacidad];
+            columna = new short[capacidad];
+            fila = new short[capacidad];
+            skin = new byte[capacidad];
+            frameIndex = new byte[capacidad];
+            frameTimer = new double[capacidad];
+            densos = new int[capacidad];
+            posDenso = new int[capacidad];
+            pendientes = new int[capacidad];
+            generacion = Arrays.copyOf(generacion, capacidad);
+        }
+        if (vivosPorColumna.length < columnas) vivosPorColumna = new int[columnas];
+        if (vivosPorFila.length < filas) vivosPorFila = new int[filas];
+    }
+
+    /**
+     * Escribe el estado completo de la oleada en el buffer.
+     *
+     * <p>Sólo se escriben los datos que no se pueden deducir: la casilla de
+     * cada alien sale de su id y los contadores por fila y columna, los límites
+     * y la lista densa se reconstruyen al leer. Los aliens muertos sólo ocupan
+     * su aspecto y su generación (5 bytes); cada vivo ocupa 45.</p>
+     *
+     * <p>Los aliens se escriben por orden de id, así que la oleada no se
+     * modifica: las bajas pendientes de {@link #compactar()} siguen pendientes
+     * y la lista densa conserva su orden.</p>
+     *
+     * @param buf buffer de destino.
+     */
+    public void escribirEstado(ByteBuffer buf) {
+        buf.putInt(filas).putInt(columnas).putInt(dir)
+           .putDouble(origenX).putDouble(origenY).putDouble(sepX).putDouble(sepY)
+           .putDouble(vel).putDouble(descenso).putDouble(frameDuration);
+        for (int i = 0; i < total; i++) buf.put(skin[i]).putInt(generacion[i]);
+        buf.putInt(vivos);
+        for (int i = 0; i < total; i++) {
+            if (!vivo[i]) continue;
+            buf.putInt(i)
+               .putDouble(x[i]).putDouble(y[i]).putDouble(previaX[i]).putDouble(previaY[i])
+               .put(frameIndex[i]).putDouble(frameTimer[i]);
+        }
+    }
+
+    /**
+     * Sustituye la oleada por la escrita con {@link #escribirEstado(ByteBuffer)}.
+     *
+     * <p>Reutiliza los arrays si tienen capacidad suficiente, así que restaurar
+     * repetidamente oleadas del mismo tamaño no reserva memoria.</p>
+     *
+     * @param buf buffer de origen.
+     */
+    public void leerEstado(ByteBuffer buf) {
+        int f = buf.getInt(), c = buf.getInt();
+        asegurarCapacidad(f, c);
+        filas = f;
+        columnas = c;
+        total = f * c;
+        dir = buf.getInt();
+        origenX = buf.getDouble();
+        origenY = buf.getDouble();
+        sepX = buf.getDouble();
+        sepY = buf.getDouble();
+        vel = buf.getDouble();
+        descenso = buf.getDouble();
+        frameDuration = buf.getDouble();
+        for (int i = 0; i < total; i++) {
+            skin[i] = buf.get();
+            generacion[i] = buf.getInt();
+            vivo[i] = false;
+            fila[i] = (short) (i / columnas);
+            columna[i] = (short) (i % columnas);
+        }
+        Arrays.fill(vivosPorColumna, 0, columnas, 0);
+        Arrays.fill(vivosPorFila, 0, filas, 0);
+
+        vivos = numDensos = buf.getInt();
+        numPendientes = 0;
+        for (int k = 0; k < vivos; k++) {
+            int i = buf.getInt();
+            x[i] = buf.getDouble();
+            y[i] = buf.getDouble();
+            previaX[i] = buf.getDouble();
+            previaY[i] = buf.getDouble();
+            frameIndex[i] = buf.get();
+            frameTimer[i] = buf.getDouble();
+            vivo[i] = true;
+            densos[k] = i;
+            posDenso[i] = k;
+            vivosPorColumna[columna[i]]++;
+            vivosPorFila[fila[i]]++;
+        }
+
+        colMin = 0;
+        colMax = columnas - 1;
+        filaMin = 0;
+        filaMax = filas - 1;
+        if (vivos > 0) {
+            while (vivosPorColumna[colMin] == 0) colMin++;
+            while (vivosPorColumna[colMax] == 0) colMax--;
+            while (vivosPorFila[filaMin] == 0) filaMin++;
+            while (vivosPorFila[filaMax] == 0) filaMax--;
+        }
+    }
+
+    /**
+     * Ajusta la velocidad de la animación de toda la formación.
+     *
+     * @param seconds duración de cada frame en segundos.
+     */
+    public void setFrameDuration(double seconds) {
+        this.frameDuration = seconds;
+    }
+
+    /**
+     * Ajusta la velocidad horizontal de toda la formación.
+     *
+     * @param pxPorSegundo velocidad en píxeles por segundo.
+     */
+    public void setVelocidad(double pxPorSegundo) {
+        this.vel = pxPorSegundo;
+    }
+
+    /**
+     * Ajusta cuánto desciende la formación tras rebotar en un borde.
+     *
+     * @param px descenso en píxeles.
+     */
+    public void setDescenso(double px) {
+        this.descenso = px;
+    }
+
+    /**
+     * Mueve la formación como un bloque y avanza la animación de los aliens vivos.
+     *
+     * <p>La dirección y el descenso son comunes: cuando el borde de la
+     * formación (calculado a partir de la primera y la última columna con
+     * aliens vivos) toca un límite del mundo, toda la formación invierte la
+     * dirección y baja {@code descenso} píxeles. Esa comprobación es O(1); el
+     * bucle por alien sólo aplica el desplazamiento y la animación.</p>
+     *
+     * <p>La posición anterior de cada alien se conserva para poder dibujarlo
+     * interpolado.</p>
+     *
+     * @param dt tiempo en segundos transcurrido desde la última actualización.
+     */
+    public void actualizar(double dt) {
+        if (vivos == 0) return;
+
+        // Movimiento horizontal común y rebote en bordes
+        double dx = dir * vel * dt;
+        double dy = 0;
+        double nuevoMin = getMinX() + dx, nuevoMax = getMaxX() + dx;
+        if (nuevoMin <= 0 || nuevoMax >= mundoAncho) {
+            dir = -dir;
+            if (nuevoMin < 0) dx -= nuevoMin;
+            else if (nuevoMax > mundoAncho) dx -= nuevoMax - mundoAncho;
+            dy = Math.min(descenso, mundoAlto - getMaxY());
+        }
+        origenX += dx;
+        origenY += dy;
+
+        compactar();
+        for (int k = 0; k < numDensos; k++) {
+            int i = densos[k];
+            previaX[i] = x[i];
+            previaY[i] = y[i];
+            x[i] += dx;
+            y[i] += dy;
+
+            // Animación por frames
+            int n = NUM_FRAMES[skin[i]];
+            if (n > 1) {
+                double t = frameTimer[i] + dt;
+                while (t >= frameDuration) {
+                    t -= frameDuration;
+                    frameIndex[i] = (byte) ((frameIndex[i] + 1) % n);
+                }
+                frameTimer[i] = t;
+            }
+        }
+    }
+
+    /**
+     * Marca como destruido al alien indicado.
+     *
+     * <p>El hueco queda marcado y apuntado como pendiente; sale de la lista
+     * de vivos en la siguiente llamada a {@link #compactar()}.</p>
+     *
+     * @param id identificador del alien.
+     */
+    public void destruir(int id) {
+        if (!vivo[id]) return;
+        vivo[id] = false;
+        generacion[id]++;
+        pendientes[numPendientes++] = id;
+        vivos--;
+        if (vivos == 0) return;
+
+        // Los límites sólo avanzan cuando se vacía la fila o columna del borde,
+        // así que el coste total durante una oleada es O(filas + columnas).
+        int c = columna[id], f = fila[id];
+        if (--vivosPorColumna[c] == 0) {
+            while (vivosPorColumna[colMin] == 0) colMin++;
+            while (vivosPorColumna[colMax] == 0) colMax--;
+        }
+        if (--vivosPorFila[f] == 0) {
+            while (vivosPorFila[filaMin] == 0) filaMin++;
+            while (vivosPorFila[filaMax] == 0) filaMax--;
+        }
+    }
+
+    /**
+     * Saca de la lista densa los aliens destruidos desde la última llamada.
+     *
+     * <p>Cada baja se elimina moviendo el último id de la lista a su hueco, así
+     * que el coste es proporcional al número de bajas y no al tamaño de la
+     * oleada. Se llama una vez por tick, después de aplicar las colisiones;
+     * {@link #actualizar(double)} también la invoca por si quedara algo pendiente.</p>
+     */
+    public void compactar() {
+        for (int k = 0; k < numPendientes; k++) {
+            int id = pendientes[k];
+            int pos = posDenso[id];
+            int ultimo = densos[--numDensos];
+            densos[pos] = ultimo;
+            posDenso[ultimo] = pos;
+        }
+        numPendientes = 0;
+    }
+
+    /**
+     * Mueve la formación en bloque a un origen dado y fija su dirección.
+     *
+     * <p>Lo usan los clientes de red, que no simulan la oleada sino que
+     * reciben su origen del servidor. Cada alien vivo conserva su posición
+     * actual como previa, para poder dibujarlo interpolado.</p>
+     *
+     * @param nuevoOrigenX posición X de la casilla (fila 0, columna 0).
+     * @param nuevoOrigenY posición Y de la casilla (fila 0, columna 0).
+     * @param nuevaDir dirección del movimiento ({@code 1} o {@code -1}).
+     */
+    public void colocar(double nuevoOrigenX, double nuevoOrigenY, int nuevaDir) {
+        origenX = nuevoOrigenX;
+        origenY = nuevoOrigenY;
+        dir = nuevaDir;
+        compactar();
+        for (int k = 0; k < numDensos; k++) {
+            int i = densos[k];
+            previaX[i] = x[i];
+            previaY[i] = y[i];
+            x[i] = origenX + columna[i] * sepX;
+            y[i] = origenY + fila[i] * sepY;
+        }
+    }
+
+    /**
+     * Indica si el rectángulo dado intersecta con el alien {@code id}.
+     *
+     * <p>Usa el mismo criterio que {@link Entidad#intersects(double, double, double, double)}:
+     * los rectángulos que sólo se tocan en un borde no intersectan.</p>
+     *
+     * @param id identificador del alien.
+     * @param minX borde izquierdo del rectángulo.
+     * @param minY borde superior del rectángulo.
+     * @param maxX borde derecho del rectángulo.
+     * @param maxY borde inferior del rectángulo.
+     * @return {@code true} si se solapan.
+     */
+    public boolean intersects(int id, double minX, double minY, double maxX, double maxY) {
+        return x[id] < maxX && x[id] + ancho > minX && y[id] < maxY && y[id] + alto > minY;
+    }
+
+    /**
+     * Devuelve el número de ids usados en la oleada actual, vivos o no.
+     *
+     * @return ids ocupados; los válidos están en {@code [0, getTotal())}.
+     */
+    public int getTotal() { return total; }
+
+    /**
+     * Devuelve el número de aliens que siguen vivos.
+     *
+     * @return aliens vivos.
+     */
+    public int getVivos() { return vivos; }
+
+    /**
+     * Devuelve el id del {@code k}-ésimo alien vivo de la lista densa.
+     *
+     * <p>Sólo es fiable después de {@link #compactar()}: entonces los ids
+     * vivos son exactamente {@code getIdVivo(0) .. getIdVivo(getVivos() - 1)},
+     * sin un orden concreto.</p>
+     *
+     * @param k posición en la lista densa, en {@code [0, getVivos())}.
+     * @return id del alien.
+     */
+    public int getIdVivo(int k) { return densos[k]; }
+
+    /**
+     * Devuelve la generación actual del hueco {@code id}.
+     *
+     * @param id identificador del alien.
+     * @return generación; cambia al destruir el alien o al crear otra oleada.
+     */
+    public int getGeneracion(int id) { return generacion[id]; }
+
+    /**
+     * Indica si un id guardado junto a su generación sigue siendo el mismo alien vivo.
+     *
+     * @param id identificador del alien.
+     * @param gen generación leída con {@link #getGeneracion(int)} al guardar el id.
+     * @return {@code true} si el alien sigue vivo y es el de esa generación.
+     */
+    public boolean esVigente(int id, int gen) {
+        return id >= 0 && id < total && generacion[id] == gen && vivo[id];
+    }
+
+    /**
+     * Indica si el alien sigue vivo.
+     *
+     * @param id identificador del alien.
+     * @return {@code true} si no ha sido destruido.
+     */
+    public boolean estaVivo(int id) { return vivo[id]; }
+
+    /**
+     * Devuelve la posición horizontal de un alien.
+     *
+     * @param id identificador del alien.
+     * @return coordenada X de su esquina superior izquierda.
+     */
+    public double getX(int id) { return x[id]; }
+
+    /**
+     * Devuelve la posición vertical de un alien.
+     *
+     * @param id identificador del alien.
+     * @return coordenada Y de su esquina superior izquierda.
+     */
+    public double getY(int id) { return y[id]; }
+
+    /**
+     * Devuelve la posición horizontal de un alien al inicio del último tick.
+     *
+     * @param id identificador del alien.
+     * @return coordenada X previa.
+     */
+    public double getPreviaX(int id) { return previaX[id]; }
+
+    /**
+     * Devuelve la posición vertical de un alien al inicio del último tick.
+     *
+     * @param id identificador del alien.
+     * @return coordenada Y previa.
+     */
+    public double getPreviaY(int id) { return previaY[id]; }
+
+    /**
+     * Devuelve la variante de un alien.
+     *
+     * @param id identificador del alien.
+     * @return ordinal de su {@link AlienSkin}.
+     */
+    public int getSkin(int id) { return skin[id]; }
+
+    // === Límites de la formación (aliens vivos) ===
+
+    /**
+     * Devuelve el borde izquierdo de los aliens vivos.
+     *
+     * @return coordenada X mínima.
+     */
+    public double getMinX() { return origenX + colMin * sepX; }
+
+    /**
+     * Devuelve el borde derecho de los aliens vivos.
+     *
+     * @return coordenada X máxima.
+     */
+    public double getMaxX() { return origenX + colMax * sepX + ancho; }
+
+    /**
+     * Devuelve el borde superior de los aliens vivos.
+     *
+     * @return coordenada Y mínima.
+     */
+    public double getMinY() { return origenY + filaMin * sepY; }
+
+    /**
+     * Devuelve el borde inferior de los aliens vivos.
+     *
+     * <p>Permite comprobar en O(1) si la invasión ha alcanzado a la nave.</p>
+     *
+     * @return coordenada Y máxima.
+     */
+    public double getMaxY() { return origenY + filaMax * sepY + alto; }
+
+    /**
+     * Devuelve la dirección común del movimiento.
+     *
+     * @return {@code 1} si avanza hacia la derecha, {@code -1} hacia la izquierda.
+     */
+    public int getDireccion() { return dir; }
+
+    /**
+     * Devuelve el número de filas de la oleada actual.
+     *
+     * @return filas de la formación.
+     */
+    public int getFilas() { return filas; }
+
+    /**
+     * Devuelve el número de columnas de la oleada actual.
+     *
+     * @return columnas de la formación.
+     */
+    public int getColumnas() { return columnas; }
+
+    /**
+     * Devuelve la posición X de la casilla (fila 0, columna 0).
+     *
+     * @return origen horizontal de la formación.
+     */
+    public double getOrigenX() { return origenX; }
+
+    /**
+     * Devuelve la posición Y de la casilla (fila 0, columna 0).
+     *
+     * @return origen vertical de la formación.
+     */
+    public double getOrigenY() { return origenY; }
+
+    /**
+     * Devuelve la separación entre columnas.
+     *
+     * @return distancia horizontal en píxeles.
+     */
+    public double getSepX() { return sepX; }
+
+    /**
+     * Devuelve la separación entre filas.
+     *
+     * @return distancia vertical en píxeles.
+     */
+    public double getSepY() { return sepY; }
+
+    /**
+     * Devuelve el frame de animación de un alien.
+     *
+     * @param id identificador del alien.
+     * @return índice del frame que se dibuja.
+     */
+    public int getFrame(int id) { return frameIndex[id]; }
+
+    /**
+     * Fija el frame de animación de un alien (clientes de red).
+     *
+     * @param id identificador del alien.
+     * @param frame índice del frame; se ajusta al número de frames de su variante.
+     */
+    public void setFrame(int id, int frame) {
+        frameIndex[id] = (byte) (frame % NUM_FRAMES[skin[id]]);
+    }
+
+    /**
+     * Devuelve la anchura común de los aliens.
+     *
+     * @return anchura en píxeles.
+     */
+    public double getAncho() { return ancho; }
+
+    /**
+     * Devuelve la altura común de los aliens.
+     *
+     * @return altura en píxeles.
+     */
+    public double getAlto() { return alto; }
+
+    private static byte[] numFrames() {
+        AlienSkin[] skins = AlienSkin.values();
+        byte[] n = new byte[skins.length];
+        for (int s = 0; s < skins.length; s++) n[s] = (byte) skins[s].framePaths.length;
+        return n;
+    }
+}
@@ -1,7 +1,5 @@
 package kabalera82.spaceinvaders.model;
 
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import kabalera82.spaceinvaders.interfaces.IMovimiento;
 
 /**
@@ -14,7 +12,6 @@ import kabalera82.spaceinvaders.interfaces.IMovimiento;
  *
  * <h2>Responsabilidades</h2>
  * <ul>
- *   <li>Almacenar y renderizar la imagen de la nave.</li>
  *   <li>Responder a movimientos discretos en el eje horizontal.</li>
  *   <li>Garantizar que la nave no sobrepase los límites del mundo.</li>
  * </ul>
@@ -26,9 +23,6 @@ import kabalera82.spaceinvaders.interfaces.IMovimiento;
  */
 public class Nave extends Entidad implements IMovimiento {
 
-    /** Imagen de la nave renderizada en pantalla. */
-    private final Image img;
-
     /** Cantidad de píxeles desplazados en cada paso de movimiento. */
     private double pasoPx = 16;
 
@@ -41,12 +35,10 @@ public class Nave extends Entidad implements IMovimiento {
      * @param alto altura de la nave en píxeles.
      * @param mundoAncho anchura total del mundo (límite horizontal).
      * @param mundoAlto altura total del mundo (límite vertical).
-     * @param rutaRecurso ruta de la imagen de la nave en {@code resources}.
      */
     public Nave(double x, double y, double ancho, double alto,
-                double mundoAncho, double mundoAlto, String rutaRecurso) {
+                double mundoAncho, double mundoAlto) {
         super(x, y, ancho, alto, mundoAncho, mundoAlto);
-        img = new Image(getClass().getResourceAsStream(rutaRecurso));
     }
 
     /**
@@ -79,16 +71,6 @@ public class Nave extends Entidad implements IMovimiento {
         // Intencionalmente vacío
     }
 
-    /**
-     * Renderiza la nave en el contexto gráfico indicado.
-     *
-     * @param g el {@link GraphicsContext} sobre el que se dibuja la nave.
-     */
-    @Override
-    public void draw(GraphicsContext g) {
-        g.drawImage(img, posicionHorizontal, posicionVertical, ancho, alto);
-    }
-
     /**
      * Define el número de píxeles desplazados por paso de movimiento.
      *
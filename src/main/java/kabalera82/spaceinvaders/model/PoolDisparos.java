@@ -0,0 +1,209 @@
+package kabalera82.spaceinvaders.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Almacén de proyectiles de capacidad fija con huecos reutilizables.
+ *
+ * <p>En lugar de un objeto por proyectil, todos los proyectiles
+ * comparten tamaño, velocidad y color, y su posición se guarda en arrays
+ * primitivos densos. Los proyectiles vivos ocupan siempre los índices
+ * {@code [0, getCantidad())}, de modo que:</p>
+ * <ul>
+ *   <li>Disparar escribe en el primer hueco libre, sin reservar memoria.</li>
+ *   <li>Eliminar mueve el último proyectil al hueco liberado: coste O(1).</li>
+ *   <li>Recorrer las balas vivas es un bucle simple de {@code 0} a {@code getCantidad()}.</li>
+ * </ul>
+ *
+ * <p>Como la eliminación altera el orden, los bucles que eliminan mientras
+ * recorren deben ir de atrás hacia delante.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public class PoolDisparos {
+
+    /** Anchura de cada proyectil en píxeles. */
+    private final double ancho;
+
+    /** Altura de cada proyectil en píxeles. */
+    private final double alto;
+
+    /** Altura total del mundo (límite vertical). */
+    private final double mundoAlto;
+
+    /** Velocidad vertical en píxeles por segundo (negativa = hacia arriba). */
+    private final double velocidadPxS;
+
+    /** Color con el que se dibujan los proyectiles, en {@code 0xAARRGGBB}. */
+    private final int colorArgb;
+
+    // === Estado por proyectil (arrays paralelos densos) ===
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] previaY;
+
+    /** Número de proyectiles vivos. */
+    private int cantidad = 0;
+
+    /**
+     * Construye un almacén vacío.
+     *
+     * @param capacidad número máximo de proyectiles simultáneos.
+     * @param ancho anchura de cada proyectil en píxeles.
+     * @param alto altura de cada proyectil en píxeles.
+     * @param mundoAlto altura total del mundo.
+     * @param velocidadPxS velocidad vertical (negativa para subir).
+     * @param colorArgb color de los proyectiles en {@code 0xAARRGGBB}; el
+     *                  modelo no depende del toolkit gráfico, cada vista lo convierte.
+     */
+    public PoolDisparos(int capacidad, double ancho, double alto, double mundoAlto,
+                        double velocidadPxS, int colorArgb) {
+        this.x = new double[capacidad];
+        this.y = new double[capacidad];
+        this.previaY = new double[capacidad];
+        this.ancho = ancho;
+        this.alto = alto;
+        this.mundoAlto = mundoAlto;
+        this.velocidadPxS = velocidadPxS;
+        this.colorArgb = colorArgb;
+    }
+
+    /**
+     * Añade un proyectil si queda espacio.
+     *
+     * @param px posición X de la esquina superior izquierda.
+     * @param py posición Y de la esquina superior izquierda.
+     * @return {@code true} si se añadió; {@code false} si el almacén está lleno.
+     */
+    public boolean disparar(double px, double py) {
+        if (cantidad == x.length) return false;
+        int i = cantidad++;
+        x[i] = px;
+        y[i] = previaY[i] = py;
+        return true;
+    }
+
+    /**
+     * Elimina el proyectil {@code i} moviendo el último a su hueco.
+     *
+     * @param i índice de un proyectil vivo.
+     */
+    public void eliminar(int i) {
+        int ultimo = --cantidad;
+        x[i] = x[ultimo];
+        y[i] = y[ultimo];
+        previaY[i] = previaY[ultimo];
+    }
+
+    /** Elimina todos los proyectiles. */
+    public void vaciar() {
+        cantidad = 0;
+    }
+
+    /**
+     * Mueve todos los proyectiles y elimina los que han salido del mundo.
+     *
+     * <p>La posición anterior se conserva para el dibujado interpolado.</p>
+     *
+     * @param dt tiempo en segundos desde la última actualización.
+     */
+    public void actualizar(double dt) {
+        double dy = velocidadPxS * dt;
+        for (int i = cantidad - 1; i >= 0; i--) {
+            previaY[i] = y[i];
+            double ny = y[i] + dy;
+            y[i] = ny;
+            if (ny + alto < 0 || ny > mundoAlto) eliminar(i);
+        }
+    }
+
+    /**
+     * Escribe los proyectiles vivos en el buffer (4 + 24 bytes por proyectil).
+     *
+     * @param buf buffer de destino.
+     */
+    public void escribirEstado(ByteBuffer buf) {
+        buf.putInt(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            buf.putDouble(x[i]).putDouble(y[i]).putDouble(previaY[i]);
+        }
+    }
+
+    /**
+     * Sustituye los proyectiles por los escritos con {@link #escribirEstado(ByteBuffer)}.
+     *
+     * @param buf buffer de origen.
+     * @throws IllegalStateException si hay más proyectiles que capacidad.
+     */
+    public void leerEstado(ByteBuffer buf) {
+        int n = buf.getInt();
+        if (n < 0 || n > x.length) throw new IllegalStateException("Proyectiles no válidos: " + n);
+        for (int i = 0; i < n; i++) {
+            x[i] = buf.getDouble();
+            y[i] = buf.getDouble();
+            previaY[i] = buf.getDouble();
+        }
+        cantidad = n;
+    }
+
+    /**
+     * Devuelve el número de proyectiles vivos.
+     *
+     * @return proyectiles en {@code [0, getCantidad())}.
+     */
+    public int getCantidad() { return cantidad; }
+
+    /**
+     * Devuelve la capacidad máxima del almacén.
+     *
+     * @return número máximo de proyectiles simultáneos.
+     */
+    public int getCapacidad() { return x.length; }
+
+    /**
+     * Devuelve la posición horizontal de un proyectil.
+     *
+     * @param i índice del proyectil.
+     * @return coordenada X de su esquina superior izquierda.
+     */
+    public double getX(int i) { return x[i]; }
+
+    /**
+     * Devuelve la posición vertical de un proyectil.
+     *
+     * @param i índice del proyectil.
+     * @return coordenada Y de su esquina superior izquierda.
+     */
+    public double getY(int i) { return y[i]; }
+
+    /**
+     * Devuelve la posición vertical de un proyectil al inicio del último tick.
+     *
+     * @param i índice del proyectil.
+     * @return coordenada Y previa de su esquina superior izquierda.
+     */
+    public double getPreviaY(int i) { return previaY[i]; }
+
+    /**
+     * Devuelve el color común de los proyectiles.
+     *
+     * @return color de relleno en {@code 0xAARRGGBB}.
+     */
+    public int getColorArgb() { return colorArgb; }
+
+    /**
+     * Devuelve la anchura común de los proyectiles.
+     *
+     * @return anchura en píxeles.
+     */
+    public double getAncho() { return ancho; }
+
+    /**
+     * Devuelve la altura común de los proyectiles.
+     *
+     * @return altura en píxeles.
+     */
+    public double getAlto() { return alto; }
+}
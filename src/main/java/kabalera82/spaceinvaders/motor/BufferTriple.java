@@ -0,0 +1,80 @@
+package kabalera82.spaceinvaders.motor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Intercambio sin bloqueos de un valor entre un productor y un consumidor.
+ *
+ * <p>Hay tres objetos preasignados: uno lo escribe el productor, otro lo lee
+ * el consumidor y el tercero es el último publicado. Publicar y leer son un
+ * único {@code getAndSet} atómico que intercambia el objeto propio con el
+ * del medio; ninguno de los dos hilos espera nunca al otro ni reserva
+ * memoria. El consumidor siempre ve la publicación más reciente; las
+ * intermedias que no llegue a leer se pierden.</p>
+ *
+ * <h2>Uso típico</h2>
+ * <pre>{@code
+ * // Productor (hilo de la simulación)
+ * buffer.escritura().copiar(motor);
+ * buffer.publicar();
+ *
+ * // Consumidor (hilo de JavaFX)
+ * panel.render(buffer.leer(), alpha);
+ * }</pre>
+ *
+ * @param <T> tipo de los objetos intercambiados.
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class BufferTriple<T> {
+
+    /** Bit del índice del medio que indica que aún no se ha leído. */
+    private static final int NUEVO = 4;
+    private static final int INDICE = 3;
+
+    private final Object[] objetos = new Object[3];
+    private final AtomicInteger medio = new AtomicInteger(2);
+
+    /** Índice del objeto del productor; sólo lo toca su hilo. */
+    private int escritura = 0;
+
+    /** Índice del objeto del consumidor; sólo lo toca su hilo. */
+    private int lectura = 1;
+
+    /**
+     * Crea el buffer con tres objetos nuevos.
+     *
+     * @param fabrica crea cada uno de los tres objetos.
+     */
+    public BufferTriple(Supplier<T> fabrica) {
+        for (int i = 0; i < objetos.length; i++) objetos[i] = fabrica.get();
+    }
+
+    /**
+     * Devuelve el objeto que puede escribir el productor. Sólo desde el hilo productor.
+     *
+     * @return objeto propio del productor hasta el siguiente {@link #publicar()}.
+     */
+    @SuppressWarnings("unchecked")
+    public T escritura() {
+        return (T) objetos[escritura];
+    }
+
+    /** Publica el objeto de escritura y pasa a escribir en otro. Sólo desde el hilo productor. */
+    public void publicar() {
+        escritura = medio.getAndSet(escritura | NUEVO) & INDICE;
+    }
+
+    /**
+     * Devuelve la publicación más reciente. Sólo desde el hilo consumidor.
+     *
+     * @return objeto propio del consumidor hasta el siguiente {@code leer()};
+     *         el mismo que la vez anterior si no se ha publicado nada desde entonces.
+     */
+    @SuppressWarnings("unchecked")
+    public T leer() {
+        if ((medio.get() & NUEVO) != 0) lectura = medio.getAndSet(lectura) & INDICE;
+        return (T) objetos[lectura];
+    }
+}
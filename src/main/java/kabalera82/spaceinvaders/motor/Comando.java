@@ -0,0 +1,54 @@
+package kabalera82.spaceinvaders.motor;
+
+/**
+ * Órdenes de entrada que acepta el {@link MotorJuego}.
+ *
+ * <p>Son independientes del dispositivo: el controlador traduce las teclas
+ * de JavaFX a comandos, y un bot o una repetición pueden generarlos
+ * directamente sin interfaz gráfica.</p>
+ *
+ * <h2>Comandos</h2>
+ * <ul>
+ *   <li>{@link #IZQUIERDA} → mover la nave un paso a la izquierda.</li>
+ *   <li>{@link #DERECHA} → mover la nave un paso a la derecha.</li>
+ *   <li>{@link #DISPARAR} → disparar si el cooldown lo permite.</li>
+ *   <li>{@link #IZQUIERDA_J2}, {@link #DERECHA_J2}, {@link #DISPARAR_J2} → lo
+ *       mismo para la nave del segundo jugador, en las partidas a dos.</li>
+ * </ul>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public enum Comando {
+
+    /** Mover la nave un paso a la izquierda. */
+    IZQUIERDA,
+
+    /** Mover la nave un paso a la derecha. */
+    DERECHA,
+
+    /** Disparar un proyectil desde la nave. */
+    DISPARAR,
+
+    /** Mover la nave del segundo jugador un paso a la izquierda. */
+    IZQUIERDA_J2,
+
+    /** Mover la nave del segundo jugador un paso a la derecha. */
+    DERECHA_J2,
+
+    /** Disparar un proyectil desde la nave del segundo jugador. */
+    DISPARAR_J2;
+
+    /** Copia de {@link #values()} para traducir códigos sin reservar memoria. */
+    private static final Comando[] VALORES = values();
+
+    /**
+     * Devuelve el comando asociado a un código numérico ({@link #ordinal()}).
+     *
+     * @param codigo código del comando.
+     * @return el comando correspondiente.
+     */
+    public static Comando desdeCodigo(int codigo) {
+        return VALORES[codigo];
+    }
+}
@@ -0,0 +1,229 @@
+package kabalera82.spaceinvaders.motor;
+
+/**
+ * Parámetros de dificultad y de simulación de una partida.
+ *
+ * <p>Agrupa los valores que antes estaban fijos en el código del juego
+ * (velocidad y descenso de los aliens, ritmo de animación, crecimiento de las
+ * oleadas por nivel y frecuencia de ticks) para poder ajustarlos sin
+ * recompilar, por ejemplo desde el
+ * {@link kabalera82.spaceinvaders.simulacion.LoteSimulaciones}.</p>
+ *
+ * <p>Las instancias son inmutables; los métodos {@code con...} devuelven una
+ * copia con un único valor cambiado.</p>
+ *
+ * <h2>Ejemplo</h2>
+ * <pre>{@code
+ * ConfiguracionJuego cfg = ConfiguracionJuego.porDefecto()
+ *         .conVelocidadAlien(120)
+ *         .conCrecimiento(2);
+ * MotorJuego motor = new MotorJuego(cfg);
+ * }</pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class ConfiguracionJuego {
+
+    private final double ticksPorSegundo;
+    private final double velocidadAlien;
+    private final double descensoAlien;
+    private final double frameDuracionBase;
+    private final double frameDuracionPorNivel;
+    private final double frameDuracionMinima;
+    private final int filasIniciales;
+    private final int columnasIniciales;
+    private final int crecimiento;
+
+    /**
+     * Construye una configuración con todos sus valores.
+     *
+     * @param ticksPorSegundo frecuencia fija de simulación.
+     * @param velocidadAlien velocidad horizontal de los aliens en píxeles por segundo.
+     * @param descensoAlien píxeles que baja un alien tras rebotar en un borde.
+     * @param frameDuracionBase duración de un frame de animación en el nivel 1.
+     * @param frameDuracionPorNivel segundos que se restan a esa duración por nivel.
+     * @param frameDuracionMinima duración mínima de un frame de animación.
+     * @param filasIniciales filas de aliens en el nivel 1.
+     * @param columnasIniciales columnas de aliens en el nivel 1.
+     * @param crecimiento filas y columnas que se añaden a la oleada por nivel.
+     * @throws IllegalArgumentException si la frecuencia no es positiva.
+     */
+    public ConfiguracionJuego(double ticksPorSegundo, double velocidadAlien, double descensoAlien,
+                              double frameDuracionBase, double frameDuracionPorNivel,
+                              double frameDuracionMinima, int filasIniciales,
+                              int columnasIniciales, int crecimiento) {
+        if (!(ticksPorSegundo > 0)) {
+            throw new IllegalArgumentException("Tick rate no válido: " + ticksPorSegundo);
+        }
+        this.ticksPorSegundo = ticksPorSegundo;
+        this.velocidadAlien = velocidadAlien;
+        this.descensoAlien = descensoAlien;
+        this.frameDuracionBase = frameDuracionBase;
+        this.frameDuracionPorNivel = frameDuracionPorNivel;
+        this.frameDuracionMinima = frameDuracionMinima;
+        this.filasIniciales = filasIniciales;
+        this.columnasIniciales = columnasIniciales;
+        this.crecimiento = crecimiento;
+    }
+
+    /**
+     * Devuelve la configuración original del juego (60 ticks por segundo).
+     *
+     * @return configuración por defecto.
+     */
+    public static ConfiguracionJuego porDefecto() {
+        return new ConfiguracionJuego(60, 100, 16, 0.15, 0.01, 0.05, 5, 10, 1);
+    }
+
+    // === Copias con un valor cambiado ======================================
+
+    /**
+     * @param v nueva frecuencia de simulación.
+     * @return copia con la frecuencia indicada.
+     */
+    public ConfiguracionJuego conTicksPorSegundo(double v) {
+        return new ConfiguracionJuego(v, velocidadAlien, descensoAlien, frameDuracionBase,
+                frameDuracionPorNivel, frameDuracionMinima, filasIniciales, columnasIniciales, crecimiento);
+    }
+
+    /**
+     * @param v nueva velocidad horizontal de los aliens.
+     * @return copia con la velocidad indicada.
+     */
+    public ConfiguracionJuego conVelocidadAlien(double v) {
+        return new ConfiguracionJuego(ticksPorSegundo, v, descensoAlien, frameDuracionBase,
+                frameDuracionPorNivel, frameDuracionMinima, filasIniciales, columnasIniciales, crecimiento);
+    }
+
+    /**
+     * @param v nuevo descenso tras cada rebote.
+     * @return copia con el descenso indicado.
+     */
+    public ConfiguracionJuego conDescensoAlien(double v) {
+        return new ConfiguracionJuego(ticksPorSegundo, velocidadAlien, v, frameDuracionBase,
+                frameDuracionPorNivel, frameDuracionMinima, filasIniciales, columnasIniciales, crecimiento);
+    }
+
+    /**
+     * @param v nueva duración de frame en el nivel 1.
+     * @return copia con la duración indicada.
+     */
+    public ConfiguracionJuego conFrameDuracionBase(double v) {
+        return new ConfiguracionJuego(ticksPorSegundo, velocidadAlien, descensoAlien, v,
+                frameDuracionPorNivel, frameDuracionMinima, filasIniciales, columnasIniciales, crecimiento);
+    }
+
+    /**
+     * @param v nuevas filas y columnas añadidas por nivel.
+     * @return copia con el crecimiento indicado.
+     */
+    public ConfiguracionJuego conCrecimiento(int v) {
+        return new ConfiguracionJuego(ticksPorSegundo, velocidadAlien, descensoAlien, frameDuracionBase,
+                frameDuracionPorNivel, frameDuracionMinima, filasIniciales, columnasIniciales, v);
+    }
+
+    // === Valores derivados =================================================
+
+    /**
+     * Calcula la duración de un frame de animación para un nivel.
+     *
+     * @param nivel nivel de la oleada, empezando en 1.
+     * @return duración del frame en segundos.
+     */
+    public double frameDuracion(int nivel) {
+        return Math.max(frameDuracionMinima, frameDuracionBase - (nivel - 1) * frameDuracionPorNivel);
+    }
+
+    /**
+     * Calcula el número de filas de la oleada de un nivel.
+     *
+     * @param nivel nivel de la oleada, empezando en 1.
+     * @return filas de aliens.
+     */
+    public int filas(int nivel) {
+        return filasIniciales + (nivel - 1) * crecimiento;
+    }
+
+    /**
+     * Calcula el número de columnas de la oleada de un nivel.
+     *
+     * @param nivel nivel de la oleada, empezando en 1.
+     * @return columnas de aliens.
+     */
+    public int columnas(int nivel) {
+        return columnasIniciales + (nivel - 1) * crecimiento;
+    }
+
+    // === Accesores =========================================================
+
+    /**
+     * Devuelve la frecuencia fija con la que avanza la simulación.
+     *
+     * @return ticks de simulación por segundo.
+     */
+    public double getTicksPorSegundo() { return ticksPorSegundo; }
+
+    /**
+     * Devuelve la velocidad horizontal de la formación de aliens.
+     *
+     * @return velocidad horizontal de los aliens en píxeles por segundo.
+     */
+    public double getVelocidadAlien() { return velocidadAlien; }
+
+    /**
+     * Devuelve cuánto baja la formación al rebotar en un borde.
+     *
+     * @return píxeles que desciende un alien tras cada rebote.
+     */
+    public double getDescensoAlien() { return descensoAlien; }
+
+    /**
+     * Devuelve la duración de los frames de animación de los aliens al empezar.
+     *
+     * @return duración de un frame de animación en el nivel 1.
+     */
+    public double getFrameDuracionBase() { return frameDuracionBase; }
+
+    /**
+     * Devuelve cuánto se acorta la animación de los aliens en cada nivel.
+     *
+     * @return segundos que se restan a la duración del frame por nivel.
+     */
+    public double getFrameDuracionPorNivel() { return frameDuracionPorNivel; }
+
+    /**
+     * Devuelve el límite inferior de la duración de un frame de animación.
+     *
+     * @return duración mínima de un frame de animación.
+     */
+    public double getFrameDuracionMinima() { return frameDuracionMinima; }
+
+    /**
+     * Devuelve el número de filas de la primera oleada.
+     *
+     * @return filas de aliens en el nivel 1.
+     */
+    public int getFilasIniciales() { return filasIniciales; }
+
+    /**
+     * Devuelve el número de columnas de la primera oleada.
+     *
+     * @return columnas de aliens en el nivel 1.
+     */
+    public int getColumnasIniciales() { return columnasIniciales; }
+
+    /**
+     * Devuelve cuánto crece la oleada de un nivel al siguiente.
+     *
+     * @return filas y columnas añadidas a la oleada por nivel.
+     */
+    public int getCrecimiento() { return crecimiento; }
+
+    @Override
+    public String toString() {
+        return "vel=" + velocidadAlien + " descenso=" + descensoAlien
+                + " frame=" + frameDuracionBase + " crecimiento=" + crecimiento
+                + " tps=" + ticksPorSegundo;
+    }
+}
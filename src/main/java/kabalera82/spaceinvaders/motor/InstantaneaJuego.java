@@ -0,0 +1,120 @@
+package kabalera82.spaceinvaders.motor;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Instantánea binaria reutilizable del estado completo de un {@link MotorJuego}.
+ *
+ * <p>Guarda el estado con {@link MotorJuego#escribirEstado(ByteBuffer)} en un
+ * {@link ByteBuffer} directo propio, que sólo crece cuando una oleada no cabe;
+ * capturar y restaurar muchas veces no reserva memoria. Sirve para guardar y
+ * reanudar partidas, para saltar directamente a un nivel en los bancos de
+ * pruebas y para experimentos de vuelta atrás.</p>
+ *
+ * <h2>Uso típico</h2>
+ * <pre>{@code
+ * InstantaneaJuego foto = new InstantaneaJuego();
+ * foto.capturar(motor);
+ * ... // seguir jugando
+ * foto.restaurar(motor);   // vuelve exactamente al mismo tick
+ * }</pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class InstantaneaJuego {
+
+    private ByteBuffer buffer;
+
+    /** Crea una instantánea vacía con un buffer inicial de 64 KiB. */
+    public InstantaneaJuego() {
+        this(64 * 1024);
+    }
+
+    /**
+     * Crea una instantánea vacía.
+     *
+     * @param capacidadInicial bytes del buffer inicial.
+     */
+    public InstantaneaJuego(int capacidadInicial) {
+        this.buffer = ByteBuffer.allocateDirect(capacidadInicial);
+        this.buffer.limit(0);
+    }
+
+    /**
+     * Guarda el estado actual del motor, sustituyendo el anterior.
+     *
+     * @param motor motor a capturar (entre ticks).
+     */
+    public void capturar(MotorJuego motor) {
+        while (true) {
+            buffer.clear();
+            try {
+                motor.escribirEstado(buffer);
+                buffer.flip();
+                return;
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Devuelve el motor al estado guardado. Se puede restaurar varias veces.
+     *
+     * @param motor motor a restaurar.
+     * @throws IllegalStateException si todavía no se ha capturado nada.
+     */
+    public void restaurar(MotorJuego motor) {
+        if (buffer.limit() == 0) throw new IllegalStateException("Instantánea vacía");
+        buffer.rewind();
+        motor.leerEstado(buffer);
+    }
+
+    /**
+     * Devuelve el tamaño de la instantánea.
+     *
+     * @return bytes ocupados por el estado guardado.
+     */
+    public int getBytes() {
+        return buffer.limit();
+    }
+
+    /**
+     * Escribe la instantánea en un fichero, para reanudar la partida más tarde.
+     *
+     * @param fichero ruta de destino.
+     * @throws IOException si no se puede escribir.
+     */
+    public void guardar(Path fichero) throws IOException {
+        try (FileChannel ch = FileChannel.open(fichero, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.rewind();
+            while (buffer.hasRemaining()) ch.write(buffer);
+        }
+    }
+
+    /**
+     * Carga en esta instantánea un fichero escrito con {@link #guardar(Path)}.
+     *
+     * @param fichero ruta de origen.
+     * @throws IOException si no se puede leer.
+     */
+    public void cargar(Path fichero) throws IOException {
+        try (FileChannel ch = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            long tam = ch.size();
+            if (tam > buffer.capacity()) buffer = ByteBuffer.allocateDirect((int) tam);
+            buffer.clear();
+            buffer.limit((int) tam);
+            while (buffer.hasRemaining()) {
+                if (ch.read(buffer) < 0) throw new IOException("Instantánea truncada: " + fichero);
+            }
+            buffer.flip();
+        }
+    }
+}
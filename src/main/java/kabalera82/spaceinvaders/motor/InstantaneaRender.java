@@ -0,0 +1,386 @@
+package kabalera82.spaceinvaders.motor;
+
+import kabalera82.spaceinvaders.model.FormacionAliens;
+import kabalera82.spaceinvaders.model.Nave;
+import kabalera82.spaceinvaders.model.PoolDisparos;
+
+/**
+ * Todo lo necesario para dibujar un tick, copiado del motor en arrays propios.
+ *
+ * <p>La escribe el hilo de la simulación al terminar cada tick y la lee el
+ * hilo de JavaFX para dibujar, intercambiándose por un {@link BufferTriple}:
+ * mientras una instantánea está publicada nadie la modifica, y quien dibuja
+ * no toca nunca los objetos vivos del motor. Guarda, para cada entidad, la
+ * posición al inicio y al final del tick, de modo que se puede dibujar
+ * interpolada igual que antes.</p>
+ *
+ * <p>Los arrays se reutilizan entre copias y sólo crecen cuando una oleada o
+ * el almacén de proyectiles no caben: copiar no reserva memoria.</p>
+ *
+ * <p>Además del estado, lleva contadores acumulados de sucesos (disparos,
+ * aliens destruidos, vidas perdidas) para que el hilo de JavaFX reproduzca
+ * los sonidos de los ticks que haya visto, aunque se salte instantáneas.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class InstantaneaRender {
+
+    /** Naves como mucho: jugador y compañero. */
+    public static final int MAX_NAVES = 2;
+
+    // === Partida y HUD ===
+    private long tick;
+    private long publicadaNs;
+    private int vidas, puntos, nivel;
+    private boolean gameOver;
+
+    // === Sucesos acumulados ===
+    private long disparos, explosiones, vidasPerdidas;
+
+    // === Naves ===
+    private int naves;
+    private double naveAncho, naveAlto;
+    private final double[] naveX = new double[MAX_NAVES];
+    private final double[] naveY = new double[MAX_NAVES];
+    private final double[] navePreviaX = new double[MAX_NAVES];
+    private final double[] navePreviaY = new double[MAX_NAVES];
+
+    // === Aliens vivos ===
+    private int aliens;
+    private double alienAncho, alienAlto;
+    private double[] alienX = new double[0];
+    private double[] alienY = new double[0];
+    private double[] alienPreviaX = new double[0];
+    private double[] alienPreviaY = new double[0];
+    private byte[] alienSkin = new byte[0];
+    private byte[] alienFrame = new byte[0];
+
+    // === Proyectiles ===
+    private int balas;
+    private double balaAncho, balaAlto;
+    private int colorBalas = 0xFFFFFFFF;
+    private double[] balaX = new double[0];
+    private double[] balaY = new double[0];
+    private double[] balaPreviaY = new double[0];
+
+    /**
+     * Copia el estado dibujable del motor, sustituyendo el anterior.
+     *
+     * @param motor motor del que copiar (entre ticks, desde su hilo).
+     */
+    public void copiar(MotorJuego motor) {
+        copiar(motor.getNave(), motor.getCompanero(), motor.getAliens(), motor.getDisparos(),
+                motor.getVidas(), motor.getPuntos(), motor.getNivel(), motor.isGameOver(), motor.getTick());
+    }
+
+    /**
+     * Copia el estado dibujable a partir de sus partes, como las que
+     * reconstruye un cliente de red.
+     *
+     * @param nave      nave del primer jugador (puede ser {@code null}).
+     * @param companero nave del segundo jugador ({@code null} si se juega solo).
+     * @param formacion oleada actual.
+     * @param pool      proyectiles en vuelo.
+     * @param vidas     vidas restantes.
+     * @param puntos    puntuación.
+     * @param nivel     nivel actual.
+     * @param gameOver  si la partida ha terminado.
+     * @param tick      tick al que corresponde el estado.
+     */
+    public void copiar(Nave nave, Nave companero, FormacionAliens formacion, PoolDisparos pool,
+                       int vidas, int puntos, int nivel, boolean gameOver, long tick) {
+        this.tick = tick;
+        this.vidas = vidas;
+        this.puntos = puntos;
+        this.nivel = nivel;
+        this.gameOver = gameOver;
+
+        naves = 0;
+        if (nave != null) copiarNave(nave);
+        if (companero != null) copiarNave(companero);
+
+        int n = formacion.getVivos();
+        if (alienX.length < n) {
+            alienX = new double[n];
+            alienY = new double[n];
+            alienPreviaX = new double[n];
+            alienPreviaY = new double[n];
+            alienSkin = new byte[n];
+            alienFrame = new byte[n];
+        }
+        // La lista densa puede conservar destruidos hasta la siguiente compactación
+        int k = 0;
+        for (int d = 0; k < n; d++) {
+            int id = formacion.getIdVivo(d);
+            if (!formacion.estaVivo(id)) continue;
+            alienX[k] = formacion.getX(id);
+            alienY[k] = formacion.getY(id);
+            alienPreviaX[k] = formacion.getPreviaX(id);
+            alienPreviaY[k] = formacion.getPreviaY(id);
+            alienSkin[k] = (byte) formacion.getSkin(id);
+            alienFrame[k++] = (byte) formacion.getFrame(id);
+        }
+        aliens = n;
+        alienAncho = formacion.getAncho();
+        alienAlto = formacion.getAlto();
+
+        int b = pool.getCantidad();
+        if (balaX.length < pool.getCapacidad()) {
+            balaX = new double[pool.getCapacidad()];
+            balaY = new double[pool.getCapacidad()];
+            balaPreviaY = new double[pool.getCapacidad()];
+        }
+        for (int i = 0; i < b; i++) {
+            balaX[i] = pool.getX(i);
+            balaY[i] = pool.getY(i);
+            balaPreviaY[i] = pool.getPreviaY(i);
+        }
+        balas = b;
+        balaAncho = pool.getAncho();
+        balaAlto = pool.getAlto();
+        colorBalas = pool.getColorArgb();
+    }
+
+    private void copiarNave(Nave n) {
+        naveX[naves] = n.getMinX();
+        naveY[naves] = n.getMinY();
+        navePreviaX[naves] = n.getPreviaX();
+        navePreviaY[naves] = n.getPreviaY();
+        naveAncho = n.getAncho();
+        naveAlto = n.getAlto();
+        naves++;
+    }
+
+    /**
+     * Anota los contadores acumulados de sucesos hasta este tick.
+     *
+     * @param disparos disparos realizados.
+     * @param explosiones aliens destruidos.
+     * @param vidasPerdidas vidas perdidas.
+     */
+    public void setSucesos(long disparos, long explosiones, long vidasPerdidas) {
+        this.disparos = disparos;
+        this.explosiones = explosiones;
+        this.vidasPerdidas = vidasPerdidas;
+    }
+
+    /**
+     * Anota cuándo se publicó, para calcular la interpolación al dibujar.
+     *
+     * @param nanos instante de {@link System#nanoTime()} al terminar el tick.
+     */
+    public void setPublicadaNs(long nanos) { this.publicadaNs = nanos; }
+
+    /**
+     * Marca la instantánea como fin de partida, por ejemplo cuando la
+     * simulación se detiene por un error y no va a publicar nada más.
+     *
+     * @param gameOver {@code true} para dibujar la pantalla de fin de partida.
+     */
+    public void setGameOver(boolean gameOver) { this.gameOver = gameOver; }
+
+    // === Partida y HUD ===
+
+    /**
+     * Devuelve el tick de simulación del que se copió el estado.
+     *
+     * @return tick al que corresponde.
+     */
+    public long getTick() { return tick; }
+
+    /**
+     * Devuelve cuándo se publicó, para interpolar al dibujar.
+     *
+     * @return instante de {@link System#nanoTime()} en que se publicó.
+     */
+    public long getPublicadaNs() { return publicadaNs; }
+
+    /**
+     * Devuelve las vidas que le quedan al jugador.
+     *
+     * @return vidas restantes.
+     */
+    public int getVidas() { return vidas; }
+
+    /**
+     * Devuelve la puntuación acumulada.
+     *
+     * @return puntuación.
+     */
+    public int getPuntos() { return puntos; }
+
+    /**
+     * Devuelve el nivel en juego.
+     *
+     * @return nivel actual.
+     */
+    public int getNivel() { return nivel; }
+
+    /**
+     * Indica si hay que dibujar la pantalla de fin de partida.
+     *
+     * @return {@code true} si la partida ha terminado.
+     */
+    public boolean isGameOver() { return gameOver; }
+
+    /**
+     * Devuelve cuántos disparos se han hecho desde el comienzo.
+     *
+     * @return disparos acumulados.
+     */
+    public long getDisparos() { return disparos; }
+
+    /**
+     * Devuelve cuántos aliens se han destruido desde el comienzo.
+     *
+     * @return aliens destruidos acumulados.
+     */
+    public long getExplosiones() { return explosiones; }
+
+    /**
+     * Devuelve cuántas vidas se han perdido desde el comienzo.
+     *
+     * @return vidas perdidas acumuladas.
+     */
+    public long getVidasPerdidas() { return vidasPerdidas; }
+
+    // === Naves ===
+
+    /**
+     * Devuelve cuántas naves hay que dibujar.
+     *
+     * @return número de naves (0 a {@value #MAX_NAVES}).
+     */
+    public int getNaves() { return naves; }
+
+    /**
+     * Devuelve la anchura común de las naves.
+     *
+     * @return anchura de las naves.
+     */
+    public double getNaveAncho() { return naveAncho; }
+
+    /**
+     * Devuelve la altura común de las naves.
+     *
+     * @return altura de las naves.
+     */
+    public double getNaveAlto() { return naveAlto; }
+
+    /**
+     * @param i índice de la nave (0 el jugador, 1 el compañero).
+     * @param alpha fracción del tick transcurrida.
+     * @return coordenada X interpolada.
+     */
+    public double getNaveX(int i, double alpha) {
+        return navePreviaX[i] + (naveX[i] - navePreviaX[i]) * alpha;
+    }
+
+    /**
+     * @param i índice de la nave.
+     * @param alpha fracción del tick transcurrida.
+     * @return coordenada Y interpolada.
+     */
+    public double getNaveY(int i, double alpha) {
+        return navePreviaY[i] + (naveY[i] - navePreviaY[i]) * alpha;
+    }
+
+    // === Aliens ===
+
+    /**
+     * Devuelve cuántos aliens hay que dibujar.
+     *
+     * @return aliens vivos.
+     */
+    public int getAliens() { return aliens; }
+
+    /**
+     * Devuelve la anchura común de los aliens.
+     *
+     * @return anchura de los aliens.
+     */
+    public double getAlienAncho() { return alienAncho; }
+
+    /**
+     * Devuelve la altura común de los aliens.
+     *
+     * @return altura de los aliens.
+     */
+    public double getAlienAlto() { return alienAlto; }
+
+    /**
+     * @param k índice en {@code [0, getAliens())}.
+     * @param alpha fracción del tick transcurrida.
+     * @return coordenada X interpolada.
+     */
+    public double getAlienX(int k, double alpha) {
+        return alienPreviaX[k] + (alienX[k] - alienPreviaX[k]) * alpha;
+    }
+
+    /**
+     * @param k índice en {@code [0, getAliens())}.
+     * @param alpha fracción del tick transcurrida.
+     * @return coordenada Y interpolada.
+     */
+    public double getAlienY(int k, double alpha) {
+        return alienPreviaY[k] + (alienY[k] - alienPreviaY[k]) * alpha;
+    }
+
+    /**
+     * @param k índice en {@code [0, getAliens())}.
+     * @return ordinal de la variante del alien.
+     */
+    public int getAlienSkin(int k) { return alienSkin[k]; }
+
+    /**
+     * @param k índice en {@code [0, getAliens())}.
+     * @return frame de animación del alien.
+     */
+    public int getAlienFrame(int k) { return alienFrame[k]; }
+
+    // === Proyectiles ===
+
+    /**
+     * Devuelve cuántos proyectiles hay que dibujar.
+     *
+     * @return proyectiles en vuelo.
+     */
+    public int getBalas() { return balas; }
+
+    /**
+     * Devuelve la anchura común de los proyectiles.
+     *
+     * @return anchura de los proyectiles.
+     */
+    public double getBalaAncho() { return balaAncho; }
+
+    /**
+     * Devuelve la altura común de los proyectiles.
+     *
+     * @return altura de los proyectiles.
+     */
+    public double getBalaAlto() { return balaAlto; }
+
+    /**
+     * Devuelve el color con el que se rellenan todos los proyectiles.
+     *
+     * @return color de los proyectiles en {@code 0xAARRGGBB}.
+     */
+    public int getColorBalas() { return colorBalas; }
+
+    /**
+     * @param i índice en {@code [0, getBalas())}.
+     * @return coordenada X (los proyectiles sólo se mueven en vertical).
+     */
+    public double getBalaX(int i) { return balaX[i]; }
+
+    /**
+     * @param i índice en {@code [0, getBalas())}.
+     * @param alpha fracción del tick transcurrida.
+     * @return coordenada Y interpolada.
+     */
+    public double getBalaY(int i, double alpha) {
+        return balaPreviaY[i] + (balaY[i] - balaPreviaY[i]) * alpha;
+    }
+}
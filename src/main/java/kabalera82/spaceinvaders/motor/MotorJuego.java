@@ -0,0 +1,790 @@
+package kabalera82.spaceinvaders.motor;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import kabalera82.spaceinvaders.assets.AlienSkin;
+import kabalera82.spaceinvaders.diagnostico.EventoColisiones;
+import kabalera82.spaceinvaders.diagnostico.EventoOleada;
+import kabalera82.spaceinvaders.diagnostico.EventoTick;
+import kabalera82.spaceinvaders.diagnostico.EventoVidaPerdida;
+import kabalera82.spaceinvaders.diagnostico.FaseFrame;
+import kabalera82.spaceinvaders.diagnostico.MedidorFases;
+import kabalera82.spaceinvaders.interfaces.IEventosJuego;
+import kabalera82.spaceinvaders.interfaces.IGrabadorTicks;
+import kabalera82.spaceinvaders.model.FormacionAliens;
+import kabalera82.spaceinvaders.model.Nave;
+import kabalera82.spaceinvaders.model.PoolDisparos;
+
+/**
+ * Motor de simulación de Space Invaders, independiente del toolkit gráfico.
+ *
+ * <p>Contiene todo el estado de la partida y todas las reglas del juego. No
+ * usa {@code AnimationTimer}, eventos de teclado, sonido ni imágenes: avanza
+ * en ticks de duración fija con {@link #tick()} y recibe la entrada como
+ * {@link Comando}s. Por eso puede ejecutarse sin pantalla y tan rápido como
+ * permita la CPU (bots, bancos de pruebas, repeticiones).</p>
+ *
+ * <h2>Responsabilidades</h2>
+ * <ul>
+ *   <li>Crear oleadas de enemigos.</li>
+ *   <li>Aplicar los comandos de entrada al comienzo de cada tick, para uno o
+ *       dos jugadores.</li>
+ *   <li>Actualizar posiciones de entidades y detectar colisiones.</li>
+ *   <li>Aplicar reglas de vidas, puntuación, niveles y condiciones de fin de juego.</li>
+ *   <li>Notificar los sucesos a un {@link IEventosJuego} (sonidos, estadísticas).</li>
+ * </ul>
+ *
+ * <p>El tiempo del motor se mide en ticks: el cooldown de disparo, por
+ * ejemplo, no depende del reloj del sistema, de modo que la misma secuencia
+ * de comandos produce siempre la misma partida.</p>
+ *
+ * <p>Emite eventos JFR propios ({@link EventoTick}, {@link EventoOleada},
+ * {@link EventoColisiones}, {@link EventoVidaPerdida}), desactivados por
+ * defecto, para situar cada parón de una grabación en su momento de la partida.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ * @see kabalera82.spaceinvaders.controlador.GameController
+ */
+public class MotorJuego {
+
+    // ====== Configuración del mundo ======
+    /** Lado de una casilla del tablero en píxeles. */
+    public static final int CASILLA  = 32;
+    private static final int FILAS    = 32;
+    private static final int COLUMNAS = 32;
+    /** Anchura del mundo en píxeles. */
+    public static final int ANCHO    = CASILLA * COLUMNAS;
+    /** Altura del mundo en píxeles. */
+    public static final int ALTO     = CASILLA * FILAS;
+    /** Color de los proyectiles, en {@code 0xAARRGGBB} (amarillo opaco). */
+    public static final int COLOR_DISPAROS = 0xFFFFFF00;
+
+    private static final IEventosJuego SIN_EVENTOS = new IEventosJuego() {};
+
+    // ====== Paso fijo / Dificultad ======
+    private ConfiguracionJuego config;
+    private double pasoFijo;
+    private long tick = 0;
+
+    // ====== Entrada ======
+    private static final int CAPACIDAD_COMANDOS = 64; // potencia de dos
+    private final byte[] comandos = new byte[CAPACIDAD_COMANDOS];
+    private int comandosInicio = 0, comandosFin = 0;
+
+    // ====== Modelo / Estado ======
+    private Nave nave;
+    private Nave companero; // nave del segundo jugador; null si se juega solo
+    private boolean dosJugadores = false;
+    private final double naveW = CASILLA * 2;
+    private final double naveH = CASILLA;
+
+    private final double alienW = CASILLA, alienH = CASILLA;
+    private final FormacionAliens aliens = new FormacionAliens(alienW, alienH, ANCHO, ALTO);
+
+    // ====== Fase amplia de colisiones ======
+    private final RejillaColisiones rejilla = new RejillaColisiones(ANCHO, ALTO, CASILLA);
+    private int[] candidatos = new int[0];
+    private boolean usarRejilla =
+            Boolean.parseBoolean(System.getProperty("spaceinvaders.rejilla", "true"));
+
+    private final double ALIENS_MARGEN_X = CASILLA;
+    private final double ALIENS_MARGEN_SUP = CASILLA * 2;
+    private final double ALIENS_SEP_X = CASILLA * 2;
+    private final double ALIENS_SEP_Y = CASILLA * 1.5;
+    /** Columnas que caben entre los márgenes con los aliens pegados, sin solaparse. */
+    private final int ALIENS_MAX_COLUMNAS = 1 + (int) ((ANCHO - 2 * ALIENS_MARGEN_X - alienW) / alienW);
+
+    private static final int MAX_DISPAROS = 256;
+    private final double disparoW = CASILLA * 0.2;
+    private final double disparoH = CASILLA * 0.8;
+    private final double disparoVel = -200; // px/s hacia arriba
+    private final PoolDisparos disparos =
+            new PoolDisparos(MAX_DISPAROS, disparoW, disparoH, ALTO, disparoVel, COLOR_DISPAROS);
+    private final int[] aliensImpactados = new int[MAX_DISPAROS];
+    private final double shotCooldownS = 0.2; // 200 ms
+    private long shotCooldownTicks;
+    private long lastShotTick;
+    private long lastShotTickCompanero;
+
+    private int vidas = 3;
+    private int puntos = 0;
+    private int nivel = 1;
+    private boolean gameOver = false;
+
+    private IEventosJuego eventos = SIN_EVENTOS;
+    private MedidorFases medidor; // null = sin medición
+    private IGrabadorTicks[] grabadores = new IGrabadorTicks[0];
+
+    /**
+     * Construye un motor con la configuración por defecto y la frecuencia de
+     * simulación indicada.
+     *
+     * @param ticksPorSegundo número de ticks de simulación por segundo.
+     * @throws IllegalArgumentException si el valor no es positivo.
+     */
+    public MotorJuego(double ticksPorSegundo) {
+        this(ConfiguracionJuego.porDefecto().conTicksPorSegundo(ticksPorSegundo));
+    }
+
+    /**
+     * Construye un motor con la configuración indicada y una partida recién empezada.
+     *
+     * @param config parámetros de dificultad y de simulación.
+     */
+    public MotorJuego(ConfiguracionJuego config) {
+        this.config = config;
+        aplicarTickRate(config.getTicksPorSegundo());
+        aliens.setVelocidad(config.getVelocidadAlien());
+        aliens.setDescenso(config.getDescensoAlien());
+        reiniciar();
+    }
+
+    // ====== Configuración ======
+
+    /**
+     * Define la frecuencia fija de simulación.
+     *
+     * @param ticksPorSegundo número de ticks de simulación por segundo (mayor que cero).
+     * @throws IllegalArgumentException si el valor no es positivo.
+     */
+    public void setTickRate(double ticksPorSegundo) {
+        this.config = config.conTicksPorSegundo(ticksPorSegundo);
+        aplicarTickRate(ticksPorSegundo);
+    }
+
+    private void aplicarTickRate(double ticksPorSegundo) {
+        this.pasoFijo = 1.0 / ticksPorSegundo;
+        this.shotCooldownTicks = Math.max(1, Math.round(shotCooldownS * ticksPorSegundo));
+    }
+
+    /**
+     * Activa o desactiva la rejilla de fase amplia en la detección bala vs alien.
+     *
+     * <p>Con la rejilla desactivada se usa la comprobación por fuerza bruta
+     * original, útil para validar que ambos caminos dan el mismo resultado.
+     * Por defecto se toma de la propiedad {@code spaceinvaders.rejilla}.</p>
+     *
+     * @param activa {@code true} para usar la rejilla; {@code false} para fuerza bruta.
+     */
+    public void setColisionesConRejilla(boolean activa) {
+        this.usarRejilla = activa;
+    }
+
+    /**
+     * Activa o desactiva la nave del segundo jugador.
+     *
+     * <p>Las dos naves comparten vidas y puntos y se colocan en sus
+     * posiciones de salida; el segundo jugador se controla con
+     * {@link Comando#IZQUIERDA_J2}, {@link Comando#DERECHA_J2} y
+     * {@link Comando#DISPARAR_J2}, con su propio cooldown de disparo.</p>
+     *
+     * @param activa {@code true} para jugar a dos.
+     */
+    public void setDosJugadores(boolean activa) {
+        this.dosJugadores = activa;
+        crearNave();
+        lastShotTickCompanero = tick - shotCooldownTicks;
+    }
+
+    /**
+     * Registra el observador que recibirá los sucesos de la partida.
+     *
+     * @param eventos observador; {@code null} para no notificar nada.
+     */
+    public void setEventos(IEventosJuego eventos) {
+        this.eventos = eventos == null ? SIN_EVENTOS : eventos;
+    }
+
+    /**
+     * Devuelve el observador de sucesos registrado.
+     *
+     * @return el observador actual (nunca {@code null}).
+     */
+    public IEventosJuego getEventos() {
+        return eventos;
+    }
+
+    /**
+     * Registra el medidor en el que se suma el tiempo de la pasada de colisiones.
+     *
+     * <p>Los sucesos de {@link IEventosJuego} se notifican fuera del tramo medido,
+     * así que el tiempo de reproducir sonidos no cuenta como colisiones.</p>
+     *
+     * @param medidor medidor de fases; {@code null} para no medir.
+     */
+    public void setMedidor(MedidorFases medidor) {
+        this.medidor = medidor;
+    }
+
+    /**
+     * Devuelve el medidor en el que se suma la pasada de colisiones.
+     *
+     * @return el medidor registrado, o {@code null} si no se mide.
+     */
+    public MedidorFases getMedidor() {
+        return medidor;
+    }
+
+    /**
+     * Añade un grabador que recibirá los comandos aplicados y el final de cada tick.
+     *
+     * <p>Para poder reproducir la partida, el grabador debe conectarse antes
+     * del primer tick. Pueden convivir varios (repetición y traza, por ejemplo).</p>
+     *
+     * @param grabador grabador a añadir.
+     */
+    public void agregarGrabador(IGrabadorTicks grabador) {
+        IGrabadorTicks[] nuevos = Arrays.copyOf(grabadores, grabadores.length + 1);
+        nuevos[grabadores.length] = grabador;
+        grabadores = nuevos;
+    }
+
+    /**
+     * Quita un grabador añadido con {@link #agregarGrabador(IGrabadorTicks)}.
+     *
+     * @param grabador grabador a quitar; si no estaba, no hace nada.
+     */
+    public void quitarGrabador(IGrabadorTicks grabador) {
+        for (int i = 0; i < grabadores.length; i++) {
+            if (grabadores[i] == grabador) {
+                IGrabadorTicks[] nuevos = new IGrabadorTicks[grabadores.length - 1];
+                System.arraycopy(grabadores, 0, nuevos, 0, i);
+                System.arraycopy(grabadores, i + 1, nuevos, i, nuevos.length - i);
+                grabadores = nuevos;
+                return;
+            }
+        }
+    }
+
+    // ====== Entrada ======
+
+    /**
+     * Encola un comando para aplicarlo al comienzo del siguiente tick.
+     *
+     * <p>Si la cola está llena el comando se descarta.</p>
+     *
+     * @param comando comando a aplicar.
+     */
+    public void encolar(Comando comando) {
+        if (comandosFin - comandosInicio == CAPACIDAD_COMANDOS) return;
+        comandos[comandosFin++ & (CAPACIDAD_COMANDOS - 1)] = (byte) comando.ordinal();
+    }
+
+    private void aplicarComandos() {
+        while (comandosInicio != comandosFin) {
+            Comando c = Comando.desdeCodigo(comandos[comandosInicio++ & (CAPACIDAD_COMANDOS - 1)]);
+            for (IGrabadorTicks g : grabadores) g.comando(tick, c);
+            switch (c) {
+                case IZQUIERDA: nave.moverPaso(-1); break;
+                case DERECHA:   nave.moverPaso(+1); break;
+                case DISPARAR:  disparar(); break;
+                case IZQUIERDA_J2: if (companero != null) companero.moverPaso(-1); break;
+                case DERECHA_J2:   if (companero != null) companero.moverPaso(+1); break;
+                case DISPARAR_J2:  if (companero != null) dispararCompanero(); break;
+            }
+        }
+    }
+
+    // ====== Estado inicial ======
+
+    /** Inicializa o reinicia la partida desde el nivel actual. */
+    public void reiniciar() {
+        crearNave();
+        crearOleadaAliens();
+        disparos.vaciar();
+        vidas = 3;
+        puntos = 0;
+        gameOver = false;
+        comandosInicio = comandosFin = 0;
+        lastShotTick = lastShotTickCompanero = -shotCooldownTicks;
+    }
+
+    /**
+     * Salta directamente a la oleada de un nivel, conservando vidas y puntos.
+     *
+     * <p>Pensado para herramientas (bancos de pruebas, simulaciones) que
+     * necesitan medir o reproducir oleadas grandes sin jugar los niveles
+     * anteriores.</p>
+     *
+     * @param nuevoNivel nivel de la oleada (1 o mayor).
+     * @throws IllegalArgumentException si el nivel es menor que 1.
+     */
+    public void irANivel(int nuevoNivel) {
+        if (nuevoNivel < 1) throw new IllegalArgumentException("Nivel no válido: " + nuevoNivel);
+        nivel = nuevoNivel;
+        crearNave();
+        crearOleadaAliens();
+        disparos.vaciar();
+    }
+
+    /**
+     * Añade un proyectil en la posición indicada sin pasar por el cooldown.
+     *
+     * <p>Pensado para herramientas que preparan escenarios con muchas balas
+     * en vuelo; el juego normal dispara con {@link Comando#DISPARAR}.</p>
+     *
+     * @param x posición X de la esquina superior izquierda del proyectil.
+     * @param y posición Y de la esquina superior izquierda del proyectil.
+     * @return {@code false} si ya hay el máximo de proyectiles en vuelo.
+     */
+    public boolean insertarDisparo(double x, double y) {
+        return disparos.disparar(x, y);
+    }
+
+    private void crearNave() {
+        // A dos jugadores, cada nave sale en su tercio de la pantalla
+        double centro = dosJugadores ? ANCHO / 3.0 : ANCHO / 2.0;
+        nave = new Nave(
+                centro - naveW / 2.0,
+                ALTO - naveH - CASILLA,
+                naveW, naveH, ANCHO, ALTO
+        );
+        nave.setPasoPx(CASILLA / 2.0);
+        companero = null;
+        if (dosJugadores) {
+            companero = new Nave(ANCHO * 2 / 3.0 - naveW / 2.0, ALTO - naveH - CASILLA,
+                    naveW, naveH, ANCHO, ALTO);
+            companero.setPasoPx(CASILLA / 2.0);
+        }
+    }
+
+    /** Genera una nueva oleada de aliens en función del nivel actual. */
+    private void crearOleadaAliens() {
+        int filas = config.filas(nivel);
+        int cols  = Math.min(config.columnas(nivel), ALIENS_MAX_COLUMNAS);
+        int total = filas * cols;
+        EventoOleada evento = new EventoOleada();
+        evento.begin();
+
+        // La formación se mueve en bloque: si no cabe con la separación
+        // normal, se juntan las columnas para que quepa entre los márgenes,
+        // hasta dejarlas pegadas; a partir de ahí no se añaden más columnas.
+        double sepX = ALIENS_SEP_X;
+        if (cols > 1) {
+            sepX = Math.min(sepX, (ANCHO - 2 * ALIENS_MARGEN_X - alienW) / (cols - 1));
+            sepX = Math.max(sepX, alienW);
+        }
+        aliens.crearOleada(filas, cols, ALIENS_MARGEN_X, ALIENS_MARGEN_SUP,
+                sepX, ALIENS_SEP_Y, AlienSkin.values());
+        aliens.setFrameDuration(config.frameDuracion(nivel));
+        if (candidatos.length < total) candidatos = new int[total];
+        rejilla.reiniciar(total);
+        for (int id = 0; id < total; id++) {
+            rejilla.actualizar(id, aliens.getX(id), aliens.getY(id));
+        }
+        if (evento.shouldCommit()) {
+            evento.tick = tick;
+            evento.nivel = nivel;
+            evento.aliens = total;
+            evento.commit();
+        }
+        eventos.alNuevaOleada(nivel);
+    }
+
+    /** Dispara un proyectil desde la nave si el cooldown lo permite. */
+    private void disparar() {
+        if (tick - lastShotTick < shotCooldownTicks) return;
+        lastShotTick = tick;
+        dispararDesde(nave);
+    }
+
+    /** Dispara un proyectil desde la nave del segundo jugador si su cooldown lo permite. */
+    private void dispararCompanero() {
+        if (tick - lastShotTickCompanero < shotCooldownTicks) return;
+        lastShotTickCompanero = tick;
+        dispararDesde(companero);
+    }
+
+    private void dispararDesde(Nave origen) {
+        double x = origen.getMinX() + origen.getAncho() / 2.0 - (disparoW / 2.0);
+        double y = origen.getMinY() - disparoH;
+        if (!disparos.disparar(x, y)) return;
+
+        eventos.alDisparar();
+    }
+
+    // ====== Update / Colisiones / Reglas ======
+
+    /**
+     * Avanza la simulación un tick de duración fija.
+     *
+     * <p>Guarda las posiciones previas (para el renderizado interpolado),
+     * aplica los comandos pendientes y actualiza el estado. No hace nada si
+     * la partida ha terminado.</p>
+     */
+    public void tick() {
+        if (gameOver) return;
+        EventoTick evento = new EventoTick();
+        evento.begin();
+        nave.guardarPosicionPrevia();
+        if (companero != null) companero.guardarPosicionPrevia();
+        aplicarComandos();
+        update(pasoFijo);
+        if (evento.shouldCommit()) {
+            evento.tick = tick;
+            evento.nivel = nivel;
+            evento.aliens = aliens.getVivos();
+            evento.disparos = disparos.getCantidad();
+            evento.commit();
+        }
+        tick++;
+        for (IGrabadorTicks g : grabadores) g.tickTerminado(this);
+    }
+
+    /**
+     * Actualiza el estado del juego.
+     *
+     * @param dt tiempo en segundos desde la última actualización.
+     */
+    private void update(double dt) {
+        // Aliens: la formación se mueve en bloque y sus límites se conocen en
+        // O(1); si el borde inferior llega a la nave (lo que incluye tocarla),
+        // se pierde una vida.
+        aliens.actualizar(dt);
+        if (aliens.getMaxY() >= nave.getMinY()) {
+            perderVidaYReiniciar();
+            eventos.alPerderVida();
+            return;
+        }
+        for (int k = 0, n = aliens.getVivos(); k < n; k++) {
+            int id = aliens.getIdVivo(k);
+            rejilla.actualizar(id, aliens.getX(id), aliens.getY(id));
+        }
+
+        // Disparos (los que salen del mundo se eliminan al moverlos)
+        disparos.actualizar(dt);
+
+        // Bala vs Alien: de atrás hacia delante para poder eliminar la bala
+        // en O(1); los aliens se destruyen al final, como antes.
+        long t0 = medidor != null ? System.nanoTime() : 0;
+        EventoColisiones evento = new EventoColisiones();
+        evento.begin();
+        int balas = disparos.getCantidad(), vivos = aliens.getVivos();
+        int impactos = 0;
+        for (int i = disparos.getCantidad() - 1; i >= 0; i--) {
+            int id = usarRejilla ? impactoConRejilla(i) : impactoFuerzaBruta(i);
+            if (id >= 0) {
+                aliensImpactados[impactos++] = id;
+                disparos.eliminar(i);
+                puntos += 10;
+            }
+        }
+        for (int k = 0; k < impactos; k++) {
+            int id = aliensImpactados[k];
+            aliens.destruir(id);
+            rejilla.eliminar(id);
+        }
+        aliens.compactar();
+        if (medidor != null) medidor.sumar(FaseFrame.COLISIONES, System.nanoTime() - t0);
+        if (evento.shouldCommit()) {
+            evento.tick = tick;
+            evento.disparos = balas;
+            evento.aliens = vivos;
+            evento.impactos = impactos;
+            evento.rejilla = usarRejilla;
+            evento.commit();
+        }
+        for (int k = 0; k < impactos; k++) eventos.alDestruirAlien();
+
+        // Nueva oleada
+        if (aliens.getVivos() == 0) {
+            nivel++;
+            crearOleadaAliens();
+            // Punto de extensión: aumentar dificultad progresiva
+        }
+    }
+
+    /**
+     * Busca el alien de menor id alcanzado por la bala recorriendo todos los vivos.
+     *
+     * @param d índice de la bala a comprobar.
+     * @return id del alien alcanzado o {@code -1} si no hay impacto.
+     */
+    private int impactoFuerzaBruta(int d) {
+        int mejor = -1;
+        for (int k = 0, n = aliens.getVivos(); k < n; k++) {
+            int id = aliens.getIdVivo(k);
+            if ((mejor < 0 || id < mejor) && aliens.estaVivo(id) && colisionAlien(d, id)) mejor = id;
+        }
+        return mejor;
+    }
+
+    /**
+     * Busca el alien de menor id alcanzado por la bala consultando sólo las
+     * celdas de la rejilla que ocupa. Devuelve el mismo resultado que
+     * {@link #impactoFuerzaBruta(int)}.
+     *
+     * @param d índice de la bala a comprobar.
+     * @return id del alien alcanzado o {@code -1} si no hay impacto.
+     */
+    private int impactoConRejilla(int d) {
+        double minX = disparos.getX(d), minY = disparos.getY(d);
+        int n = rejilla.consultar(minX, minY, minX + disparoW, minY + disparoH, candidatos);
+        int mejor = -1;
+        for (int i = 0; i < n; i++) {
+            int id = candidatos[i];
+            if ((mejor < 0 || id < mejor) && colisionAlien(d, id)) mejor = id;
+        }
+        return mejor;
+    }
+
+    private boolean colisionAlien(int d, int id) {
+        double minX = disparos.getX(d), minY = disparos.getY(d);
+        return aliens.intersects(id, minX, minY, minX + disparoW, minY + disparoH);
+    }
+
+    /** Resta una vida y reinicia el estado si aún quedan intentos. */
+    private void perderVidaYReiniciar() {
+        vidas--;
+        EventoVidaPerdida evento = new EventoVidaPerdida();
+        if (evento.shouldCommit()) {
+            evento.tick = tick;
+            evento.nivel = nivel;
+            evento.vidas = Math.max(0, vidas);
+            evento.puntos = puntos;
+            evento.commit();
+        }
+        if (vidas <= 0) {
+            gameOver = true;
+            return;
+        }
+        crearNave();
+        crearOleadaAliens();
+        disparos.vaciar();
+        lastShotTick = lastShotTickCompanero = tick - shotCooldownTicks;
+    }
+
+    // ====== Instantáneas ======
+
+    /** Bytes "SIST" (Space Invaders eSTado) al comienzo de cada instantánea. */
+    private static final int MAGIA_ESTADO = 0x53495354;
+    private static final short VERSION_ESTADO = 2;
+
+    /**
+     * Escribe el estado completo de la partida en el buffer, a partir de su posición.
+     *
+     * <p>Incluye la configuración, contadores, comandos pendientes, naves,
+     * oleada y proyectiles; no incluye observadores, medidor ni grabadores.
+     * La rejilla de colisiones no se guarda: se reconstruye al restaurar.
+     * Se invoca entre ticks.</p>
+     *
+     * @param buf buffer de destino, en orden de bytes big-endian.
+     * @throws java.nio.BufferOverflowException si no cabe; {@link InstantaneaJuego}
+     *         se encarga de ampliar el buffer.
+     * @see #leerEstado(ByteBuffer)
+     */
+    public void escribirEstado(ByteBuffer buf) {
+        buf.putInt(MAGIA_ESTADO).putShort(VERSION_ESTADO);
+        buf.putDouble(config.getTicksPorSegundo()).putDouble(config.getVelocidadAlien())
+           .putDouble(config.getDescensoAlien()).putDouble(config.getFrameDuracionBase())
+           .putDouble(config.getFrameDuracionPorNivel()).putDouble(config.getFrameDuracionMinima())
+           .putInt(config.getFilasIniciales()).putInt(config.getColumnasIniciales())
+           .putInt(config.getCrecimiento());
+        buf.putLong(tick).putInt(vidas).putInt(puntos).putInt(nivel)
+           .put((byte) (gameOver ? 1 : 0)).putLong(lastShotTick);
+        buf.put((byte) (comandosFin - comandosInicio));
+        for (int i = comandosInicio; i != comandosFin; i++) {
+            buf.put(comandos[i & (CAPACIDAD_COMANDOS - 1)]);
+        }
+        nave.escribirEstado(buf);
+        buf.put((byte) (dosJugadores ? 1 : 0));
+        if (dosJugadores) {
+            companero.escribirEstado(buf);
+            buf.putLong(lastShotTickCompanero);
+        }
+        aliens.escribirEstado(buf);
+        disparos.escribirEstado(buf);
+    }
+
+    /**
+     * Sustituye el estado de la partida por el escrito con {@link #escribirEstado(ByteBuffer)}.
+     *
+     * <p>Reutiliza la nave, la oleada y los proyectiles existentes (sólo crea
+     * la nave del segundo jugador si la instantánea la tiene y el motor no), y
+     * reconstruye la rejilla de colisiones. Las instantáneas no se guardan en
+     * disco, así que sólo se acepta la versión actual del formato.</p>
+     *
+     * @param buf buffer de origen, colocado al comienzo de la instantánea.
+     * @throws IllegalArgumentException si el buffer no contiene una instantánea válida.
+     */
+    public void leerEstado(ByteBuffer buf) {
+        if (buf.getInt() != MAGIA_ESTADO) {
+            throw new IllegalArgumentException("No es una instantánea de MotorJuego");
+        }
+        short version = buf.getShort();
+        if (version != VERSION_ESTADO) {
+            throw new IllegalArgumentException("Versión de instantánea no soportada: " + version);
+        }
+        config = new ConfiguracionJuego(
+                buf.getDouble(), buf.getDouble(), buf.getDouble(),
+                buf.getDouble(), buf.getDouble(), buf.getDouble(),
+                buf.getInt(), buf.getInt(), buf.getInt());
+        aplicarTickRate(config.getTicksPorSegundo());
+        tick = buf.getLong();
+        vidas = buf.getInt();
+        puntos = buf.getInt();
+        nivel = buf.getInt();
+        gameOver = buf.get() != 0;
+        lastShotTick = buf.getLong();
+        int pendientes = buf.get();
+        comandosInicio = 0;
+        comandosFin = pendientes;
+        for (int i = 0; i < pendientes; i++) comandos[i] = buf.get();
+        nave.leerEstado(buf);
+        boolean dos = buf.get() != 0;
+        if (dos != dosJugadores) {
+            dosJugadores = dos;
+            Nave principal = nave;
+            crearNave();
+            nave = principal;
+        }
+        if (dos) {
+            companero.leerEstado(buf);
+            lastShotTickCompanero = buf.getLong();
+        }
+        aliens.leerEstado(buf);
+        disparos.leerEstado(buf);
+
+        int total = aliens.getTotal();
+        if (candidatos.length < total) candidatos = new int[total];
+        rejilla.reiniciar(total);
+        for (int k = 0, n = aliens.getVivos(); k < n; k++) {
+            int id = aliens.getIdVivo(k);
+            rejilla.actualizar(id, aliens.getX(id), aliens.getY(id));
+        }
+    }
+
+    // ====== Consultas de estado ======
+
+    /**
+     * Devuelve la nave del jugador.
+     *
+     * @return la {@link Nave} actual.
+     */
+    public Nave getNave() { return nave; }
+
+    /**
+     * Devuelve la nave del segundo jugador.
+     *
+     * @return la {@link Nave} del segundo jugador, o {@code null} si se juega solo.
+     */
+    public Nave getCompanero() { return companero; }
+
+    /**
+     * Indica si la partida es a dos jugadores.
+     *
+     * @return {@code true} si hay nave del segundo jugador.
+     */
+    public boolean isDosJugadores() { return dosJugadores; }
+
+    /**
+     * Devuelve la oleada de aliens.
+     *
+     * @return la {@link FormacionAliens} actual.
+     */
+    public FormacionAliens getAliens() { return aliens; }
+
+    /**
+     * Devuelve los proyectiles en vuelo.
+     *
+     * @return el {@link PoolDisparos} con los proyectiles activos.
+     */
+    public PoolDisparos getDisparos() { return disparos; }
+
+    /**
+     * Devuelve las vidas restantes.
+     *
+     * @return número de vidas.
+     */
+    public int getVidas() { return vidas; }
+
+    /**
+     * Devuelve la puntuación acumulada.
+     *
+     * @return puntos.
+     */
+    public int getPuntos() { return puntos; }
+
+    /**
+     * Devuelve el nivel (oleada) actual.
+     *
+     * @return nivel, empezando en 1.
+     */
+    public int getNivel() { return nivel; }
+
+    /**
+     * Indica si la partida ha terminado.
+     *
+     * @return {@code true} si no quedan vidas.
+     */
+    public boolean isGameOver() { return gameOver; }
+
+    /**
+     * Devuelve el número de ticks simulados desde la creación del motor.
+     *
+     * @return ticks ejecutados.
+     */
+    public long getTick() { return tick; }
+
+    /**
+     * Devuelve la configuración de la partida.
+     *
+     * @return la {@link ConfiguracionJuego} en uso.
+     */
+    public ConfiguracionJuego getConfiguracion() { return config; }
+
+    /**
+     * Devuelve la duración de un tick.
+     *
+     * @return duración del paso fijo en segundos.
+     */
+    public double getPasoFijo() { return pasoFijo; }
+
+    /**
+     * Calcula un resumen del estado de la partida.
+     *
+     * <p>Dos motores con la misma configuración que reciben los mismos
+     * comandos en los mismos ticks tienen el mismo resumen; lo usan las
+     * repeticiones para detectar desviaciones. Recorre toda la oleada, así que
+     * no conviene llamarlo en cada tick.</p>
+     *
+     * @return resumen FNV-1a de 64 bits del estado.
+     */
+    public long hashEstado() {
+        long h = 0xcbf29ce484222325L;
+        h = mezclar(h, tick);
+        h = mezclar(h, vidas);
+        h = mezclar(h, puntos);
+        h = mezclar(h, nivel);
+        h = mezclar(h, gameOver ? 1 : 0);
+        h = mezclar(h, lastShotTick);
+        h = mezclar(h, Double.doubleToLongBits(nave.getMinX()));
+        h = mezclar(h, Double.doubleToLongBits(nave.getMinY()));
+        if (companero != null) {
+            h = mezclar(h, Double.doubleToLongBits(companero.getMinX()));
+            h = mezclar(h, lastShotTickCompanero);
+        }
+        h = mezclar(h, aliens.getDireccion());
+        for (int id = 0, n = aliens.getTotal(); id < n; id++) {
+            if (!aliens.estaVivo(id)) continue;
+            h = mezclar(h, id);
+            h = mezclar(h, Double.doubleToLongBits(aliens.getX(id)));
+            h = mezclar(h, Double.doubleToLongBits(aliens.getY(id)));
+        }
+        for (int i = 0, n = disparos.getCantidad(); i < n; i++) {
+            h = mezclar(h, Double.doubleToLongBits(disparos.getX(i)));
+            h = mezclar(h, Double.doubleToLongBits(disparos.getY(i)));
+        }
+        return h;
+    }
+
+    private static long mezclar(long h, long v) {
+        for (int i = 0; i < 8; i++) {
+            h ^= (v >>> (i * 8)) & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,172 @@
+package kabalera82.spaceinvaders.motor;
+
+import java.util.Arrays;
+
+/**
+ * Rejilla uniforme de fase amplia (<i>broad-phase</i>) para colisiones.
+ *
+ * <p>Divide el mundo en celdas cuadradas del tamaño de una casilla y
+ * registra cada entidad, identificada por un {@code id} entero, en la celda
+ * que contiene su esquina superior izquierda. Así, un proyectil sólo necesita
+ * comprobar las entidades de las celdas que ocupa en lugar de recorrer la
+ * oleada completa.</p>
+ *
+ * <h2>Características</h2>
+ * <ul>
+ *   <li>Listas enlazadas por celda sobre arrays de enteros: sin objetos por entidad.</li>
+ *   <li>Actualización incremental: una entidad sólo cambia de lista cuando
+ *       cambia de celda.</li>
+ *   <li>Consultas sin reservar memoria: los candidatos se escriben en un
+ *       array proporcionado por el llamante.</li>
+ * </ul>
+ *
+ * <p>Las entidades registradas no deben ser mayores que una celda: la
+ * consulta amplía el rango una celda hacia la izquierda y hacia arriba para
+ * encontrar entidades cuya esquina cae en una celda vecina.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public class RejillaColisiones {
+
+    /** Marca de celda vacía o de entidad no registrada. */
+    private static final int NINGUNO = -1;
+
+    /** Lado de cada celda en píxeles. */
+    private final double tamCelda;
+
+    /** Número de columnas de la rejilla. */
+    private final int columnas;
+
+    /** Número de filas de la rejilla. */
+    private final int filas;
+
+    /** Primer id registrado en cada celda ({@link #NINGUNO} si está vacía). */
+    private final int[] cabeza;
+
+    /** Siguiente id de la misma celda, indexado por id. */
+    private int[] siguiente = new int[0];
+
+    /** Id anterior de la misma celda, indexado por id. */
+    private int[] anterior = new int[0];
+
+    /** Celda en la que está registrado cada id ({@link #NINGUNO} si no lo está). */
+    private int[] celdaDe = new int[0];
+
+    /**
+     * Construye una rejilla que cubre el mundo indicado.
+     *
+     * @param mundoAncho anchura total del mundo en píxeles.
+     * @param mundoAlto altura total del mundo en píxeles.
+     * @param tamCelda lado de cada celda en píxeles.
+     */
+    public RejillaColisiones(double mundoAncho, double mundoAlto, double tamCelda) {
+        this.tamCelda = tamCelda;
+        this.columnas = Math.max(1, (int) Math.ceil(mundoAncho / tamCelda));
+        this.filas    = Math.max(1, (int) Math.ceil(mundoAlto / tamCelda));
+        this.cabeza   = new int[columnas * filas];
+        Arrays.fill(cabeza, NINGUNO);
+    }
+
+    /**
+     * Vacía la rejilla y garantiza espacio para ids en {@code [0, capacidad)}.
+     *
+     * @param capacidad número máximo de ids que se registrarán.
+     */
+    public void reiniciar(int capacidad) {
+        Arrays.fill(cabeza, NINGUNO);
+        if (celdaDe.length < capacidad) {
+            siguiente = new int[capacidad];
+            anterior  = new int[capacidad];
+            celdaDe   = new int[capacidad];
+        }
+        Arrays.fill(celdaDe, NINGUNO);
+    }
+
+    /**
+     * Registra o mueve una entidad según la posición de su esquina superior izquierda.
+     *
+     * <p>Si la entidad sigue en la misma celda no se modifica ninguna lista.</p>
+     *
+     * @param id identificador de la entidad.
+     * @param x posición X de la entidad.
+     * @param y posición Y de la entidad.
+     */
+    public void actualizar(int id, double x, double y) {
+        int celda = indiceCelda(columna(x), fila(y));
+        int actual = celdaDe[id];
+        if (celda == actual) return;
+        if (actual != NINGUNO) desenlazar(id, actual);
+        enlazar(id, celda);
+    }
+
+    /**
+     * Elimina una entidad de la rejilla. No hace nada si no estaba registrada.
+     *
+     * @param id identificador de la entidad.
+     */
+    public void eliminar(int id) {
+        int actual = celdaDe[id];
+        if (actual != NINGUNO) desenlazar(id, actual);
+    }
+
+    /**
+     * Recoge los ids registrados en las celdas que solapan el rectángulo dado.
+     *
+     * <p>El resultado es un superconjunto de las entidades que intersectan el
+     * rectángulo; el llamante debe hacer la comprobación exacta.</p>
+     *
+     * @param minX borde izquierdo del rectángulo.
+     * @param minY borde superior del rectángulo.
+     * @param maxX borde derecho del rectángulo.
+     * @param maxY borde inferior del rectángulo.
+     * @param salida array donde se escriben los ids candidatos.
+     * @return número de ids escritos en {@code salida}.
+     */
+    public int consultar(double minX, double minY, double maxX, double maxY, int[] salida) {
+        int c0 = Math.max(0, columna(minX) - 1), c1 = columna(maxX);
+        int f0 = Math.max(0, fila(minY) - 1),    f1 = fila(maxY);
+        int n = 0;
+        for (int f = f0; f <= f1; f++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int id = cabeza[indiceCelda(c, f)]; id != NINGUNO; id = siguiente[id]) {
+                    if (n == salida.length) return n;
+                    salida[n++] = id;
+                }
+            }
+        }
+        return n;
+    }
+
+    // === Utilidades internas ===============================================
+
+    private int columna(double x) {
+        int c = (int) Math.floor(x / tamCelda);
+        return c < 0 ? 0 : (c >= columnas ? columnas - 1 : c);
+    }
+
+    private int fila(double y) {
+        int f = (int) Math.floor(y / tamCelda);
+        return f < 0 ? 0 : (f >= filas ? filas - 1 : f);
+    }
+
+    private int indiceCelda(int columna, int fila) {
+        return fila * columnas + columna;
+    }
+
+    private void enlazar(int id, int celda) {
+        int primero = cabeza[celda];
+        siguiente[id] = primero;
+        anterior[id]  = NINGUNO;
+        if (primero != NINGUNO) anterior[primero] = id;
+        cabeza[celda] = id;
+        celdaDe[id]   = celda;
+    }
+
+    private void desenlazar(int id, int celda) {
+        int ant = anterior[id], sig = siguiente[id];
+        if (ant != NINGUNO) siguiente[ant] = sig; else cabeza[celda] = sig;
+        if (sig != NINGUNO) anterior[sig] = ant;
+        celdaDe[id] = NINGUNO;
+    }
+}
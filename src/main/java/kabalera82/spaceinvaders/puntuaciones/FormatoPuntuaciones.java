@@ -0,0 +1,114 @@
+package kabalera82.spaceinvaders.puntuaciones;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Formato de la tabla de puntuaciones ({@code .log} + {@code .idx0}/{@code .idx1}).
+ *
+ * <h2>Registro ({@code .log})</h2>
+ * <p>Sólo se añade al final. Los primeros {@value #TAM_REGISTRO} bytes son la
+ * cabecera; después, un registro de {@value #TAM_REGISTRO} bytes por partida:</p>
+ * <pre>
+ *  0: fecha en milisegundos (long)
+ *  8: puntos (int)
+ * 12: nivel (int)
+ * 16: nombre en UTF-8, relleno con ceros ({@value #TAM_NOMBRE} bytes)
+ * 36: CRC32C de los bytes 0..35 (int)
+ * </pre>
+ * <p>Un registro con el CRC incorrecto (escritura a medias al caerse el
+ * proceso) marca el final: se trunca al abrir.</p>
+ *
+ * <h2>Índice ({@code .idx0} / {@code .idx1})</h2>
+ * <p>Se alternan los dos ficheros en cada compactación; vale el de mayor
+ * generación cuya suma de control sea correcta. Tras una cabecera de
+ * {@value #TAM_CABECERA_INDICE} bytes hay dos tablas de entradas con el mismo
+ * formato que el registro, salvo que los últimos 4 bytes guardan su posición
+ * en el registro en lugar del CRC:</p>
+ * <ul>
+ *   <li>Todas las partidas, por puntos descendentes y, a igualdad, por orden de llegada.</li>
+ *   <li>La mejor partida de cada jugador, ordenadas por nombre (bytes sin signo).</li>
+ * </ul>
+ * <pre>
+ *  0: magia (int)          4: versión (short)      6: libre (short)
+ *  8: generación (long)   16: registros cubiertos (long)
+ * 24: nº de partidas (int) 28: nº de jugadores (int) 32: CRC32C de las tablas (int)
+ * </pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+final class FormatoPuntuaciones {
+
+    /** Bytes "SIPT" (Space Invaders PunTuaciones), al principio del registro. */
+    static final int MAGIA_REGISTRO = 0x53495054;
+
+    /** Bytes "SIPX" (Space Invaders Puntuaciones indeX), al principio del índice. */
+    static final int MAGIA_INDICE = 0x53495058;
+
+    /** Versión actual del formato. */
+    static final short VERSION = 1;
+
+    /** Tamaño de la cabecera del registro, de cada registro y de cada entrada del índice. */
+    static final int TAM_REGISTRO = 40;
+
+    /** Bytes reservados para el nombre del jugador. */
+    static final int TAM_NOMBRE = 20;
+
+    /** Tamaño de la cabecera del índice. */
+    static final int TAM_CABECERA_INDICE = 64;
+
+    static final int POS_PUNTOS = 8;
+    static final int POS_NOMBRE = 16;
+    static final int POS_COLA = 36;
+
+    /** Extensión del registro. */
+    static final String EXT_REGISTRO = ".log";
+
+    /** Extensiones de los dos índices alternos. */
+    static final String[] EXT_INDICE = { ".idx0", ".idx1" };
+
+    private FormatoPuntuaciones() {}
+
+    /**
+     * Convierte un nombre en su clave de {@value #TAM_NOMBRE} bytes, recortando
+     * sin partir caracteres.
+     */
+    static byte[] clave(String nombre) {
+        byte[] utf8 = nombre.strip().getBytes(StandardCharsets.UTF_8);
+        int n = Math.min(utf8.length, TAM_NOMBRE);
+        while (n < utf8.length && n > 0 && (utf8[n] & 0xC0) == 0x80) n--; // inicio de carácter
+        byte[] clave = new byte[TAM_NOMBRE];
+        System.arraycopy(utf8, 0, clave, 0, n);
+        return clave;
+    }
+
+    /** Nombre de una clave, hasta el primer cero. */
+    static String nombre(byte[] clave) {
+        int n = 0;
+        while (n < clave.length && clave[n] != 0) n++;
+        return new String(clave, 0, n, StandardCharsets.UTF_8);
+    }
+
+    /** Compara dos claves como bytes sin signo. */
+    static int comparar(byte[] a, byte[] b) {
+        return java.util.Arrays.compareUnsigned(a, b);
+    }
+
+    /** Escribe en {@code buf} una partida en la posición {@code off}, con {@code cola} en los últimos 4 bytes. */
+    static void escribir(ByteBuffer buf, int off, long fecha, int puntos, int nivel, byte[] clave, int cola) {
+        buf.putLong(off, fecha);
+        buf.putInt(off + POS_PUNTOS, puntos);
+        buf.putInt(off + POS_PUNTOS + 4, nivel);
+        buf.put(off + POS_NOMBRE, clave);
+        buf.putInt(off + POS_COLA, cola);
+    }
+
+    /** CRC32C de los primeros 36 bytes de un registro. */
+    static int crc(ByteBuffer buf, int off) {
+        CRC32C crc = new CRC32C();
+        crc.update(buf.slice(off, POS_COLA));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,60 @@
+package kabalera82.spaceinvaders.puntuaciones;
+
+/**
+ * Una partida guardada en la {@link TablaPuntuaciones}.
+ *
+ * <p>Objeto inmutable. Las partidas se ordenan por puntos y, a igualdad de
+ * puntos, gana la que llegó antes (menor {@link #secuencia}).</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class Puntuacion {
+
+    /** Nombre del jugador (como mucho 20 bytes en UTF-8). */
+    public final String nombre;
+
+    /** Puntuación final. */
+    public final int puntos;
+
+    /** Nivel alcanzado. */
+    public final int nivel;
+
+    /** Momento en que terminó la partida, en milisegundos desde 1970. */
+    public final long fecha;
+
+    /** Posición de la partida en el registro: orden de llegada. */
+    public final int secuencia;
+
+    /**
+     * Construye una puntuación.
+     *
+     * @param nombre nombre del jugador.
+     * @param puntos puntuación final.
+     * @param nivel nivel alcanzado.
+     * @param fecha fecha en milisegundos desde 1970.
+     * @param secuencia posición en el registro.
+     */
+    public Puntuacion(String nombre, int puntos, int nivel, long fecha, int secuencia) {
+        this.nombre = nombre;
+        this.puntos = puntos;
+        this.nivel = nivel;
+        this.fecha = fecha;
+        this.secuencia = secuencia;
+    }
+
+    /**
+     * Indica si esta partida va por delante de otra en la clasificación.
+     *
+     * @param otra partida con la que comparar.
+     * @return {@code true} si tiene más puntos, o los mismos y llegó antes.
+     */
+    public boolean mejorQue(Puntuacion otra) {
+        return puntos != otra.puntos ? puntos > otra.puntos : secuencia < otra.secuencia;
+    }
+
+    @Override
+    public String toString() {
+        return nombre + " " + puntos + " (nivel " + nivel + ")";
+    }
+}
@@ -0,0 +1,608 @@
+package kabalera82.spaceinvaders.puntuaciones;
+
+import static kabalera82.spaceinvaders.puntuaciones.FormatoPuntuaciones.TAM_CABECERA_INDICE;
+import static kabalera82.spaceinvaders.puntuaciones.FormatoPuntuaciones.TAM_NOMBRE;
+import static kabalera82.spaceinvaders.puntuaciones.FormatoPuntuaciones.TAM_REGISTRO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Tabla de récords persistente: registro de sólo añadir más índice ordenado
+ * proyectado en memoria.
+ *
+ * <p>{@link #registrar} sólo encola la partida y vuelve; nunca espera al
+ * disco. Un hilo propio vacía la cola por lotes: escribe todo el lote al final
+ * del registro y hace un único {@code fsync} por lote, de modo que muchas
+ * partidas seguidas cuestan una sola sincronización.</p>
+ *
+ * <p>Las consultas leen una {@link Vista} inmutable que el escritor sustituye
+ * tras cada lote, sin bloqueos:</p>
+ * <ul>
+ *   <li>El índice en disco, proyectado con {@link FileChannel#map}: todas las
+ *       partidas ordenadas por puntos y la mejor de cada jugador ordenada por
+ *       nombre.</li>
+ *   <li>Las partidas más recientes, aún no incluidas en el índice, en dos
+ *       arrays ordenados igual.</li>
+ * </ul>
+ * <p>Los {@code n} mejores se obtienen mezclando el principio de ambas listas
+ * y la mejor partida de un jugador con dos búsquedas binarias, así que ninguna
+ * consulta depende del número total de partidas. Cuando las recientes llegan
+ * a una cuarta parte del índice, el escritor lo rehace mezclando ambas partes
+ * (compactación), con lo que reescribir el índice cuesta un tiempo amortizado
+ * constante por partida.</p>
+ *
+ * <p>Ante una caída: el índice sólo cubre partidas ya sincronizadas; los dos
+ * ficheros de índice se alternan y se elige el más nuevo con la suma de
+ * control correcta; el final del registro se relee y se trunca en el primer
+ * registro con el CRC incorrecto. El formato está en {@link FormatoPuntuaciones}.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public class TablaPuntuaciones implements AutoCloseable {
+
+    /** Partidas que caben en la cola antes de descartar nuevas. */
+    public static final int CAPACIDAD_COLA = 4096;
+
+    /** Partidas como mucho por lote (y por {@code fsync}). */
+    private static final int LOTE_MAXIMO = 1024;
+
+    /** Recientes mínimas para compactar; con índices grandes, una cuarta parte de su tamaño. */
+    private static final int MIN_RECIENTES = 4096;
+
+    private static final Comparator<Puntuacion> POR_PUNTOS =
+            (a, b) -> a.puntos != b.puntos ? Integer.compare(b.puntos, a.puntos)
+                                           : Integer.compare(a.secuencia, b.secuencia);
+
+    /** Estado consultable: índice en disco más partidas recientes. */
+    private static final class Vista {
+        final MappedByteBuffer indice;
+        final int generacion;
+        final int fichero;
+        final long cubiertos;
+        final int partidas;
+        final int jugadores;
+        /** Recientes por puntos. */
+        final Puntuacion[] recientes;
+        /** Mejor reciente de cada jugador, por clave, con sus claves en paralelo. */
+        final Puntuacion[] recientesPorJugador;
+        final byte[][] claves;
+
+        Vista(MappedByteBuffer indice, int generacion, int fichero, long cubiertos, int partidas,
+              int jugadores, Puntuacion[] recientes, Puntuacion[] recientesPorJugador, byte[][] claves) {
+            this.indice = indice;
+            this.generacion = generacion;
+            this.fichero = fichero;
+            this.cubiertos = cubiertos;
+            this.partidas = partidas;
+            this.jugadores = jugadores;
+            this.recientes = recientes;
+            this.recientesPorJugador = recientesPorJugador;
+            this.claves = claves;
+        }
+
+        int offPartida(int i) { return TAM_CABECERA_INDICE + i * TAM_REGISTRO; }
+
+        int offJugador(int i) { return TAM_CABECERA_INDICE + (partidas + i) * TAM_REGISTRO; }
+
+        int puntos(int off) { return indice.getInt(off + FormatoPuntuaciones.POS_PUNTOS); }
+
+        Puntuacion leer(int off) {
+            byte[] clave = new byte[TAM_NOMBRE];
+            indice.get(off + FormatoPuntuaciones.POS_NOMBRE, clave);
+            return new Puntuacion(FormatoPuntuaciones.nombre(clave), puntos(off),
+                    indice.getInt(off + FormatoPuntuaciones.POS_PUNTOS + 4), indice.getLong(off),
+                    indice.getInt(off + FormatoPuntuaciones.POS_COLA));
+        }
+
+        /** Compara una clave con el nombre de la entrada en {@code off}, como bytes sin signo. */
+        int comparar(byte[] clave, int off) {
+            int base = off + FormatoPuntuaciones.POS_NOMBRE;
+            for (int k = 0; k < TAM_NOMBRE; k++) {
+                int c = Byte.compareUnsigned(clave[k], indice.get(base + k));
+                if (c != 0) return c;
+            }
+            return 0;
+        }
+    }
+
+    private volatile Vista vista;
+
+    // === Cola hacia el escritor ===
+    private final ArrayBlockingQueue<Puntuacion> cola = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+    private final AtomicLong encoladas = new AtomicLong();
+    private long descartadas = 0;
+
+    // === Hilo escritor ===
+    private final Path base;
+    private final FileChannel registro;
+    private final ByteBuffer bufferLote = ByteBuffer.allocateDirect(LOTE_MAXIMO * TAM_REGISTRO);
+    private final List<Puntuacion> lote = new ArrayList<>(LOTE_MAXIMO);
+    private long registros;
+    private long sincronizaciones = 0;
+    private long compactaciones = 0;
+
+    /** Partidas encoladas ya en disco y consultables; protegido por {@code monitor}. */
+    private final Object monitor = new Object();
+    private long escritas = 0;
+
+    private final Thread hilo;
+    private volatile boolean activo = true;
+    private volatile IOException error;
+
+    /**
+     * Abre la tabla, creándola si no existe, y arranca su hilo escritor.
+     *
+     * @param base ruta sin extensión; se usan {@code base.log}, {@code base.idx0} y {@code base.idx1}.
+     * @throws IOException si no se pueden leer o crear los ficheros, o el
+     *         registro existente no es una tabla de puntuaciones.
+     */
+    public TablaPuntuaciones(Path base) throws IOException {
+        this.base = base;
+        Path padre = base.toAbsolutePath().getParent();
+        if (padre != null) Files.createDirectories(padre);
+        this.registro = FileChannel.open(fichero(FormatoPuntuaciones.EXT_REGISTRO),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long completos = abrirRegistro();
+            this.vista = cargarIndice(completos);
+            this.registros = vista.cubiertos;
+            // Lo que el índice no cubre se relee y pasa a recientes
+            List<Puntuacion> pendientes = new ArrayList<>();
+            List<byte[]> claves = new ArrayList<>();
+            leerCola(completos, pendientes, claves);
+            registros += pendientes.size();
+            registro.truncate(TAM_REGISTRO + registros * TAM_REGISTRO);
+            registro.force(true);
+            if (!pendientes.isEmpty()) {
+                publicar(pendientes.toArray(new Puntuacion[0]), claves.toArray(new byte[0][]));
+            }
+        } catch (IOException | RuntimeException e) {
+            registro.close();
+            throw e;
+        }
+
+        this.hilo = new Thread(this::escribir, "escritor-puntuaciones");
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+    }
+
+    // === Consultas (cualquier hilo) ========================================
+
+    /**
+     * Devuelve las mejores partidas, de mayor a menor puntuación.
+     *
+     * @param n número máximo de partidas.
+     * @return hasta {@code n} partidas; a igualdad de puntos, primero la más antigua.
+     */
+    public List<Puntuacion> mejores(int n) {
+        Vista v = vista;
+        Puntuacion[] recientes = v.recientes;
+        List<Puntuacion> r = new ArrayList<>(Math.max(0, Math.min(n, v.partidas + recientes.length)));
+        int i = 0, j = 0;
+        while (r.size() < n) {
+            boolean hayIndice = i < v.partidas, hayReciente = j < recientes.length;
+            if (!hayIndice && !hayReciente) break;
+            // A igualdad de puntos gana el índice: sus partidas son anteriores
+            if (hayReciente && (!hayIndice || recientes[j].puntos > v.puntos(v.offPartida(i)))) {
+                r.add(recientes[j++]);
+            } else {
+                r.add(v.leer(v.offPartida(i++)));
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Devuelve la mejor partida de un jugador.
+     *
+     * @param nombre nombre del jugador (se recorta a 20 bytes, como al registrar).
+     * @return su mejor partida, o {@code null} si no tiene ninguna.
+     */
+    public Puntuacion mejorDe(String nombre) {
+        Vista v = vista;
+        byte[] clave = FormatoPuntuaciones.clave(nombre);
+
+        Puntuacion enIndice = null;
+        int lo = 0, hi = v.jugadores - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = v.comparar(clave, v.offJugador(mid));
+            if (c == 0) { enIndice = v.leer(v.offJugador(mid)); break; }
+            if (c < 0) hi = mid - 1; else lo = mid + 1;
+        }
+
+        int k = Arrays.binarySearch(v.claves, clave, FormatoPuntuaciones::comparar);
+        Puntuacion reciente = k >= 0 ? v.recientesPorJugador[k] : null;
+        if (enIndice == null) return reciente;
+        return reciente != null && reciente.mejorQue(enIndice) ? reciente : enIndice;
+    }
+
+    /**
+     * Devuelve el número de partidas guardadas y publicadas para consulta.
+     *
+     * @return partidas consultables.
+     */
+    public long getPartidas() {
+        Vista v = vista;
+        return v.partidas + (long) v.recientes.length;
+    }
+
+    // === Escritura =========================================================
+
+    /**
+     * Encola una partida terminada para guardarla. No espera al disco.
+     *
+     * @param nombre nombre del jugador (se guardan como mucho 20 bytes en UTF-8;
+     *               si es {@code null} o está vacío se guarda {@code "?"}).
+     * @param puntos puntuación final.
+     * @param nivel nivel alcanzado.
+     * @return {@code false} si la cola estaba llena o el escritor ha fallado,
+     *         y la partida no se guardará.
+     */
+    public boolean registrar(String nombre, int puntos, int nivel) {
+        if (nombre == null || nombre.isBlank()) nombre = "?";
+        if (error != null || !activo
+                || !cola.offer(new Puntuacion(nombre, puntos, nivel, System.currentTimeMillis(), -1))) {
+            synchronized (monitor) { descartadas++; }
+            return false;
+        }
+        encoladas.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Espera a que todas las partidas encoladas hasta ahora estén en disco y
+     * sean consultables.
+     *
+     * @throws IOException si el escritor falló.
+     */
+    public void sincronizar() throws IOException {
+        long objetivo = encoladas.get();
+        synchronized (monitor) {
+            while (escritas < objetivo && error == null && hilo.isAlive()) {
+                try {
+                    monitor.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        if (error != null) throw error;
+    }
+
+    /**
+     * Devuelve cuántas sincronizaciones con disco ha hecho el escritor.
+     *
+     * @return llamadas a {@code fsync} del registro.
+     */
+    public long getSincronizaciones() { return sincronizaciones; }
+
+    /**
+     * Devuelve cuántas veces se ha rehecho el índice.
+     *
+     * @return compactaciones realizadas.
+     */
+    public long getCompactaciones() { return compactaciones; }
+
+    /**
+     * Devuelve las partidas rechazadas por tener la cola llena.
+     *
+     * @return partidas no guardadas.
+     */
+    public long getDescartadas() {
+        synchronized (monitor) { return descartadas; }
+    }
+
+    /**
+     * Guarda lo pendiente, lo incluye en el índice, detiene el escritor y
+     * cierra el registro.
+     *
+     * @throws IOException si falló alguna escritura.
+     */
+    @Override
+    public void close() throws IOException {
+        activo = false;
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        registro.close();
+        if (error != null) throw error;
+    }
+
+    // === Hilo escritor =====================================================
+
+    private void escribir() {
+        try {
+            while (true) {
+                boolean seguir = activo; // leer antes de vaciar para no perder el final
+                Puntuacion primera = cola.poll(50, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    if (!seguir) {
+                        // Al cerrar se indexa todo: la próxima apertura no relee el registro
+                        Vista v = vista;
+                        if (v.recientes.length > 0) {
+                            vista = compactar(v, v.recientes, v.recientesPorJugador, v.claves);
+                        }
+                        return;
+                    }
+                    continue;
+                }
+                lote.clear();
+                lote.add(primera);
+                cola.drainTo(lote, LOTE_MAXIMO - 1);
+                int n = lote.size();
+                Puntuacion[] partidas = new Puntuacion[n];
+                byte[][] claves = new byte[n][];
+                anexar(partidas, claves);
+                publicar(partidas, claves);
+                synchronized (monitor) {
+                    escritas += n;
+                    monitor.notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            error = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (monitor) { monitor.notifyAll(); }
+        }
+    }
+
+    /** Escribe el lote al final del registro con un único {@code fsync}. */
+    private void anexar(Puntuacion[] partidas, byte[][] claves) throws IOException {
+        bufferLote.clear();
+        for (int k = 0; k < partidas.length; k++) {
+            Puntuacion p = lote.get(k);
+            byte[] clave = FormatoPuntuaciones.clave(p.nombre);
+            int off = k * TAM_REGISTRO;
+            FormatoPuntuaciones.escribir(bufferLote, off, p.fecha, p.puntos, p.nivel, clave, 0);
+            bufferLote.putInt(off + FormatoPuntuaciones.POS_COLA, FormatoPuntuaciones.crc(bufferLote, off));
+            claves[k] = clave;
+            partidas[k] = new Puntuacion(FormatoPuntuaciones.nombre(clave), p.puntos, p.nivel, p.fecha,
+                    (int) (registros + k));
+        }
+        bufferLote.limit(partidas.length * TAM_REGISTRO);
+        long posicion = TAM_REGISTRO + registros * TAM_REGISTRO;
+        while (bufferLote.hasRemaining()) posicion += registro.write(bufferLote, posicion);
+        registro.force(false);
+        sincronizaciones++;
+        registros += partidas.length;
+    }
+
+    /** Mezcla partidas ya en disco con las recientes y publica la nueva vista. */
+    private void publicar(Puntuacion[] partidas, byte[][] claves) throws IOException {
+        Vista v = vista;
+
+        Puntuacion[] nuevas = partidas.clone();
+        Arrays.sort(nuevas, POR_PUNTOS);
+        Puntuacion[] recientes = mezclar(v.recientes, nuevas);
+
+        // Mejor partida de cada jugador en el lote, ordenada por clave
+        Integer[] orden = new Integer[partidas.length];
+        for (int k = 0; k < orden.length; k++) orden[k] = k;
+        Arrays.sort(orden, (a, b) -> {
+            int c = FormatoPuntuaciones.comparar(claves[a], claves[b]);
+            return c != 0 ? c : POR_PUNTOS.compare(partidas[a], partidas[b]);
+        });
+        int distintos = 0;
+        for (int k = 0; k < orden.length; k++) {
+            if (k == 0 || FormatoPuntuaciones.comparar(claves[orden[k]], claves[orden[k - 1]]) != 0) {
+                orden[distintos++] = orden[k];
+            }
+        }
+        int total = v.claves.length + distintos;
+        Puntuacion[] porJugador = new Puntuacion[total];
+        byte[][] clavesJugador = new byte[total][];
+        int i = 0, j = 0, m = 0;
+        while (i < v.claves.length || j < distintos) {
+            int c = i == v.claves.length ? 1 : j == distintos ? -1
+                    : FormatoPuntuaciones.comparar(v.claves[i], claves[orden[j]]);
+            if (c < 0) {
+                porJugador[m] = v.recientesPorJugador[i];
+                clavesJugador[m++] = v.claves[i++];
+            } else if (c > 0) {
+                porJugador[m] = partidas[orden[j]];
+                clavesJugador[m++] = claves[orden[j++]];
+            } else {
+                Puntuacion nueva = partidas[orden[j++]];
+                porJugador[m] = nueva.mejorQue(v.recientesPorJugador[i]) ? nueva : v.recientesPorJugador[i];
+                clavesJugador[m++] = v.claves[i++];
+            }
+        }
+        porJugador = Arrays.copyOf(porJugador, m);
+        clavesJugador = Arrays.copyOf(clavesJugador, m);
+
+        if (recientes.length >= Math.max(MIN_RECIENTES, v.partidas / 4)) {
+            vista = compactar(v, recientes, porJugador, clavesJugador);
+        } else {
+            vista = new Vista(v.indice, v.generacion, v.fichero, v.cubiertos, v.partidas, v.jugadores,
+                    recientes, porJugador, clavesJugador);
+        }
+    }
+
+    private static Puntuacion[] mezclar(Puntuacion[] a, Puntuacion[] b) {
+        Puntuacion[] r = new Puntuacion[a.length + b.length];
+        int i = 0, j = 0, m = 0;
+        while (i < a.length && j < b.length) r[m++] = POR_PUNTOS.compare(a[i], b[j]) <= 0 ? a[i++] : b[j++];
+        while (i < a.length) r[m++] = a[i++];
+        while (j < b.length) r[m++] = b[j++];
+        return r;
+    }
+
+    /**
+     * Escribe un índice nuevo en el fichero alterno con el índice actual y las
+     * recientes, lo sincroniza y lo proyecta.
+     */
+    private Vista compactar(Vista v, Puntuacion[] recientes, Puntuacion[] porJugador, byte[][] claves)
+            throws IOException {
+        int fichero = 1 - v.fichero;
+        long partidas = (long) v.partidas + recientes.length;
+        long maxJugadores = (long) v.jugadores + porJugador.length;
+        long tam = TAM_CABECERA_INDICE + (partidas + maxJugadores) * TAM_REGISTRO;
+        if (tam > Integer.MAX_VALUE) throw new IOException("Índice de puntuaciones demasiado grande: " + tam);
+
+        MappedByteBuffer nuevo;
+        try (FileChannel canal = FileChannel.open(fichero(FormatoPuntuaciones.EXT_INDICE[fichero]),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            nuevo = canal.map(FileChannel.MapMode.READ_WRITE, 0, tam);
+            nuevo.putLong(0, 0); // invalida la cabecera anterior mientras se escribe
+
+            // Todas las partidas, por puntos (a igualdad, las del índice son anteriores)
+            byte[] entrada = new byte[TAM_REGISTRO];
+            int off = TAM_CABECERA_INDICE;
+            int i = 0, j = 0;
+            while (i < v.partidas || j < recientes.length) {
+                if (j == recientes.length
+                        || (i < v.partidas && v.puntos(v.offPartida(i)) >= recientes[j].puntos)) {
+                    v.indice.get(v.offPartida(i++), entrada);
+                    nuevo.put(off, entrada);
+                } else {
+                    Puntuacion p = recientes[j++];
+                    FormatoPuntuaciones.escribir(nuevo, off, p.fecha, p.puntos, p.nivel,
+                            FormatoPuntuaciones.clave(p.nombre), p.secuencia);
+                }
+                off += TAM_REGISTRO;
+            }
+
+            // Mejor partida de cada jugador, por nombre
+            int jugadores = 0;
+            i = 0;
+            j = 0;
+            while (i < v.jugadores || j < porJugador.length) {
+                int c = i == v.jugadores ? 1 : j == porJugador.length ? -1
+                        : -v.comparar(claves[j], v.offJugador(i));
+                if (c < 0 || (c == 0 && porJugador[j].puntos <= v.puntos(v.offJugador(i)))) {
+                    v.indice.get(v.offJugador(i++), entrada);
+                    nuevo.put(off, entrada);
+                    if (c == 0) j++;
+                } else {
+                    Puntuacion p = porJugador[j];
+                    FormatoPuntuaciones.escribir(nuevo, off, p.fecha, p.puntos, p.nivel, claves[j++], p.secuencia);
+                    if (c == 0) i++;
+                }
+                off += TAM_REGISTRO;
+                jugadores++;
+            }
+
+            CRC32C crc = new CRC32C();
+            crc.update(nuevo.slice(TAM_CABECERA_INDICE, off - TAM_CABECERA_INDICE));
+            int generacion = v.generacion + 1;
+            nuevo.putInt(0, FormatoPuntuaciones.MAGIA_INDICE);
+            nuevo.putShort(4, FormatoPuntuaciones.VERSION);
+            nuevo.putLong(8, generacion);
+            nuevo.putLong(16, registros);
+            nuevo.putInt(24, (int) partidas);
+            nuevo.putInt(28, jugadores);
+            nuevo.putInt(32, (int) crc.getValue());
+            nuevo.force();
+            canal.force(true);
+            compactaciones++;
+            return new Vista(nuevo, generacion, fichero, registros, (int) partidas, jugadores,
+                    new Puntuacion[0], new Puntuacion[0], new byte[0][]);
+        }
+    }
+
+    // === Apertura ==========================================================
+
+    private Path fichero(String extension) {
+        return base.resolveSibling(base.getFileName() + extension);
+    }
+
+    /** Valida o escribe la cabecera y devuelve cuántos registros completos hay. */
+    private long abrirRegistro() throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(TAM_REGISTRO);
+        if (registro.size() < TAM_REGISTRO) {
+            cabecera.putInt(FormatoPuntuaciones.MAGIA_REGISTRO);
+            cabecera.putShort(FormatoPuntuaciones.VERSION);
+            cabecera.putShort((short) TAM_REGISTRO);
+            cabecera.clear();
+            registro.truncate(0);
+            while (cabecera.hasRemaining()) registro.write(cabecera, cabecera.position());
+            registro.force(true);
+            return 0;
+        }
+        while (cabecera.hasRemaining()) registro.read(cabecera, cabecera.position());
+        if (cabecera.getInt(0) != FormatoPuntuaciones.MAGIA_REGISTRO) {
+            throw new IOException("No es un registro de puntuaciones: " + fichero(FormatoPuntuaciones.EXT_REGISTRO));
+        }
+        if (cabecera.getShort(4) != FormatoPuntuaciones.VERSION) {
+            throw new IOException("Versión de registro de puntuaciones no soportada: " + cabecera.getShort(4));
+        }
+        return (registro.size() - TAM_REGISTRO) / TAM_REGISTRO;
+    }
+
+    /** Proyecta el índice válido más reciente, o devuelve una vista vacía si no hay ninguno. */
+    private Vista cargarIndice(long completos) throws IOException {
+        Vista mejor = new Vista(null, 0, 1, 0, 0, 0, new Puntuacion[0], new Puntuacion[0], new byte[0][]);
+        for (int f = 0; f < FormatoPuntuaciones.EXT_INDICE.length; f++) {
+            Path ruta = fichero(FormatoPuntuaciones.EXT_INDICE[f]);
+            if (!Files.exists(ruta)) continue;
+            try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+                long tam = canal.size();
+                if (tam < TAM_CABECERA_INDICE || tam > Integer.MAX_VALUE) continue;
+                MappedByteBuffer m = canal.map(FileChannel.MapMode.READ_ONLY, 0, tam);
+                if (m.getInt(0) != FormatoPuntuaciones.MAGIA_INDICE || m.getShort(4) != FormatoPuntuaciones.VERSION) {
+                    continue;
+                }
+                long generacion = m.getLong(8), cubiertos = m.getLong(16);
+                int partidas = m.getInt(24), jugadores = m.getInt(28);
+                long fin = TAM_CABECERA_INDICE + ((long) partidas + jugadores) * TAM_REGISTRO;
+                if (partidas < 0 || jugadores < 0 || fin > tam || cubiertos > completos
+                        || cubiertos != partidas || generacion <= mejor.generacion) {
+                    continue;
+                }
+                CRC32C crc = new CRC32C();
+                crc.update(m.slice(TAM_CABECERA_INDICE, (int) fin - TAM_CABECERA_INDICE));
+                if ((int) crc.getValue() != m.getInt(32)) continue;
+                mejor = new Vista(m, (int) generacion, f, cubiertos, partidas, jugadores,
+                        new Puntuacion[0], new Puntuacion[0], new byte[0][]);
+            }
+        }
+        return mejor;
+    }
+
+    /** Lee los registros no indexados hasta el primero dañado. */
+    private void leerCola(long completos, List<Puntuacion> partidas, List<byte[]> claves) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocateDirect(LOTE_MAXIMO * TAM_REGISTRO);
+        long siguiente = vista.cubiertos;
+        while (siguiente < completos) {
+            int n = (int) Math.min(LOTE_MAXIMO, completos - siguiente);
+            buf.clear().limit(n * TAM_REGISTRO);
+            long posicion = TAM_REGISTRO + siguiente * TAM_REGISTRO;
+            while (buf.hasRemaining()) {
+                if (registro.read(buf, posicion + buf.position()) < 0) return;
+            }
+            for (int k = 0; k < n; k++) {
+                int off = k * TAM_REGISTRO;
+                if (buf.getInt(off + FormatoPuntuaciones.POS_COLA) != FormatoPuntuaciones.crc(buf, off)) return;
+                byte[] clave = new byte[TAM_NOMBRE];
+                buf.get(off + FormatoPuntuaciones.POS_NOMBRE, clave);
+                claves.add(clave);
+                partidas.add(new Puntuacion(FormatoPuntuaciones.nombre(clave),
+                        buf.getInt(off + FormatoPuntuaciones.POS_PUNTOS),
+                        buf.getInt(off + FormatoPuntuaciones.POS_PUNTOS + 4),
+                        buf.getLong(off), (int) (siguiente + k)));
+            }
+            siguiente += n;
+        }
+    }
+}
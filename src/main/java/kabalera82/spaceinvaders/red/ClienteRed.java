@@ -0,0 +1,318 @@
+package kabalera82.spaceinvaders.red;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+import kabalera82.spaceinvaders.diagnostico.HistogramaLatencias;
+import kabalera82.spaceinvaders.model.Nave;
+import kabalera82.spaceinvaders.motor.Comando;
+
+/**
+ * Lado cliente de la partida a dos jugadores: controla la segunda nave.
+ *
+ * <p>No simula la partida: cada tick guarda la entrada del jugador como una
+ * máscara de bits, manda por lotes las que el servidor aún no ha aplicado y
+ * aplica los estados que llegan ({@link EstadoRed}). Para que la nave propia
+ * responda sin esperar a la red, los movimientos se aplican al instante
+ * sobre la copia local (predicción) y, al llegar un estado, se parte de la
+ * posición autoritativa y se vuelven a aplicar las entradas que el servidor
+ * todavía no ha procesado. Los disparos, los aliens y la otra nave se
+ * muestran tal como los envía el servidor.</p>
+ *
+ * <p>El tiempo de ida y vuelta se mide con la marca que el servidor devuelve
+ * en cada estado, descontando lo que la retuvo antes de responder.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ * @see kabalera82.spaceinvaders.red.ServidorRed
+ */
+public class ClienteRed implements Closeable {
+
+    /** Ticks entre reintentos de UNIRSE mientras no llega ningún estado. */
+    private static final int TICKS_REINTENTO = 30;
+
+    private final DatagramChannel canal;
+    private final int ticksPorEnvio;
+    private final ByteBuffer entrada = ByteBuffer.allocateDirect(FormatoRed.MAX_DATAGRAMA);
+    private final ByteBuffer salida = ByteBuffer.allocateDirect(FormatoRed.MAX_DATAGRAMA);
+
+    private final EstadoRed estado = new EstadoRed();
+    private boolean conectado = false, cerradoPorServidor = false;
+    private long ticks = 0;
+
+    // === Entradas propias ===
+    private final byte[] entradas = new byte[4 * FormatoRed.HISTORIAL];
+    private int siguienteEntrada = 0;   // número de la entrada en curso
+    private int mascara = 0;            // entrada en curso
+    private int aplicadaPorServidor = -1;
+
+    // === Estados recibidos (bases para los deltas) ===
+    private final byte[][] historial = new byte[FormatoRed.HISTORIAL][];
+    private final int[] longitudes = new int[FormatoRed.HISTORIAL];
+    private final int[] numeros = new int[FormatoRed.HISTORIAL];
+    private int ultimoEstado = -1;
+
+    // === Estadísticas ===
+    private final HistogramaLatencias rtt = new HistogramaLatencias();
+    private long ultimoEco;
+    private long bytesEnviados, bytesRecibidos, estadosRecibidos, estadosDescartados;
+    private long correcciones;
+
+    /**
+     * Abre un canal hacia el servidor y pide unirse a la partida.
+     *
+     * @param servidor dirección del {@link ServidorRed}.
+     * @param ticksPorEnvio cada cuántos ticks se envía un lote de entradas.
+     * @throws IOException si no se puede abrir el canal.
+     */
+    public ClienteRed(InetSocketAddress servidor, int ticksPorEnvio) throws IOException {
+        if (ticksPorEnvio <= 0) throw new IllegalArgumentException("ticksPorEnvio debe ser positivo");
+        this.ticksPorEnvio = ticksPorEnvio;
+        this.canal = DatagramChannel.open();
+        this.canal.configureBlocking(false);
+        this.canal.connect(servidor);
+        for (int i = 0; i < historial.length; i++) {
+            historial[i] = new byte[256];
+            numeros[i] = -1;
+        }
+        enviarControl(FormatoRed.UNIRSE);
+    }
+
+    // === Entrada ===========================================================
+
+    /**
+     * Registra una pulsación del jugador local para el tick en curso.
+     *
+     * <p>Acepta los comandos del primer jugador ({@link Comando#IZQUIERDA},
+     * {@link Comando#DERECHA}, {@link Comando#DISPARAR}); el servidor los
+     * aplica a la segunda nave. El movimiento se predice en el acto.</p>
+     *
+     * @param c comando pulsado.
+     */
+    public void pulsar(Comando c) {
+        int bit;
+        switch (c) {
+            case IZQUIERDA: bit = FormatoRed.IZQUIERDA; break;
+            case DERECHA:   bit = FormatoRed.DERECHA; break;
+            case DISPARAR:  bit = FormatoRed.DISPARAR; break;
+            default: return;
+        }
+        if ((mascara & bit) != 0) return;
+        mascara |= bit;
+        Nave propia = estado.getCompanero();
+        if (propia != null && bit != FormatoRed.DISPARAR) {
+            propia.moverPaso(bit == FormatoRed.IZQUIERDA ? -1 : +1);
+        }
+    }
+
+    /**
+     * Cierra la entrada del tick, envía el lote si toca y aplica los estados recibidos.
+     *
+     * @throws IOException si falla el canal.
+     */
+    public void tick() throws IOException {
+        entradas[siguienteEntrada & (entradas.length - 1)] = (byte) mascara;
+        siguienteEntrada++;
+        mascara = 0;
+        ticks++;
+
+        recibir();
+        if (!conectado) {
+            if (ticks % TICKS_REINTENTO == 0) enviarControl(FormatoRed.UNIRSE);
+        } else if (ticks % ticksPorEnvio == 0) {
+            enviarEntradas();
+        }
+    }
+
+    private void enviarEntradas() throws IOException {
+        int primera = Math.max(aplicadaPorServidor + 1, siguienteEntrada - FormatoRed.MAX_ENTRADAS);
+        int n = siguienteEntrada - primera;
+        salida.clear();
+        salida.putInt(FormatoRed.MAGIA).put(FormatoRed.ENTRADAS)
+              .putInt(ultimoEstado).putLong(System.nanoTime())
+              .putInt(primera).put((byte) n);
+        for (int k = primera; k < siguienteEntrada; k++) salida.put(entradas[k & (entradas.length - 1)]);
+        salida.flip();
+        bytesEnviados += salida.remaining();
+        canal.write(salida);
+    }
+
+    private void enviarControl(byte tipo) throws IOException {
+        salida.clear();
+        salida.putInt(FormatoRed.MAGIA).put(tipo).flip();
+        bytesEnviados += salida.remaining();
+        canal.write(salida);
+    }
+
+    // === Estados ===========================================================
+
+    /**
+     * Lee y aplica todos los estados pendientes sin bloquear.
+     *
+     * <p>Se invoca en cada {@link #tick()}; un bucle que espera entre ticks
+     * puede llamarlo también mientras espera, para medir la ida y vuelta sin
+     * esa espera.</p>
+     *
+     * @throws IOException si falla el canal.
+     */
+    public void recibir() throws IOException {
+        while (true) {
+            entrada.clear();
+            int leidos;
+            try {
+                leidos = canal.read(entrada);
+            } catch (PortUnreachableException e) {
+                continue; // el servidor aún no escucha: se reintentará UNIRSE
+            }
+            if (leidos <= 0) return;
+            entrada.flip();
+            if (entrada.remaining() < 5 || entrada.getInt() != FormatoRed.MAGIA) continue;
+            bytesRecibidos += leidos;
+            byte tipo = entrada.get();
+            if (tipo == FormatoRed.ADIOS) {
+                conectado = false;
+                cerradoPorServidor = true;
+            } else if (tipo == FormatoRed.ESTADO) {
+                try {
+                    leerEstado();
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    estadosDescartados++;
+                }
+            }
+        }
+    }
+
+    private void leerEstado() {
+        int numero = entrada.getInt(), base = entrada.getInt();
+        int aplicada = entrada.getInt();
+        long eco = entrada.getLong(), retencion = entrada.getLong();
+        long ahora = System.nanoTime();
+
+        int hBase = base & (FormatoRed.HISTORIAL - 1);
+        if (base >= 0 && numeros[hBase] != base) {
+            estadosDescartados++; // no tenemos la base: se espera al siguiente
+            return;
+        }
+        int hueco = numero & (FormatoRed.HISTORIAL - 1);
+        int len = DeltaRed.leerLongitud(entrada);
+        byte[] destino = historial[hueco];
+        if (destino.length < len || destino == historial[hBase]) {
+            destino = new byte[Math.max(len * 2, 256)];
+        }
+        DeltaRed.decodificar(historial[hBase], base >= 0 ? longitudes[hBase] : 0, entrada, destino, len);
+        historial[hueco] = destino;
+        longitudes[hueco] = len;
+        numeros[hueco] = numero;
+        estadosRecibidos++;
+        conectado = true;
+
+        if (eco != 0 && eco != ultimoEco) {
+            rtt.registrar(ahora - eco - retencion);
+            ultimoEco = eco;
+        }
+        if (numero <= ultimoEstado) return; // llegó desordenado: sólo sirve de base
+        ultimoEstado = numero;
+        if (aplicada > aplicadaPorServidor) aplicadaPorServidor = aplicada;
+        Nave propia = estado.getCompanero();
+        double predicha = propia != null ? propia.getMinX() : Double.NaN;
+        estado.leer(ByteBuffer.wrap(destino, 0, len));
+        reconciliar(predicha);
+    }
+
+    /**
+     * Parte de la posición autoritativa de la nave propia y vuelve a aplicar
+     * las entradas que el servidor aún no ha procesado.
+     */
+    private void reconciliar(double predicha) {
+        Nave propia = estado.getCompanero();
+        if (propia == null) return;
+        for (int k = Math.max(aplicadaPorServidor + 1, siguienteEntrada - entradas.length);
+             k <= siguienteEntrada; k++) {
+            int m = k < siguienteEntrada ? entradas[k & (entradas.length - 1)] : mascara;
+            if ((m & FormatoRed.IZQUIERDA) != 0) propia.moverPaso(-1);
+            if ((m & FormatoRed.DERECHA) != 0)   propia.moverPaso(+1);
+        }
+        if (!Double.isNaN(predicha) && Math.abs(propia.getMinX() - predicha) > 0.5) correcciones++;
+    }
+
+    /**
+     * Se despide del servidor y cierra el canal.
+     *
+     * @throws IOException si falla el cierre.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!cerradoPorServidor) enviarControl(FormatoRed.ADIOS);
+        canal.close();
+    }
+
+    // === Consultas =========================================================
+
+    /**
+     * Devuelve la copia local de la partida, con la nave propia ya predicha.
+     *
+     * @return estado a dibujar.
+     */
+    public EstadoRed getEstado() { return estado; }
+
+    /**
+     * Indica si se está recibiendo la partida.
+     *
+     * @return {@code true} tras el primer estado y hasta que el servidor se despide.
+     */
+    public boolean isConectado() { return conectado; }
+
+    /**
+     * Indica si el servidor ha cerrado la partida.
+     *
+     * @return {@code true} si se ha recibido ADIOS.
+     */
+    public boolean isCerradoPorServidor() { return cerradoPorServidor; }
+
+    /**
+     * Devuelve el histograma de tiempos de ida y vuelta.
+     *
+     * @return histograma en nanosegundos.
+     */
+    public HistogramaLatencias getRtt() { return rtt; }
+
+    /**
+     * Devuelve los bytes enviados al servidor (carga UDP).
+     *
+     * @return bytes enviados.
+     */
+    public long getBytesEnviados() { return bytesEnviados; }
+
+    /**
+     * Devuelve los bytes recibidos del servidor (carga UDP).
+     *
+     * @return bytes recibidos.
+     */
+    public long getBytesRecibidos() { return bytesRecibidos; }
+
+    /**
+     * Devuelve el número de estados recibidos y decodificados.
+     *
+     * @return estados recibidos.
+     */
+    public long getEstadosRecibidos() { return estadosRecibidos; }
+
+    /**
+     * Devuelve los estados que no se pudieron usar (sin base o corruptos).
+     *
+     * @return estados descartados.
+     */
+    public long getEstadosDescartados() { return estadosDescartados; }
+
+    /**
+     * Devuelve cuántas veces la posición autoritativa corrigió la predicción.
+     *
+     * @return correcciones de la nave propia.
+     */
+    public long getCorrecciones() { return correcciones; }
+}
@@ -0,0 +1,108 @@
+package kabalera82.spaceinvaders.red;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compresión de un estado respecto a otro anterior.
+ *
+ * <p>El estado nuevo se combina con la base mediante XOR byte a byte (los
+ * bytes que faltan en la base cuentan como cero) y el resultado, casi todo
+ * ceros porque entre dos ticks cambia poco, se escribe como una sucesión de
+ * tramos {@code [varint ceros][varint n][n bytes]}. Como {@link EstadoRed}
+ * tiene un formato fijo, lo que no cambia ocupa siempre las mismas
+ * posiciones y desaparece del delta.</p>
+ *
+ * <p>Sin base (primer estado, o la base del cliente ya no está en el
+ * historial) el mismo código comprime el estado contra ceros.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+final class DeltaRed {
+
+    private DeltaRed() {}
+
+    /**
+     * Escribe el delta de {@code actual} respecto a {@code base}.
+     *
+     * @param base estado de referencia.
+     * @param lenBase bytes válidos de la base ({@code 0} = sin base).
+     * @param actual estado a enviar.
+     * @param len bytes válidos del estado.
+     * @param out buffer de destino.
+     */
+    static void codificar(byte[] base, int lenBase, byte[] actual, int len, ByteBuffer out) {
+        escribirVarint(out, len);
+        int i = 0;
+        while (i < len) {
+            int inicio = i;
+            while (i < len && xor(base, lenBase, actual, i) == 0) i++;
+            int ceros = i - inicio;
+            int literal = i;
+            // Un cero suelto va dentro del literal: cortar por él costaría más
+            while (i < len && !(xor(base, lenBase, actual, i) == 0
+                    && (i + 1 == len || xor(base, lenBase, actual, i + 1) == 0))) {
+                i++;
+            }
+            escribirVarint(out, ceros);
+            escribirVarint(out, i - literal);
+            for (int k = literal; k < i; k++) out.put((byte) xor(base, lenBase, actual, k));
+        }
+    }
+
+    /**
+     * Lee la longitud del estado codificado, que precede a los tramos.
+     *
+     * @param in buffer colocado al comienzo del delta.
+     * @return bytes del estado reconstruido.
+     */
+    static int leerLongitud(ByteBuffer in) {
+        return leerVarint(in);
+    }
+
+    /**
+     * Reconstruye un estado a partir de su base y de los tramos del delta.
+     *
+     * @param base estado de referencia.
+     * @param lenBase bytes válidos de la base ({@code 0} = sin base).
+     * @param in buffer colocado justo después de la longitud.
+     * @param destino array donde se escribe el estado (al menos {@code len} bytes).
+     * @param len longitud devuelta por {@link #leerLongitud(ByteBuffer)}.
+     * @throws IllegalArgumentException si los tramos no cuadran con la longitud.
+     */
+    static void decodificar(byte[] base, int lenBase, ByteBuffer in, byte[] destino, int len) {
+        int i = 0;
+        while (i < len) {
+            int ceros = leerVarint(in), n = leerVarint(in);
+            if (ceros < 0 || n < 0 || i + ceros + n > len) {
+                throw new IllegalArgumentException("Delta corrupto en el byte " + i);
+            }
+            for (int fin = i + ceros; i < fin; i++) destino[i] = i < lenBase ? base[i] : 0;
+            for (int fin = i + n; i < fin; i++) {
+                destino[i] = (byte) (in.get() ^ (i < lenBase ? base[i] : 0));
+            }
+        }
+    }
+
+    private static int xor(byte[] base, int lenBase, byte[] actual, int i) {
+        return (actual[i] ^ (i < lenBase ? base[i] : 0)) & 0xFF;
+    }
+
+    static void escribirVarint(ByteBuffer out, int v) {
+        while ((v & ~0x7F) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) v);
+    }
+
+    static int leerVarint(ByteBuffer in) {
+        int v = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            int b = in.get();
+            v |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IllegalArgumentException("Varint demasiado largo");
+    }
+}
@@ -0,0 +1,235 @@
+package kabalera82.spaceinvaders.red;
+
+import java.nio.ByteBuffer;
+
+import kabalera82.spaceinvaders.assets.AlienSkin;
+import kabalera82.spaceinvaders.model.FormacionAliens;
+import kabalera82.spaceinvaders.model.Nave;
+import kabalera82.spaceinvaders.model.PoolDisparos;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Estado visible de la partida tal como viaja por la red, y su copia en el cliente.
+ *
+ * <p>No es una instantánea completa del motor ({@link MotorJuego#escribirEstado}):
+ * sólo lleva lo que hace falta para dibujar, con un formato de posiciones
+ * fijas para que {@link DeltaRed} lo comprima bien. La oleada se describe
+ * por su origen y un bit por alien, porque se mueve en bloque.</p>
+ *
+ * <h2>Formato</h2>
+ * <pre>
+ * long tick, int vidas, int puntos, int nivel, byte banderas (1 = fin, 2 = dos jugadores)
+ * float X de la nave, float X del compañero (0 si no hay)
+ * short filas, short columnas, byte dirección, float origenX, origenY, sepX, sepY
+ * bits de aliens vivos (filas * columnas, redondeado a bytes)
+ * byte frame de animación por fila
+ * short proyectiles, todas sus x y después todas sus y (short, en cuartos de píxel)
+ * </pre>
+ *
+ * <p>Las x de los proyectiles no cambian y sus y sí, así que van en bloques
+ * separados: el delta salta las x de una vez y sólo lleva las y.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public class EstadoRed {
+
+    private static final int FIN = 1, DOS_JUGADORES = 2;
+
+    /** Los proyectiles viajan en cuartos de píxel: el mundo cabe en un short. */
+    private static final double CUARTOS = 4.0;
+
+    // Mismas medidas que MotorJuego
+    private static final double CASILLA = MotorJuego.CASILLA;
+    private static final double NAVE_Y = MotorJuego.ALTO - CASILLA * 2;
+
+    private final Nave nave = crearNave(MotorJuego.ANCHO / 2.0);
+    private Nave companero;
+    private final FormacionAliens aliens =
+            new FormacionAliens(CASILLA, CASILLA, MotorJuego.ANCHO, MotorJuego.ALTO);
+    private final PoolDisparos disparos = new PoolDisparos(256, CASILLA * 0.2, CASILLA * 0.8,
+            MotorJuego.ALTO, 0, MotorJuego.COLOR_DISPAROS);
+
+    private long tick = -1;
+    private int vidas, puntos, nivel;
+    private boolean gameOver;
+
+    // ====== Servidor ======
+
+    /**
+     * Escribe el estado visible del motor a partir de la posición del buffer.
+     *
+     * @param motor motor de la partida, entre ticks.
+     * @param buf buffer de destino.
+     * @throws java.nio.BufferOverflowException si no cabe.
+     */
+    public static void codificar(MotorJuego motor, ByteBuffer buf) {
+        Nave companero = motor.getCompanero();
+        buf.putLong(motor.getTick()).putInt(motor.getVidas()).putInt(motor.getPuntos())
+           .putInt(motor.getNivel())
+           .put((byte) ((motor.isGameOver() ? FIN : 0) | (companero != null ? DOS_JUGADORES : 0)));
+        buf.putFloat((float) motor.getNave().getMinX())
+           .putFloat(companero != null ? (float) companero.getMinX() : 0f);
+
+        FormacionAliens a = motor.getAliens();
+        int filas = a.getFilas(), columnas = a.getColumnas(), total = a.getTotal();
+        buf.putShort((short) filas).putShort((short) columnas).put((byte) a.getDireccion())
+           .putFloat((float) a.getOrigenX()).putFloat((float) a.getOrigenY())
+           .putFloat((float) a.getSepX()).putFloat((float) a.getSepY());
+        for (int i = 0; i < total; i += 8) {
+            int b = 0;
+            for (int k = 0; k < 8 && i + k < total; k++) {
+                if (a.estaVivo(i + k)) b |= 1 << k;
+            }
+            buf.put((byte) b);
+        }
+        for (int f = 0; f < filas; f++) {
+            int frame = 0;
+            for (int c = 0, id = f * columnas; c < columnas; c++, id++) {
+                if (a.estaVivo(id)) { frame = a.getFrame(id); break; }
+            }
+            buf.put((byte) frame);
+        }
+
+        PoolDisparos d = motor.getDisparos();
+        buf.putShort((short) d.getCantidad());
+        for (int i = 0, n = d.getCantidad(); i < n; i++) buf.putShort((short) Math.round(d.getX(i) * CUARTOS));
+        for (int i = 0, n = d.getCantidad(); i < n; i++) buf.putShort((short) Math.round(d.getY(i) * CUARTOS));
+    }
+
+    // ====== Cliente ======
+
+    /**
+     * Sustituye la copia local por el estado escrito con {@link #codificar}.
+     *
+     * <p>La oleada sólo se reconstruye cuando cambia (nuevo nivel, vida
+     * perdida); en el resto de estados se eliminan las bajas y se desplaza
+     * la formación en bloque, conservando las posiciones previas para dibujar
+     * interpolado.</p>
+     *
+     * @param buf buffer con el estado, desde su comienzo.
+     */
+    public void leer(ByteBuffer buf) {
+        tick = buf.getLong();
+        vidas = buf.getInt();
+        puntos = buf.getInt();
+        int nuevoNivel = buf.getInt();
+        int banderas = buf.get();
+        gameOver = (banderas & FIN) != 0;
+        nave.colocar(buf.getFloat(), NAVE_Y);
+        float xCompanero = buf.getFloat();
+        if ((banderas & DOS_JUGADORES) != 0) {
+            if (companero == null) companero = crearNave(xCompanero);
+            companero.colocar(xCompanero, NAVE_Y);
+        } else {
+            companero = null;
+        }
+
+        int filas = buf.getShort(), columnas = buf.getShort(), dir = buf.get();
+        double origenX = buf.getFloat(), origenY = buf.getFloat();
+        double sepX = buf.getFloat(), sepY = buf.getFloat();
+        int total = filas * columnas;
+        int bits = buf.position();
+        boolean reconstruir = nuevoNivel != nivel || filas != aliens.getFilas()
+                || columnas != aliens.getColumnas();
+        for (int id = 0; id < total && !reconstruir; id++) {
+            reconstruir = vivoEn(buf, bits, id) && !aliens.estaVivo(id);
+        }
+        if (reconstruir) {
+            aliens.crearOleada(filas, columnas, origenX, origenY, sepX, sepY, AlienSkin.values());
+        }
+        for (int id = 0; id < total; id++) {
+            if (!vivoEn(buf, bits, id)) aliens.destruir(id);
+        }
+        aliens.colocar(origenX, origenY, dir);
+        buf.position(bits + (total + 7) / 8);
+        for (int f = 0; f < filas; f++) {
+            int frame = buf.get();
+            for (int c = 0, id = f * columnas; c < columnas; c++, id++) {
+                if (aliens.estaVivo(id)) aliens.setFrame(id, frame);
+            }
+        }
+        nivel = nuevoNivel;
+
+        disparos.vaciar();
+        int n = buf.getShort(), xs = buf.position(), ys = xs + 2 * n;
+        for (int i = 0; i < n; i++) {
+            disparos.disparar(buf.getShort(xs + 2 * i) / CUARTOS, buf.getShort(ys + 2 * i) / CUARTOS);
+        }
+        buf.position(ys + 2 * n);
+    }
+
+    private static boolean vivoEn(ByteBuffer buf, int bits, int id) {
+        return (buf.get(bits + (id >>> 3)) & (1 << (id & 7))) != 0;
+    }
+
+    private static Nave crearNave(double x) {
+        Nave n = new Nave(x, NAVE_Y, CASILLA * 2, CASILLA,
+                MotorJuego.ANCHO, MotorJuego.ALTO);
+        n.setPasoPx(CASILLA / 2.0);
+        return n;
+    }
+
+    /**
+     * Devuelve la nave del primer jugador.
+     *
+     * @return la {@link Nave} del anfitrión.
+     */
+    public Nave getNave() { return nave; }
+
+    /**
+     * Devuelve la nave del segundo jugador.
+     *
+     * @return la {@link Nave} del cliente, o {@code null} si aún no se ha recibido.
+     */
+    public Nave getCompanero() { return companero; }
+
+    /**
+     * Devuelve la copia local de la oleada.
+     *
+     * @return la {@link FormacionAliens} recibida.
+     */
+    public FormacionAliens getAliens() { return aliens; }
+
+    /**
+     * Devuelve los proyectiles recibidos.
+     *
+     * @return el {@link PoolDisparos} con los proyectiles del último estado.
+     */
+    public PoolDisparos getDisparos() { return disparos; }
+
+    /**
+     * Devuelve el tick del servidor del último estado aplicado.
+     *
+     * @return tick, o {@code -1} si aún no se ha recibido ninguno.
+     */
+    public long getTick() { return tick; }
+
+    /**
+     * Devuelve las vidas restantes, compartidas por los dos jugadores.
+     *
+     * @return número de vidas.
+     */
+    public int getVidas() { return vidas; }
+
+    /**
+     * Devuelve la puntuación acumulada por los dos jugadores.
+     *
+     * @return puntos.
+     */
+    public int getPuntos() { return puntos; }
+
+    /**
+     * Devuelve el nivel (oleada) actual.
+     *
+     * @return nivel, empezando en 1.
+     */
+    public int getNivel() { return nivel; }
+
+    /**
+     * Indica si la partida ha terminado.
+     *
+     * @return {@code true} si no quedan vidas.
+     */
+    public boolean isGameOver() { return gameOver; }
+}
@@ -0,0 +1,60 @@
+package kabalera82.spaceinvaders.red;
+
+/**
+ * Constantes del protocolo UDP de la partida a dos jugadores.
+ *
+ * <h2>Datagramas</h2>
+ * <pre>
+ * todos:     int  magia "SIRN"
+ *            byte tipo
+ * UNIRSE     (cliente → servidor) sin datos; se repite hasta recibir un ESTADO.
+ *            Mientras haya un cliente, se ignora el de otras direcciones
+ *            hasta que aquél mande ADIOS o calle {@link #ABANDONO_NS}
+ * ENTRADAS   (cliente → servidor)
+ *            int  último ESTADO recibido (-1 = ninguno)
+ *            long marca de tiempo del cliente (System.nanoTime)
+ *            int  número de la primera entrada del lote
+ *            byte n, seguido de n máscaras de entrada (una por tick del cliente)
+ * ESTADO     (servidor → cliente)
+ *            int  número de este estado
+ *            int  estado base del delta (-1 = sin base)
+ *            int  última entrada del cliente aplicada
+ *            long marca de la última ENTRADAS recibida (eco)
+ *            long nanos que el servidor retuvo esa marca antes de responder
+ *            delta de {@link EstadoRed} respecto a la base ({@link DeltaRed})
+ * ADIOS      (en ambos sentidos) sin datos
+ * </pre>
+ *
+ * <p>El cliente manda en cada lote todas las entradas que el servidor aún no
+ * ha confirmado, de modo que un datagrama perdido se recupera con el
+ * siguiente sin retransmisiones. El servidor codifica cada estado contra el
+ * último que el cliente dice haber recibido.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+final class FormatoRed {
+
+    /** Bytes "SIRN" (Space Invaders Red). */
+    static final int MAGIA = 0x5349524E;
+
+    /** Tipos de datagrama. */
+    static final byte UNIRSE = 1, ENTRADAS = 2, ESTADO = 3, ADIOS = 4;
+
+    /** Bits de una máscara de entrada. */
+    static final int IZQUIERDA = 1, DERECHA = 2, DISPARAR = 4;
+
+    /** Estados (y entradas) que se recuerdan para usarlos como base; potencia de dos. */
+    static final int HISTORIAL = 64;
+
+    /** Máximo de entradas por lote. */
+    static final int MAX_ENTRADAS = 64;
+
+    /** Nanosegundos sin noticias del cliente tras los que otro puede ocupar su puesto. */
+    static final long ABANDONO_NS = 5_000_000_000L;
+
+    /** Tamaño máximo de un datagrama UDP. */
+    static final int MAX_DATAGRAMA = 65507;
+
+    private FormatoRed() {}
+}
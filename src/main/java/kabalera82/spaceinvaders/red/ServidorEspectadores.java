@@ -0,0 +1,323 @@
+package kabalera82.spaceinvaders.red;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+import kabalera82.spaceinvaders.interfaces.IGrabadorTicks;
+import kabalera82.spaceinvaders.motor.Comando;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Retransmite la partida en directo a muchos espectadores por TCP.
+ *
+ * <p>El hilo del juego sólo codifica el estado una vez por tick
+ * ({@link EstadoRed}) y lo deja en un buzón: si el anterior aún no se había
+ * enviado, se sustituye. Un único hilo con un {@link Selector} acepta
+ * conexiones y escribe ese mismo array a todos los espectadores, sin copiarlo
+ * por cliente.</p>
+ *
+ * <p>Cada espectador tiene como mucho un frame en vuelo. Si cuando llega uno
+ * nuevo aún no ha terminado de recibir el anterior, el nuevo se descarta para
+ * él (seguirá con el siguiente), de modo que un cliente lento nunca hace
+ * crecer la memoria del servidor ni retrasa a los demás. Quien lleva
+ * {@link #MAX_DESCARTES_SEGUIDOS} frames seguidos sin avanzar se desconecta.</p>
+ *
+ * <h2>Frame</h2>
+ * <pre>
+ * int  longitud del resto
+ * long tick
+ * long System.nanoTime() al publicarlo (para medir la latencia en la misma máquina)
+ * EstadoRed
+ * </pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public class ServidorEspectadores implements IGrabadorTicks, Closeable {
+
+    /** Frames seguidos descartados tras los que se cierra la conexión (5 s a 60 tps). */
+    public static final int MAX_DESCARTES_SEGUIDOS = 300;
+
+    /**
+     * Buffer de envío del socket de cada espectador: acota también lo que el
+     * sistema operativo guarda para un cliente lento (unos segundos de frames).
+     */
+    private static final int BUFFER_ENVIO = 8 * 1024;
+
+    /** Estado de un espectador, propiedad del hilo del selector. */
+    private static final class Espectador {
+        final SocketChannel canal;
+        ByteBuffer frame; // null = nada pendiente
+        int enviado;
+        int descartesSeguidos;
+
+        Espectador(SocketChannel canal) { this.canal = canal; }
+    }
+
+    private final ServerSocketChannel servidor;
+    private final Selector selector;
+    private final Thread hilo;
+    private volatile boolean abierto = true;
+
+    /** Los espectadores no envían nada: leer sólo sirve para detectar el cierre. */
+    private final ByteBuffer descarte = ByteBuffer.allocateDirect(256);
+
+    // === Hilo del juego ===
+    private ByteBuffer codificacion = ByteBuffer.allocate(4096);
+    private volatile byte[] buzon;
+
+    // === Estadísticas (sólo las escribe el hilo del selector) ===
+    private volatile int espectadores;
+    private volatile long framesPublicados, framesEnviados, framesDescartados, bytesEnviados;
+    private volatile long desconectadosPorLentos;
+
+    /**
+     * Abre el puerto y arranca el hilo del selector.
+     *
+     * @param puerto puerto TCP local.
+     * @throws IOException si no se puede abrir el puerto.
+     */
+    public ServidorEspectadores(int puerto) throws IOException {
+        this.selector = Selector.open();
+        this.servidor = ServerSocketChannel.open();
+        this.servidor.configureBlocking(false);
+        this.servidor.bind(new InetSocketAddress(puerto), 1024);
+        this.servidor.register(selector, SelectionKey.OP_ACCEPT);
+        this.hilo = new Thread(this::bucle, "espectadores");
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+    }
+
+    /**
+     * Abre el servidor y lo conecta al motor para publicar cada tick.
+     *
+     * @param motor motor de la partida.
+     * @param puerto puerto TCP local.
+     * @return servidor ya registrado en el motor.
+     * @throws IOException si no se puede abrir el puerto.
+     */
+    public static ServidorEspectadores conectar(MotorJuego motor, int puerto) throws IOException {
+        ServidorEspectadores s = new ServidorEspectadores(puerto);
+        motor.agregarGrabador(s);
+        return s;
+    }
+
+    // === Hilo del juego ====================================================
+
+    @Override
+    public void comando(long tick, Comando c) {
+        // Los espectadores sólo reciben el estado
+    }
+
+    @Override
+    public void tickTerminado(MotorJuego m) {
+        if (espectadores == 0) return;
+        while (true) {
+            codificacion.clear();
+            codificacion.position(4);
+            try {
+                codificacion.putLong(m.getTick()).putLong(System.nanoTime());
+                EstadoRed.codificar(m, codificacion);
+                break;
+            } catch (BufferOverflowException e) {
+                codificacion = ByteBuffer.allocate(codificacion.capacity() * 2);
+            }
+        }
+        int len = codificacion.position();
+        codificacion.putInt(0, len - 4);
+        byte[] frame = new byte[len];
+        System.arraycopy(codificacion.array(), 0, frame, 0, len);
+        buzon = frame;
+        selector.wakeup();
+    }
+
+    // === Hilo del selector =================================================
+
+    private void bucle() {
+        byte[] ultimoEnviado = null;
+        try {
+            while (abierto) {
+                selector.select(100);
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey k = it.next();
+                    it.remove();
+                    if (!k.isValid()) continue;
+                    if (k.isAcceptable()) aceptar();
+                    else {
+                        Espectador e = (Espectador) k.attachment();
+                        if (k.isReadable()) leer(k, e);
+                        if (k.isValid() && k.isWritable()) escribir(k, e);
+                    }
+                }
+                byte[] frame = buzon;
+                if (frame != null && frame != ultimoEnviado) {
+                    difundir(frame);
+                    ultimoEnviado = frame;
+                }
+            }
+        } catch (IOException e) {
+            abierto = false;
+        }
+    }
+
+    private void aceptar() throws IOException {
+        SocketChannel c;
+        while ((c = servidor.accept()) != null) {
+            c.configureBlocking(false);
+            c.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            c.setOption(StandardSocketOptions.SO_SNDBUF, BUFFER_ENVIO);
+            c.register(selector, SelectionKey.OP_READ, new Espectador(c));
+            espectadores++;
+        }
+    }
+
+    private void leer(SelectionKey k, Espectador e) {
+        try {
+            descarte.clear();
+            if (e.canal.read(descarte) < 0) cerrar(k, e);
+        } catch (IOException ex) {
+            cerrar(k, e);
+        }
+    }
+
+    private void difundir(byte[] frame) {
+        ByteBuffer compartido = ByteBuffer.wrap(frame);
+        framesPublicados++;
+        for (SelectionKey k : selector.keys()) {
+            if (!(k.attachment() instanceof Espectador) || !k.isValid()) continue;
+            Espectador e = (Espectador) k.attachment();
+            if (e.frame != null) {
+                framesDescartados++;
+                if (++e.descartesSeguidos >= MAX_DESCARTES_SEGUIDOS) {
+                    desconectadosPorLentos++;
+                    cerrar(k, e);
+                }
+                continue;
+            }
+            e.frame = compartido;
+            e.enviado = 0;
+            escribir(k, e);
+        }
+    }
+
+    private void escribir(SelectionKey k, Espectador e) {
+        ByteBuffer f = e.frame;
+        if (f == null) {
+            k.interestOps(SelectionKey.OP_READ);
+            return;
+        }
+        try {
+            f.limit(f.capacity()).position(e.enviado);
+            int n = e.canal.write(f);
+            e.enviado += n;
+            bytesEnviados += n;
+            if (e.enviado < f.capacity()) {
+                k.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            } else {
+                e.frame = null;
+                e.descartesSeguidos = 0;
+                framesEnviados++;
+                if ((k.interestOps() & SelectionKey.OP_WRITE) != 0) k.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException ex) {
+            cerrar(k, e);
+        }
+    }
+
+    private void cerrar(SelectionKey k, Espectador e) {
+        k.cancel();
+        try {
+            e.canal.close();
+        } catch (IOException ignorada) {
+            // ya estaba cerrado
+        }
+        e.frame = null;
+        espectadores--;
+    }
+
+    /**
+     * Para el hilo del selector y cierra todas las conexiones.
+     *
+     * @throws IOException si falla el cierre.
+     */
+    @Override
+    public void close() throws IOException {
+        abierto = false;
+        selector.wakeup();
+        try {
+            hilo.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey k : selector.keys()) k.channel().close();
+        selector.close();
+        servidor.close();
+    }
+
+    // === Estadísticas ======================================================
+
+    /**
+     * Devuelve los espectadores conectados.
+     *
+     * @return conexiones abiertas.
+     */
+    public int getEspectadores() { return espectadores; }
+
+    /**
+     * Devuelve los frames que el selector ha llegado a difundir.
+     *
+     * @return frames publicados (los que se sustituyen en el buzón no cuentan).
+     */
+    public long getFramesPublicados() { return framesPublicados; }
+
+    /**
+     * Devuelve los frames entregados completos, sumando todos los espectadores.
+     *
+     * @return frames enviados.
+     */
+    public long getFramesEnviados() { return framesEnviados; }
+
+    /**
+     * Devuelve los frames descartados por espectadores lentos.
+     *
+     * @return frames no enviados porque el anterior seguía pendiente.
+     */
+    public long getFramesDescartados() { return framesDescartados; }
+
+    /**
+     * Devuelve los bytes escritos en los sockets.
+     *
+     * @return bytes enviados a todos los espectadores.
+     */
+    public long getBytesEnviados() { return bytesEnviados; }
+
+    /**
+     * Devuelve las conexiones cerradas por no avanzar.
+     *
+     * @return espectadores desconectados por lentos.
+     */
+    public long getDesconectadosPorLentos() { return desconectadosPorLentos; }
+
+    /**
+     * Devuelve el tiempo de CPU consumido por el hilo del selector.
+     *
+     * <p>Incluye el trabajo del núcleo del sistema operativo en las escrituras,
+     * que es la mayor parte del coste por espectador.</p>
+     *
+     * @return nanosegundos de CPU, o {@code -1} si la JVM no lo mide.
+     */
+    public long getCpuSelectorNs() {
+        return ManagementFactory.getThreadMXBean().getThreadCpuTime(hilo.getId());
+    }
+}
@@ -0,0 +1,295 @@
+package kabalera82.spaceinvaders.red;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+import kabalera82.spaceinvaders.interfaces.IGrabadorTicks;
+import kabalera82.spaceinvaders.motor.Comando;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Lado servidor de la partida a dos jugadores.
+ *
+ * <p>El proceso anfitrión ejecuta la única simulación, el {@link MotorJuego},
+ * y juega con la primera nave; el cliente ({@link ClienteRed}) controla la
+ * segunda. Se engancha al motor como {@link IGrabadorTicks}: al final de
+ * cada tick lee los datagramas pendientes de un {@link DatagramChannel} no
+ * bloqueante, cada {@code ticksPorEnvio} ticks envía el estado comprimido
+ * respecto al último que el cliente confirmó, y encola para el tick
+ * siguiente la entrada del cliente que toca. El bucle del juego nunca espera a la red.</p>
+ *
+ * <p>Las entradas se aplican una por tick. Si se acumulan más de las que
+ * justifica el envío por lotes (reloj del cliente algo más rápido, ráfaga
+ * tras una pérdida), se aplican de golpe para no ir acumulando retraso.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ * @see kabalera82.spaceinvaders.red.FormatoRed
+ */
+public class ServidorRed implements IGrabadorTicks, Closeable {
+
+    private final MotorJuego motor;
+    private final DatagramChannel canal;
+    private final int ticksPorEnvio;
+    private final int maxRetraso;
+
+    private final ByteBuffer entrada = ByteBuffer.allocateDirect(FormatoRed.MAX_DATAGRAMA);
+    private final ByteBuffer salida = ByteBuffer.allocateDirect(FormatoRed.MAX_DATAGRAMA);
+
+    // === Cliente ===
+    private SocketAddress cliente;
+    private long ultimoDelClienteNs;
+    private final byte[] entradas = new byte[4 * FormatoRed.HISTORIAL];
+    private int ultimaRecibida = -1, ultimaAplicada = -1;
+    private int confirmado = -1;
+    private long eco, ecoRecibidoNs;
+
+    // === Historial de estados enviados ===
+    private final byte[][] historial = new byte[FormatoRed.HISTORIAL][];
+    private final int[] longitudes = new int[FormatoRed.HISTORIAL];
+    private int numeroEstado = -1;
+    private ByteBuffer codificacion = ByteBuffer.allocate(4096);
+
+    // === Estadísticas ===
+    private long bytesEnviados, bytesRecibidos, datagramasEnviados, datagramasRecibidos;
+    private long bytesEstadoCompleto;
+
+    /**
+     * Abre el puerto y pone el motor en modo de dos jugadores.
+     *
+     * @param motor motor de la partida.
+     * @param puerto puerto UDP local.
+     * @param ticksPorEnvio cada cuántos ticks se envía el estado (1 = todos).
+     * @throws IOException si no se puede abrir el puerto.
+     */
+    public ServidorRed(MotorJuego motor, int puerto, int ticksPorEnvio) throws IOException {
+        if (ticksPorEnvio <= 0) throw new IllegalArgumentException("ticksPorEnvio debe ser positivo");
+        this.motor = motor;
+        this.ticksPorEnvio = ticksPorEnvio;
+        this.maxRetraso = 2 * ticksPorEnvio + 2;
+        this.canal = DatagramChannel.open();
+        this.canal.configureBlocking(false);
+        this.canal.bind(new InetSocketAddress(puerto));
+        for (int i = 0; i < historial.length; i++) historial[i] = new byte[256];
+        motor.setDosJugadores(true);
+    }
+
+    /**
+     * Abre el servidor con un envío cada dos ticks y lo conecta al motor.
+     *
+     * @param motor motor de la partida.
+     * @param puerto puerto UDP local.
+     * @return servidor ya registrado en el motor.
+     * @throws IOException si no se puede abrir el puerto.
+     */
+    public static ServidorRed conectar(MotorJuego motor, int puerto) throws IOException {
+        ServidorRed s = new ServidorRed(motor, puerto, 2);
+        motor.agregarGrabador(s);
+        return s;
+    }
+
+    // === Hilo de la simulación =============================================
+
+    @Override
+    public void comando(long tick, Comando c) {
+        // Las entradas del cliente llegan por la red, no por aquí
+    }
+
+    @Override
+    public void tickTerminado(MotorJuego m) {
+        try {
+            recibir();
+            // El estado sale antes de encolar más entradas: así la última
+            // entrada aplicada que anuncia ya está reflejada en las naves.
+            if (cliente != null && (m.getTick() % ticksPorEnvio == 0 || m.isGameOver())) enviarEstado();
+            aplicarEntradas();
+        } catch (IOException e) {
+            // UDP: un envío o una lectura fallidos equivalen a un datagrama perdido
+        }
+    }
+
+    /**
+     * Lee todos los datagramas pendientes sin bloquear.
+     *
+     * <p>Se invoca en cada tick; un bucle que espera entre ticks puede
+     * llamarlo también mientras espera, para que el tiempo de ida y vuelta
+     * medido no incluya esa espera.</p>
+     *
+     * @throws IOException si falla el canal.
+     */
+    public void recibir() throws IOException {
+        while (true) {
+            entrada.clear();
+            SocketAddress origen = canal.receive(entrada);
+            if (origen == null) return;
+            entrada.flip();
+            if (entrada.remaining() < 5 || entrada.getInt() != FormatoRed.MAGIA) continue;
+            bytesRecibidos += entrada.limit();
+            datagramasRecibidos++;
+            byte tipo = entrada.get();
+            long ahora = System.nanoTime();
+            if (tipo == FormatoRed.UNIRSE) {
+                // El puesto es del cliente actual hasta que se despide o deja
+                // de dar señales: un tercero no puede quitárselo a mitad de partida.
+                if (cliente == null || ahora - ultimoDelClienteNs > FormatoRed.ABANDONO_NS) {
+                    cliente = origen;
+                    ultimaRecibida = ultimaAplicada = -1;
+                    confirmado = -1;
+                }
+            } else if (tipo == FormatoRed.ADIOS && origen.equals(cliente)) {
+                cliente = null;
+            } else if (tipo == FormatoRed.ENTRADAS && origen.equals(cliente)) {
+                try {
+                    leerEntradas();
+                } catch (BufferUnderflowException e) {
+                    // Datagrama truncado: se ignora el resto
+                }
+            }
+            if (origen.equals(cliente)) ultimoDelClienteNs = ahora;
+        }
+    }
+
+    private void leerEntradas() {
+        int ack = entrada.getInt();
+        long marca = entrada.getLong();
+        int primera = entrada.getInt();
+        int n = entrada.get() & 0xFF;
+        if (ack > confirmado) confirmado = ack;
+        eco = marca;
+        ecoRecibidoNs = System.nanoTime();
+        for (int k = 0; k < n; k++) {
+            int numero = primera + k;
+            byte mascara = entrada.get();
+            if (numero <= ultimaRecibida) continue;
+            // Entradas perdidas sin remedio (fuera de la ventana del lote): vacías.
+            // El número viene de la red, así que el salto puede ser enorme;
+            // basta con vaciar los huecos que caben en el anillo.
+            int desde = numero - Math.min(numero - ultimaRecibida - 1, entradas.length);
+            for (int hueco = desde; hueco < numero; hueco++) {
+                entradas[hueco & (entradas.length - 1)] = 0;
+            }
+            entradas[numero & (entradas.length - 1)] = mascara;
+            ultimaRecibida = numero;
+        }
+        if (ultimaRecibida - ultimaAplicada > entradas.length) {
+            ultimaAplicada = ultimaRecibida - entradas.length;
+        }
+    }
+
+    private void aplicarEntradas() {
+        if (ultimaAplicada >= ultimaRecibida) return;
+        do {
+            int mascara = entradas[++ultimaAplicada & (entradas.length - 1)];
+            if ((mascara & FormatoRed.IZQUIERDA) != 0) motor.encolar(Comando.IZQUIERDA_J2);
+            if ((mascara & FormatoRed.DERECHA) != 0)   motor.encolar(Comando.DERECHA_J2);
+            if ((mascara & FormatoRed.DISPARAR) != 0)  motor.encolar(Comando.DISPARAR_J2);
+        } while (ultimaRecibida - ultimaAplicada > maxRetraso);
+    }
+
+    private void enviarEstado() throws IOException {
+        while (true) {
+            codificacion.clear();
+            try {
+                EstadoRed.codificar(motor, codificacion);
+                break;
+            } catch (BufferOverflowException e) {
+                codificacion = ByteBuffer.allocate(codificacion.capacity() * 2);
+            }
+        }
+        int numero = ++numeroEstado;
+        int hueco = numero & (FormatoRed.HISTORIAL - 1);
+        int len = codificacion.position();
+        if (historial[hueco].length < len) historial[hueco] = new byte[len * 2];
+        System.arraycopy(codificacion.array(), 0, historial[hueco], 0, len);
+        longitudes[hueco] = len;
+
+        int base = confirmado >= 0 && numero - confirmado < FormatoRed.HISTORIAL ? confirmado : -1;
+        byte[] bytesBase = base >= 0 ? historial[base & (FormatoRed.HISTORIAL - 1)] : historial[hueco];
+        int lenBase = base >= 0 ? longitudes[base & (FormatoRed.HISTORIAL - 1)] : 0;
+
+        salida.clear();
+        salida.putInt(FormatoRed.MAGIA).put(FormatoRed.ESTADO)
+              .putInt(numero).putInt(base).putInt(ultimaAplicada)
+              .putLong(eco).putLong(eco != 0 ? System.nanoTime() - ecoRecibidoNs : 0);
+        DeltaRed.codificar(bytesBase, lenBase, historial[hueco], len, salida);
+        salida.flip();
+        int enviados = salida.remaining();
+        canal.send(salida, cliente);
+        bytesEnviados += enviados;
+        bytesEstadoCompleto += len;
+        datagramasEnviados++;
+    }
+
+    /**
+     * Avisa al cliente y cierra el puerto.
+     *
+     * @throws IOException si falla el cierre.
+     */
+    @Override
+    public void close() throws IOException {
+        motor.quitarGrabador(this);
+        if (cliente != null) {
+            salida.clear();
+            salida.putInt(FormatoRed.MAGIA).put(FormatoRed.ADIOS).flip();
+            canal.send(salida, cliente);
+        }
+        canal.close();
+    }
+
+    // === Estadísticas ======================================================
+
+    /**
+     * Indica si hay un cliente conectado.
+     *
+     * @return {@code true} si se ha recibido UNIRSE y no ADIOS.
+     */
+    public boolean hayCliente() { return cliente != null; }
+
+    /**
+     * Devuelve los bytes enviados al cliente (carga UDP, sin cabeceras IP/UDP).
+     *
+     * @return bytes enviados.
+     */
+    public long getBytesEnviados() { return bytesEnviados; }
+
+    /**
+     * Devuelve los bytes recibidos del cliente (carga UDP).
+     *
+     * @return bytes recibidos.
+     */
+    public long getBytesRecibidos() { return bytesRecibidos; }
+
+    /**
+     * Devuelve el número de estados enviados.
+     *
+     * @return datagramas ESTADO enviados.
+     */
+    public long getDatagramasEnviados() { return datagramasEnviados; }
+
+    /**
+     * Devuelve el número de datagramas recibidos.
+     *
+     * @return datagramas recibidos del cliente.
+     */
+    public long getDatagramasRecibidos() { return datagramasRecibidos; }
+
+    /**
+     * Devuelve lo que habrían ocupado los estados enviados sin compresión.
+     *
+     * @return suma de los tamaños de {@link EstadoRed} enviados.
+     */
+    public long getBytesEstadoCompleto() { return bytesEstadoCompleto; }
+
+    /**
+     * Devuelve cuántas entradas del cliente están recibidas y sin aplicar.
+     *
+     * @return entradas pendientes.
+     */
+    public int getEntradasPendientes() { return ultimaRecibida - ultimaAplicada; }
+}
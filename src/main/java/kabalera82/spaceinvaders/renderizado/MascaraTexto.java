@@ -0,0 +1,89 @@
+package kabalera82.spaceinvaders.renderizado;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Texto rasterizado una vez como máscara de cobertura, para componerlo en
+ * cualquier color sin volver a rasterizar.
+ *
+ * <p>Se dibuja con AWT en modo sin pantalla (con suavizado) al crearla; al
+ * pintarla sólo se mezclan los píxeles cubiertos. El HUD se compone con una
+ * máscara por prefijo y una por cifra.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+final class MascaraTexto {
+
+    /** Anchura de la máscara y avance del texto. */
+    final int ancho, avance;
+
+    /** Altura de la máscara y distancia de su borde superior a la línea base. */
+    final int alto, ascenso;
+
+    /** Cobertura de cada píxel, de 0 a 255. */
+    private final byte[] cobertura;
+
+    private MascaraTexto(String texto, Font fuente) {
+        BufferedImage medida = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D gm = medida.createGraphics();
+        FontMetrics fm = gm.getFontMetrics(fuente);
+        gm.dispose();
+        this.avance = fm.stringWidth(texto);
+        this.ascenso = fm.getAscent();
+        this.ancho = Math.max(1, avance);
+        this.alto = fm.getAscent() + fm.getDescent();
+
+        BufferedImage img = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(fuente);
+        g.setColor(Color.WHITE);
+        g.drawString(texto, 0, ascenso);
+        g.dispose();
+        int[] px = img.getRGB(0, 0, ancho, alto, null, 0, ancho);
+        this.cobertura = new byte[px.length];
+        for (int i = 0; i < px.length; i++) cobertura[i] = (byte) (px[i] >>> 24);
+    }
+
+    /**
+     * Rasteriza un texto.
+     *
+     * @param texto texto a rasterizar.
+     * @param fuente fuente AWT.
+     * @return máscara del texto.
+     */
+    static MascaraTexto de(String texto, Font fuente) {
+        return new MascaraTexto(texto, fuente);
+    }
+
+    /**
+     * Compone la máscara en un color sobre un framebuffer opaco, recortando
+     * lo que quede fuera.
+     *
+     * @param destino píxeles del framebuffer, por filas.
+     * @param anchoDestino anchura del framebuffer.
+     * @param altoDestino altura del framebuffer.
+     * @param x posición X del inicio del texto.
+     * @param yBase posición Y de la línea base.
+     * @param rgb color del texto en {@code 0xRRGGBB}.
+     */
+    void pintar(int[] destino, int anchoDestino, int altoDestino, int x, int yBase, int rgb) {
+        int y = yBase - ascenso;
+        int c0 = Math.max(0, -x), c1 = Math.min(ancho, anchoDestino - x);
+        int f0 = Math.max(0, -y), f1 = Math.min(alto, altoDestino - y);
+        for (int f = f0; f < f1; f++) {
+            int o = f * ancho, d = (y + f) * anchoDestino + x;
+            for (int c = c0; c < c1; c++) {
+                int a = cobertura[o + c] & 0xFF;
+                if (a == 0) continue;
+                destino[d + c] = a == 255 ? 0xFF000000 | rgb : RenderizadorSoftware.mezclar(destino[d + c], rgb, a);
+            }
+        }
+    }
+}
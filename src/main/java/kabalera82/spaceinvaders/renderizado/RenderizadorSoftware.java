@@ -0,0 +1,283 @@
+package kabalera82.spaceinvaders.renderizado;
+
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import kabalera82.spaceinvaders.assets.AlienSkin;
+import kabalera82.spaceinvaders.assets.AtlasSprites;
+import kabalera82.spaceinvaders.interfaces.IRenderizador;
+import kabalera82.spaceinvaders.motor.InstantaneaRender;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Renderizador por software que dibuja las instantáneas en un {@code int[]}
+ * de píxeles, sin toolkit gráfico ni pantalla.
+ *
+ * <p>Produce la misma composición que {@code PanelJuego} (tablero, encabezado,
+ * naves, aliens, proyectiles, HUD y fin de partida) para pruebas de regresión
+ * visual y grabaciones en máquinas sin pantalla. Todo lo costoso se hace al
+ * construirlo:</p>
+ * <ul>
+ *   <li>Los sprites se decodifican con {@link ImageIO} y se escalan una vez a
+ *       su tamaño de dibujo ({@link SpriteArgb}); dibujarlos es copiar filas,
+ *       saltando los márgenes transparentes y mezclando sólo los bordes
+ *       semitransparentes.</li>
+ *   <li>El fondo con el encabezado se compone una vez; cada frame empieza
+ *       con una sola copia en bloque.</li>
+ *   <li>Los textos del HUD se rasterizan con AWT sin pantalla como máscaras
+ *       ({@link MascaraTexto}): una por prefijo y una por cifra.</li>
+ * </ul>
+ *
+ * <p>Dibujar un frame no reserva memoria. Los píxeles son los de una
+ * {@link BufferedImage} {@code TYPE_INT_RGB}, así que exportar un PNG no
+ * copia nada. La mezcla de bordes divide por 256 en lugar de 255: el
+ * resultado es determinista pero no idéntico, píxel a píxel, al de JavaFX.</p>
+ *
+ * <h2>Uso típico</h2>
+ * <pre>{@code
+ * RenderizadorSoftware r = new RenderizadorSoftware();
+ * instantanea.copiar(motor);
+ * r.render(instantanea, 1.0);
+ * r.exportarPng(Paths.get("frame.png"));
+ * }</pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class RenderizadorSoftware implements IRenderizador {
+
+    // === Colores, en 0xRRGGBB ===
+    private static final int NEGRO = 0x000000;
+    private static final int VERDE_LIMA = 0x32CD32;
+    private static final int BLANCO = 0xFFFFFF;
+    private static final int ROJO = 0xFF0000;
+
+    // === Posiciones del HUD, las mismas que en PanelJuego ===
+    private static final int HUD_X = 12;
+    private static final int HUD_Y_VIDAS = 24, HUD_Y_PUNTOS = 44, HUD_Y_ALIENS = 64;
+    private static final int TITULO_Y = 36;
+
+    private final int ancho, alto;
+    private final BufferedImage imagen;
+    private final int[] pixeles;
+
+    /** Tablero y encabezado ya compuestos, copiados al empezar cada frame. */
+    private final int[] fondo;
+
+    // === Sprites, escalados al tamaño con el que se dibujan ===
+    private SpriteArgb nave;
+    private SpriteArgb[][] aliens; // [skin][frame]
+
+    // === Textos ===
+    private final MascaraTexto[] cifras = new MascaraTexto[10];
+    private final MascaraTexto menos;
+    private final int anchoCifra;
+    private final MascaraTexto prefijoVidas, prefijoPuntos, prefijoAliens, gameOver;
+    private final byte[] digitos = new byte[11];
+
+    /** Crea un renderizador del tamaño del tablero del juego. */
+    public RenderizadorSoftware() {
+        this(MotorJuego.ANCHO, MotorJuego.ALTO);
+    }
+
+    /**
+     * Crea un renderizador de un tamaño cualquiera; lo que quede fuera se recorta.
+     *
+     * @param ancho anchura en píxeles.
+     * @param alto altura en píxeles.
+     */
+    public RenderizadorSoftware(int ancho, int alto) {
+        this.ancho = ancho;
+        this.alto = alto;
+        this.imagen = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        this.pixeles = ((DataBufferInt) imagen.getRaster().getDataBuffer()).getData();
+
+        Font hud = fuente(18);
+        for (int i = 0; i < cifras.length; i++) cifras[i] = MascaraTexto.de(String.valueOf(i), hud);
+        this.menos = MascaraTexto.de("-", hud);
+        int max = menos.avance;
+        for (MascaraTexto c : cifras) max = Math.max(max, c.avance);
+        this.anchoCifra = max;
+        this.prefijoVidas = MascaraTexto.de("Vidas: ", hud);
+        this.prefijoPuntos = MascaraTexto.de("Puntos: ", hud);
+        this.prefijoAliens = MascaraTexto.de("Aliens: ", hud);
+        this.gameOver = MascaraTexto.de("GAME OVER", fuente(48));
+
+        this.fondo = new int[ancho * alto];
+        Arrays.fill(fondo, 0xFF000000 | NEGRO);
+        MascaraTexto titulo = MascaraTexto.de("Tablero de juego", fuente(28));
+        titulo.pintar(fondo, ancho, alto, ancho / 2 - titulo.avance / 2, TITULO_Y, VERDE_LIMA);
+
+        cargarSprites(AtlasSprites.CASILLA, AtlasSprites.CASILLA, AtlasSprites.CASILLA * 2, AtlasSprites.CASILLA);
+    }
+
+    /** Consolas si está instalada, como en la vista JavaFX; si no, la monoespaciada del sistema. */
+    private static Font fuente(int tam) {
+        Font f = new Font("Consolas", Font.PLAIN, tam);
+        return f.getFamily().equals("Consolas") ? f : new Font(Font.MONOSPACED, Font.PLAIN, tam);
+    }
+
+    private void cargarSprites(int anchoAlien, int altoAlien, int anchoNave, int altoNave) {
+        if (aliens == null || aliens[0][0].ancho != anchoAlien || aliens[0][0].alto != altoAlien) {
+            AlienSkin[] skins = AlienSkin.values();
+            aliens = new SpriteArgb[skins.length][];
+            for (int s = 0; s < skins.length; s++) {
+                aliens[s] = new SpriteArgb[skins[s].framePaths.length];
+                for (int f = 0; f < aliens[s].length; f++) {
+                    aliens[s][f] = SpriteArgb.cargar(skins[s].framePaths[f], anchoAlien, altoAlien);
+                }
+            }
+        }
+        if (nave == null || nave.ancho != anchoNave || nave.alto != altoNave) {
+            nave = SpriteArgb.cargar(AtlasSprites.RUTA_NAVE, anchoNave, altoNave);
+        }
+    }
+
+    @Override
+    public void render(InstantaneaRender estado, double alpha) {
+        System.arraycopy(fondo, 0, pixeles, 0, pixeles.length);
+
+        // Sólo se reescala si la partida usa otros tamaños que los del atlas
+        int anchoAlien = (int) Math.round(estado.getAlienAncho()), altoAlien = (int) Math.round(estado.getAlienAlto());
+        int anchoNave = (int) Math.round(estado.getNaveAncho()), altoNave = (int) Math.round(estado.getNaveAlto());
+        if (estado.getAliens() == 0) { anchoAlien = aliens[0][0].ancho; altoAlien = aliens[0][0].alto; }
+        if (estado.getNaves() == 0) { anchoNave = nave.ancho; altoNave = nave.alto; }
+        cargarSprites(anchoAlien, altoAlien, anchoNave, altoNave);
+
+        for (int i = 0; i < estado.getNaves(); i++) {
+            copiar(nave, redondear(estado.getNaveX(i, alpha)), redondear(estado.getNaveY(i, alpha)));
+        }
+        for (int k = 0; k < estado.getAliens(); k++) {
+            copiar(aliens[estado.getAlienSkin(k)][estado.getAlienFrame(k)],
+                    redondear(estado.getAlienX(k, alpha)), redondear(estado.getAlienY(k, alpha)));
+        }
+
+        if (estado.getBalas() > 0) {
+            int argb = estado.getColorBalas(), a = argb >>> 24;
+            double w = estado.getBalaAncho(), h = estado.getBalaAlto();
+            for (int i = 0; i < estado.getBalas(); i++) {
+                double x = estado.getBalaX(i), y = estado.getBalaY(i, alpha);
+                rellenar(redondear(x), redondear(y), redondear(x + w), redondear(y + h), argb & 0xFFFFFF, a);
+            }
+        }
+
+        etiqueta(prefijoVidas, estado.getVidas(), HUD_Y_VIDAS);
+        etiqueta(prefijoPuntos, estado.getPuntos(), HUD_Y_PUNTOS);
+        etiqueta(prefijoAliens, estado.getAliens(), HUD_Y_ALIENS);
+        if (estado.isGameOver()) gameOver.pintar(pixeles, ancho, alto, ancho / 2 - gameOver.avance / 2, alto / 2, ROJO);
+    }
+
+    private static int redondear(double v) {
+        return (int) Math.floor(v + 0.5);
+    }
+
+    /** Copia un sprite recortándolo al framebuffer; sólo mezcla los píxeles semitransparentes. */
+    private void copiar(SpriteArgb s, int px, int py) {
+        int f0 = Math.max(0, -py), f1 = Math.min(s.alto, alto - py);
+        for (int f = f0; f < f1; f++) {
+            int c0 = Math.max(s.desde[f], -px), c1 = Math.min(s.hasta[f], ancho - px);
+            int o = f * s.ancho, d = (py + f) * ancho + px;
+            for (int c = c0; c < c1; c++) {
+                int p = s.argb[o + c];
+                int a = p >>> 24;
+                if (a == 255) pixeles[d + c] = p;
+                else if (a != 0) pixeles[d + c] = mezclar(pixeles[d + c], p, a);
+            }
+        }
+    }
+
+    /** Rellena {@code [x0, x1) × [y0, y1)}, recortado; los opacos fila a fila en bloque. */
+    private void rellenar(int x0, int y0, int x1, int y1, int rgb, int a) {
+        x0 = Math.max(0, x0);
+        y0 = Math.max(0, y0);
+        x1 = Math.min(ancho, x1);
+        y1 = Math.min(alto, y1);
+        if (x0 >= x1 || a == 0) return;
+        for (int y = y0; y < y1; y++) {
+            int fila = y * ancho;
+            if (a == 255) {
+                Arrays.fill(pixeles, fila + x0, fila + x1, 0xFF000000 | rgb);
+            } else {
+                for (int i = fila + x0; i < fila + x1; i++) pixeles[i] = mezclar(pixeles[i], rgb, a);
+            }
+        }
+    }
+
+    /** Pinta prefijo y valor, con todas las cifras del ancho de la más ancha, como el HUD de JavaFX. */
+    private void etiqueta(MascaraTexto prefijo, int valor, int y) {
+        prefijo.pintar(pixeles, ancho, alto, HUD_X, y, BLANCO);
+        int n = 0;
+        long v = Math.abs((long) valor);
+        do {
+            digitos[n++] = (byte) (v % 10);
+            v /= 10;
+        } while (v != 0);
+        int x = HUD_X + prefijo.avance;
+        if (valor < 0) {
+            menos.pintar(pixeles, ancho, alto, x, y, BLANCO);
+            x += anchoCifra;
+        }
+        for (int i = n - 1; i >= 0; i--, x += anchoCifra) cifras[digitos[i]].pintar(pixeles, ancho, alto, x, y, BLANCO);
+    }
+
+    /**
+     * Mezcla un color sobre un píxel opaco (división por 256, sin reservar memoria).
+     *
+     * @param destino píxel opaco existente.
+     * @param rgb color a mezclar; se ignoran los 8 bits altos.
+     * @param a opacidad de 0 a 255.
+     * @return píxel opaco resultante.
+     */
+    static int mezclar(int destino, int rgb, int a) {
+        int na = 256 - a;
+        int rb = (rgb & 0xFF00FF) * a + (destino & 0xFF00FF) * na;
+        int g = (rgb & 0x00FF00) * a + (destino & 0x00FF00) * na;
+        return 0xFF000000 | ((rb >>> 8) & 0xFF00FF) | ((g >>> 8) & 0x00FF00);
+    }
+
+    /**
+     * Guarda el último frame como PNG.
+     *
+     * @param fichero ruta del fichero de destino.
+     * @throws IOException si no se puede escribir.
+     */
+    public void exportarPng(Path fichero) throws IOException {
+        if (!ImageIO.write(imagen, "png", fichero.toFile())) {
+            throw new IOException("No hay codificador PNG disponible");
+        }
+    }
+
+    /**
+     * Devuelve los píxeles del último frame, por filas, en {@code 0xFFRRGGBB}.
+     *
+     * @return el framebuffer vivo (no una copia); se sobrescribe en cada {@code render}.
+     */
+    public int[] getPixeles() { return pixeles; }
+
+    /**
+     * Devuelve el framebuffer como imagen AWT, compartiendo los píxeles.
+     *
+     * @return imagen {@code TYPE_INT_RGB} del último frame.
+     */
+    public BufferedImage getImagen() { return imagen; }
+
+    /**
+     * Devuelve la anchura del framebuffer, fijada al construirlo.
+     *
+     * @return anchura en píxeles.
+     */
+    public int getAncho() { return ancho; }
+
+    /**
+     * Devuelve la altura del framebuffer, fijada al construirlo.
+     *
+     * @return altura en píxeles.
+     */
+    public int getAlto() { return alto; }
+}
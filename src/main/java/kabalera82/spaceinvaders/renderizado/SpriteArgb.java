@@ -0,0 +1,81 @@
+package kabalera82.spaceinvaders.renderizado;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Sprite decodificado una vez en píxeles ARGB, ya escalado a su tamaño de dibujo.
+ *
+ * <p>Se carga con {@link ImageIO} y se escala con AWT en modo sin pantalla,
+ * así que no necesita el toolkit de JavaFX. Para cada fila guarda el primer
+ * y el último píxel no transparente, de modo que al copiarlo se saltan los
+ * márgenes vacíos sin mirarlos.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+final class SpriteArgb {
+
+    final int ancho, alto;
+
+    /** Píxeles en ARGB no premultiplicado, por filas. */
+    final int[] argb;
+
+    /** Primera columna no transparente de cada fila ({@code ancho} si está vacía). */
+    final int[] desde;
+
+    /** Columna siguiente a la última no transparente de cada fila. */
+    final int[] hasta;
+
+    private SpriteArgb(int ancho, int alto, int[] argb) {
+        this.ancho = ancho;
+        this.alto = alto;
+        this.argb = argb;
+        this.desde = new int[alto];
+        this.hasta = new int[alto];
+        for (int f = 0; f < alto; f++) {
+            int d = ancho, h = 0;
+            for (int c = 0; c < ancho; c++) {
+                if (argb[f * ancho + c] >>> 24 != 0) {
+                    if (d == ancho) d = c;
+                    h = c + 1;
+                }
+            }
+            desde[f] = d;
+            hasta[f] = h;
+        }
+    }
+
+    /**
+     * Carga un PNG de los recursos y lo escala con suavizado.
+     *
+     * @param ruta ruta del recurso (p. ej. {@code "/imagenes/nave.png"}).
+     * @param ancho anchura de dibujo.
+     * @param alto altura de dibujo.
+     * @return sprite listo para copiar.
+     * @throws IllegalArgumentException si el recurso no existe o no se puede leer.
+     */
+    static SpriteArgb cargar(String ruta, int ancho, int alto) {
+        BufferedImage original;
+        try (InputStream is = SpriteArgb.class.getResourceAsStream(ruta)) {
+            if (is == null) throw new IllegalArgumentException("Recurso no encontrado: " + ruta);
+            original = ImageIO.read(is);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudo leer " + ruta, e);
+        }
+        if (original == null) throw new IllegalArgumentException("Formato no soportado: " + ruta);
+
+        BufferedImage escalada = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = escalada.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(original, 0, 0, ancho, alto, null);
+        g.dispose();
+        return new SpriteArgb(ancho, alto, escalada.getRGB(0, 0, ancho, alto, null, 0, ancho));
+    }
+}
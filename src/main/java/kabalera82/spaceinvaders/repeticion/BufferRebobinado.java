@@ -0,0 +1,281 @@
+package kabalera82.spaceinvaders.repeticion;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import kabalera82.spaceinvaders.diagnostico.MedidorFases;
+import kabalera82.spaceinvaders.interfaces.IEventosJuego;
+import kabalera82.spaceinvaders.interfaces.IGrabadorTicks;
+import kabalera82.spaceinvaders.motor.Comando;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Historial de los últimos minutos de partida para poder rebobinar.
+ *
+ * <p>Cada {@code intervaloClave} ticks guarda un fotograma clave con
+ * {@link MotorJuego#escribirEstado(ByteBuffer)}; entre dos fotogramas clave
+ * sólo guarda los comandos aplicados en cada tick (un byte por tick más uno
+ * por comando). Como el motor es determinista, esos comandos son el delta
+ * exacto entre un tick y el siguiente: para volver a un tick se restaura el
+ * fotograma clave anterior y se vuelven a simular los ticks que faltan, en
+ * silencio.</p>
+ *
+ * <p>Los bloques (fotograma clave + comandos) se guardan en un único array
+ * de tamaño fijo, el presupuesto de memoria, usado como anillo: cuando un
+ * bloque nuevo no cabe se descartan los más antiguos. Con la oleada del nivel
+ * 30 (unos 66 KB por fotograma) y un fotograma cada 5 segundos, 4 MB guardan
+ * unos 5 minutos; en niveles bajos, mucho más.</p>
+ *
+ * <h2>Uso típico</h2>
+ * <pre>{@code
+ * BufferRebobinado historial = new BufferRebobinado(motor, 300, 4 << 20);
+ * ...
+ * historial.rebobinar(motor.getTick() - 120);   // dos segundos atrás a 60 tps
+ * }</pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public class BufferRebobinado implements IGrabadorTicks {
+
+    private static final IEventosJuego SILENCIO = new IEventosJuego() {};
+
+    private final MotorJuego motor;
+    private final int intervaloClave;
+
+    // === Anillo de bloques cerrados ===
+    private final byte[] arena;
+    private long[] tickInicio = new long[64];
+    private int[] offset = new int[64];
+    private int[] bytesClave = new int[64];
+    private int[] bytesComandos = new int[64];
+    private int primero = 0, bloques = 0;
+
+    // === Bloque en curso ===
+    private ByteBuffer clave = ByteBuffer.allocate(16 * 1024);
+    private byte[] comandos = new byte[1024];
+    private int numComandos = 0;
+    private long tickClave;
+    private final byte[] comandosTick = new byte[256];
+    private int numComandosTick = 0;
+
+    private boolean resimulando = false;
+
+    /**
+     * Crea el historial y lo conecta al motor, con un primer fotograma clave en su tick actual.
+     *
+     * @param motor motor de la partida.
+     * @param intervaloClave ticks entre fotogramas clave (y máximo a resimular al rebobinar).
+     * @param presupuestoBytes memoria máxima para los bloques cerrados.
+     * @throws IllegalArgumentException si algún valor no es positivo.
+     */
+    public BufferRebobinado(MotorJuego motor, int intervaloClave, int presupuestoBytes) {
+        if (intervaloClave <= 0 || presupuestoBytes <= 0) {
+            throw new IllegalArgumentException("Intervalo y presupuesto deben ser positivos");
+        }
+        this.motor = motor;
+        this.intervaloClave = intervaloClave;
+        this.arena = new byte[presupuestoBytes];
+        empezarBloque();
+        motor.agregarGrabador(this);
+    }
+
+    // === Grabación (hilo de la simulación) =================================
+
+    @Override
+    public void comando(long tick, Comando c) {
+        if (resimulando || numComandosTick == comandosTick.length) return;
+        comandosTick[numComandosTick++] = (byte) c.ordinal();
+    }
+
+    @Override
+    public void tickTerminado(MotorJuego m) {
+        if (resimulando) return;
+        if (numComandos + 1 + numComandosTick > comandos.length) {
+            comandos = Arrays.copyOf(comandos, Math.max(comandos.length * 2, numComandos + 1 + numComandosTick));
+        }
+        comandos[numComandos++] = (byte) numComandosTick;
+        System.arraycopy(comandosTick, 0, comandos, numComandos, numComandosTick);
+        numComandos += numComandosTick;
+        numComandosTick = 0;
+
+        if (m.getTick() - tickClave >= intervaloClave) {
+            cerrarBloque();
+            empezarBloque();
+        }
+    }
+
+    // === Rebobinado ========================================================
+
+    /**
+     * Devuelve el motor al tick indicado, o al más antiguo que se conserve.
+     *
+     * <p>Restaura el fotograma clave anterior al objetivo y resimula como
+     * mucho {@code intervaloClave} ticks sin notificar sucesos (no suenan
+     * disparos ni explosiones) ni medir fases: las colisiones resimuladas no
+     * deben sumarse al frame en curso del {@link MedidorFases}. El historial
+     * posterior al objetivo se descarta: la partida continúa desde ahí.</p>
+     *
+     * <p>Los otros grabadores del motor (repetición, traza, servidor de red)
+     * también ven los ticks resimulados, así que no debe rebobinarse mientras
+     * haya alguno conectado.</p>
+     *
+     * @param objetivo tick al que volver.
+     * @return tick alcanzado, o {@code -1} si el objetivo no es anterior al tick actual.
+     */
+    public long rebobinar(long objetivo) {
+        if (objetivo >= motor.getTick()) return -1;
+        objetivo = Math.max(objetivo, getTickMasAntiguo());
+
+        // Recuperar como bloque en curso el bloque cerrado que contiene el objetivo
+        while (objetivo < tickClave && bloques > 0) {
+            int b = indice(bloques - 1);
+            recuperarBloque(b);
+            bloques--;
+        }
+
+        ByteBuffer lectura = clave.duplicate();
+        lectura.flip();
+        IEventosJuego eventos = motor.getEventos();
+        MedidorFases medidor = motor.getMedidor();
+        resimulando = true;
+        try {
+            motor.setEventos(SILENCIO);
+            motor.setMedidor(null);
+            motor.leerEstado(lectura);
+            int p = 0;
+            while (motor.getTick() < objetivo && !motor.isGameOver()) {
+                int n = comandos[p++];
+                for (int i = 0; i < n; i++) motor.encolar(Comando.desdeCodigo(comandos[p++]));
+                motor.tick();
+            }
+            numComandos = p;
+        } finally {
+            motor.setEventos(eventos);
+            motor.setMedidor(medidor);
+            resimulando = false;
+        }
+        numComandosTick = 0;
+        return motor.getTick();
+    }
+
+    /**
+     * Devuelve el tick más antiguo al que se puede rebobinar.
+     *
+     * @return tick del fotograma clave más antiguo conservado.
+     */
+    public long getTickMasAntiguo() {
+        return bloques > 0 ? tickInicio[primero] : tickClave;
+    }
+
+    /**
+     * Devuelve la memoria ocupada por los bloques cerrados.
+     *
+     * @return bytes usados del presupuesto.
+     */
+    public int getBytesUsados() {
+        int total = 0;
+        for (int k = 0; k < bloques; k++) {
+            int b = indice(k);
+            total += bytesClave[b] + bytesComandos[b];
+        }
+        return total;
+    }
+
+    /**
+     * Devuelve el presupuesto de memoria.
+     *
+     * @return bytes del anillo de bloques.
+     */
+    public int getPresupuesto() { return arena.length; }
+
+    // === Bloques ===========================================================
+
+    private void empezarBloque() {
+        while (true) {
+            clave.clear();
+            try {
+                motor.escribirEstado(clave);
+                break;
+            } catch (BufferOverflowException e) {
+                clave = ByteBuffer.allocate(clave.capacity() * 2);
+            }
+        }
+        tickClave = motor.getTick();
+        numComandos = 0;
+    }
+
+    /** Copia el bloque en curso al anillo, descartando los más antiguos si no cabe. */
+    private void cerrarBloque() {
+        int lenClave = clave.position();
+        int len = lenClave + numComandos;
+        if (len > arena.length) {
+            bloques = 0; // ni siquiera cabe solo: el historial se queda en el bloque en curso
+            return;
+        }
+        int pos = reservar(len);
+        System.arraycopy(clave.array(), 0, arena, pos, lenClave);
+        System.arraycopy(comandos, 0, arena, pos + lenClave, numComandos);
+
+        if (bloques == tickInicio.length) crecerIndice();
+        int b = indice(bloques++);
+        tickInicio[b] = tickClave;
+        offset[b] = pos;
+        bytesClave[b] = lenClave;
+        bytesComandos[b] = numComandos;
+    }
+
+    /** Busca hueco para {@code len} bytes detrás del bloque más reciente. */
+    private int reservar(int len) {
+        while (bloques > 0) {
+            int viejo = primero, nuevo = indice(bloques - 1);
+            int fin = offset[nuevo] + bytesClave[nuevo] + bytesComandos[nuevo];
+            if (offset[nuevo] >= offset[viejo]) {
+                // Ocupado [inicio del más viejo, fin): libre detrás y al principio
+                if (fin + len <= arena.length) return fin;
+                if (len <= offset[viejo]) return 0;
+            } else if (fin + len <= offset[viejo]) {
+                // Ya ha dado la vuelta: libre entre el más nuevo y el más viejo
+                return fin;
+            }
+            primero = indice(1);
+            bloques--;
+        }
+        primero = 0;
+        return 0;
+    }
+
+    private void recuperarBloque(int b) {
+        int lenClave = bytesClave[b];
+        if (clave.capacity() < lenClave) clave = ByteBuffer.allocate(lenClave);
+        clave.clear();
+        clave.put(arena, offset[b], lenClave);
+        if (comandos.length < bytesComandos[b]) comandos = new byte[bytesComandos[b]];
+        System.arraycopy(arena, offset[b] + lenClave, comandos, 0, bytesComandos[b]);
+        numComandos = bytesComandos[b];
+        tickClave = tickInicio[b];
+    }
+
+    private int indice(int k) {
+        return (primero + k) % tickInicio.length;
+    }
+
+    private void crecerIndice() {
+        int n = tickInicio.length;
+        long[] t = new long[n * 2];
+        int[] o = new int[n * 2], c = new int[n * 2], m = new int[n * 2];
+        for (int k = 0; k < bloques; k++) {
+            int b = indice(k);
+            t[k] = tickInicio[b];
+            o[k] = offset[b];
+            c[k] = bytesClave[b];
+            m[k] = bytesComandos[b];
+        }
+        tickInicio = t;
+        offset = o;
+        bytesClave = c;
+        bytesComandos = m;
+        primero = 0;
+    }
+}
@@ -0,0 +1,241 @@
+package kabalera82.spaceinvaders.repeticion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import kabalera82.spaceinvaders.interfaces.IGrabadorTicks;
+import kabalera82.spaceinvaders.motor.Comando;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Escribe una traza por tick de la partida en un fichero proyectado en
+ * memoria, pensada para sesiones de horas.
+ *
+ * <p>El hilo de la simulación sólo copia cuatro {@code long} a un anillo
+ * preasignado (productor único) y publica el registro; nunca espera. Un hilo
+ * propio (consumidor único) vacía el anillo sobre el segmento actual,
+ * proyectado con {@link FileChannel#map}, y abre el siguiente segmento cuando
+ * se llena, anotando su primer tick en el índice. Así la memoria usada es
+ * siempre la de un segmento, dure lo que dure la partida.</p>
+ *
+ * <p>Si el escritor se queda atrás y el anillo se llena, los registros de
+ * esos ticks se descartan y se cuentan en {@link #getDescartados()}: la
+ * simulación tiene prioridad sobre la traza.</p>
+ *
+ * <p>El formato está descrito en {@link FormatoTraza}; se lee con
+ * {@link LectorTraza}.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public class EscritorTraza implements IGrabadorTicks, AutoCloseable {
+
+    /** Tamaño de segmento por defecto: 4 MiB, unos 36 minutos de juego a 60 tps. */
+    public static final int SEGMENTO_POR_DEFECTO = 4 << 20;
+
+    /** Registros del anillo por defecto (más de dos minutos a 60 tps). */
+    public static final int ANILLO_POR_DEFECTO = 8192;
+
+    // === Anillo productor/consumidor ===
+    private final long[] anillo;
+    private final int mascara;
+    private final AtomicLong publicados = new AtomicLong();
+    private final AtomicLong consumidos = new AtomicLong();
+    private long descartados = 0;
+
+    // === Comandos del tick en curso (hilo de la simulación) ===
+    private int izquierda, derecha, disparar;
+
+    // === Fichero (hilo escritor) ===
+    private final FileChannel datos;
+    private final FileChannel indice;
+    private final int bytesSegmento;
+    private final ByteBuffer bufferIndice = ByteBuffer.allocate(Long.BYTES);
+    private MappedByteBuffer segmento;
+    private long segmentos = 0;
+    private boolean segmentoIndexado = false;
+
+    private final Thread hilo;
+    private volatile boolean activo = true;
+    private volatile IOException error;
+
+    /**
+     * Crea la traza con los tamaños por defecto.
+     *
+     * @param base ruta sin extensión; se crean {@code base.traza} y {@code base.idx}.
+     * @param ticksPorSegundo frecuencia de la simulación, guardada en la cabecera.
+     * @throws IOException si no se pueden crear los ficheros.
+     */
+    public EscritorTraza(Path base, double ticksPorSegundo) throws IOException {
+        this(base, ticksPorSegundo, SEGMENTO_POR_DEFECTO, ANILLO_POR_DEFECTO);
+    }
+
+    /**
+     * Crea la traza.
+     *
+     * @param base ruta sin extensión; se crean {@code base.traza} y {@code base.idx}.
+     * @param ticksPorSegundo frecuencia de la simulación, guardada en la cabecera.
+     * @param bytesSegmento tamaño de cada segmento (múltiplo de 32, al menos 64).
+     * @param capacidadAnillo registros del anillo (potencia de dos).
+     * @throws IOException si no se pueden crear los ficheros.
+     * @throws IllegalArgumentException si los tamaños no son válidos.
+     */
+    public EscritorTraza(Path base, double ticksPorSegundo, int bytesSegmento, int capacidadAnillo)
+            throws IOException {
+        if (bytesSegmento < 2 * FormatoTraza.TAM_REGISTRO || bytesSegmento % FormatoTraza.TAM_REGISTRO != 0) {
+            throw new IllegalArgumentException("Tamaño de segmento no válido: " + bytesSegmento);
+        }
+        if (Integer.bitCount(capacidadAnillo) != 1) {
+            throw new IllegalArgumentException("La capacidad del anillo debe ser potencia de dos: " + capacidadAnillo);
+        }
+        this.bytesSegmento = bytesSegmento;
+        this.anillo = new long[capacidadAnillo * 4];
+        this.mascara = capacidadAnillo - 1;
+
+        Path ficheroDatos = base.resolveSibling(base.getFileName() + FormatoTraza.EXT_DATOS);
+        Path ficheroIndice = base.resolveSibling(base.getFileName() + FormatoTraza.EXT_INDICE);
+        this.datos = FileChannel.open(ficheroDatos, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.indice = FileChannel.open(ficheroIndice, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        // Cabecera en el primer registro del primer segmento
+        segmento = datos.map(FileChannel.MapMode.READ_WRITE, 0, bytesSegmento);
+        segmento.putInt(FormatoTraza.MAGIA);
+        segmento.putShort(FormatoTraza.VERSION);
+        segmento.putShort((short) FormatoTraza.TAM_REGISTRO);
+        segmento.putInt(bytesSegmento);
+        segmento.putInt(0);
+        segmento.putDouble(ticksPorSegundo);
+        segmento.putLong(0);
+        segmentos = 1;
+
+        this.hilo = new Thread(this::escribir, "escritor-traza");
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+    }
+
+    // === Hilo de la simulación =============================================
+
+    @Override
+    public void comando(long tick, Comando c) {
+        switch (c) {
+            case IZQUIERDA: case IZQUIERDA_J2: izquierda++; break;
+            case DERECHA:   case DERECHA_J2:   derecha++; break;
+            case DISPARAR:  case DISPARAR_J2:  disparar++; break;
+        }
+    }
+
+    @Override
+    public void tickTerminado(MotorJuego m) {
+        long p = publicados.get();
+        if (p - consumidos.get() > mascara) {
+            descartados++;
+        } else {
+            int i = (int) (p & mascara) * 4;
+            int banderas = FormatoTraza.VALIDO | (m.isGameOver() ? FormatoTraza.GAME_OVER : 0);
+            anillo[i]     = m.getTick();
+            anillo[i + 1] = ((long) m.getPuntos() << 32) | (m.getNivel() & 0xFFFFFFFFL);
+            anillo[i + 2] = ((long) m.getAliens().getVivos() << 32)
+                    | ((long) (m.getDisparos().getCantidad() & 0xFFFF) << 16)
+                    | ((m.getVidas() & 0xFF) << 8) | banderas;
+            anillo[i + 3] = ((long) Float.floatToIntBits((float) m.getNave().getMinX()) << 32)
+                    | (Math.min(izquierda, 0xFF) << 24) | (Math.min(derecha, 0xFF) << 16)
+                    | (Math.min(disparar, 0xFF) << 8);
+            publicados.lazySet(p + 1);
+        }
+        izquierda = derecha = disparar = 0;
+    }
+
+    /**
+     * Devuelve los ticks que no se pudieron trazar por tener el anillo lleno.
+     *
+     * @return registros descartados.
+     */
+    public long getDescartados() { return descartados; }
+
+    /**
+     * Termina de escribir lo pendiente y cierra los ficheros.
+     *
+     * @throws IOException si falló alguna escritura.
+     */
+    @Override
+    public void close() throws IOException {
+        activo = false;
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segmento.force();
+        datos.close();
+        indice.force(false);
+        indice.close();
+        if (error != null) throw error;
+    }
+
+    // === Hilo escritor =====================================================
+
+    private void escribir() {
+        try {
+            while (true) {
+                boolean seguir = activo; // leer antes de vaciar para no perder el final
+                long c = consumidos.get(), p = publicados.get();
+                if (c == p) {
+                    if (!seguir) return;
+                    LockSupport.parkNanos(1_000_000);
+                    continue;
+                }
+                for (; c < p; c++) {
+                    int i = (int) (c & mascara) * 4;
+                    if (!segmento.hasRemaining()) nuevoSegmento();
+                    if (!segmentoIndexado) anotarIndice(anillo[i]);
+                    segmento.putLong(anillo[i]);
+                    segmento.putLong(anillo[i + 1]);
+                    segmento.putLong(anillo[i + 2]);
+                    segmento.putLong(anillo[i + 3]);
+                    consumidos.lazySet(c + 1);
+                }
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    private void nuevoSegmento() throws IOException {
+        segmento = datos.map(FileChannel.MapMode.READ_WRITE, segmentos * bytesSegmento, bytesSegmento);
+        segmentos++;
+        segmentoIndexado = false;
+    }
+
+    private void anotarIndice(long primerTick) throws IOException {
+        bufferIndice.clear();
+        bufferIndice.putLong(primerTick).flip();
+        while (bufferIndice.hasRemaining()) indice.write(bufferIndice);
+        segmentoIndexado = true;
+    }
+
+    /**
+     * Crea una traza y la conecta a un motor.
+     *
+     * @param motor motor cuya partida se trazará.
+     * @param base ruta sin extensión de los ficheros.
+     * @return el escritor, ya registrado en el motor.
+     */
+    public static EscritorTraza conectar(MotorJuego motor, Path base) {
+        try {
+            EscritorTraza traza = new EscritorTraza(base, motor.getConfiguracion().getTicksPorSegundo());
+            motor.agregarGrabador(traza);
+            return traza;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear la traza " + base, e);
+        }
+    }
+}
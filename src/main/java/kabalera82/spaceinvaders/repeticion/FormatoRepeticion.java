@@ -0,0 +1,40 @@
+package kabalera82.spaceinvaders.repeticion;
+
+/**
+ * Constantes del formato binario de las repeticiones ({@code .sirp}).
+ *
+ * <h2>Estructura</h2>
+ * <pre>
+ * cabecera:  int   magia "SIRP"
+ *            short versión
+ *            long  semilla
+ *            9 campos de ConfiguracionJuego (6 double, 3 int, en orden del constructor)
+ *            int   intervalo de comprobación (ticks)
+ * cuerpo:    registros [byte tipo][varint ticks desde el registro anterior][datos]
+ *              tipo 0..n-1 → Comando por ordinal, sin datos
+ *              RESUMEN     → long hashEstado() tras ese tick
+ *              FIN         → long hashEstado() final; último registro
+ * </pre>
+ *
+ * <p>Los enteros de la cabecera van en big-endian ({@code DataOutputStream}).
+ * Un comando ocupa normalmente dos bytes.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+final class FormatoRepeticion {
+
+    /** Bytes "SIRP" (Space Invaders RePetición). */
+    static final int MAGIA = 0x53495250;
+
+    /** Versión actual del formato. */
+    static final short VERSION = 1;
+
+    /** Registro con el resumen del estado. */
+    static final byte RESUMEN = 0x10;
+
+    /** Registro final. */
+    static final byte FIN = 0x7F;
+
+    private FormatoRepeticion() {}
+}
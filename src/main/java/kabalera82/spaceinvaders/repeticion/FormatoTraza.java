@@ -0,0 +1,51 @@
+package kabalera82.spaceinvaders.repeticion;
+
+/**
+ * Constantes del formato de las trazas por tick ({@code .traza} + {@code .idx}).
+ *
+ * <h2>Fichero de datos ({@code .traza})</h2>
+ * <p>Se escribe por segmentos de tamaño fijo proyectados en memoria. El
+ * primer registro del fichero es la cabecera; el resto son registros de
+ * {@value #TAM_REGISTRO} bytes, uno por tick, que nunca cruzan el límite de un
+ * segmento. Cada registro son cuatro {@code long} big-endian:</p>
+ * <pre>
+ * 0: tick
+ * 1: puntos (32 bits altos) | nivel (32 bits bajos)
+ * 2: aliens vivos (32) | disparos (16) | vidas (8) | banderas (8)
+ * 3: X de la nave como float (32) | nº IZQUIERDA (8) | nº DERECHA (8) | nº DISPARAR (8) | libre (8)
+ * </pre>
+ * <p>Un registro sin la bandera {@link #VALIDO} marca el final de la traza
+ * (el resto del último segmento está a cero).</p>
+ *
+ * <h2>Índice ({@code .idx})</h2>
+ * <p>Un {@code long} por segmento con el tick de su primer registro. Permite
+ * localizar el segmento de cualquier tick con una búsqueda binaria.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+final class FormatoTraza {
+
+    /** Bytes "SITR" (Space Invaders TRaza). */
+    static final int MAGIA = 0x53495452;
+
+    /** Versión actual del formato. */
+    static final short VERSION = 1;
+
+    /** Tamaño de la cabecera y de cada registro. */
+    static final int TAM_REGISTRO = 32;
+
+    /** Bandera: el registro contiene datos. */
+    static final int VALIDO = 0x80;
+
+    /** Bandera: la partida había terminado en ese tick. */
+    static final int GAME_OVER = 0x01;
+
+    /** Extensión del fichero de datos. */
+    static final String EXT_DATOS = ".traza";
+
+    /** Extensión del índice. */
+    static final String EXT_INDICE = ".idx";
+
+    private FormatoTraza() {}
+}
@@ -0,0 +1,156 @@
+package kabalera82.spaceinvaders.repeticion;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import kabalera82.spaceinvaders.interfaces.IGrabadorTicks;
+import kabalera82.spaceinvaders.motor.Comando;
+import kabalera82.spaceinvaders.motor.ConfiguracionJuego;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Graba una partida del {@link MotorJuego} como repetición determinista.
+ *
+ * <p>El motor es determinista: con la misma configuración y los mismos
+ * comandos en los mismos ticks produce la misma partida. Por eso basta con
+ * guardar la configuración y cada {@link Comando} aplicado con su número de
+ * tick. Cada {@code intervaloResumen} ticks se guarda además
+ * {@link MotorJuego#hashEstado()}, que {@link ReproductorRepeticion} compara
+ * para detectar en qué tick se desvía una reproducción.</p>
+ *
+ * <p>Los registros se acumulan en memoria en un array que crece por
+ * duplicación y se escriben al llamar a {@link #guardar(Path)}. El formato
+ * está descrito en {@link FormatoRepeticion}.</p>
+ *
+ * <h2>Uso típico</h2>
+ * <pre>{@code
+ * MotorJuego motor = new MotorJuego(cfg);
+ * GrabadorRepeticion grabador = new GrabadorRepeticion(motor, 0, 60);
+ * ... // jugar
+ * grabador.guardar(Paths.get("partida.sirp"));
+ * }</pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public class GrabadorRepeticion implements IGrabadorTicks {
+
+    private final MotorJuego motor;
+    private final ConfiguracionJuego config;
+    private final long semilla;
+    private final int intervaloResumen;
+
+    private byte[] datos = new byte[4096];
+    private int longitud = 0;
+    private long ultimoTick = 0;
+
+    /**
+     * Crea un grabador y lo conecta al motor.
+     *
+     * @param motor motor recién creado (todavía en el tick 0).
+     * @param semilla semilla del jugador automático, o {@code 0} en partidas humanas.
+     * @param intervaloResumen cada cuántos ticks se guarda el resumen del estado.
+     * @throws IllegalStateException si el motor ya ha avanzado algún tick.
+     * @throws IllegalArgumentException si el intervalo no es positivo.
+     */
+    public GrabadorRepeticion(MotorJuego motor, long semilla, int intervaloResumen) {
+        if (motor.getTick() != 0) {
+            throw new IllegalStateException("La grabación debe empezar en el tick 0: " + motor.getTick());
+        }
+        if (intervaloResumen <= 0) {
+            throw new IllegalArgumentException("Intervalo no válido: " + intervaloResumen);
+        }
+        this.motor = motor;
+        this.config = motor.getConfiguracion();
+        this.semilla = semilla;
+        this.intervaloResumen = intervaloResumen;
+        motor.agregarGrabador(this);
+    }
+
+    @Override
+    public void comando(long tick, Comando c) {
+        registro((byte) c.ordinal(), tick);
+    }
+
+    /** Anota el resumen del estado cada {@code intervaloResumen} ticks. */
+    @Override
+    public void tickTerminado(MotorJuego m) {
+        long t = m.getTick();
+        if (t % intervaloResumen != 0) return;
+        registro(FormatoRepeticion.RESUMEN, t);
+        escribirLong(m.hashEstado());
+    }
+
+    /**
+     * Escribe la repetición en un fichero, cerrándola con el estado actual del motor.
+     *
+     * <p>Puede llamarse varias veces (por ejemplo, al terminar la partida y al
+     * cerrar el juego); cada llamada escribe todo lo grabado hasta ese momento.</p>
+     *
+     * @param fichero ruta de destino.
+     * @throws IOException si no se puede escribir.
+     */
+    public void guardar(Path fichero) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(fichero)))) {
+            out.writeInt(FormatoRepeticion.MAGIA);
+            out.writeShort(FormatoRepeticion.VERSION);
+            out.writeLong(semilla);
+            out.writeDouble(config.getTicksPorSegundo());
+            out.writeDouble(config.getVelocidadAlien());
+            out.writeDouble(config.getDescensoAlien());
+            out.writeDouble(config.getFrameDuracionBase());
+            out.writeDouble(config.getFrameDuracionPorNivel());
+            out.writeDouble(config.getFrameDuracionMinima());
+            out.writeInt(config.getFilasIniciales());
+            out.writeInt(config.getColumnasIniciales());
+            out.writeInt(config.getCrecimiento());
+            out.writeInt(intervaloResumen);
+            out.write(datos, 0, longitud);
+
+            // Registro final, sin tocar el buffer para poder seguir grabando
+            long t = motor.getTick();
+            out.writeByte(FormatoRepeticion.FIN);
+            long delta = t - ultimoTick;
+            while ((delta & ~0x7FL) != 0) {
+                out.writeByte((int) ((delta & 0x7F) | 0x80));
+                delta >>>= 7;
+            }
+            out.writeByte((int) delta);
+            out.writeLong(motor.hashEstado());
+        }
+    }
+
+    /**
+     * Devuelve el tamaño de los registros grabados hasta ahora.
+     *
+     * @return bytes del cuerpo, sin cabecera ni registro final.
+     */
+    public int getBytes() { return longitud; }
+
+    // === Escritura del cuerpo ==============================================
+
+    private void registro(byte tipo, long tick) {
+        asegurar(1 + 10 + 8);
+        datos[longitud++] = tipo;
+        long delta = tick - ultimoTick;
+        ultimoTick = tick;
+        while ((delta & ~0x7FL) != 0) {
+            datos[longitud++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        datos[longitud++] = (byte) delta;
+    }
+
+    private void escribirLong(long v) {
+        for (int i = 56; i >= 0; i -= 8) datos[longitud++] = (byte) (v >>> i);
+    }
+
+    private void asegurar(int extra) {
+        if (longitud + extra > datos.length) datos = Arrays.copyOf(datos, datos.length * 2);
+    }
+}
@@ -0,0 +1,255 @@
+package kabalera82.spaceinvaders.repeticion;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lee una traza escrita por {@link EscritorTraza} sin cargarla entera.
+ *
+ * <p>El índice (un {@code long} por segmento) se lee completo al abrir; los
+ * datos se proyectan en memoria de segmento en segmento. {@link #buscar(long)}
+ * salta a cualquier tick con dos búsquedas binarias (segmento en el índice y
+ * registro dentro del segmento) y {@link #siguiente()} avanza desde ahí.</p>
+ *
+ * <h2>Uso típico</h2>
+ * <pre>{@code
+ * try (LectorTraza traza = new LectorTraza(Paths.get("sesion"))) {
+ *     traza.buscar(3_600 * 60);          // minuto 60 a 60 tps
+ *     while (traza.siguiente()) {
+ *         System.out.println(traza.getTick() + " " + traza.getPuntos());
+ *     }
+ * }
+ * }</pre>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public class LectorTraza implements AutoCloseable {
+
+    private static final int R = FormatoTraza.TAM_REGISTRO;
+
+    private final FileChannel datos;
+    private final long tamFichero;
+    private final int bytesSegmento;
+    private final double ticksPorSegundo;
+    private final long[] primerTick;
+
+    private MappedByteBuffer segmento;
+    private int numSegmento = -1;
+    private int posicion; // byte del siguiente registro en el segmento
+
+    // === Registro actual ===
+    private long tick;
+    private long campo1, campo2, campo3;
+
+    /**
+     * Abre una traza.
+     *
+     * @param base ruta sin extensión (la misma que se dio al escritor).
+     * @throws IOException si no se puede leer o no es una traza.
+     */
+    public LectorTraza(Path base) throws IOException {
+        Path ficheroDatos = base.resolveSibling(base.getFileName() + FormatoTraza.EXT_DATOS);
+        Path ficheroIndice = base.resolveSibling(base.getFileName() + FormatoTraza.EXT_INDICE);
+        this.datos = FileChannel.open(ficheroDatos, StandardOpenOption.READ);
+        this.tamFichero = datos.size();
+
+        ByteBuffer cabecera = ByteBuffer.allocate(R);
+        while (cabecera.hasRemaining()) {
+            if (datos.read(cabecera, cabecera.position()) < 0) break;
+        }
+        cabecera.flip();
+        if (cabecera.remaining() < R || cabecera.getInt() != FormatoTraza.MAGIA) {
+            datos.close();
+            throw new IOException("No es una traza: " + ficheroDatos);
+        }
+        short version = cabecera.getShort();
+        short tamRegistro = cabecera.getShort();
+        if (version != FormatoTraza.VERSION || tamRegistro != R) {
+            datos.close();
+            throw new IOException("Versión de traza no soportada: " + version);
+        }
+        this.bytesSegmento = cabecera.getInt();
+        cabecera.getInt();
+        this.ticksPorSegundo = cabecera.getDouble();
+
+        ByteBuffer idx = ByteBuffer.wrap(Files.readAllBytes(ficheroIndice));
+        this.primerTick = new long[idx.remaining() / Long.BYTES];
+        for (int i = 0; i < primerTick.length; i++) primerTick[i] = idx.getLong();
+
+        if (primerTick.length > 0) abrirSegmento(0);
+    }
+
+    /**
+     * Coloca la lectura en el primer registro con tick mayor o igual que el indicado.
+     *
+     * @param objetivo tick buscado.
+     * @return {@code true} si existe ese registro; {@code false} si la traza acaba antes.
+     * @throws IOException si no se puede proyectar el segmento.
+     */
+    public boolean buscar(long objetivo) throws IOException {
+        if (primerTick.length == 0) return false;
+        // Último segmento cuyo primer tick es <= objetivo
+        int lo = 0, hi = primerTick.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (primerTick[mid] <= objetivo) lo = mid; else hi = mid - 1;
+        }
+        abrirSegmento(lo);
+
+        // Primer registro válido con tick >= objetivo dentro del segmento
+        int inicio = posicion / R, fin = segmento.limit() / R;
+        int a = inicio, b = fin;
+        while (a < b) {
+            int mid = (a + b) >>> 1;
+            int off = mid * R;
+            if (!valido(off) || segmento.getLong(off) >= objetivo) b = mid; else a = mid + 1;
+        }
+        posicion = a * R;
+        if (a < fin && valido(posicion)) return true;
+        // Todo el segmento es anterior: el siguiente empieza después del objetivo
+        if (numSegmento + 1 < primerTick.length) {
+            abrirSegmento(numSegmento + 1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Avanza al siguiente registro.
+     *
+     * @return {@code true} si hay registro; {@code false} al final de la traza.
+     * @throws IOException si no se puede proyectar el siguiente segmento.
+     */
+    public boolean siguiente() throws IOException {
+        if (segmento == null) return false;
+        if (posicion >= segmento.limit()) {
+            if (numSegmento + 1 >= primerTick.length) return false;
+            abrirSegmento(numSegmento + 1);
+        }
+        if (!valido(posicion)) return false;
+        tick   = segmento.getLong(posicion);
+        campo1 = segmento.getLong(posicion + 8);
+        campo2 = segmento.getLong(posicion + 16);
+        campo3 = segmento.getLong(posicion + 24);
+        posicion += R;
+        return true;
+    }
+
+    private boolean valido(int off) {
+        return (segmento.get(off + 23) & FormatoTraza.VALIDO) != 0;
+    }
+
+    private void abrirSegmento(int n) throws IOException {
+        long offset = (long) n * bytesSegmento;
+        long tam = Math.min(bytesSegmento, tamFichero - offset);
+        segmento = datos.map(FileChannel.MapMode.READ_ONLY, offset, tam);
+        numSegmento = n;
+        posicion = n == 0 ? R : 0; // el primer segmento empieza con la cabecera
+    }
+
+    // === Registro actual ===================================================
+
+    /**
+     * Devuelve el tick del registro actual.
+     *
+     * @return número de tick, desde el comienzo de la partida.
+     */
+    public long getTick() { return tick; }
+
+    /**
+     * Devuelve la puntuación del registro actual.
+     *
+     * @return puntuación tras ese tick.
+     */
+    public int getPuntos() { return (int) (campo1 >>> 32); }
+
+    /**
+     * Devuelve el nivel del registro actual.
+     *
+     * @return nivel tras ese tick.
+     */
+    public int getNivel() { return (int) campo1; }
+
+    /**
+     * Devuelve cuántos aliens quedaban vivos en el registro actual.
+     *
+     * @return aliens vivos tras ese tick.
+     */
+    public int getAliens() { return (int) (campo2 >>> 32); }
+
+    /**
+     * Devuelve cuántos proyectiles había en vuelo en el registro actual.
+     *
+     * @return proyectiles en vuelo tras ese tick.
+     */
+    public int getDisparos() { return (int) (campo2 >>> 16) & 0xFFFF; }
+
+    /**
+     * Devuelve las vidas que quedaban en el registro actual.
+     *
+     * @return vidas restantes tras ese tick.
+     */
+    public int getVidas() { return (int) (campo2 >>> 8) & 0xFF; }
+
+    /**
+     * Indica si la partida había terminado en el registro actual.
+     *
+     * @return {@code true} si la partida había terminado.
+     */
+    public boolean isGameOver() { return (campo2 & FormatoTraza.GAME_OVER) != 0; }
+
+    /**
+     * Devuelve la posición de la nave en el registro actual.
+     *
+     * @return posición X de la nave.
+     */
+    public float getNaveX() { return Float.intBitsToFloat((int) (campo3 >>> 32)); }
+
+    /**
+     * Devuelve cuántas veces se movió la nave a la izquierda en el tick.
+     *
+     * @return comandos IZQUIERDA aplicados en ese tick.
+     */
+    public int getIzquierda() { return (int) (campo3 >>> 24) & 0xFF; }
+
+    /**
+     * Devuelve cuántas veces se movió la nave a la derecha en el tick.
+     *
+     * @return comandos DERECHA aplicados en ese tick.
+     */
+    public int getDerecha() { return (int) (campo3 >>> 16) & 0xFF; }
+
+    /**
+     * Devuelve cuántas veces se pulsó disparar en el tick.
+     *
+     * @return comandos DISPARAR aplicados en ese tick.
+     */
+    public int getDisparar() { return (int) (campo3 >>> 8) & 0xFF; }
+
+    // === Cabecera ==========================================================
+
+    /**
+     * Devuelve la frecuencia de la simulación trazada.
+     *
+     * @return ticks por segundo de la partida.
+     */
+    public double getTicksPorSegundo() { return ticksPorSegundo; }
+
+    /**
+     * Devuelve en cuántos segmentos está repartida la traza.
+     *
+     * @return número de segmentos de la traza.
+     */
+    public int getSegmentos() { return primerTick.length; }
+
+    @Override
+    public void close() throws IOException {
+        datos.close();
+    }
+}
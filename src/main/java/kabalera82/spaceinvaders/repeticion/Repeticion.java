@@ -0,0 +1,167 @@
+package kabalera82.spaceinvaders.repeticion;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import kabalera82.spaceinvaders.motor.Comando;
+import kabalera82.spaceinvaders.motor.ConfiguracionJuego;
+
+/**
+ * Repetición cargada en memoria, lista para {@link ReproductorRepeticion}.
+ *
+ * <p>Los registros del fichero se decodifican a arrays paralelos (tick, tipo
+ * y resumen), de modo que reproducir no vuelve a leer ni a reservar nada.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ * @see kabalera82.spaceinvaders.repeticion.GrabadorRepeticion
+ */
+public final class Repeticion {
+
+    private final ConfiguracionJuego config;
+    private final long semilla;
+    private final int intervaloResumen;
+
+    private final long[] ticks;
+    private final byte[] tipos;
+    private final long[] resumenes;
+    private final int registros;
+
+    private final long ticksTotales;
+    private final long resumenFinal;
+
+    private Repeticion(ConfiguracionJuego config, long semilla, int intervaloResumen,
+                       long[] ticks, byte[] tipos, long[] resumenes, int registros,
+                       long ticksTotales, long resumenFinal) {
+        this.config = config;
+        this.semilla = semilla;
+        this.intervaloResumen = intervaloResumen;
+        this.ticks = ticks;
+        this.tipos = tipos;
+        this.resumenes = resumenes;
+        this.registros = registros;
+        this.ticksTotales = ticksTotales;
+        this.resumenFinal = resumenFinal;
+    }
+
+    /**
+     * Lee una repetición de un fichero.
+     *
+     * @param fichero ruta del fichero {@code .sirp}.
+     * @return la repetición decodificada.
+     * @throws IOException si no se puede leer, no es una repetición o está truncada.
+     */
+    public static Repeticion leer(Path fichero) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(fichero)))) {
+            if (in.readInt() != FormatoRepeticion.MAGIA) {
+                throw new IOException("No es una repetición: " + fichero);
+            }
+            short version = in.readShort();
+            if (version != FormatoRepeticion.VERSION) {
+                throw new IOException("Versión de repetición no soportada: " + version);
+            }
+            long semilla = in.readLong();
+            ConfiguracionJuego config = new ConfiguracionJuego(
+                    in.readDouble(), in.readDouble(), in.readDouble(),
+                    in.readDouble(), in.readDouble(), in.readDouble(),
+                    in.readInt(), in.readInt(), in.readInt());
+            int intervalo = in.readInt();
+
+            int n = 0;
+            long[] ticks = new long[256];
+            byte[] tipos = new byte[256];
+            long[] resumenes = new long[256];
+            long tick = 0;
+            try {
+                while (true) {
+                    byte tipo = in.readByte();
+                    tick += leerVarint(in);
+                    if (tipo == FormatoRepeticion.FIN) {
+                        return new Repeticion(config, semilla, intervalo,
+                                ticks, tipos, resumenes, n, tick, in.readLong());
+                    }
+                    if (n == ticks.length) {
+                        ticks = Arrays.copyOf(ticks, n * 2);
+                        tipos = Arrays.copyOf(tipos, n * 2);
+                        resumenes = Arrays.copyOf(resumenes, n * 2);
+                    }
+                    if (tipo == FormatoRepeticion.RESUMEN) {
+                        resumenes[n] = in.readLong();
+                    } else if (tipo < 0 || tipo >= Comando.values().length) {
+                        throw new IOException("Registro desconocido: " + tipo);
+                    }
+                    ticks[n] = tick;
+                    tipos[n] = tipo;
+                    n++;
+                }
+            } catch (EOFException e) {
+                throw new IOException("Repetición truncada: " + fichero, e);
+            }
+        }
+    }
+
+    private static long leerVarint(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int desplazamiento = 0; ; desplazamiento += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) return v;
+        }
+    }
+
+    /**
+     * Devuelve la configuración de la partida grabada.
+     *
+     * @return configuración con la que se grabó la partida.
+     */
+    public ConfiguracionJuego getConfiguracion() { return config; }
+
+    /**
+     * Devuelve la semilla del jugador automático que jugó la partida.
+     *
+     * @return semilla del jugador automático, o {@code 0} en partidas humanas.
+     */
+    public long getSemilla() { return semilla; }
+
+    /**
+     * Devuelve cada cuántos ticks se grabó un resumen del estado.
+     *
+     * @return ticks entre dos resúmenes del estado.
+     */
+    public int getIntervaloResumen() { return intervaloResumen; }
+
+    /**
+     * Devuelve la duración de la partida grabada.
+     *
+     * @return ticks que duró la partida grabada.
+     */
+    public long getTicksTotales() { return ticksTotales; }
+
+    /**
+     * Devuelve el resumen del estado con el que terminó la grabación.
+     *
+     * @return resumen del estado al final de la grabación.
+     */
+    public long getResumenFinal() { return resumenFinal; }
+
+    /**
+     * Devuelve cuántos registros hay en la repetición.
+     *
+     * @return número de registros (comandos y resúmenes), sin el final.
+     */
+    public int getRegistros() { return registros; }
+
+    // === Acceso por registro (para el reproductor) =========================
+
+    long tick(int i) { return ticks[i]; }
+
+    byte tipo(int i) { return tipos[i]; }
+
+    long resumen(int i) { return resumenes[i]; }
+}
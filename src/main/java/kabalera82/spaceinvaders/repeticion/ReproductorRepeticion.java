@@ -0,0 +1,99 @@
+package kabalera82.spaceinvaders.repeticion;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.locks.LockSupport;
+
+import kabalera82.spaceinvaders.motor.Comando;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Reproduce una {@link Repeticion} sobre un {@link MotorJuego} nuevo y
+ * comprueba que la partida sale idéntica.
+ *
+ * <p>Antes de cada tick encola los comandos grabados para ese tick; después
+ * compara {@link MotorJuego#hashEstado()} con cada resumen grabado. La
+ * reproducción puede ir a la velocidad real del juego o tan rápido como
+ * permita la CPU, lo que la convierte a la vez en prueba de regresión del
+ * juego y en banco de pruebas de rendimiento.</p>
+ *
+ * <h2>Uso</h2>
+ * <pre>{@code
+ * mvn -q exec:java -Dexec.mainClass=kabalera82.spaceinvaders.repeticion.ReproductorRepeticion \
+ *     -Dexec.args="partida.sirp [tiempoReal]"
+ * }</pre>
+ * <p>Termina con código 1 si alguna repetición se desvía.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class ReproductorRepeticion {
+
+    /** Constructor privado: clase de utilidades, no instanciable. */
+    private ReproductorRepeticion() {}
+
+    /**
+     * Reproduce una o varias repeticiones e informa del resultado.
+     *
+     * @param args ficheros {@code .sirp}; si el último es {@code tiempoReal},
+     *             se reproducen a la velocidad del juego.
+     * @throws Exception si no se puede leer una repetición.
+     */
+    public static void main(String[] args) throws Exception {
+        int n = args.length;
+        boolean tiempoReal = n > 0 && args[n - 1].equalsIgnoreCase("tiempoReal");
+        if (tiempoReal) n--;
+        boolean todasCorrectas = true;
+        for (int i = 0; i < n; i++) {
+            Path fichero = Paths.get(args[i]);
+            ResultadoReproduccion r = reproducir(Repeticion.leer(fichero), tiempoReal);
+            System.out.println(fichero + " -> " + r);
+            todasCorrectas &= r.correcta;
+        }
+        if (!todasCorrectas) System.exit(1);
+    }
+
+    /**
+     * Reproduce una repetición.
+     *
+     * @param repeticion repetición a reproducir.
+     * @param tiempoReal {@code true} para respetar la frecuencia de ticks de la
+     *                   grabación; {@code false} para ir a máxima velocidad.
+     * @return resultado con la primera desviación, si la hay, y la velocidad.
+     */
+    public static ResultadoReproduccion reproducir(Repeticion repeticion, boolean tiempoReal) {
+        MotorJuego motor = new MotorJuego(repeticion.getConfiguracion());
+        long pasoNs = Math.round(1e9 / repeticion.getConfiguracion().getTicksPorSegundo());
+        int registros = repeticion.getRegistros();
+        int k = 0, comprobados = 0;
+
+        long inicio = System.nanoTime();
+        while (motor.getTick() < repeticion.getTicksTotales() && !motor.isGameOver()) {
+            long t = motor.getTick();
+            while (k < registros && repeticion.tipo(k) != FormatoRepeticion.RESUMEN
+                    && repeticion.tick(k) == t) {
+                motor.encolar(Comando.desdeCodigo(repeticion.tipo(k++)));
+            }
+            if (tiempoReal) {
+                long espera = inicio + t * pasoNs - System.nanoTime();
+                if (espera > 0) LockSupport.parkNanos(espera);
+            }
+            motor.tick();
+            while (k < registros && repeticion.tipo(k) == FormatoRepeticion.RESUMEN
+                    && repeticion.tick(k) == motor.getTick()) {
+                comprobados++;
+                if (motor.hashEstado() != repeticion.resumen(k)) {
+                    return new ResultadoReproduccion(false, motor.getTick(), motor.getTick(),
+                            comprobados, System.nanoTime() - inicio);
+                }
+                k++;
+            }
+        }
+        long nanos = System.nanoTime() - inicio;
+        comprobados++;
+        boolean correcta = motor.getTick() == repeticion.getTicksTotales()
+                && motor.hashEstado() == repeticion.getResumenFinal();
+        return new ResultadoReproduccion(correcta, correcta ? -1 : motor.getTick(),
+                motor.getTick(), comprobados, nanos);
+    }
+}
@@ -0,0 +1,63 @@
+package kabalera82.spaceinvaders.repeticion;
+
+import java.util.Locale;
+
+/**
+ * Resultado de reproducir una {@link Repeticion}.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ * @see kabalera82.spaceinvaders.repeticion.ReproductorRepeticion
+ */
+public final class ResultadoReproduccion {
+
+    /** {@code true} si todos los resúmenes y el estado final coinciden. */
+    public final boolean correcta;
+
+    /** Primer tick cuyo resumen no coincide, o {@code -1} si no hubo desviación. */
+    public final long tickDesviacion;
+
+    /** Ticks reproducidos. */
+    public final long ticks;
+
+    /** Resúmenes del estado comprobados (incluido el final). */
+    public final int resumenesComprobados;
+
+    /** Tiempo de reloj empleado, en nanosegundos. */
+    public final long nanos;
+
+    /**
+     * Construye un resultado.
+     *
+     * @param correcta si la reproducción coincide con la grabación.
+     * @param tickDesviacion primer tick divergente o {@code -1}.
+     * @param ticks ticks reproducidos.
+     * @param resumenesComprobados resúmenes comparados.
+     * @param nanos tiempo de reloj empleado.
+     */
+    public ResultadoReproduccion(boolean correcta, long tickDesviacion, long ticks,
+                                 int resumenesComprobados, long nanos) {
+        this.correcta = correcta;
+        this.tickDesviacion = tickDesviacion;
+        this.ticks = ticks;
+        this.resumenesComprobados = resumenesComprobados;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Devuelve la velocidad de la reproducción.
+     *
+     * @return ticks simulados por segundo de reloj.
+     */
+    public double getTicksPorSegundo() {
+        return nanos == 0 ? 0 : ticks * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%s: %d ticks, %d resúmenes, %.1f ms (%.0f ticks/s)%s",
+                correcta ? "OK" : "DESVIACIÓN", ticks, resumenesComprobados, nanos / 1e6,
+                getTicksPorSegundo(), correcta ? "" : " en el tick " + tickDesviacion);
+    }
+}
@@ -0,0 +1,75 @@
+package kabalera82.spaceinvaders.simulacion;
+
+import java.util.SplittableRandom;
+
+import kabalera82.spaceinvaders.model.FormacionAliens;
+import kabalera82.spaceinvaders.model.Nave;
+import kabalera82.spaceinvaders.motor.Comando;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Jugador automático sencillo para partidas sin interfaz gráfica.
+ *
+ * <p>En cada tick busca el alien vivo más bajo, se desplaza hacia su columna
+ * y dispara. Una semilla controla un pequeño margen de error (ticks en los
+ * que no reacciona), de modo que partidas con semillas distintas no sean
+ * idénticas pero cada una sea reproducible.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public class BotJugador {
+
+    /** Probabilidad de no hacer nada en un tick. */
+    private static final double DISTRACCION = 0.25;
+
+    private final SplittableRandom rnd;
+
+    /** Alien al que se apunta y generación de su hueco al elegirlo. */
+    private int objetivo = -1;
+    private int generacionObjetivo;
+
+    /**
+     * Crea un bot con la semilla indicada.
+     *
+     * @param semilla semilla del generador aleatorio.
+     */
+    public BotJugador(long semilla) {
+        this.rnd = new SplittableRandom(semilla);
+    }
+
+    /**
+     * Decide y encola los comandos del siguiente tick.
+     *
+     * @param motor motor de la partida.
+     */
+    public void jugar(MotorJuego motor) {
+        if (rnd.nextDouble() < DISTRACCION) return;
+
+        FormacionAliens aliens = motor.getAliens();
+        if (!aliens.esVigente(objetivo, generacionObjetivo)) {
+            // La formación se mueve en bloque, así que el alien más bajo sigue
+            // siéndolo hasta que muere: sólo se busca otro cuando deja de ser vigente.
+            objetivo = -1;
+            double yMax = Double.NEGATIVE_INFINITY;
+            for (int k = 0, n = aliens.getVivos(); k < n; k++) {
+                int id = aliens.getIdVivo(k);
+                double y = aliens.getY(id);
+                if (y > yMax || (y == yMax && id < objetivo)) {
+                    yMax = y;
+                    objetivo = id;
+                }
+            }
+            if (objetivo < 0) return;
+            generacionObjetivo = aliens.getGeneracion(objetivo);
+        }
+
+        Nave nave = motor.getNave();
+        double centroNave  = (nave.getMinX() + nave.getMaxX()) / 2.0;
+        double centroAlien = aliens.getX(objetivo) + aliens.getAncho() / 2.0;
+        double diferencia  = centroAlien - centroNave;
+        if (diferencia < -MotorJuego.CASILLA / 2.0)      motor.encolar(Comando.IZQUIERDA);
+        else if (diferencia > MotorJuego.CASILLA / 2.0)  motor.encolar(Comando.DERECHA);
+        motor.encolar(Comando.DISPARAR);
+    }
+}
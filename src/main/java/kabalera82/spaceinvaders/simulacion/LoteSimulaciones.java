@@ -0,0 +1,260 @@
+package kabalera82.spaceinvaders.simulacion;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import kabalera82.spaceinvaders.interfaces.IEventosJuego;
+import kabalera82.spaceinvaders.motor.ConfiguracionJuego;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+import kabalera82.spaceinvaders.repeticion.GrabadorRepeticion;
+
+/**
+ * Ejecutor de lotes de partidas simuladas para ajustar la dificultad.
+ *
+ * <p>Lanza muchas partidas independientes del {@link MotorJuego}, cada una
+ * con su propia semilla y su {@link ConfiguracionJuego}, repartidas entre
+ * todos los núcleos mediante un {@link ForkJoinPool} (robo de trabajo). Al
+ * terminar agrega los resultados por configuración y los escribe en un CSV.</p>
+ *
+ * <h2>Uso</h2>
+ * <pre>{@code
+ * mvn -q exec:java -Dexec.mainClass=kabalera82.spaceinvaders.simulacion.LoteSimulaciones \
+ *     -Dexec.args="partidas=200 vel=80,100,120 descenso=16,24 crecimiento=1,2 salida=lote.csv"
+ * }</pre>
+ *
+ * <h2>Parámetros (clave=valor)</h2>
+ * <ul>
+ *   <li>{@code partidas} → partidas por configuración (100).</li>
+ *   <li>{@code ticksMax} → límite de ticks por partida (216000, una hora a 60 tps).</li>
+ *   <li>{@code semilla} → semilla base; cada partida usa una derivada (1).</li>
+ *   <li>{@code hilos} → hilos del pool (núcleos disponibles).</li>
+ *   <li>{@code vel}, {@code descenso}, {@code frame}, {@code crecimiento} → listas
+ *       separadas por comas; se prueban todas sus combinaciones.</li>
+ *   <li>{@code salida} → fichero CSV de resultados agregados ({@code lote-simulaciones.csv}).</li>
+ *   <li>{@code repeticiones} → directorio donde guardar la repetición de cada
+ *       partida (ninguno); sirven como batería de regresión para
+ *       {@link kabalera82.spaceinvaders.repeticion.ReproductorRepeticion}.</li>
+ * </ul>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+public final class LoteSimulaciones {
+
+    /** Ticks entre resúmenes del estado en las repeticiones grabadas. */
+    private static final int INTERVALO_RESUMEN = 600;
+
+    /** Constructor privado: clase de utilidades, no instanciable. */
+    private LoteSimulaciones() {}
+
+    /**
+     * Punto de entrada del lote de simulaciones.
+     *
+     * @param args parámetros {@code clave=valor} descritos en la documentación de la clase.
+     * @throws Exception si una partida falla o no se puede escribir la salida.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> p = new HashMap<>();
+        for (String a : args) {
+            int i = a.indexOf('=');
+            if (i > 0) p.put(a.substring(0, i), a.substring(i + 1));
+        }
+        ConfiguracionJuego base = ConfiguracionJuego.porDefecto();
+        int partidas  = Integer.parseInt(p.getOrDefault("partidas", "100"));
+        long ticksMax = Long.parseLong(p.getOrDefault("ticksMax", "216000"));
+        long semilla  = Long.parseLong(p.getOrDefault("semilla", "1"));
+        int hilos     = Integer.parseInt(p.getOrDefault("hilos",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        Path salida   = Paths.get(p.getOrDefault("salida", "lote-simulaciones.csv"));
+        Path repeticiones = p.containsKey("repeticiones") ? Paths.get(p.get("repeticiones")) : null;
+        if (repeticiones != null) Files.createDirectories(repeticiones);
+
+        List<ConfiguracionJuego> configs = new ArrayList<>();
+        for (double vel : lista(p, "vel", base.getVelocidadAlien()))
+            for (double desc : lista(p, "descenso", base.getDescensoAlien()))
+                for (double frame : lista(p, "frame", base.getFrameDuracionBase()))
+                    for (double crec : lista(p, "crecimiento", base.getCrecimiento()))
+                        configs.add(base.conVelocidadAlien(vel).conDescensoAlien(desc)
+                                .conFrameDuracionBase(frame).conCrecimiento((int) crec));
+
+        long inicio = System.nanoTime();
+        List<List<ResultadoPartida>> resultados =
+                ejecutar(configs, partidas, semilla, ticksMax, hilos, repeticiones);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        escribirResumen(resultados, salida);
+        long ticksTotales = 0;
+        for (List<ResultadoPartida> l : resultados) for (ResultadoPartida r : l) ticksTotales += r.ticks;
+        System.out.printf(Locale.ROOT, "%d partidas en %.1f s con %d hilos (%.0f ticks/s agregados) -> %s%n",
+                configs.size() * partidas, segundos, hilos, ticksTotales / segundos, salida);
+    }
+
+    /**
+     * Ejecuta {@code partidas} partidas por cada configuración en un pool de robo de trabajo.
+     *
+     * @param configs configuraciones a evaluar.
+     * @param partidas partidas por configuración.
+     * @param semillaBase semilla de la que se derivan las de cada partida.
+     * @param ticksMax límite de ticks por partida.
+     * @param hilos paralelismo del pool.
+     * @return resultados agrupados en el mismo orden que {@code configs}.
+     * @throws InterruptedException si se interrumpe la espera.
+     * @throws ExecutionException si alguna partida lanza una excepción.
+     */
+    public static List<List<ResultadoPartida>> ejecutar(List<ConfiguracionJuego> configs, int partidas,
+                                                        long semillaBase, long ticksMax, int hilos)
+            throws InterruptedException, ExecutionException {
+        return ejecutar(configs, partidas, semillaBase, ticksMax, hilos, null);
+    }
+
+    /**
+     * Igual que {@link #ejecutar(List, int, long, long, int)}, guardando además
+     * la repetición de cada partida.
+     *
+     * @param configs configuraciones a evaluar.
+     * @param partidas partidas por configuración.
+     * @param semillaBase semilla de la que se derivan las de cada partida.
+     * @param ticksMax límite de ticks por partida.
+     * @param hilos paralelismo del pool.
+     * @param repeticiones directorio de las repeticiones ({@code partida-<semilla>.sirp}),
+     *                     o {@code null} para no grabar.
+     * @return resultados agrupados en el mismo orden que {@code configs}.
+     * @throws InterruptedException si se interrumpe la espera.
+     * @throws ExecutionException si alguna partida lanza una excepción.
+     */
+    public static List<List<ResultadoPartida>> ejecutar(List<ConfiguracionJuego> configs, int partidas,
+                                                        long semillaBase, long ticksMax, int hilos,
+                                                        Path repeticiones)
+            throws InterruptedException, ExecutionException {
+        ForkJoinPool pool = new ForkJoinPool(hilos);
+        try {
+            List<Callable<ResultadoPartida>> tareas = new ArrayList<>();
+            for (ConfiguracionJuego cfg : configs) {
+                for (int i = 0; i < partidas; i++) {
+                    long semilla = semillaBase * 1_000_003L + tareas.size();
+                    Path repeticion = repeticiones == null ? null
+                            : repeticiones.resolve("partida-" + semilla + ".sirp");
+                    tareas.add(() -> jugar(cfg, semilla, ticksMax, repeticion));
+                }
+            }
+            List<Future<ResultadoPartida>> futuros = pool.invokeAll(tareas);
+
+            List<List<ResultadoPartida>> agrupados = new ArrayList<>();
+            int k = 0;
+            for (int c = 0; c < configs.size(); c++) {
+                List<ResultadoPartida> grupo = new ArrayList<>(partidas);
+                for (int i = 0; i < partidas; i++) grupo.add(futuros.get(k++).get());
+                agrupados.add(grupo);
+            }
+            return agrupados;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Juega una partida completa con un {@link BotJugador}.
+     *
+     * @param cfg configuración de la partida.
+     * @param semilla semilla del bot.
+     * @param ticksMax límite de ticks.
+     * @return estadísticas de la partida.
+     */
+    public static ResultadoPartida jugar(ConfiguracionJuego cfg, long semilla, long ticksMax) {
+        try {
+            return jugar(cfg, semilla, ticksMax, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // sin repetición no hay E/S
+        }
+    }
+
+    /**
+     * Juega una partida completa con un {@link BotJugador} y, si se indica, la graba.
+     *
+     * @param cfg configuración de la partida.
+     * @param semilla semilla del bot.
+     * @param ticksMax límite de ticks.
+     * @param repeticion fichero de la repetición, o {@code null} para no grabar.
+     * @return estadísticas de la partida.
+     * @throws IOException si no se puede escribir la repetición.
+     */
+    public static ResultadoPartida jugar(ConfiguracionJuego cfg, long semilla, long ticksMax,
+                                         Path repeticion) throws IOException {
+        MotorJuego motor = new MotorJuego(cfg);
+        GrabadorRepeticion grabador = repeticion == null ? null
+                : new GrabadorRepeticion(motor, semilla, INTERVALO_RESUMEN);
+        long[] disparos = new long[1];
+        motor.setEventos(new IEventosJuego() {
+            @Override public void alDisparar() { disparos[0]++; }
+        });
+        BotJugador bot = new BotJugador(semilla);
+
+        long t0 = System.nanoTime();
+        while (!motor.isGameOver() && motor.getTick() < ticksMax) {
+            bot.jugar(motor);
+            motor.tick();
+        }
+        double reloj = Math.max(1e-9, (System.nanoTime() - t0) / 1e9);
+        if (grabador != null) grabador.guardar(repeticion);
+        long ticks = motor.getTick();
+        return new ResultadoPartida(cfg, semilla, ticks * motor.getPasoFijo(), motor.getNivel(),
+                motor.getPuntos(), disparos[0], ticks, ticks / reloj, motor.isGameOver());
+    }
+
+    // === Utilidades internas ===============================================
+
+    private static double[] lista(Map<String, String> p, String clave, double porDefecto) {
+        String v = p.get(clave);
+        if (v == null) return new double[]{ porDefecto };
+        String[] partes = v.split(",");
+        double[] r = new double[partes.length];
+        for (int i = 0; i < partes.length; i++) r[i] = Double.parseDouble(partes[i].trim());
+        return r;
+    }
+
+    private static void escribirResumen(List<List<ResultadoPartida>> resultados, Path salida) throws IOException {
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(salida, StandardCharsets.UTF_8))) {
+            w.println("vel,descenso,frame,crecimiento,partidas,game_over,"
+                    + "supervivencia_media_s,supervivencia_min_s,supervivencia_max_s,"
+                    + "nivel_medio,nivel_max,disparos_medios,puntos_medios,ticks_por_segundo_medios");
+            for (List<ResultadoPartida> grupo : resultados) {
+                if (grupo.isEmpty()) continue;
+                ConfiguracionJuego c = grupo.get(0).config;
+                int n = grupo.size(), gameOver = 0, nivelMax = 0;
+                double sup = 0, supMin = Double.MAX_VALUE, supMax = 0, nivel = 0, disp = 0, pts = 0, tps = 0;
+                for (ResultadoPartida r : grupo) {
+                    if (r.gameOver) gameOver++;
+                    sup += r.supervivenciaS;
+                    supMin = Math.min(supMin, r.supervivenciaS);
+                    supMax = Math.max(supMax, r.supervivenciaS);
+                    nivel += r.nivel;
+                    nivelMax = Math.max(nivelMax, r.nivel);
+                    disp += r.disparos;
+                    pts += r.puntos;
+                    tps += r.ticksPorSegundo;
+                }
+                String linea = String.format(Locale.ROOT,
+                        "%.1f,%.1f,%.3f,%d,%d,%d,%.2f,%.2f,%.2f,%.2f,%d,%.1f,%.1f,%.0f",
+                        c.getVelocidadAlien(), c.getDescensoAlien(), c.getFrameDuracionBase(),
+                        c.getCrecimiento(), n, gameOver, sup / n, supMin, supMax,
+                        nivel / n, nivelMax, disp / n, pts / n, tps / n);
+                w.println(linea);
+                System.out.println(linea);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package kabalera82.spaceinvaders.simulacion;
+
+import kabalera82.spaceinvaders.motor.ConfiguracionJuego;
+
+/**
+ * Resultado de una partida simulada sin interfaz gráfica.
+ *
+ * <p>Objeto inmutable que guarda la configuración y la semilla usadas junto
+ * con las estadísticas obtenidas al terminar la partida.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ * @see kabalera82.spaceinvaders.simulacion.LoteSimulaciones
+ */
+public final class ResultadoPartida {
+
+    /** Configuración con la que se jugó la partida. */
+    public final ConfiguracionJuego config;
+
+    /** Semilla del bot. */
+    public final long semilla;
+
+    /** Tiempo de juego simulado hasta el final, en segundos. */
+    public final double supervivenciaS;
+
+    /** Nivel alcanzado. */
+    public final int nivel;
+
+    /** Puntuación final. */
+    public final int puntos;
+
+    /** Número de disparos realizados. */
+    public final long disparos;
+
+    /** Ticks simulados. */
+    public final long ticks;
+
+    /** Ticks simulados por segundo de reloj real. */
+    public final double ticksPorSegundo;
+
+    /** {@code true} si terminó por quedarse sin vidas y no por el límite de ticks. */
+    public final boolean gameOver;
+
+    /**
+     * Construye un resultado.
+     *
+     * @param config configuración de la partida.
+     * @param semilla semilla del bot.
+     * @param supervivenciaS tiempo simulado en segundos.
+     * @param nivel nivel alcanzado.
+     * @param puntos puntuación final.
+     * @param disparos disparos realizados.
+     * @param ticks ticks simulados.
+     * @param ticksPorSegundo ticks por segundo de reloj real.
+     * @param gameOver si la partida acabó sin vidas.
+     */
+    public ResultadoPartida(ConfiguracionJuego config, long semilla, double supervivenciaS,
+                            int nivel, int puntos, long disparos, long ticks,
+                            double ticksPorSegundo, boolean gameOver) {
+        this.config = config;
+        this.semilla = semilla;
+        this.supervivenciaS = supervivenciaS;
+        this.nivel = nivel;
+        this.puntos = puntos;
+        this.disparos = disparos;
+        this.ticks = ticks;
+        this.ticksPorSegundo = ticksPorSegundo;
+        this.gameOver = gameOver;
+    }
+}
@@ -0,0 +1,72 @@
+package kabalera82.spaceinvaders.controlador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import kabalera82.spaceinvaders.motor.Comando;
+
+/**
+ * Pruebas de la {@link ColaEntradas}: los comandos salen en el orden en que
+ * entraron, también entre hilos, y con la cola llena se descartan.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class ColaEntradasTest {
+
+    private static final Comando[] COMANDOS = Comando.values();
+
+    @Test
+    void saleEnElOrdenDeEntrada() {
+        ColaEntradas cola = new ColaEntradas();
+        assertNull(cola.sacar());
+        // Varias vueltas al anillo
+        for (int vuelta = 0; vuelta < 5; vuelta++) {
+            for (int i = 0; i < 40; i++) assertTrue(cola.ofrecer(COMANDOS[(vuelta + i) % COMANDOS.length]));
+            for (int i = 0; i < 40; i++) assertEquals(COMANDOS[(vuelta + i) % COMANDOS.length], cola.sacar());
+            assertNull(cola.sacar());
+        }
+    }
+
+    @Test
+    void llenaDescartaSinPisarLoPendiente() {
+        ColaEntradas cola = new ColaEntradas();
+        int capacidad = 0;
+        while (cola.ofrecer(COMANDOS[capacidad % COMANDOS.length])) capacidad++;
+        assertEquals(64, capacidad);
+        assertFalse(cola.ofrecer(Comando.DISPARAR));
+
+        assertEquals(COMANDOS[0], cola.sacar());
+        assertTrue(cola.ofrecer(Comando.DISPARAR_J2), "al sacar uno vuelve a haber sitio");
+        for (int i = 1; i < capacidad; i++) assertEquals(COMANDOS[i % COMANDOS.length], cola.sacar());
+        assertEquals(Comando.DISPARAR_J2, cola.sacar());
+        assertNull(cola.sacar());
+    }
+
+    @Test
+    void entreHilosConservaElOrden() throws InterruptedException {
+        ColaEntradas cola = new ColaEntradas();
+        int total = 200_000;
+        Thread productor = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                while (!cola.ofrecer(COMANDOS[i % COMANDOS.length])) Thread.yield();
+            }
+        });
+        productor.start();
+        for (int i = 0; i < total; ) {
+            Comando c = cola.sacar();
+            if (c == null) {
+                Thread.yield();
+                continue;
+            }
+            assertEquals(COMANDOS[i % COMANDOS.length], c, "comando " + i);
+            i++;
+        }
+        productor.join();
+        assertNull(cola.sacar());
+    }
+}
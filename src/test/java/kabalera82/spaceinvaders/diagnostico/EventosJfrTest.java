@@ -0,0 +1,82 @@
+package kabalera82.spaceinvaders.diagnostico;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+import kabalera82.spaceinvaders.simulacion.BotJugador;
+
+/**
+ * Pruebas de los eventos JFR del motor: con una grabación activa se emite
+ * uno por tick, por oleada y por pasada de colisiones, con datos coherentes
+ * con la partida.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class EventosJfrTest {
+
+    @Test
+    void elMotorEmiteSusEventosConDatosDeLaPartida() throws Exception {
+        Path fichero = Files.createTempFile("eventos", ".jfr");
+        MotorJuego motor;
+        try (Recording grabacion = new Recording()) {
+            grabacion.enable("kabalera82.spaceinvaders.Tick");
+            grabacion.enable("kabalera82.spaceinvaders.Oleada");
+            grabacion.enable("kabalera82.spaceinvaders.Colisiones");
+            grabacion.start();
+
+            motor = new MotorJuego(60);
+            motor.irANivel(2);
+            BotJugador bot = new BotJugador(3);
+            for (int t = 0; t < 1500 && !motor.isGameOver(); t++) {
+                bot.jugar(motor);
+                motor.tick();
+            }
+            grabacion.stop();
+            grabacion.dump(fichero);
+        }
+
+        try {
+            List<RecordedEvent> eventos = RecordingFile.readAllEvents(fichero);
+            BitSet ticksVistos = new BitSet();
+            long ticks = 0, colisiones = 0, impactos = 0;
+            int oleadas = 0;
+            for (RecordedEvent e : eventos) {
+                switch (e.getEventType().getName()) {
+                    case "kabalera82.spaceinvaders.Tick":
+                        ticks++;
+                        ticksVistos.set((int) e.getLong("tick"));
+                        break;
+                    case "kabalera82.spaceinvaders.Colisiones":
+                        colisiones++;
+                        impactos += e.getInt("impactos");
+                        break;
+                    case "kabalera82.spaceinvaders.Oleada":
+                        oleadas++;
+                        assertTrue(e.getInt("aliens") > 0);
+                        break;
+                    default:
+                }
+            }
+            assertEquals(motor.getTick(), ticks);
+            assertEquals(ticks, ticksVistos.cardinality(), "un evento por tick, sin repetir");
+            assertEquals(ticks, ticksVistos.nextClearBit(0));
+            assertTrue(colisiones > 0 && colisiones <= ticks);
+            assertEquals(motor.getPuntos() / 10, impactos, "cada impacto suma 10 puntos");
+            assertTrue(oleadas >= 2, "la inicial y la de irANivel");
+        } finally {
+            Files.deleteIfExists(fichero);
+        }
+    }
+}
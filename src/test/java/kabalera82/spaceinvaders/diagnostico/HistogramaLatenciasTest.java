@@ -0,0 +1,65 @@
+package kabalera82.spaceinvaders.diagnostico;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas del {@link HistogramaLatencias}: percentiles dentro del error de
+ * las cubetas y máximo, media y número de muestras exactos.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class HistogramaLatenciasTest {
+
+    @Test
+    void losPercentilesQuedanDentroDelErrorDeLaCubeta() {
+        HistogramaLatencias h = new HistogramaLatencias();
+        SplittableRandom rnd = new SplittableRandom(11);
+        long[] valores = new long[20_000];
+        for (int i = 0; i < valores.length; i++) {
+            // De nanosegundos a decenas de milisegundos
+            valores[i] = (long) Math.pow(10, rnd.nextDouble(1, 8));
+            h.registrar(valores[i]);
+        }
+        Arrays.sort(valores);
+        for (double p : new double[] { 1, 50, 90, 99, 99.9, 100 }) {
+            long exacto = valores[(int) Math.ceil(p / 100 * valores.length) - 1];
+            long aprox = h.percentil(p);
+            assertTrue(aprox >= exacto, "p" + p + " no debe quedarse corto");
+            assertTrue(aprox <= exacto * 1.07, "p" + p + ": " + aprox + " frente a " + exacto);
+        }
+        assertEquals(valores[valores.length - 1], h.getMaximo());
+        assertEquals(valores[valores.length - 1], h.percentil(100));
+        assertEquals(valores.length, h.getMuestras());
+    }
+
+    @Test
+    void losValoresPequenosSonExactos() {
+        HistogramaLatencias h = new HistogramaLatencias();
+        for (long v = 0; v < HistogramaLatencias.SUBCUBETAS; v++) h.registrar(v);
+        assertEquals(7, h.percentil(50));
+        assertEquals(HistogramaLatencias.SUBCUBETAS - 1, h.percentil(100));
+        assertEquals((HistogramaLatencias.SUBCUBETAS - 1) / 2.0, h.getMedia());
+    }
+
+    @Test
+    void losNegativosCuentanComoCeroYReiniciarLoVacia() {
+        HistogramaLatencias h = new HistogramaLatencias();
+        assertEquals(0, h.percentil(99));
+        h.registrar(-5);
+        h.registrar(1_000_000);
+        assertEquals(0, h.percentil(50));
+        assertEquals(500_000.0, h.getMedia());
+
+        h.reiniciar();
+        assertEquals(0, h.getMuestras());
+        assertEquals(0, h.getMaximo());
+        assertEquals(0, h.percentil(50));
+    }
+}
@@ -0,0 +1,52 @@
+package kabalera82.spaceinvaders.diagnostico;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas del {@link MedidorFases}: suma por frame y combinación de las
+ * instantáneas de dos hilos.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class MedidorFasesTest {
+
+    @Test
+    void cadaFrameRegistraLaSumaDeSusTramos() {
+        MedidorFases m = new MedidorFases();
+        m.sumar(FaseFrame.COLISIONES, 300);
+        m.sumar(FaseFrame.COLISIONES, 700);
+        m.sumar(FaseFrame.RENDER, 5);
+        assertEquals(1000, m.getAcumulado(FaseFrame.COLISIONES));
+        m.cerrarFrame();
+        assertEquals(0, m.getAcumulado(FaseFrame.COLISIONES));
+        m.cerrarFrame();
+
+        HistogramaLatencias h = m.getHistograma(FaseFrame.COLISIONES);
+        assertEquals(2, h.getMuestras(), "un frame sin tramos cuenta como cero");
+        assertEquals(1000, h.getMaximo());
+        assertEquals(0, h.percentil(50));
+        assertEquals(2, m.getHistograma(FaseFrame.UPDATE).getMuestras());
+    }
+
+    @Test
+    void combinarTomaDeLaOtraSoloLasFasesIndicadas() {
+        MedidorFases fx = new MedidorFases(), sim = new MedidorFases();
+        fx.sumar(FaseFrame.RENDER, 2_000_000);
+        fx.sumar(FaseFrame.UPDATE, 1);
+        fx.cerrarFrame();
+        sim.sumar(FaseFrame.UPDATE, 4_000_000);
+        sim.sumar(FaseFrame.RENDER, 1);
+        sim.cerrarFrame();
+        sim.cerrarFrame();
+
+        InstantaneaFases c = fx.instantanea().combinar(sim.instantanea(), FaseFrame.UPDATE, FaseFrame.COLISIONES);
+        assertEquals(2_000_000, c.getMax(FaseFrame.RENDER));
+        assertEquals(1, c.getMuestras(FaseFrame.RENDER));
+        assertEquals(4_000_000, c.getMax(FaseFrame.UPDATE));
+        assertEquals(2, c.getMuestras(FaseFrame.UPDATE));
+        assertEquals(2, c.getMuestras(FaseFrame.COLISIONES));
+    }
+}
@@ -0,0 +1,71 @@
+package kabalera82.spaceinvaders.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de la caja de colisión de {@link Entidad}: accesores
+ * {@code getMin*}/{@code getMax*} e {@code intersects} sin reservas.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class EntidadTest {
+
+    private static Nave nave(double x, double y, double ancho, double alto) {
+        return new Nave(x, y, ancho, alto, 1024, 1024);
+    }
+
+    @Test
+    void losLimitesSonLaPosicionMasElTamano() {
+        Nave n = nave(100, 200, 32, 16);
+        assertEquals(100, n.getMinX());
+        assertEquals(200, n.getMinY());
+        assertEquals(132, n.getMaxX());
+        assertEquals(216, n.getMaxY());
+
+        n.colocar(300, 400);
+        assertEquals(300, n.getMinX());
+        assertEquals(332, n.getMaxX());
+        assertEquals(100, n.getPreviaX());
+        assertEquals(200, n.getPreviaY());
+    }
+
+    @Test
+    void losBordesQueSoloSeTocanNoIntersectan() {
+        Nave a = nave(100, 100, 32, 32);
+        assertFalse(a.intersects(nave(132, 100, 32, 32)));
+        assertFalse(a.intersects(nave(68, 100, 32, 32)));
+        assertFalse(a.intersects(nave(100, 132, 32, 32)));
+        assertFalse(a.intersects(nave(100, 68, 32, 32)));
+        assertFalse(a.intersects(nave(132, 132, 32, 32)));
+
+        assertTrue(a.intersects(nave(Math.nextDown(132.0), 100, 32, 32)));
+        assertTrue(a.intersects(nave(110, 110, 4, 4)), "contenida");
+        assertTrue(nave(110, 110, 4, 4).intersects(a), "contenedora");
+    }
+
+    @Test
+    void intersectsConEntidadEquivaleAlRectangulo() {
+        Nave a = nave(100, 100, 32, 32);
+        for (double x = 50; x <= 150; x += 6.4) {
+            for (double y = 50; y <= 150; y += 6.4) {
+                Nave b = nave(x, y, 6.4, 25.6);
+                boolean r = a.intersects(b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY());
+                assertEquals(r, a.intersects(b));
+                assertEquals(r, b.intersects(a), "debe ser simétrico");
+            }
+        }
+    }
+
+    @Test
+    void colocarNoSacaLaEntidadDelMundo() {
+        Nave n = nave(100, 100, 32, 32);
+        n.colocar(2000, -50);
+        assertEquals(1024, n.getMaxX());
+        assertEquals(0, n.getMinY());
+    }
+}
@@ -0,0 +1,279 @@
+package kabalera82.spaceinvaders.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import kabalera82.spaceinvaders.assets.AlienSkin;
+
+/**
+ * Pruebas de la {@link FormacionAliens}: disposición de la oleada por ids,
+ * bajas, límites de la formación, compactación de la lista de vivos y
+ * estado binario.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class FormacionAliensTest {
+
+    private static final double LADO = 32, MUNDO = 1024;
+
+    /** Oleada de 4 filas y 6 columnas con origen (100, 64) y separación (64, 48). */
+    private static FormacionAliens oleada() {
+        FormacionAliens f = new FormacionAliens(LADO, LADO, MUNDO, MUNDO);
+        f.crearOleada(4, 6, 100, 64, 64, 48, AlienSkin.values());
+        return f;
+    }
+
+    @Test
+    void asignaLosIdsPorFilas() {
+        FormacionAliens f = oleada();
+        AlienSkin[] skins = AlienSkin.values();
+        assertEquals(24, f.getTotal());
+        assertEquals(24, f.getVivos());
+        for (int fila = 0; fila < 4; fila++) {
+            for (int col = 0; col < 6; col++) {
+                int id = fila * 6 + col;
+                assertTrue(f.estaVivo(id));
+                assertEquals(100 + col * 64, f.getX(id));
+                assertEquals(64 + fila * 48, f.getY(id));
+                assertEquals(f.getX(id), f.getPreviaX(id));
+                assertEquals(skins[fila % skins.length].ordinal(), f.getSkin(id));
+                assertEquals(0, f.getFrame(id));
+            }
+        }
+    }
+
+    @Test
+    void destruirSoloAfectaAlAlienIndicado() {
+        FormacionAliens f = oleada();
+        f.destruir(7);
+        f.destruir(7); // dos veces no descuenta dos bajas
+        assertFalse(f.estaVivo(7));
+        assertEquals(23, f.getVivos());
+        for (int id = 0; id < f.getTotal(); id++) {
+            if (id != 7) assertTrue(f.estaVivo(id));
+        }
+    }
+
+    @Test
+    void intersectsNoCuentaLosBordesQueSoloSeTocan() {
+        FormacionAliens f = oleada();
+        // Alien 0 ocupa [100, 132) x [64, 96)
+        assertTrue(f.intersects(0, 131, 95, 140, 100));
+        assertFalse(f.intersects(0, 132, 64, 140, 96));
+        assertFalse(f.intersects(0, 90, 64, 100, 96));
+        assertFalse(f.intersects(0, 100, 96, 132, 110));
+        assertFalse(f.intersects(0, 100, 50, 132, 64));
+    }
+
+    @Test
+    void unaNuevaOleadaSustituyeALaAnterior() {
+        FormacionAliens f = oleada();
+        f.destruir(0);
+        f.crearOleada(2, 3, 10, 20, 40, 40, AlienSkin.values());
+        assertEquals(6, f.getTotal());
+        assertEquals(6, f.getVivos());
+        assertTrue(f.estaVivo(0));
+        assertEquals(10, f.getX(0));
+        assertEquals(20 + 40, f.getY(5));
+    }
+
+    @Test
+    void losLimitesAvanzanAlVaciarseLaFilaOColumnaDelBorde() {
+        FormacionAliens f = oleada();
+        assertEquals(100, f.getMinX());
+        assertEquals(100 + 5 * 64 + LADO, f.getMaxX());
+        assertEquals(64, f.getMinY());
+        assertEquals(64 + 3 * 48 + LADO, f.getMaxY());
+
+        // Columna 0 entera salvo un alien: el límite no se mueve
+        for (int fila = 0; fila < 3; fila++) f.destruir(fila * 6);
+        assertEquals(100, f.getMinX());
+        f.destruir(3 * 6);
+        assertEquals(100 + 64, f.getMinX());
+
+        // Columnas 5 y 4: el máximo salta las dos
+        for (int fila = 0; fila < 4; fila++) f.destruir(fila * 6 + 5);
+        for (int fila = 0; fila < 4; fila++) f.destruir(fila * 6 + 4);
+        assertEquals(100 + 3 * 64 + LADO, f.getMaxX());
+
+        // Fila 3 (abajo) y fila 0 (arriba)
+        for (int col = 1; col < 4; col++) f.destruir(3 * 6 + col);
+        assertEquals(64 + 2 * 48 + LADO, f.getMaxY());
+        for (int col = 1; col < 4; col++) f.destruir(col);
+        assertEquals(64 + 48, f.getMinY());
+
+        // Los límites coinciden con los de los aliens que quedan
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int id = 0; id < f.getTotal(); id++) {
+            if (!f.estaVivo(id)) continue;
+            minX = Math.min(minX, f.getX(id));
+            maxX = Math.max(maxX, f.getX(id) + LADO);
+            minY = Math.min(minY, f.getY(id));
+            maxY = Math.max(maxY, f.getY(id) + LADO);
+        }
+        assertEquals(minX, f.getMinX());
+        assertEquals(maxX, f.getMaxX());
+        assertEquals(minY, f.getMinY());
+        assertEquals(maxY, f.getMaxY());
+    }
+
+    @Test
+    void rebotaEnElBordeYDesciende() {
+        FormacionAliens f = oleada();
+        f.setVelocidad(1000);
+        f.setDescenso(16);
+        assertEquals(1, f.getDireccion());
+
+        f.actualizar(1.0);
+        assertEquals(-1, f.getDireccion());
+        assertEquals(MUNDO, f.getMaxX(), "se queda pegada al borde, sin salirse");
+        assertEquals(64 + 16, f.getMinY());
+        assertEquals(f.getMinX(), f.getX(0));
+        assertEquals(100, f.getPreviaX(0));
+
+        // Sin alcanzar el borde no cambia de dirección ni baja
+        f.actualizar(0.1);
+        assertEquals(-1, f.getDireccion());
+        assertEquals(MUNDO - 100, f.getMaxX());
+        assertEquals(64 + 16, f.getMinY());
+    }
+
+    @Test
+    void elReboteUsaLosLimitesDeLosVivos() {
+        FormacionAliens f = oleada();
+        // Sin las columnas 4 y 5 la formación llega más lejos antes de rebotar
+        for (int fila = 0; fila < 4; fila++) {
+            f.destruir(fila * 6 + 4);
+            f.destruir(fila * 6 + 5);
+        }
+        f.setVelocidad(MUNDO - (100 + 3 * 64 + LADO) - 1);
+        f.setDescenso(16);
+        f.actualizar(1.0);
+        assertEquals(1, f.getDireccion());
+        assertEquals(64, f.getMinY());
+        assertEquals(MUNDO - 1, f.getMaxX());
+    }
+
+    @Test
+    void compactarMueveElUltimoIdAlHueco() {
+        FormacionAliens f = oleada();
+        f.destruir(3);
+        // Hasta compactar, el id destruido sigue en la lista densa
+        assertEquals(3, f.getIdVivo(3));
+        f.compactar();
+        assertEquals(23, f.getVivos());
+        assertEquals(23, f.getIdVivo(3));
+        for (int k = 0; k < f.getVivos(); k++) {
+            if (k != 3) assertEquals(k, f.getIdVivo(k));
+        }
+
+        // Dos bajas en el mismo tick, una de ellas el último de la lista
+        f.destruir(0);
+        f.destruir(22);
+        f.compactar();
+        assertEquals(21, f.getVivos());
+        assertEquals(21, f.getIdVivo(0));
+        assertEquals(23, f.getIdVivo(3));
+    }
+
+    @Test
+    void laListaDensaSonSiempreLosVivos() {
+        FormacionAliens f = new FormacionAliens(LADO, LADO, MUNDO, MUNDO);
+        f.crearOleada(8, 12, 0, 0, 40, 40, AlienSkin.values());
+        SplittableRandom rnd = new SplittableRandom(3);
+        while (f.getVivos() > 0) {
+            for (int n = rnd.nextInt(1, 6); n > 0; n--) f.destruir(rnd.nextInt(f.getTotal()));
+            f.compactar();
+
+            int[] densos = new int[f.getVivos()];
+            for (int k = 0; k < densos.length; k++) densos[k] = f.getIdVivo(k);
+            Arrays.sort(densos);
+            int[] esperados = new int[f.getVivos()];
+            for (int id = 0, k = 0; id < f.getTotal(); id++) {
+                if (f.estaVivo(id)) esperados[k++] = id;
+            }
+            assertArrayEquals(esperados, densos);
+        }
+    }
+
+    @Test
+    void esVigenteCaducaAlDestruirYConUnaOleadaNueva() {
+        FormacionAliens f = oleada();
+        int gen5 = f.getGeneracion(5), gen6 = f.getGeneracion(6);
+        assertTrue(f.esVigente(5, gen5));
+
+        f.destruir(5);
+        f.compactar();
+        assertFalse(f.esVigente(5, gen5));
+        assertTrue(f.esVigente(6, gen6));
+
+        // El id 6 se reutiliza en la oleada siguiente: la referencia vieja caduca
+        f.crearOleada(4, 6, 100, 64, 64, 48, AlienSkin.values());
+        assertFalse(f.esVigente(6, gen6));
+        assertTrue(f.esVigente(6, f.getGeneracion(6)));
+    }
+
+    @Test
+    void escribirElEstadoNoModificaLaOleada() {
+        FormacionAliens f = oleada();
+        f.destruir(2);
+        f.compactar();
+        f.destruir(5); // queda pendiente
+        int[] antes = new int[f.getVivos() + 1];
+        for (int k = 0; k < antes.length; k++) antes[k] = f.getIdVivo(k);
+
+        f.escribirEstado(ByteBuffer.allocate(1 << 12));
+        for (int k = 0; k < antes.length; k++) {
+            assertEquals(antes[k], f.getIdVivo(k), "posición densa " + k);
+        }
+        // La baja pendiente se saca después, en el mismo sitio que sin escribir
+        f.compactar();
+        assertEquals(22, f.getIdVivo(5));
+    }
+
+    @Test
+    void elEstadoSeRestauraEnOtraFormacion() {
+        FormacionAliens f = oleada();
+        f.setVelocidad(80);
+        f.destruir(0);
+        f.destruir(23);
+        f.compactar();
+        f.actualizar(0.5);
+        f.destruir(9); // pendiente al escribir
+        ByteBuffer buf = ByteBuffer.allocate(1 << 12);
+        f.escribirEstado(buf);
+        buf.flip();
+
+        FormacionAliens g = new FormacionAliens(LADO, LADO, MUNDO, MUNDO);
+        g.crearOleada(2, 2, 0, 0, 40, 40, AlienSkin.values());
+        g.leerEstado(buf);
+        assertEquals(f.getTotal(), g.getTotal());
+        assertEquals(f.getVivos(), g.getVivos());
+        assertEquals(f.getMinX(), g.getMinX());
+        assertEquals(f.getMaxX(), g.getMaxX());
+        assertEquals(f.getMaxY(), g.getMaxY());
+        for (int id = 0; id < f.getTotal(); id++) {
+            assertEquals(f.estaVivo(id), g.estaVivo(id));
+            assertEquals(f.getGeneracion(id), g.getGeneracion(id));
+            if (!f.estaVivo(id)) continue;
+            assertEquals(f.getX(id), g.getX(id));
+            assertEquals(f.getY(id), g.getY(id));
+            assertEquals(f.getPreviaX(id), g.getPreviaX(id));
+        }
+        // Ambas siguen moviéndose igual
+        f.actualizar(0.5);
+        g.actualizar(0.5);
+        assertEquals(f.getMinX(), g.getMinX());
+        assertEquals(f.getDireccion(), g.getDireccion());
+    }
+}
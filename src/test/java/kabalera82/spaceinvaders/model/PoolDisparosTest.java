@@ -0,0 +1,96 @@
+package kabalera82.spaceinvaders.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas del {@link PoolDisparos}: capacidad fija, eliminación por
+ * intercambio con el último y limpieza de los que salen del mundo.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class PoolDisparosTest {
+
+    /** Proyectiles de 4x16 en un mundo de 1000 px de alto, subiendo a 100 px/s. */
+    private static PoolDisparos pool(int capacidad) {
+        return new PoolDisparos(capacidad, 4, 16, 1000, -100, 0xFFFFFF00);
+    }
+
+    @Test
+    void noAdmiteMasQueSuCapacidad() {
+        PoolDisparos p = pool(3);
+        assertTrue(p.disparar(0, 500));
+        assertTrue(p.disparar(10, 500));
+        assertTrue(p.disparar(20, 500));
+        assertFalse(p.disparar(30, 500));
+        assertEquals(3, p.getCantidad());
+
+        p.eliminar(0);
+        assertTrue(p.disparar(30, 500), "el hueco se reutiliza");
+        p.vaciar();
+        assertEquals(0, p.getCantidad());
+        assertEquals(3, p.getCapacidad());
+    }
+
+    @Test
+    void eliminarMueveElUltimoAlHueco() {
+        PoolDisparos p = pool(8);
+        for (int i = 0; i < 5; i++) p.disparar(i * 10, 100 + i);
+        p.eliminar(1);
+        assertEquals(4, p.getCantidad());
+        assertEquals(0, p.getX(0));
+        assertEquals(40, p.getX(1));
+        assertEquals(104, p.getY(1));
+        assertEquals(104, p.getPreviaY(1));
+        assertEquals(20, p.getX(2));
+        assertEquals(30, p.getX(3));
+
+        // Eliminar el último sólo reduce la cantidad
+        p.eliminar(3);
+        assertEquals(3, p.getCantidad());
+        assertEquals(20, p.getX(2));
+    }
+
+    @Test
+    void actualizarEliminaLosQueSalenSinSaltarseNinguno() {
+        PoolDisparos p = pool(8);
+        // Alternan balas que salen por arriba en este paso con otras que no
+        double[] ys = { -10, 300, -15, 400, -16, 500 };
+        for (int i = 0; i < ys.length; i++) p.disparar(i, ys[i]);
+        p.actualizar(0.1); // 10 px hacia arriba
+
+        assertEquals(3, p.getCantidad());
+        double suma = 0;
+        for (int i = 0; i < p.getCantidad(); i++) {
+            assertEquals(p.getPreviaY(i) - 10, p.getY(i));
+            suma += p.getX(i);
+        }
+        assertEquals(1 + 3 + 5, suma, "quedan las balas 1, 3 y 5");
+    }
+
+    @Test
+    void elEstadoSeRestauraEnOtroAlmacen() {
+        PoolDisparos p = pool(8);
+        for (int i = 0; i < 4; i++) p.disparar(i * 10, 200 + i * 7);
+        p.actualizar(0.05);
+        ByteBuffer buf = ByteBuffer.allocate(4 + 8 * 24);
+        p.escribirEstado(buf);
+        buf.flip();
+
+        PoolDisparos q = pool(8);
+        q.disparar(999, 999);
+        q.leerEstado(buf);
+        assertEquals(p.getCantidad(), q.getCantidad());
+        for (int i = 0; i < p.getCantidad(); i++) {
+            assertEquals(p.getX(i), q.getX(i));
+            assertEquals(p.getY(i), q.getY(i));
+            assertEquals(p.getPreviaY(i), q.getPreviaY(i));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package kabalera82.spaceinvaders.motor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas del {@link BufferTriple}: el consumidor ve siempre la publicación
+ * más reciente, completa y sin retroceder, y nunca comparte objeto con el
+ * productor.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class BufferTripleTest {
+
+    /** Valor publicado: dos copias del mismo número para detectar lecturas a medias. */
+    private static final class Par {
+        long a, b;
+    }
+
+    @Test
+    void leerDevuelveLaUltimaPublicacion() {
+        BufferTriple<Par> buffer = new BufferTriple<>(Par::new);
+        for (long n = 1; n <= 3; n++) {
+            Par p = buffer.escritura();
+            p.a = p.b = n;
+            buffer.publicar();
+        }
+        Par leido = buffer.leer();
+        assertEquals(3, leido.a);
+        assertNotSame(leido, buffer.escritura());
+
+        // Sin publicar nada nuevo se devuelve el mismo objeto
+        assertSame(leido, buffer.leer());
+
+        Par p = buffer.escritura();
+        p.a = p.b = 4;
+        buffer.publicar();
+        assertEquals(4, buffer.leer().a);
+        assertEquals(3, leido.a, "lo ya leído no se toca hasta el siguiente leer()");
+    }
+
+    @Test
+    void entreHilosNuncaSeLeeAMediasNiHaciaAtras() throws InterruptedException {
+        BufferTriple<Par> buffer = new BufferTriple<>(Par::new);
+        long total = 2_000_000;
+        Thread productor = new Thread(() -> {
+            for (long n = 1; n <= total; n++) {
+                Par p = buffer.escritura();
+                p.a = n;
+                p.b = n;
+                buffer.publicar();
+            }
+        });
+        productor.start();
+
+        long anterior = 0;
+        int distintos = 0;
+        while (anterior < total) {
+            Par p = buffer.leer();
+            assertEquals(p.a, p.b, "publicación leída a medias");
+            assertTrue(p.a >= anterior, "retrocede de " + anterior + " a " + p.a);
+            if (p.a != anterior) distintos++;
+            anterior = p.a;
+        }
+        productor.join();
+        assertTrue(distintos > 1);
+    }
+}
@@ -0,0 +1,100 @@
+package kabalera82.spaceinvaders.motor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import kabalera82.spaceinvaders.simulacion.BotJugador;
+
+/**
+ * Pruebas de ida y vuelta de {@link MotorJuego#escribirEstado} y
+ * {@link MotorJuego#leerEstado}: el motor restaurado tiene el mismo
+ * {@link MotorJuego#hashEstado()} y sigue la misma partida.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class EstadoMotorTest {
+
+    /** Juega {@code ticks} ticks con un bot y deja comandos pendientes para el siguiente. */
+    private static MotorJuego jugar(int nivel, int ticks) {
+        MotorJuego motor = new MotorJuego(60);
+        motor.irANivel(nivel);
+        BotJugador bot = new BotJugador(82);
+        for (int i = 0; i < ticks && !motor.isGameOver(); i++) {
+            bot.jugar(motor);
+            motor.tick();
+        }
+        motor.encolar(Comando.IZQUIERDA);
+        motor.encolar(Comando.DISPARAR);
+        return motor;
+    }
+
+    private static ByteBuffer escribir(MotorJuego motor) {
+        ByteBuffer buf = ByteBuffer.allocate(1 << 20);
+        motor.escribirEstado(buf);
+        return buf.flip();
+    }
+
+    /** Avanza ambos motores con los mismos comandos y comprueba que no se separan. */
+    private static void avanzarIguales(MotorJuego a, MotorJuego b, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            Comando c = i % 3 == 0 ? Comando.DISPARAR : i % 2 == 0 ? Comando.DERECHA : Comando.IZQUIERDA;
+            a.encolar(c);
+            b.encolar(c);
+            a.tick();
+            b.tick();
+            assertEquals(a.hashEstado(), b.hashEstado(), "tick " + a.getTick());
+        }
+    }
+
+    @Test
+    void restauraElMismoEstado() {
+        for (int nivel : new int[] { 1, 8, 14 }) {
+            MotorJuego original = jugar(nivel, 400);
+            ByteBuffer buf = escribir(original);
+            int bytes = buf.remaining();
+
+            MotorJuego copia = new MotorJuego(30);
+            copia.leerEstado(buf);
+            assertEquals(bytes, buf.position(), "lee exactamente lo escrito");
+            assertEquals(original.hashEstado(), copia.hashEstado());
+            assertEquals(original.getTick(), copia.getTick());
+            assertEquals(original.getPuntos(), copia.getPuntos());
+            assertEquals(original.getNivel(), copia.getNivel());
+            assertEquals(original.getVidas(), copia.getVidas());
+            assertEquals(original.getConfiguracion().getTicksPorSegundo(),
+                    copia.getConfiguracion().getTicksPorSegundo());
+
+            // Los comandos pendientes y la rejilla reconstruida dan la misma partida
+            avanzarIguales(original, copia, 300);
+        }
+    }
+
+    @Test
+    void sobrescribeUnMotorYaUsado() {
+        MotorJuego original = jugar(1, 200);
+        MotorJuego usado = jugar(8, 600);
+        usado.leerEstado(escribir(original));
+        assertEquals(original.hashEstado(), usado.hashEstado());
+        avanzarIguales(original, usado, 300);
+    }
+
+    @Test
+    void rechazaUnBufferQueNoEsUnaInstantanea() {
+        ByteBuffer buf = escribir(jugar(1, 10));
+        buf.putInt(0, 0x12345678);
+        MotorJuego motor = new MotorJuego(60);
+        assertThrows(IllegalArgumentException.class, () -> motor.leerEstado(buf));
+
+        for (short version : new short[] { 1, 3, 99 }) {
+            ByteBuffer otraVersion = escribir(jugar(1, 10));
+            otraVersion.putShort(4, version);
+            assertThrows(IllegalArgumentException.class, () -> motor.leerEstado(otraVersion),
+                    "versión " + version);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package kabalera82.spaceinvaders.motor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import kabalera82.spaceinvaders.interfaces.IEventosJuego;
+import kabalera82.spaceinvaders.model.FormacionAliens;
+import kabalera82.spaceinvaders.simulacion.BotJugador;
+
+/**
+ * Pruebas del {@link MotorJuego}: paso fijo de simulación y partidas
+ * reproducibles sin interfaz gráfica.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class MotorJuegoTest {
+
+    @Test
+    void unTickAvanzaExactamenteElPasoFijo() {
+        MotorJuego motor = new MotorJuego(64);
+        assertEquals(1.0 / 64, motor.getPasoFijo());
+        FormacionAliens aliens = motor.getAliens();
+        double x0 = aliens.getX(0), y0 = aliens.getY(0);
+
+        motor.tick();
+        assertEquals(1, motor.getTick());
+        assertEquals(x0, aliens.getPreviaX(0));
+        assertEquals(y0, aliens.getPreviaY(0));
+        assertEquals(x0 + ConfiguracionJuego.porDefecto().getVelocidadAlien() / 64, aliens.getX(0));
+        assertEquals(y0, aliens.getY(0));
+    }
+
+    @Test
+    void losAliensNoSeSolapanNiSeSalenEnNivelesAltos() {
+        MotorJuego motor = new MotorJuego(60);
+        for (int nivel = 1; nivel <= 60; nivel++) {
+            motor.irANivel(nivel);
+            FormacionAliens aliens = motor.getAliens();
+            assertTrue(aliens.getMinX() >= 0, "nivel " + nivel);
+            assertTrue(aliens.getMaxX() <= MotorJuego.ANCHO, "nivel " + nivel);
+            // Los ids van por filas: basta con comparar cada alien con el siguiente de su fila
+            for (int id = 1; id < aliens.getTotal(); id++) {
+                if (aliens.getY(id) != aliens.getY(id - 1)) continue;
+                assertTrue(aliens.getX(id) >= aliens.getX(id - 1) + aliens.getAncho(),
+                        "nivel " + nivel + ", aliens " + (id - 1) + " y " + id);
+            }
+        }
+    }
+
+    @Test
+    void elCooldownDeDisparoNoDependeDeLosTicksPorSegundo() {
+        for (int tps : new int[] { 30, 60, 120 }) {
+            MotorJuego motor = new MotorJuego(tps);
+            int[] disparos = new int[1];
+            motor.setEventos(new IEventosJuego() {
+                @Override public void alDisparar() { disparos[0]++; }
+            });
+            // Un segundo pulsando disparo: una bala cada 200 ms
+            for (int t = 0; t < tps; t++) {
+                motor.encolar(Comando.DISPARAR);
+                motor.tick();
+            }
+            assertEquals(5, disparos[0], tps + " ticks por segundo");
+        }
+    }
+
+    @Test
+    void mismasEntradasDanLaMismaPartida() {
+        long[] a = jugar(7, 3000), b = jugar(7, 3000);
+        assertEquals(a[0], b[0], "hash final");
+        assertEquals(a[1], b[1], "puntos");
+        assertTrue(a[1] > 0, "el bot debe puntuar");
+        assertNotEquals(a[0], jugar(8, 3000)[0], "otra semilla, otra partida");
+    }
+
+    @Test
+    void reiniciarVuelveAlEstadoInicial() {
+        MotorJuego motor = new MotorJuego(60);
+        long inicial = motor.hashEstado();
+        BotJugador bot = new BotJugador(1);
+        for (int t = 0; t < 500; t++) {
+            bot.jugar(motor);
+            motor.tick();
+        }
+        assertNotEquals(inicial, motor.hashEstado());
+
+        MotorJuego otro = new MotorJuego(60);
+        for (int t = 0; t < 500; t++) otro.tick();
+        motor.reiniciar();
+        otro.reiniciar();
+        assertEquals(otro.hashEstado(), motor.hashEstado());
+        assertEquals(3, motor.getVidas());
+        assertEquals(0, motor.getPuntos());
+    }
+
+    /** Juega una partida con un bot y devuelve su hash final y sus puntos. */
+    private static long[] jugar(long semilla, int ticks) {
+        MotorJuego motor = new MotorJuego(60);
+        BotJugador bot = new BotJugador(semilla);
+        for (int t = 0; t < ticks && !motor.isGameOver(); t++) {
+            bot.jugar(motor);
+            motor.tick();
+        }
+        return new long[] { motor.hashEstado(), motor.getPuntos() };
+    }
+}
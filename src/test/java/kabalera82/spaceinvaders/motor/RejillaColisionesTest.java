@@ -0,0 +1,150 @@
+package kabalera82.spaceinvaders.motor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import kabalera82.spaceinvaders.model.FormacionAliens;
+import kabalera82.spaceinvaders.simulacion.BotJugador;
+
+/**
+ * Pruebas de la fase amplia de colisiones: la {@link RejillaColisiones} nunca
+ * pierde un candidato y el motor da la misma partida con la rejilla que por
+ * fuerza bruta.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class RejillaColisionesTest {
+
+    /** Con 64 ticks por segundo los desplazamientos por tick son exactos en {@code double}. */
+    private static final int TPS = 64;
+
+    private static final double CASILLA = MotorJuego.CASILLA;
+    private static final double BALA_W = CASILLA * 0.2, BALA_H = CASILLA * 0.8;
+    private static final double BALA_DY = -200.0 / TPS;
+
+    @Test
+    void laConsultaIncluyeTodoLoQueSolapa() {
+        RejillaColisiones rejilla = new RejillaColisiones(MotorJuego.ANCHO, MotorJuego.ALTO, CASILLA);
+        SplittableRandom rnd = new SplittableRandom(1);
+        int n = 300;
+        double[] x = new double[n], y = new double[n];
+        rejilla.reiniciar(n);
+        for (int id = 0; id < n; id++) {
+            // La mitad, en bordes exactos de celda
+            x[id] = id % 2 == 0 ? rnd.nextInt(31) * CASILLA : rnd.nextDouble(MotorJuego.ANCHO - CASILLA);
+            y[id] = id % 2 == 0 ? rnd.nextInt(31) * CASILLA : rnd.nextDouble(MotorJuego.ALTO - CASILLA);
+            rejilla.actualizar(id, x[id], y[id]);
+        }
+        // Se mueven algunas y se eliminan otras
+        for (int id = 0; id < n; id += 3) {
+            x[id] = Math.min(MotorJuego.ANCHO - CASILLA, x[id] + CASILLA / 2);
+            rejilla.actualizar(id, x[id], y[id]);
+        }
+        boolean[] eliminado = new boolean[n];
+        for (int id = 1; id < n; id += 7) {
+            rejilla.eliminar(id);
+            eliminado[id] = true;
+        }
+
+        int[] salida = new int[n];
+        boolean[] devuelto = new boolean[n];
+        for (int q = 0; q < 2000; q++) {
+            double minX = q % 4 == 0 ? rnd.nextInt(32) * CASILLA : rnd.nextDouble(MotorJuego.ANCHO);
+            double minY = q % 4 == 1 ? rnd.nextInt(32) * CASILLA : rnd.nextDouble(MotorJuego.ALTO);
+            double maxX = minX + BALA_W, maxY = minY + BALA_H;
+            Arrays.fill(devuelto, false);
+            int m = rejilla.consultar(minX, minY, maxX, maxY, salida);
+            for (int k = 0; k < m; k++) {
+                assertTrue(!eliminado[salida[k]], "devuelve un id eliminado");
+                devuelto[salida[k]] = true;
+            }
+            for (int id = 0; id < n; id++) {
+                boolean solapa = x[id] < maxX && x[id] + CASILLA > minX && y[id] < maxY && y[id] + CASILLA > minY;
+                if (solapa && !eliminado[id]) {
+                    assertTrue(devuelto[id], "falta el id " + id + " en la consulta " + q);
+                }
+            }
+        }
+    }
+
+    @Test
+    void mismaPartidaConRejillaYPorFuerzaBruta() {
+        for (int nivel : new int[] { 1, 8, 14 }) {
+            MotorJuego base = new MotorJuego(TPS);
+            base.irANivel(nivel);
+            ponerBalasEnBordes(base);
+            InstantaneaJuego inicio = new InstantaneaJuego();
+            inicio.capturar(base);
+
+            MotorJuego conRejilla = new MotorJuego(TPS), fuerzaBruta = new MotorJuego(TPS);
+            conRejilla.setColisionesConRejilla(true);
+            fuerzaBruta.setColisionesConRejilla(false);
+            inicio.restaurar(conRejilla);
+            inicio.restaurar(fuerzaBruta);
+            int puntosIniciales = conRejilla.getPuntos();
+
+            BotJugador botA = new BotJugador(nivel), botB = new BotJugador(nivel);
+            for (int t = 0; t < 600 && !conRejilla.isGameOver(); t++) {
+                botA.jugar(conRejilla);
+                botB.jugar(fuerzaBruta);
+                conRejilla.tick();
+                fuerzaBruta.tick();
+                assertEquals(fuerzaBruta.hashEstado(), conRejilla.hashEstado(),
+                        "nivel " + nivel + ", tick " + conRejilla.getTick());
+            }
+            assertTrue(conRejilla.getPuntos() > puntosIniciales, "la prueba debe provocar impactos");
+        }
+    }
+
+    /**
+     * Coloca balas que, tras moverse en el siguiente tick, quedan justo en los
+     * bordes de los aliens (tocando sin solapar y solapando por un ulp) y en
+     * los bordes de las celdas de la rejilla.
+     */
+    private static void ponerBalasEnBordes(MotorJuego motor) {
+        // Dónde estarán los aliens tras el tick: las balas no cambian su movimiento
+        InstantaneaJuego antes = new InstantaneaJuego();
+        antes.capturar(motor);
+        motor.tick();
+        FormacionAliens aliens = motor.getAliens();
+        int vivos = aliens.getVivos();
+        double[] ax = new double[vivos], ay = new double[vivos];
+        for (int k = 0; k < vivos; k++) {
+            int id = aliens.getIdVivo(k);
+            ax[k] = aliens.getX(id);
+            ay[k] = aliens.getY(id);
+        }
+        antes.restaurar(motor);
+
+        double w = aliens.getAncho(), h = aliens.getAlto();
+        int insertadas = 0;
+        for (int k = 0; k < vivos && insertadas < 160; k += Math.max(1, vivos / 20)) {
+            double[][] bordes = {
+                { ax[k] - BALA_W, ay[k] },                          // toca por la izquierda
+                { Math.nextUp(ax[k] - BALA_W), ay[k] },             // solapa un ulp
+                { ax[k] + w, ay[k] },                               // toca por la derecha
+                { Math.nextDown(ax[k] + w), ay[k] },
+                { ax[k], ay[k] + h },                               // toca por abajo
+                { ax[k], Math.nextDown(ay[k] + h) },
+                { ax[k], ay[k] - BALA_H },                          // toca por arriba
+                { ax[k] + w, ay[k] + h },                           // esquina
+            };
+            for (double[] b : bordes) {
+                if (motor.insertarDisparo(b[0], b[1] - BALA_DY)) insertadas++;
+            }
+        }
+        // Bordes de celda, también donde no hay aliens
+        for (int c = 0; c < 32 && insertadas < 250; c += 3) {
+            double y = (4 + c % 12) * CASILLA;
+            motor.insertarDisparo(c * CASILLA, y - BALA_DY);
+            motor.insertarDisparo(c * CASILLA - BALA_W, y - BALA_DY);
+            insertadas += 2;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package kabalera82.spaceinvaders.puntuaciones;
+
+import static kabalera82.spaceinvaders.puntuaciones.FormatoPuntuaciones.TAM_CABECERA_INDICE;
+import static kabalera82.spaceinvaders.puntuaciones.FormatoPuntuaciones.TAM_REGISTRO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pruebas de ida y vuelta y de recuperación ante ficheros dañados de la
+ * {@link TablaPuntuaciones}.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class TablaPuntuacionesTest {
+
+    @TempDir
+    Path dir;
+
+    private Path base() {
+        return dir.resolve("records");
+    }
+
+    private Path fichero(String extension) {
+        return dir.resolve("records" + extension);
+    }
+
+    /** Registra {@code n} partidas de tres jugadores con puntos {@code desde, desde+10, ...}. */
+    private static void registrar(TablaPuntuaciones tabla, int desde, int n) throws IOException {
+        String[] jugadores = { "ANA", "LUIS", "MARÍA" };
+        for (int i = 0; i < n; i++) {
+            assertTrue(tabla.registrar(jugadores[i % jugadores.length], desde + i * 10, 1 + i % 5));
+        }
+        tabla.sincronizar();
+    }
+
+    @Test
+    void conservaLasPartidasAlReabrir() throws IOException {
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            registrar(tabla, 100, 30);
+            assertEquals(30, tabla.getPartidas());
+            assertEquals(390, tabla.mejores(1).get(0).puntos);
+        }
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            assertEquals(30, tabla.getPartidas());
+            List<Puntuacion> mejores = tabla.mejores(3);
+            assertEquals(390, mejores.get(0).puntos);
+            assertEquals(380, mejores.get(1).puntos);
+            assertEquals(370, mejores.get(2).puntos);
+            assertEquals("ANA", tabla.mejorDe("ANA").nombre);
+            assertEquals(370, tabla.mejorDe("ANA").puntos);
+            assertEquals(390, tabla.mejorDe("MARÍA").puntos);
+            assertNull(tabla.mejorDe("NADIE"));
+
+            // Las nuevas se mezclan con las del índice
+            registrar(tabla, 1000, 2);
+            assertEquals(1010, tabla.mejores(1).get(0).puntos);
+            assertEquals(1010, tabla.mejorDe("LUIS").puntos);
+        }
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            assertEquals(32, tabla.getPartidas());
+            assertEquals(1010, tabla.mejorDe("LUIS").puntos);
+        }
+    }
+
+    @Test
+    void truncaUnRegistroEscritoAMedias() throws IOException {
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            registrar(tabla, 100, 10);
+        }
+        long tam = Files.size(fichero(".log"));
+        try (FileChannel log = FileChannel.open(fichero(".log"), StandardOpenOption.WRITE)) {
+            log.write(ByteBuffer.wrap(new byte[TAM_REGISTRO / 2]), tam);
+        }
+
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            assertEquals(10, tabla.getPartidas());
+            assertEquals(tam, Files.size(fichero(".log")));
+            registrar(tabla, 500, 1);
+            assertEquals(11, tabla.getPartidas());
+        }
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            assertEquals(11, tabla.getPartidas());
+            assertEquals(500, tabla.mejores(1).get(0).puntos);
+        }
+    }
+
+    @Test
+    void descartaDesdeElPrimerRegistroConCrcIncorrecto() throws IOException {
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            registrar(tabla, 100, 10);          // al cerrar: .idx0 cubre 10
+        }
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            registrar(tabla, 1000, 2);          // al cerrar: .idx1 cubre 12
+        }
+        // Sin el índice nuevo, las dos últimas se releen del registro
+        Files.delete(fichero(".idx1"));
+
+        // Se estropea la penúltima: se pierden ella y todo lo posterior
+        long off = Files.size(fichero(".log")) - 2 * TAM_REGISTRO + FormatoPuntuaciones.POS_PUNTOS;
+        try (FileChannel log = FileChannel.open(fichero(".log"), StandardOpenOption.WRITE)) {
+            log.write(ByteBuffer.allocate(4).putInt(0, 999_999), off);
+        }
+
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            assertEquals(10, tabla.getPartidas());
+            assertEquals(190, tabla.mejores(1).get(0).puntos);
+        }
+        assertEquals(TAM_REGISTRO + 10L * TAM_REGISTRO, Files.size(fichero(".log")));
+    }
+
+    @Test
+    void usaElIndiceAnteriorSiElMasNuevoEstaDanado() throws IOException {
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            registrar(tabla, 100, 10);          // al cerrar: .idx0, generación 1
+        }
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            registrar(tabla, 1000, 5);          // al cerrar: .idx1, generación 2
+        }
+        assertTrue(Files.exists(fichero(".idx0")));
+        assertTrue(Files.exists(fichero(".idx1")));
+
+        // Un byte cambiado en las tablas del índice nuevo invalida su CRC
+        try (FileChannel idx = FileChannel.open(fichero(".idx1"), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            idx.read(b, TAM_CABECERA_INDICE + 20);
+            b.put(0, (byte) (b.get(0) ^ 0x55));
+            idx.write(b.rewind(), TAM_CABECERA_INDICE + 20);
+        }
+
+        // El índice viejo cubre 10; las otras 5 se releen del registro
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            assertEquals(15, tabla.getPartidas());
+            assertEquals(1040, tabla.mejores(1).get(0).puntos);
+            assertEquals(1040, tabla.mejorDe("LUIS").puntos);
+        }
+    }
+
+    @Test
+    void ignoraUnIndiceQueCubreMasQueElRegistro() throws IOException {
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            registrar(tabla, 100, 10);
+        }
+        // Registro recortado tras una caída: el índice habla de partidas perdidas
+        try (FileChannel log = FileChannel.open(fichero(".log"), StandardOpenOption.WRITE)) {
+            log.truncate(TAM_REGISTRO + 4L * TAM_REGISTRO);
+        }
+        try (TablaPuntuaciones tabla = new TablaPuntuaciones(base())) {
+            assertEquals(4, tabla.getPartidas());
+            assertEquals(130, tabla.mejores(1).get(0).puntos);
+        }
+    }
+
+    @Test
+    void rechazaUnFicheroQueNoEsUnRegistro() throws IOException {
+        Files.write(fichero(".log"), new byte[2 * TAM_REGISTRO]);
+        assertThrows(IOException.class, () -> new TablaPuntuaciones(base()));
+    }
+}
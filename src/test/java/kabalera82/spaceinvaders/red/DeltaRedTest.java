@@ -0,0 +1,110 @@
+package kabalera82.spaceinvaders.red;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import kabalera82.spaceinvaders.motor.MotorJuego;
+import kabalera82.spaceinvaders.simulacion.BotJugador;
+
+/**
+ * Pruebas de ida y vuelta de {@link DeltaRed}, con estados reales de
+ * {@link EstadoRed} y con datos arbitrarios.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class DeltaRedTest {
+
+    /** Codifica {@code actual} contra {@code base}, lo decodifica y lo compara. Devuelve el tamaño del delta. */
+    private static int idaYVuelta(byte[] base, int lenBase, byte[] actual, int len) {
+        ByteBuffer delta = ByteBuffer.allocate(16 + 2 * len);
+        DeltaRed.codificar(base, lenBase, actual, len, delta);
+        int tam = delta.position();
+        delta.flip();
+
+        int leida = DeltaRed.leerLongitud(delta);
+        assertEquals(len, leida);
+        byte[] destino = new byte[len + 8];
+        Arrays.fill(destino, (byte) 0x5A);
+        DeltaRed.decodificar(base, lenBase, delta, destino, leida);
+        assertFalse(delta.hasRemaining(), "consume el delta entero");
+        assertArrayEquals(Arrays.copyOf(actual, len), Arrays.copyOf(destino, len));
+        return tam;
+    }
+
+    private static byte[] estado(MotorJuego motor) {
+        ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+        EstadoRed.codificar(motor, buf);
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+
+    @Test
+    void reconstruyeEstadosDeUnaPartida() {
+        MotorJuego motor = new MotorJuego(60);
+        BotJugador bot = new BotJugador(82);
+        byte[] anterior = estado(motor);
+        idaYVuelta(new byte[0], 0, anterior, anterior.length); // primer estado, sin base
+
+        for (int i = 0; i < 600 && !motor.isGameOver(); i++) {
+            bot.jugar(motor);
+            motor.tick();
+            byte[] actual = estado(motor);
+            int tam = idaYVuelta(anterior, anterior.length, actual, actual.length);
+            if (i % 2 == 0) anterior = actual; // base atrasada, como un cliente que confirma tarde
+            assertTrue(tam <= actual.length + 8, "el delta no crece más que el estado");
+        }
+    }
+
+    @Test
+    void comprimeContraSiMismoATramosVacios() {
+        MotorJuego motor = new MotorJuego(60);
+        byte[] e = estado(motor);
+        // Longitud más un único tramo de ceros sin literal
+        assertTrue(idaYVuelta(e, e.length, e, e.length) <= 8);
+    }
+
+    @Test
+    void admiteBasesMasCortasYMasLargas() {
+        SplittableRandom rnd = new SplittableRandom(3);
+        for (int k = 0; k < 200; k++) {
+            byte[] base = new byte[rnd.nextInt(300)];
+            byte[] actual = new byte[rnd.nextInt(300)];
+            rnd.nextBytes(base);
+            for (int i = 0; i < actual.length; i++) {
+                // Mezcla de bytes iguales a la base y cambiados, sueltos y en tramos
+                boolean igual = i < base.length && rnd.nextInt(4) != 0;
+                actual[i] = igual ? base[i] : (byte) rnd.nextInt(256);
+            }
+            idaYVuelta(base, base.length, actual, actual.length);
+            idaYVuelta(base, 0, actual, actual.length);
+        }
+    }
+
+    @Test
+    void rechazaTramosQueNoCuadranConLaLongitud() {
+        ByteBuffer delta = ByteBuffer.allocate(32);
+        DeltaRed.escribirVarint(delta, 4);   // longitud
+        DeltaRed.escribirVarint(delta, 3);   // ceros
+        DeltaRed.escribirVarint(delta, 5);   // literal: se pasa de la longitud
+        delta.put(new byte[5]).flip();
+
+        int len = DeltaRed.leerLongitud(delta);
+        assertThrows(IllegalArgumentException.class,
+                () -> DeltaRed.decodificar(new byte[0], 0, delta, new byte[len], len));
+    }
+
+    @Test
+    void rechazaUnVarintDemasiadoLargo() {
+        ByteBuffer delta = ByteBuffer.wrap(new byte[] { -1, -1, -1, -1, -1, 1 });
+        assertThrows(IllegalArgumentException.class, () -> DeltaRed.leerLongitud(delta));
+    }
+}
@@ -0,0 +1,106 @@
+package kabalera82.spaceinvaders.red;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.junit.jupiter.api.Test;
+
+import kabalera82.spaceinvaders.motor.MotorJuego;
+import kabalera82.spaceinvaders.simulacion.BotJugador;
+
+/**
+ * Pruebas del {@link ServidorEspectadores} por loopback: los espectadores
+ * que leen reciben frames completos y en orden, y uno que no lee pierde
+ * frames y acaba desconectado sin frenar a los demás.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class ServidorEspectadoresTest {
+
+    /** Espectador que lee sin bloquear y decodifica los frames completos. */
+    private static final class Lector {
+        final SocketChannel canal;
+        final EstadoRed estado = new EstadoRed();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        long frames, ultimoTick = -1;
+
+        Lector(SocketChannel canal) throws IOException {
+            this.canal = canal;
+            canal.configureBlocking(false);
+        }
+
+        void leer() throws IOException {
+            canal.read(buffer);
+            buffer.flip();
+            while (buffer.remaining() >= 4 && buffer.remaining() >= 4 + buffer.getInt(buffer.position())) {
+                int len = buffer.getInt();
+                int inicio = buffer.position();
+                long tick = buffer.getLong();
+                buffer.getLong(); // marca de tiempo
+                assertTrue(tick > ultimoTick, "frames en orden");
+                estado.leer(buffer.slice().limit(len - 16));
+                assertEquals(tick, estado.getTick());
+                ultimoTick = tick;
+                buffer.position(inicio + len);
+                frames++;
+            }
+            buffer.compact();
+        }
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocketChannel c = ServerSocketChannel.open()) {
+            c.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            return ((InetSocketAddress) c.getLocalAddress()).getPort();
+        }
+    }
+
+    private static SocketChannel conectar(int puerto) throws IOException {
+        return SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto));
+    }
+
+    @Test
+    void unEspectadorLentoNoFrenaALosDemas() throws Exception {
+        int puerto = puertoLibre();
+        MotorJuego motor = new MotorJuego(60);
+        motor.irANivel(10); // oleada grande: frames de varios KB
+        try (ServidorEspectadores servidor = ServidorEspectadores.conectar(motor, puerto);
+             SocketChannel lento = SocketChannel.open()) {
+            lento.setOption(StandardSocketOptions.SO_RCVBUF, 4 * 1024);
+            lento.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto));
+            Lector a = new Lector(conectar(puerto)), b = new Lector(conectar(puerto));
+            long limite = System.nanoTime() + 5_000_000_000L;
+            while (servidor.getEspectadores() < 3 && System.nanoTime() < limite) Thread.sleep(1);
+            assertEquals(3, servidor.getEspectadores());
+
+            BotJugador bot = new BotJugador(5);
+            limite = System.nanoTime() + 20_000_000_000L;
+            while (servidor.getDesconectadosPorLentos() == 0 && System.nanoTime() < limite) {
+                if (!motor.isGameOver()) bot.jugar(motor);
+                motor.tick();
+                Thread.sleep(1);
+                a.leer();
+                b.leer();
+            }
+            assertEquals(1, servidor.getDesconectadosPorLentos(), "el lento se desconecta");
+            assertTrue(servidor.getFramesDescartados() >= ServidorEspectadores.MAX_DESCARTES_SEGUIDOS);
+            assertEquals(2, servidor.getEspectadores());
+
+            // Los que leen siguen recibiendo casi todo lo publicado
+            long publicados = servidor.getFramesPublicados();
+            assertTrue(a.frames > publicados * 9 / 10, a.frames + " de " + publicados);
+            assertTrue(b.frames > publicados * 9 / 10, b.frames + " de " + publicados);
+            a.canal.close();
+            b.canal.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package kabalera82.spaceinvaders.red;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Pruebas del {@link ServidorRed} frente a datagramas de terceros y números
+ * de entrada manipulados, enviados por loopback.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class ServidorRedTest {
+
+    private static InetSocketAddress local(int puerto) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto);
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (DatagramChannel c = DatagramChannel.open()) {
+            c.bind(local(0));
+            return ((InetSocketAddress) c.getLocalAddress()).getPort();
+        }
+    }
+
+    private static DatagramChannel canal() throws IOException {
+        return DatagramChannel.open().bind(local(0));
+    }
+
+    /** Envía un datagrama y espera a que el servidor lo lea. */
+    private static void enviar(ServidorRed servidor, int puerto, DatagramChannel desde, ByteBuffer datos)
+            throws IOException, InterruptedException {
+        long antes = servidor.getDatagramasRecibidos();
+        desde.send(datos.flip(), local(puerto));
+        long limite = System.nanoTime() + 2_000_000_000L;
+        while (servidor.getDatagramasRecibidos() == antes && System.nanoTime() < limite) {
+            servidor.recibir();
+            Thread.sleep(1);
+        }
+        assertTrue(servidor.getDatagramasRecibidos() > antes, "el datagrama no llegó");
+    }
+
+    private static ByteBuffer unirse() {
+        return ByteBuffer.allocate(5).putInt(FormatoRed.MAGIA).put(FormatoRed.UNIRSE);
+    }
+
+    private static ByteBuffer entradas(int primera, int n) {
+        ByteBuffer b = ByteBuffer.allocate(22 + n);
+        b.putInt(FormatoRed.MAGIA).put(FormatoRed.ENTRADAS)
+         .putInt(-1).putLong(System.nanoTime()).putInt(primera).put((byte) n);
+        for (int k = 0; k < n; k++) b.put((byte) FormatoRed.DISPARAR);
+        return b;
+    }
+
+    @Test
+    void unTerceroNoOcupaElPuestoDelCliente() throws Exception {
+        int puerto = puertoLibre();
+        try (ServidorRed servidor = new ServidorRed(new MotorJuego(60), puerto, 1);
+             DatagramChannel a = canal(); DatagramChannel b = canal()) {
+            enviar(servidor, puerto, a, unirse());
+            enviar(servidor, puerto, a, entradas(0, 3));
+            assertEquals(3, servidor.getEntradasPendientes());
+
+            // B intenta unirse y mandar entradas: se ignora y no reinicia las de A
+            enviar(servidor, puerto, b, unirse());
+            enviar(servidor, puerto, b, entradas(0, 10));
+            assertEquals(3, servidor.getEntradasPendientes());
+            enviar(servidor, puerto, a, entradas(3, 2));
+            assertEquals(5, servidor.getEntradasPendientes());
+
+            // Cuando A se despide, B puede entrar
+            enviar(servidor, puerto, a, ByteBuffer.allocate(5).putInt(FormatoRed.MAGIA).put(FormatoRed.ADIOS));
+            enviar(servidor, puerto, b, unirse());
+            enviar(servidor, puerto, b, entradas(0, 1));
+            assertTrue(servidor.hayCliente());
+            assertEquals(1, servidor.getEntradasPendientes());
+        }
+    }
+
+    @Test
+    void unSaltoEnormeEnLasEntradasNoRecorreElHueco() throws Exception {
+        int puerto = puertoLibre();
+        try (ServidorRed servidor = new ServidorRed(new MotorJuego(60), puerto, 1);
+             DatagramChannel a = canal()) {
+            enviar(servidor, puerto, a, unirse());
+            enviar(servidor, puerto, a, entradas(0, 2));
+            assertTimeoutPreemptively(Duration.ofMillis(500), () ->
+                    enviar(servidor, puerto, a, entradas(Integer.MAX_VALUE - 5, 4)));
+            assertTrue(servidor.getEntradasPendientes() <= 4 * FormatoRed.HISTORIAL,
+                    "sólo quedan pendientes las que caben en el anillo");
+        }
+    }
+}
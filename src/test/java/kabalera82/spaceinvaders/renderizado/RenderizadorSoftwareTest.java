@@ -0,0 +1,151 @@
+package kabalera82.spaceinvaders.renderizado;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import kabalera82.spaceinvaders.assets.AlienSkin;
+import kabalera82.spaceinvaders.assets.AtlasSprites;
+import kabalera82.spaceinvaders.model.FormacionAliens;
+import kabalera82.spaceinvaders.model.Nave;
+import kabalera82.spaceinvaders.model.PoolDisparos;
+import kabalera82.spaceinvaders.motor.InstantaneaRender;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Prueba de imagen de referencia del {@link RenderizadorSoftware}: dibuja una
+ * {@link InstantaneaRender} fija y compara el framebuffer, píxel a píxel,
+ * con la imagen esperada compuesta aparte a partir de los PNG de los sprites.
+ *
+ * <p>Se compara todo lo que queda por debajo del HUD: los textos dependen de
+ * las fuentes instaladas y no serían iguales en todas las máquinas.</p>
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class RenderizadorSoftwareTest {
+
+    private static final int ANCHO = MotorJuego.ANCHO, ALTO = MotorJuego.ALTO;
+    private static final int LADO = MotorJuego.CASILLA;
+
+    /** Primera fila comparada: el HUD y el encabezado quedan por encima. */
+    private static final int SIN_TEXTO = 128;
+
+    private static final int BALA_W = 4, BALA_H = 16;
+
+    private static RenderizadorSoftware renderizador;
+
+    /** Frame sin entidades, la base sobre la que se compone lo esperado. */
+    private static int[] vacio;
+
+    @BeforeAll
+    static void prepararFondo() {
+        renderizador = new RenderizadorSoftware();
+        InstantaneaRender estado = new InstantaneaRender();
+        FormacionAliens sinAliens = new FormacionAliens(LADO, LADO, ANCHO, ALTO);
+        sinAliens.crearOleada(1, 1, 0, 0, LADO, LADO, AlienSkin.values());
+        sinAliens.destruir(0);
+        sinAliens.compactar();
+        estado.copiar(null, null, sinAliens, balas(0xFFFFFF00), 3, 0, 1, false, 0);
+        renderizador.render(estado, 1.0);
+        vacio = renderizador.getPixeles().clone();
+    }
+
+    private static PoolDisparos balas(int colorArgb) {
+        return new PoolDisparos(8, BALA_W, BALA_H, ALTO, -100, colorArgb);
+    }
+
+    @Test
+    void dibujaSpritesYBalasSobreElFondo() {
+        FormacionAliens aliens = new FormacionAliens(LADO, LADO, ANCHO, ALTO);
+        aliens.crearOleada(2, 3, 200, 300, 64, 48, AlienSkin.values());
+        aliens.destruir(4);
+        aliens.compactar();
+
+        // La nave se dibuja a mitad de camino entre su posición previa y la actual
+        Nave nave = new Nave(400, 900, 2 * LADO, LADO, ANCHO, ALTO);
+        nave.colocar(440, 900);
+
+        PoolDisparos pool = balas(0xFFFFFF00);
+        pool.disparar(600, 500);
+        pool.disparar(1022, 700); // se recorta por la derecha
+
+        InstantaneaRender estado = new InstantaneaRender();
+        estado.copiar(nave, null, aliens, pool, 3, 0, 1, false, 0);
+        renderizador.render(estado, 0.5);
+
+        int[] esperado = vacio.clone();
+        AlienSkin[] skins = AlienSkin.values();
+        for (int id = 0; id < aliens.getTotal(); id++) {
+            if (!aliens.estaVivo(id)) continue;
+            AlienSkin skin = skins[aliens.getSkin(id)];
+            componer(esperado, SpriteArgb.cargar(skin.framePaths[0], LADO, LADO),
+                    (int) aliens.getX(id), (int) aliens.getY(id));
+        }
+        componer(esperado, SpriteArgb.cargar(AtlasSprites.RUTA_NAVE, 2 * LADO, LADO), 420, 900);
+        rellenar(esperado, 600, 500, 600 + BALA_W, 500 + BALA_H, 0xFFFFFF00);
+        rellenar(esperado, 1022, 700, ANCHO, 700 + BALA_H, 0xFFFFFF00);
+
+        compararBajoElHud(esperado, renderizador.getPixeles());
+    }
+
+    @Test
+    void lasBalasSemitransparentesSeMezclanConElFondo() {
+        PoolDisparos pool = balas(0x80FF0000);
+        pool.disparar(300, 600);
+        FormacionAliens sinAliens = new FormacionAliens(LADO, LADO, ANCHO, ALTO);
+        sinAliens.crearOleada(1, 1, 0, 0, LADO, LADO, AlienSkin.values());
+        sinAliens.destruir(0);
+        sinAliens.compactar();
+
+        InstantaneaRender estado = new InstantaneaRender();
+        estado.copiar(null, null, sinAliens, pool, 3, 0, 1, false, 0);
+        renderizador.render(estado, 1.0);
+
+        int[] esperado = vacio.clone();
+        for (int y = 600; y < 600 + BALA_H; y++) {
+            for (int x = 300; x < 300 + BALA_W; x++) {
+                esperado[y * ANCHO + x] = RenderizadorSoftware.mezclar(esperado[y * ANCHO + x], 0xFF0000, 0x80);
+            }
+        }
+        compararBajoElHud(esperado, renderizador.getPixeles());
+    }
+
+    @Test
+    void mezclarRespetaLosExtremos() {
+        assertEquals(0xFF123456, RenderizadorSoftware.mezclar(0xFF123456, 0xABCDEF, 0));
+        // Divide por 256, no por 255: la mitad de blanco sobre negro es 0x7F
+        assertEquals(0xFF7F7F7F, RenderizadorSoftware.mezclar(0xFF000000, 0xFFFFFF, 128));
+    }
+
+    /** Compone un sprite sobre una imagen opaca, igual que lo haría cualquier editor. */
+    private static void componer(int[] destino, SpriteArgb s, int px, int py) {
+        for (int f = 0; f < s.alto; f++) {
+            for (int c = 0; c < s.ancho; c++) {
+                int p = s.argb[f * s.ancho + c], a = p >>> 24;
+                int i = (py + f) * ANCHO + px + c;
+                if (a == 255) destino[i] = p;
+                else if (a != 0) destino[i] = RenderizadorSoftware.mezclar(destino[i], p, a);
+            }
+        }
+    }
+
+    private static void rellenar(int[] destino, int x0, int y0, int x1, int y1, int argb) {
+        for (int y = y0; y < y1; y++) Arrays.fill(destino, y * ANCHO + x0, y * ANCHO + x1, argb);
+    }
+
+    private static void compararBajoElHud(int[] esperado, int[] obtenido) {
+        for (int y = SIN_TEXTO; y < ALTO; y++) {
+            for (int x = 0; x < ANCHO; x++) {
+                int i = y * ANCHO + x;
+                if (esperado[i] != obtenido[i]) {
+                    assertEquals(Integer.toHexString(esperado[i]), Integer.toHexString(obtenido[i]),
+                            "píxel (" + x + ", " + y + ")");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package kabalera82.spaceinvaders.repeticion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import kabalera82.spaceinvaders.diagnostico.FaseFrame;
+import kabalera82.spaceinvaders.diagnostico.MedidorFases;
+import kabalera82.spaceinvaders.interfaces.IEventosJuego;
+import kabalera82.spaceinvaders.motor.Comando;
+import kabalera82.spaceinvaders.motor.MotorJuego;
+
+/**
+ * Pruebas del {@link BufferRebobinado}: rebobinar a un tick deja el motor
+ * exactamente como estaba en ese tick, y la partida sigue igual desde ahí.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class BufferRebobinadoTest {
+
+    private static final int TICKS = 1200;
+
+    /** Comandos por tick, generados de antemano para poder repetirlos. */
+    private static Comando[][] comandos(long semilla) {
+        SplittableRandom rnd = new SplittableRandom(semilla);
+        Comando[][] r = new Comando[TICKS][];
+        for (int t = 0; t < TICKS; t++) {
+            int n = rnd.nextInt(3);
+            r[t] = new Comando[n];
+            for (int i = 0; i < n; i++) {
+                r[t][i] = new Comando[] { Comando.IZQUIERDA, Comando.DERECHA, Comando.DISPARAR }[rnd.nextInt(3)];
+            }
+        }
+        return r;
+    }
+
+    /** Juega los ticks {@code [desde, hasta)} y anota el hash tras cada uno en {@code hashes[tick]}. */
+    private static void jugar(MotorJuego motor, Comando[][] comandos, int desde, int hasta, long[] hashes) {
+        for (int t = desde; t < hasta; t++) {
+            for (Comando c : comandos[t]) motor.encolar(c);
+            motor.tick();
+            hashes[(int) motor.getTick()] = motor.hashEstado();
+        }
+    }
+
+    @Test
+    void rebobinarRestauraElEstadoDeEseTick() {
+        MotorJuego motor = new MotorJuego(60);
+        motor.irANivel(3);
+        BufferRebobinado historial = new BufferRebobinado(motor, 100, 4 << 20);
+        Comando[][] comandos = comandos(1);
+        long[] hashes = new long[TICKS + 1];
+        hashes[0] = motor.hashEstado();
+        jugar(motor, comandos, 0, TICKS, hashes);
+
+        // Dentro del bloque en curso, en un fotograma clave y varios bloques atrás
+        for (long objetivo : new long[] { 1190, 1100, 1050, 733, 400, 0 }) {
+            assertEquals(objetivo, historial.rebobinar(objetivo));
+            assertEquals(hashes[(int) objetivo], motor.hashEstado(), "tras rebobinar a " + objetivo);
+
+            // Con los mismos comandos la partida vuelve a pasar por los mismos estados
+            long[] otraVez = new long[TICKS + 1];
+            int hasta = (int) Math.min(TICKS, objetivo + 150);
+            jugar(motor, comandos, (int) objetivo, hasta, otraVez);
+            for (int t = (int) objetivo + 1; t <= hasta; t++) {
+                assertEquals(hashes[t], otraVez[t], "tick " + t + " tras rebobinar a " + objetivo);
+            }
+            // Volver a donde estaba para el siguiente objetivo
+            jugar(motor, comandos, hasta, TICKS, otraVez);
+        }
+    }
+
+    @Test
+    void conPocaMemoriaDescartaLoMasAntiguo() {
+        MotorJuego motor = new MotorJuego(60);
+        motor.irANivel(3);
+        BufferRebobinado historial = new BufferRebobinado(motor, 60, 40_000);
+        Comando[][] comandos = comandos(2);
+        long[] hashes = new long[TICKS + 1];
+        hashes[0] = motor.hashEstado();
+        jugar(motor, comandos, 0, TICKS, hashes);
+
+        long masAntiguo = historial.getTickMasAntiguo();
+        assertTrue(masAntiguo > 0, "debe haber descartado bloques");
+        assertTrue(historial.getBytesUsados() <= historial.getPresupuesto());
+
+        // Pedir un tick ya descartado lleva al más antiguo que se conserva
+        assertEquals(masAntiguo, historial.rebobinar(10));
+        assertEquals(hashes[(int) masAntiguo], motor.hashEstado());
+    }
+
+    @Test
+    void resimulaSinNotificarSucesos() {
+        MotorJuego motor = new MotorJuego(60);
+        BufferRebobinado historial = new BufferRebobinado(motor, 100, 1 << 20);
+        int[] disparos = new int[1];
+        IEventosJuego eventos = new IEventosJuego() {
+            @Override public void alDisparar() { disparos[0]++; }
+        };
+        motor.setEventos(eventos);
+        for (int t = 0; t < 250; t++) {
+            motor.encolar(Comando.DISPARAR);
+            motor.tick();
+        }
+        int antes = disparos[0];
+        assertEquals(230, historial.rebobinar(230));
+        assertEquals(antes, disparos[0], "la resimulación no suena");
+        assertEquals(eventos, motor.getEventos());
+        assertEquals(-1, historial.rebobinar(230), "sólo hacia atrás");
+    }
+
+    @Test
+    void resimulaSinMedirFases() {
+        MotorJuego motor = new MotorJuego(60);
+        motor.irANivel(5);
+        BufferRebobinado historial = new BufferRebobinado(motor, 100, 1 << 20);
+        MedidorFases medidor = new MedidorFases();
+        motor.setMedidor(medidor);
+        for (int t = 0; t < 250; t++) {
+            motor.encolar(Comando.DISPARAR);
+            motor.tick();
+        }
+        medidor.cerrarFrame();
+        assertEquals(199, historial.rebobinar(199));
+        assertEquals(0, medidor.getAcumulado(FaseFrame.COLISIONES), "las colisiones resimuladas no cuentan");
+        assertEquals(medidor, motor.getMedidor());
+
+        motor.tick();
+        assertTrue(medidor.getAcumulado(FaseFrame.COLISIONES) > 0, "después se vuelve a medir");
+    }
+}
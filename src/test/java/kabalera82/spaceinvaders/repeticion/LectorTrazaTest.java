@@ -0,0 +1,98 @@
+package kabalera82.spaceinvaders.repeticion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import kabalera82.spaceinvaders.motor.MotorJuego;
+import kabalera82.spaceinvaders.simulacion.BotJugador;
+
+/**
+ * Pruebas de la traza por tick: lo que escribe {@link EscritorTraza} se lee
+ * igual con {@link LectorTraza}, también saltando con {@code buscar}.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class LectorTrazaTest {
+
+    /** Segmentos de 64 registros, para que la traza ocupe varios. */
+    private static final int SEGMENTO = 64 * FormatoTraza.TAM_REGISTRO;
+
+    @TempDir
+    Path dir;
+
+    private Path base;
+    private long ticks;
+    private int[] puntos;
+
+    @BeforeEach
+    void trazar() throws IOException {
+        base = dir.resolve("sesion");
+        MotorJuego motor = new MotorJuego(60);
+        BotJugador bot = new BotJugador(7);
+        puntos = new int[1001];
+        try (EscritorTraza traza = new EscritorTraza(base, 60, SEGMENTO, 2048)) {
+            motor.agregarGrabador(traza);
+            while (motor.getTick() < 1000 && !motor.isGameOver()) {
+                bot.jugar(motor);
+                motor.tick();
+                puntos[(int) motor.getTick()] = motor.getPuntos();
+            }
+            assertEquals(0, traza.getDescartados());
+        }
+        ticks = motor.getTick();
+    }
+
+    @Test
+    void leeTodosLosTicksEnOrden() throws IOException {
+        try (LectorTraza lector = new LectorTraza(base)) {
+            assertEquals(60.0, lector.getTicksPorSegundo());
+            assertTrue(lector.getSegmentos() > 1);
+            long esperado = 1;
+            while (lector.siguiente()) {
+                assertEquals(esperado, lector.getTick());
+                assertEquals(puntos[(int) esperado], lector.getPuntos());
+                esperado++;
+            }
+            assertEquals(ticks + 1, esperado);
+        }
+    }
+
+    @Test
+    void buscaCualquierTick() throws IOException {
+        try (LectorTraza lector = new LectorTraza(base)) {
+            // Primer registro, dentro de un segmento, en el borde de uno y el último
+            for (long objetivo : new long[] { 0, 1, 100, 63, 64, 65, 127, 128, ticks }) {
+                assertTrue(lector.buscar(objetivo), "tick " + objetivo);
+                assertTrue(lector.siguiente());
+                assertEquals(Math.max(1, objetivo), lector.getTick(), "tick " + objetivo);
+                assertEquals(puntos[(int) lector.getTick()], lector.getPuntos());
+            }
+            // Hacia atrás también
+            assertTrue(lector.buscar(10));
+            assertTrue(lector.siguiente());
+            assertEquals(10, lector.getTick());
+
+            assertFalse(lector.buscar(ticks + 1));
+        }
+    }
+
+    @Test
+    void rechazaUnFicheroQueNoEsUnaTraza() throws IOException {
+        Path datos = dir.resolve("sesion" + FormatoTraza.EXT_DATOS);
+        byte[] b = Files.readAllBytes(datos);
+        b[0] ^= 0x7F;
+        Files.write(datos, b);
+        assertThrows(IOException.class, () -> new LectorTraza(base));
+    }
+}
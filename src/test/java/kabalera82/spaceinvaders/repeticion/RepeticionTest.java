@@ -0,0 +1,93 @@
+package kabalera82.spaceinvaders.repeticion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import kabalera82.spaceinvaders.motor.MotorJuego;
+import kabalera82.spaceinvaders.simulacion.BotJugador;
+
+/**
+ * Pruebas del formato de las repeticiones: grabar, leer, reproducir sin
+ * desviaciones y detectar ficheros dañados.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class RepeticionTest {
+
+    private static final int TICKS = 1500;
+
+    @TempDir
+    Path dir;
+
+    /** Juega una partida con un bot grabándola y devuelve el fichero guardado. */
+    private Path grabar(long semilla) throws IOException {
+        MotorJuego motor = new MotorJuego(60);
+        GrabadorRepeticion grabador = new GrabadorRepeticion(motor, semilla, 60);
+        BotJugador bot = new BotJugador(semilla);
+        for (int i = 0; i < TICKS && !motor.isGameOver(); i++) {
+            bot.jugar(motor);
+            motor.tick();
+        }
+        Path fichero = dir.resolve("partida.sirp");
+        grabador.guardar(fichero);
+        return fichero;
+    }
+
+    @Test
+    void reproduceLaPartidaGrabadaSinDesviarse() throws IOException {
+        Path fichero = grabar(82);
+        Repeticion repeticion = Repeticion.leer(fichero);
+
+        assertEquals(82, repeticion.getSemilla());
+        assertEquals(60, repeticion.getIntervaloResumen());
+        assertTrue(repeticion.getTicksTotales() > 0);
+        assertTrue(repeticion.getRegistros() > repeticion.getTicksTotales() / 60);
+
+        ResultadoReproduccion r = ReproductorRepeticion.reproducir(repeticion, false);
+        assertTrue(r.correcta, r.toString());
+        assertEquals(-1, r.tickDesviacion);
+        assertEquals(repeticion.getTicksTotales(), r.ticks);
+    }
+
+    @Test
+    void detectaElTickEnQueSeDesvia() throws IOException {
+        Path fichero = grabar(82);
+        byte[] datos = Files.readAllBytes(fichero);
+
+        // Se cambia el último byte del resumen final: el cuerpo sigue siendo legible
+        datos[datos.length - 1] ^= 1;
+        Files.write(fichero, datos);
+
+        ResultadoReproduccion r = ReproductorRepeticion.reproducir(Repeticion.leer(fichero), false);
+        assertFalse(r.correcta);
+        assertEquals(r.ticks, r.tickDesviacion);
+    }
+
+    @Test
+    void rechazaUnaRepeticionTruncada() throws IOException {
+        Path fichero = grabar(82);
+        byte[] datos = Files.readAllBytes(fichero);
+        Files.write(fichero, Arrays.copyOf(datos, datos.length - 5));
+        assertThrows(IOException.class, () -> Repeticion.leer(fichero));
+    }
+
+    @Test
+    void rechazaUnFicheroQueNoEsUnaRepeticion() throws IOException {
+        Path fichero = grabar(82);
+        byte[] datos = Files.readAllBytes(fichero);
+        datos[0] ^= 0x7F;
+        Files.write(fichero, datos);
+        assertThrows(IOException.class, () -> Repeticion.leer(fichero));
+    }
+}
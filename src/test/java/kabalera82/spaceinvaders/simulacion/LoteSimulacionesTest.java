@@ -0,0 +1,55 @@
+package kabalera82.spaceinvaders.simulacion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import kabalera82.spaceinvaders.motor.ConfiguracionJuego;
+
+/**
+ * Pruebas de {@link LoteSimulaciones}: el reparto entre hilos no cambia
+ * los resultados ni su orden.
+ *
+ * @author  Kabalera82
+ * @version 1.0
+ */
+class LoteSimulacionesTest {
+
+    @Test
+    void enParaleloDaLoMismoQueEnUnHilo() throws Exception {
+        ConfiguracionJuego base = ConfiguracionJuego.porDefecto();
+        List<ConfiguracionJuego> configs = List.of(base, base.conVelocidadAlien(90), base.conDescensoAlien(48));
+
+        List<List<ResultadoPartida>> uno = LoteSimulaciones.ejecutar(configs, 4, 5, 4000, 1);
+        List<List<ResultadoPartida>> varios = LoteSimulaciones.ejecutar(configs, 4, 5, 4000, 4);
+
+        assertEquals(configs.size(), varios.size());
+        for (int c = 0; c < configs.size(); c++) {
+            assertEquals(4, varios.get(c).size());
+            for (int i = 0; i < 4; i++) {
+                ResultadoPartida a = uno.get(c).get(i), b = varios.get(c).get(i);
+                assertSame(configs.get(c), b.config, "agrupado en el orden de las configuraciones");
+                assertEquals(a.semilla, b.semilla);
+                assertEquals(a.ticks, b.ticks);
+                assertEquals(a.puntos, b.puntos);
+                assertEquals(a.nivel, b.nivel);
+                assertEquals(a.disparos, b.disparos);
+                assertEquals(a.gameOver, b.gameOver);
+            }
+        }
+    }
+
+    @Test
+    void unaPartidaSeRepiteConLaMismaSemilla() {
+        ConfiguracionJuego cfg = ConfiguracionJuego.porDefecto();
+        ResultadoPartida a = LoteSimulaciones.jugar(cfg, 42, 3000);
+        ResultadoPartida b = LoteSimulaciones.jugar(cfg, 42, 3000);
+        assertEquals(a.ticks, b.ticks);
+        assertEquals(a.puntos, b.puntos);
+        assertEquals(a.disparos, b.disparos);
+        assertEquals(a.ticks * (1.0 / cfg.getTicksPorSegundo()), a.supervivenciaS, 1e-9);
+    }
+}